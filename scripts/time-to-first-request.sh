@@ -0,0 +1,41 @@
+#!/bin/sh
+# Mede o tempo até a primeira resposta da API: inicia o comando recebido e consulta
+# /actuator/health até receber 200, então encerra o processo. Informa também a memória residente
+# (RSS) do processo nesse momento, para comparar JVM e executável nativo.
+#
+#   scripts/time-to-first-request.sh java -jar target/customer-api-0.0.1-SNAPSHOT.jar
+#   scripts/time-to-first-request.sh target/customer-api
+#   PORT=8081 scripts/time-to-first-request.sh docker run --rm -p 8081:8080 ... customer-api
+#
+# Variáveis: PORT (padrão 8080), TIMEOUT em segundos (padrão 120).
+set -eu
+
+PORT="${PORT:-8080}"
+TIMEOUT="${TIMEOUT:-120}"
+URL="http://localhost:${PORT}/actuator/health"
+
+now_ms() { date +%s%3N; }
+
+start=$(now_ms)
+"$@" > "${LOG_FILE:-/dev/null}" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+while :; do
+  if [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" = "200" ]; then
+    echo "time to first request: $(( $(now_ms) - start )) ms"
+    # Com docker run o processo local é o cliente do Docker: use docker stats para a memória
+    rss=$(ps -o rss= -p "$pid" 2>/dev/null || true)
+    [ -n "$rss" ] && echo "resident memory: $(( rss / 1024 )) MB"
+    exit 0
+  fi
+  if ! kill -0 "$pid" 2>/dev/null; then
+    echo "process exited before answering $URL" >&2
+    exit 1
+  fi
+  if [ $(( $(now_ms) - start )) -gt $(( TIMEOUT * 1000 )) ]; then
+    echo "no answer from $URL after ${TIMEOUT}s" >&2
+    exit 1
+  fi
+  sleep 0.1
+done
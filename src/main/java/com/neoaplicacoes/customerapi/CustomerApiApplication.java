@@ -1,12 +1,19 @@
 package com.neoaplicacoes.customerapi;
 
+import com.neoaplicacoes.customerapi.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class CustomerApiApplication {
 
   public static void main(String[] args) {
-    SpringApplication.run(CustomerApiApplication.class, args);
+    SpringApplication application = new SpringApplication(CustomerApiApplication.class);
+    // Records a step per bean for /actuator/startup and the fast-start timeline log
+    application.setApplicationStartup(new BufferingApplicationStartup(4096));
+    application.run(args);
   }
 }
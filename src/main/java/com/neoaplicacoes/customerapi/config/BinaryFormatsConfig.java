@@ -0,0 +1,43 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Binary encodings for service-to-service calls: {@code application/cbor} and {@code
+ * application/x-jackson-smile}, selected through {@code Accept} / {@code Content-Type}. They reuse
+ * the application's Jackson configuration, so the same DTO records and bean validation apply.
+ *
+ * <p>The converters are appended after the JSON one, keeping JSON as the default for clients that
+ * send no {@code Accept} header or {@code Accept: *}{@code /*}.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+  private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+  public BinaryFormatsConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.removeIf(
+        converter ->
+            converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+    converters.add(
+        new MappingJackson2CborHttpMessageConverter(
+            objectMapperBuilder.build().copyWith(new CBORFactory())));
+    converters.add(
+        new MappingJackson2SmileHttpMessageConverter(
+            objectMapperBuilder.build().copyWith(new SmileFactory())));
+  }
+}
@@ -0,0 +1,135 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.model.dto.response.ErrorResponseDTO;
+import com.neoaplicacoes.customerapi.util.AdaptiveConcurrencyLimit;
+import com.neoaplicacoes.customerapi.util.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Load shedding in front of the controllers: admits requests through an {@link
+ * AdaptiveConcurrencyLimit} and answers 503 at once when the limit is reached, instead of letting
+ * Tomcat threads pile up waiting for database connections. Runs after Spring Security, so requests
+ * rejected there never take a slot.
+ *
+ * <p>Lookups by id are critical, full listings and bulk deletes are bulk and everything else is
+ * normal. Bulk requests do not feed the latency gradient, since their duration grows with the
+ * export size rather than with queueing downstream. Streams and long polls leave the filter as soon
+ * as they go async and are not sampled either.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private static final List<String> LIMITED = List.of("/api/**", "/auth/**");
+  private static final List<String> BULK =
+      List.of("/api/*/all", "/api/*/all/**", "/api/*/bulk-delete");
+  private static final String BY_ID = "/api/*/{id:\\d+}";
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final AdaptiveConcurrencyLimit limit;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+
+  @Autowired
+  public ConcurrencyLimitFilter(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${concurrency-limit.enabled:true}") boolean enabled,
+      @Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+      @Value("${concurrency-limit.min-limit:4}") int minLimit,
+      @Value("${concurrency-limit.max-limit:150}") int maxLimit,
+      @Value("${concurrency-limit.normal-share:0.9}") double normalShare,
+      @Value("${concurrency-limit.bulk-share:0.5}") double bulkShare) {
+    this(
+        new AdaptiveConcurrencyLimit(
+            initialLimit,
+            minLimit,
+            maxLimit,
+            Map.of(Priority.NORMAL, normalShare, Priority.BULK, bulkShare),
+            meterRegistry),
+        objectMapper,
+        enabled);
+  }
+
+  ConcurrencyLimitFilter(
+      AdaptiveConcurrencyLimit limit, ObjectMapper objectMapper, boolean enabled) {
+    this.limit = limit;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = path(request);
+    return !enabled || LIMITED.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Priority priority = classify(request);
+    if (!limit.tryAcquire(priority)) {
+      reject(response);
+      return;
+    }
+    long start = System.nanoTime();
+    boolean sampled = false;
+    try {
+      filterChain.doFilter(request, response);
+      sampled = priority != Priority.BULK && !request.isAsyncStarted();
+    } finally {
+      if (sampled) {
+        limit.release(System.nanoTime() - start);
+      } else {
+        limit.release();
+      }
+    }
+  }
+
+  Priority classify(HttpServletRequest request) {
+    String path = path(request);
+    if (BULK.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+      return Priority.BULK;
+    }
+    if (HttpMethod.GET.matches(request.getMethod()) && pathMatcher.match(BY_ID, path)) {
+      return Priority.CRITICAL;
+    }
+    return Priority.NORMAL;
+  }
+
+  private static String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private void reject(HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    // Capacity frees up within request latencies; a short hint spreads the retries a little
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(
+        response.getOutputStream(),
+        new ErrorResponseDTO(
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Server is at capacity, retry shortly",
+            null));
+  }
+}
@@ -0,0 +1,224 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Separate write and read connection pools, sized from the CPU count and a connection budget.
+ *
+ * <p>GET and HEAD requests take their connections from the read pool, everything else (writes,
+ * scheduled jobs, migrations) from the write pool, so a burst of exports cannot starve the writes
+ * and a replica can serve the reads by setting {@code db-pool.read-url}; a client's reads stay on
+ * the write pool for {@code db-pool.read-your-writes-window} after it wrote. The routing is per
+ * request rather than per {@code @Transactional(readOnly)}: with open-in-view a request keeps the
+ * connection it started with, and most reads here run outside a transaction. The read pool is
+ * read-only, so a GET that writes fails loudly instead of writing to a replica.
+ *
+ * <p>Size of both pools together: {@code min(budget, cores * 2 + 1)}, the HikariCP rule of thumb
+ * for SSD-backed databases, at least 2 per pool. Pools are fixed size: idle connections cost the
+ * database little, opening one under load costs the request a lot. Hikari metrics ({@code
+ * hikaricp.connections.acquire}, {@code .pending}, {@code .usage}...) are published per pool by
+ * Spring Boot.
+ */
+@Configuration
+@EnableConfigurationProperties(DbPoolProperties.class)
+public class DataSourceConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+  private static final String WRITE = "write";
+  private static final String READ = "read";
+
+  private final DbPoolProperties pool;
+  private final int cores = Runtime.getRuntime().availableProcessors();
+
+  public DataSourceConfig(DbPoolProperties pool) {
+    this.pool = pool;
+  }
+
+  @Bean
+  public HikariDataSource writeDataSource(DataSourceProperties properties) {
+    return hikari(properties, properties.determineUrl(), WRITE, writePoolSize());
+  }
+
+  @Bean
+  public HikariDataSource readDataSource(DataSourceProperties properties) {
+    String url = pool.readUrl().isBlank() ? properties.determineUrl() : pool.readUrl();
+    HikariDataSource dataSource = hikari(properties, url, READ, totalPoolSize() - writePoolSize());
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  /**
+   * The data source JPA, Flyway and JDBC see: routed per request, observed by the slow-query log
+   * and bounded by the request deadline.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      HikariDataSource writeDataSource,
+      HikariDataSource readDataSource,
+      QueryStatistics queryStatistics,
+      @Value("${query-log.enabled:true}") boolean queryLogEnabled) {
+    // Without a replica both pools read the primary: nothing to pin
+    RequestRoutingDataSource routing =
+        new RequestRoutingDataSource(
+            pool.readUrl().isBlank() ? Duration.ZERO : pool.readYourWritesWindow());
+    routing.setTargetDataSources(Map.of(WRITE, writeDataSource, READ, readDataSource));
+    routing.setDefaultTargetDataSource(writeDataSource);
+    routing.afterPropertiesSet();
+    DataSource observed =
+        queryLogEnabled ? new QueryObservingDataSource(routing, queryStatistics) : routing;
+    return new DeadlineAwareDataSource(observed);
+  }
+
+  int totalPoolSize() {
+    return Math.max(4, Math.min(pool.connectionBudget(), cores * 2 + 1));
+  }
+
+  int writePoolSize() {
+    int total = totalPoolSize();
+    return Math.max(2, Math.min(total - 2, (int) Math.round(total * pool.writeShare())));
+  }
+
+  private HikariDataSource hikari(
+      DataSourceProperties properties, String url, String name, int size) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+    dataSource.setPoolName(name);
+    dataSource.setMaximumPoolSize(size);
+    dataSource.setMinimumIdle(size);
+    dataSource.setConnectionTimeout(pool.connectionTimeout().toMillis());
+    dataSource.setLeakDetectionThreshold(pool.leakDetectionThreshold().toMillis());
+    dataSource.setMaxLifetime(pool.maxLifetime().toMillis());
+    if (url.startsWith("jdbc:postgresql:")) {
+      // Server-side prepared statements: parsed and planned once per connection, then reused
+      dataSource.addDataSourceProperty("prepareThreshold", pool.prepareThreshold());
+      dataSource.addDataSourceProperty(
+          "preparedStatementCacheQueries", pool.preparedStatementCacheQueries());
+      dataSource.addDataSourceProperty(
+          "preparedStatementCacheSizeMiB", pool.preparedStatementCacheSizeMib());
+    }
+    return dataSource;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void reportPools() {
+    logger.info(
+        "Connection pools: write={} read={} (cores={}, budget={}), connectionTimeout={},"
+            + " leakDetection={}, maxLifetime={}, prepareThreshold={}, readUrl={},"
+            + " readYourWritesWindow={}",
+        writePoolSize(),
+        totalPoolSize() - writePoolSize(),
+        cores,
+        pool.connectionBudget(),
+        pool.connectionTimeout(),
+        pool.leakDetectionThreshold(),
+        pool.maxLifetime(),
+        pool.prepareThreshold(),
+        pool.readUrl().isBlank() ? "(same as write)" : pool.readUrl(),
+        pool.readYourWritesWindow());
+  }
+
+  /**
+   * Picks the read pool for connections obtained while handling a GET or HEAD request.
+   *
+   * <p>A replica lags the primary, so a client reading right after its own write could get the old
+   * row back. With a window set, the routing remembers when each client (the user, or the IP
+   * without a token) last wrote, counted from the end of the writing request, and keeps that
+   * client's reads on the write pool until the window has passed. The memory is per instance:
+   * behind a load balancer without sticky sessions a read may reach an instance that did not see
+   * the write, so the replica lag must stay well below the window.
+   */
+  static class RequestRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String WRITE_CALLBACK =
+        RequestRoutingDataSource.class.getName() + ".write";
+    private static final int SWEEP_ABOVE = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * @param readYourWritesWindow zero routes every read to the read pool
+     */
+    RequestRoutingDataSource(Duration readYourWritesWindow) {
+      this.windowNanos = readYourWritesWindow.toNanos();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+      RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+      if (!(attributes instanceof ServletRequestAttributes servlet)) {
+        return WRITE;
+      }
+      HttpServletRequest request = servlet.getRequest();
+      String method = request.getMethod();
+      boolean read = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+      if (windowNanos <= 0) {
+        return read ? READ : WRITE;
+      }
+      String client = clientKey(request);
+      if (read) {
+        return pinned(client) ? WRITE : READ;
+      }
+      // Pins the client's concurrent reads now and restarts the window once the write commits
+      markWrite(client);
+      servlet.registerDestructionCallback(
+          WRITE_CALLBACK, () -> markWrite(client), RequestAttributes.SCOPE_REQUEST);
+      return WRITE;
+    }
+
+    private boolean pinned(String client) {
+      Long wroteAt = lastWrites.get(client);
+      if (wroteAt == null) {
+        return false;
+      }
+      if (System.nanoTime() - wroteAt < windowNanos) {
+        return true;
+      }
+      lastWrites.remove(client, wroteAt);
+      return false;
+    }
+
+    private void markWrite(String client) {
+      long now = System.nanoTime();
+      lastWrites.put(client, now);
+      if (lastWrites.size() > SWEEP_ABOVE) {
+        lastWrites.values().removeIf(wroteAt -> now - wroteAt >= windowNanos);
+      }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication != null
+          && authentication.isAuthenticated()
+          && !(authentication instanceof AnonymousAuthenticationToken)) {
+        return "user:" + authentication.getName();
+      }
+      return "ip:" + request.getRemoteAddr();
+    }
+  }
+}
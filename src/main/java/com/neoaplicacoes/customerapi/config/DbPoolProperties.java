@@ -0,0 +1,39 @@
+package com.neoaplicacoes.customerapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection pools ({@code db-pool.*} in application.yml). Both pools use the credentials of {@code
+ * spring.datasource}.
+ *
+ * @param connectionBudget connections this instance may hold on the database, both pools together:
+ *     the server's max_connections, minus a reserve for admin and migrations, divided by the number
+ *     of instances
+ * @param writeShare fraction of the pool size that goes to the write pool
+ * @param readUrl JDBC URL of the read pool, e.g. a replica; empty to use {@code
+ *     spring.datasource.url}
+ * @param readYourWritesWindow with a {@code readUrl}, how long a client's reads stay on the write
+ *     pool after its last write; keep it above the replica lag, zero reads the replica right away
+ * @param connectionTimeout how long a request waits for a connection before failing
+ * @param leakDetectionThreshold a connection held longer than this is logged with the stack trace
+ *     that borrowed it; keep it above the longest request deadline
+ * @param maxLifetime connections are recycled after this, below any server or firewall idle cut
+ * @param prepareThreshold PostgreSQL driver: executions before a statement is prepared on the
+ *     server
+ * @param preparedStatementCacheQueries PostgreSQL driver: statements cached per connection
+ * @param preparedStatementCacheSizeMib PostgreSQL driver: memory for that cache, per connection
+ */
+@ConfigurationProperties("db-pool")
+public record DbPoolProperties(
+    @DefaultValue("20") int connectionBudget,
+    @DefaultValue("0.4") double writeShare,
+    @DefaultValue("") String readUrl,
+    @DefaultValue("5s") Duration readYourWritesWindow,
+    @DefaultValue("3s") Duration connectionTimeout,
+    @DefaultValue("40s") Duration leakDetectionThreshold,
+    @DefaultValue("30m") Duration maxLifetime,
+    @DefaultValue("3") int prepareThreshold,
+    @DefaultValue("256") int preparedStatementCacheQueries,
+    @DefaultValue("5") int preparedStatementCacheSizeMib) {}
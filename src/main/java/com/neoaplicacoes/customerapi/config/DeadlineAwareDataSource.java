@@ -0,0 +1,75 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.neoaplicacoes.customerapi.util.RequestDeadline;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Caps the query timeout of every JDBC statement at the time left before the current {@link
+ * RequestDeadline}. JPA, Criteria and native queries all end up here, so no repository method needs
+ * a hint of its own. On PostgreSQL the driver cancels the statement when the timeout elapses (the
+ * per-statement equivalent of {@code statement_timeout}), which frees the connection for the pool;
+ * the resulting SQLState 57014 surfaces as a {@code QueryTimeoutException}. A statement created
+ * after the deadline has passed is refused outright.
+ *
+ * <p>Unwrapping still reaches the pool, so Hikari metrics and health checks keep working.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource {
+
+  public DeadlineAwareDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(super.getConnection(username, password));
+  }
+
+  private static Connection wrap(Connection target) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            DeadlineAwareDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              Object result;
+              try {
+                result = method.invoke(target, args);
+              } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+              }
+              if (result instanceof Statement statement) {
+                applyDeadline(statement);
+              }
+              return result;
+            });
+  }
+
+  static void applyDeadline(Statement statement) throws SQLException {
+    long remaining = RequestDeadline.remainingMillis();
+    if (remaining == Long.MAX_VALUE) {
+      return;
+    }
+    if (remaining <= 0) {
+      statement.close();
+      throw new SQLTimeoutException(
+          "Deadline of request group '" + RequestDeadline.group() + "' exceeded", "57014");
+    }
+    // JDBC timeouts are whole seconds; round up so a query is never cut before the deadline
+    int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999) / 1000);
+    int current = statement.getQueryTimeout();
+    if (current == 0 || seconds < current) {
+      statement.setQueryTimeout(seconds);
+    }
+  }
+}
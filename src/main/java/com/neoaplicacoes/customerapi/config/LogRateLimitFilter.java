@@ -0,0 +1,73 @@
+package com.neoaplicacoes.customerapi.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.neoaplicacoes.customerapi.security.ratelimit.TokenBucket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter that caps how many events each logger may emit: a {@link TokenBucket} per
+ * logger name, {@code burst} events at once and {@code eventsPerSecond} sustained. A flood of bad
+ * tokens or of one repeated warning is dropped on the calling thread, before any message is
+ * formatted or queued, instead of turning into log I/O.
+ *
+ * <p>ERROR events are never limited. Events dropped by a logger are reported, with their count, by
+ * the next event it is allowed to emit. Configured in {@code logback-spring.xml}.
+ */
+public class LogRateLimitFilter extends TurboFilter {
+
+  private static final String SELF = LogRateLimitFilter.class.getName();
+
+  private int eventsPerSecond = 20;
+  private int burst = 100;
+
+  private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+  public void setEventsPerSecond(int eventsPerSecond) {
+    this.eventsPerSecond = eventsPerSecond;
+  }
+
+  public void setBurst(int burst) {
+    this.burst = burst;
+  }
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // isDebugEnabled() and friends come through here too, without a message
+    if (!isStarted()
+        || (format == null && t == null)
+        || level.isGreaterOrEqual(Level.ERROR)
+        || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+        || logger.getName().equals(SELF)) {
+      return FilterReply.NEUTRAL;
+    }
+    Limit limit =
+        limits.computeIfAbsent(
+            logger.getName(),
+            name -> new Limit(new TokenBucket(burst, eventsPerSecond * 60L, System.nanoTime())));
+    if (limit.bucket.tryAcquire(System.nanoTime()) > 0) {
+      limit.dropped.incrementAndGet();
+      return FilterReply.DENY;
+    }
+    long dropped = limit.dropped.getAndSet(0);
+    if (dropped > 0) {
+      LoggerFactory.getLogger(SELF)
+          .warn("Dropped {} log events from {} over its rate limit", dropped, logger.getName());
+    }
+    return FilterReply.NEUTRAL;
+  }
+
+  private record Limit(TokenBucket bucket, AtomicLong dropped) {
+
+    Limit(TokenBucket bucket) {
+      this(bucket, new AtomicLong());
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangeDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerPushEventDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ErrorResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.QueryStatisticsDTO;
+import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.entity.ChangeEvent;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.model.entity.LoginAttempt;
+import com.neoaplicacoes.customerapi.model.entity.User;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection, proxy and resource hints for the native image ({@code mvn -Pnative native:compile}).
+ * Spring's AOT processing already covers beans, controller payloads and repositories; this adds
+ * what it cannot see: types used by name or through hand-written reflection.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+  // Written with ObjectMapper outside Spring MVC (filters, change feed, push, actuator), or read
+  // by JsonMergePatch.requireKnownFields through their record components
+  private static final Class<?>[] PAYLOADS = {
+    ErrorResponseDTO.class,
+    CustomerPushEventDTO.class,
+    CustomerChangeDTO.class,
+    CustomerResponseDTO.class,
+    AddressResponseDTO.class,
+    QueryStatisticsDTO.class,
+    CustomerRequestDTO.class,
+    AddressRequestDTO.class
+  };
+
+  private static final List<Class<?>> ENTITIES =
+      List.of(Customer.class, Address.class, User.class, ChangeEvent.class, LoginAttempt.class);
+
+  // AddressMapper.INSTANCE comes from Mappers.getMapper, which instantiates the impl by name
+  private static final List<String> MAPPERS =
+      List.of(
+          "com.neoaplicacoes.customerapi.mapper.AddressMapperImpl",
+          "com.neoaplicacoes.customerapi.mapper.CustomerMapperImpl",
+          "com.neoaplicacoes.customerapi.mapper.UserMapperImpl");
+
+  // jjwt-api creates its implementation classes with Class.forName
+  private static final List<String> JJWT =
+      List.of(
+          "io.jsonwebtoken.impl.DefaultClaims",
+          "io.jsonwebtoken.impl.DefaultHeader",
+          "io.jsonwebtoken.impl.DefaultJwsHeader",
+          "io.jsonwebtoken.impl.DefaultJwtBuilder",
+          "io.jsonwebtoken.impl.DefaultJwtParser",
+          "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+          "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+          "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+          "io.jsonwebtoken.jackson.io.JacksonSerializer",
+          "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+  private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    bindings.registerReflectionHints(hints.reflection(), PAYLOADS);
+    // Hibernate reads and writes entity fields reflectively when bytecode enhancement is off
+    ENTITIES.forEach(entity -> hints.reflection().registerType(entity, MemberCategory.values()));
+    MAPPERS.forEach(
+        mapper ->
+            hints
+                .reflection()
+                .registerType(
+                    TypeReference.of(mapper), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+    JJWT.forEach(
+        type ->
+            hints
+                .reflection()
+                .registerType(
+                    TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+
+    // DeadlineAwareDataSource and QueryObservingDataSource wrap JDBC objects in JDK proxies
+    hints.proxies().registerJdkProxy(Connection.class);
+    hints.proxies().registerJdkProxy(Statement.class);
+    hints.proxies().registerJdkProxy(PreparedStatement.class);
+    hints.proxies().registerJdkProxy(CallableStatement.class);
+
+    hints.resources().registerPattern("db/migration/*.sql");
+    hints.resources().registerPattern("db/migration-checksums.txt");
+    hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+    hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+  }
+}
@@ -0,0 +1,101 @@
+package com.neoaplicacoes.customerapi.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times every {@code execute*} call of the statements created through this data source and reports
+ * it to {@link QueryStatistics}. Replaces {@code spring.jpa.show-sql}, which printed every
+ * statement synchronously: here nothing is written unless a statement is slow and sampled.
+ *
+ * <p>Bind values ({@code setString(1, ...)} and friends) are only kept for sampled statements.
+ * Batched statements are reported once per {@code executeBatch}, with the binds of the last row.
+ */
+public class QueryObservingDataSource extends DelegatingDataSource {
+
+  private final QueryStatistics statistics;
+
+  public QueryObservingDataSource(DataSource target, QueryStatistics statistics) {
+    super(target);
+    this.statistics = statistics;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(super.getConnection(username, password));
+  }
+
+  private Connection wrap(Connection target) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            QueryObservingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              Object result = invoke(target, method, args);
+              if (result instanceof Statement statement) {
+                String sql = args != null && args[0] instanceof String s ? s : null;
+                return observe(statement, sql);
+              }
+              return result;
+            });
+  }
+
+  private Statement observe(Statement target, String preparedSql) {
+    Class<?> type =
+        target instanceof CallableStatement
+            ? CallableStatement.class
+            : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    Map<Integer, Object> binds = statistics.sample() ? new HashMap<>() : null;
+    return (Statement)
+        Proxy.newProxyInstance(
+            QueryObservingDataSource.class.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              String name = method.getName();
+              if (name.startsWith("execute")) {
+                String sql = args != null && args[0] instanceof String s ? s : preparedSql;
+                long start = System.nanoTime();
+                try {
+                  return invoke(target, method, args);
+                } finally {
+                  if (sql != null) {
+                    statistics.record(sql, System.nanoTime() - start, binds);
+                  }
+                }
+              }
+              if (binds != null) {
+                if (name.startsWith("set") && args != null && args.length >= 2) {
+                  if (args[0] instanceof Integer index) {
+                    binds.put(index, name.equals("setNull") ? null : args[1]);
+                  }
+                } else if (name.equals("clearParameters")) {
+                  binds.clear();
+                }
+              }
+              return invoke(target, method, args);
+            });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.neoaplicacoes.customerapi.model.dto.response.QueryShapeStatsDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.QueryStatisticsDTO;
+import com.neoaplicacoes.customerapi.util.LogRedactor;
+import com.neoaplicacoes.customerapi.util.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-shape execution statistics of every JDBC statement, fed by {@link QueryObservingDataSource},
+ * and the slow-query log.
+ *
+ * <p>Statements are grouped by shape: the SQL with literals replaced by {@code ?} and IN lists
+ * collapsed, so {@code id IN (?, ?, ?)} and {@code id IN (?, ?)} count as one query. Recording an
+ * execution only bumps counters; the shape of a given SQL string is computed once and cached. At
+ * {@code max-shapes} (including the overflow entry) new shapes are counted under "(other)".
+ *
+ * <p>Slow statements always count in the statistics and in {@code sql.slow_queries}, but only a
+ * sample of them is logged: the decision is taken when the statement is created, and only sampled
+ * statements keep their bind values, which are logged with CPFs and e-mails masked.
+ */
+@Component
+public class QueryStatistics {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+
+  static final String OTHER = "(other)";
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?");
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final long slowThresholdNanos;
+  private final double sampleRate;
+  private final int maxShapes;
+  private final DoubleSupplier random;
+  private final Counter slowQueries;
+
+  private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+  private final Map<String, Shape> bySql = new ConcurrentHashMap<>();
+
+  @Autowired
+  public QueryStatistics(
+      MeterRegistry meterRegistry,
+      @Value("${query-log.slow-threshold:500ms}") Duration slowThreshold,
+      @Value("${query-log.sample-rate:0.1}") double sampleRate,
+      @Value("${query-log.max-shapes:500}") int maxShapes) {
+    this(
+        meterRegistry,
+        slowThreshold,
+        sampleRate,
+        maxShapes,
+        () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  QueryStatistics(
+      MeterRegistry meterRegistry,
+      Duration slowThreshold,
+      double sampleRate,
+      int maxShapes,
+      DoubleSupplier random) {
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.sampleRate = sampleRate;
+    this.maxShapes = maxShapes;
+    this.random = random;
+    this.slowQueries = meterRegistry.counter("sql.slow_queries");
+    meterRegistry.gauge("sql.query_shapes", shapes, Map::size);
+  }
+
+  /** Whether a new statement should keep its bind values for the slow-query log. */
+  boolean sample() {
+    return sampleRate >= 1 || (sampleRate > 0 && random.getAsDouble() < sampleRate);
+  }
+
+  /**
+   * Records one execution.
+   *
+   * @param sql the statement as sent to the driver
+   * @param nanos how long the execute call took
+   * @param binds bind values by parameter index, or null if the statement was not sampled
+   */
+  void record(String sql, long nanos, Map<Integer, Object> binds) {
+    Shape shape = shapeOf(sql);
+    shape.count.increment();
+    shape.totalNanos.add(nanos);
+    shape.maxNanos.accumulateAndGet(nanos, Math::max);
+    if (nanos < slowThresholdNanos) {
+      return;
+    }
+    shape.slow.increment();
+    slowQueries.increment();
+    if (binds != null && logger.isWarnEnabled()) {
+      logger.warn(
+          "Slow query: {} ms{} - {} binds [{}]",
+          nanos / 1_000_000,
+          RequestDeadline.group() == null ? "" : " (request group " + RequestDeadline.group() + ")",
+          shape.query,
+          describe(binds));
+    }
+  }
+
+  private Shape shapeOf(String sql) {
+    Shape known = bySql.get(sql);
+    if (known != null) {
+      return known;
+    }
+    String normalized = shape(sql);
+    Shape shape = shapes.get(normalized);
+    if (shape == null) {
+      shape =
+          shapes.size() < maxShapes - 1
+              ? shapes.computeIfAbsent(normalized, Shape::new)
+              : shapes.computeIfAbsent(OTHER, Shape::new);
+    }
+    // Statements built with literals could grow this without bound; those are looked up again
+    if (bySql.size() < maxShapes * 4) {
+      bySql.put(sql, shape);
+    }
+    return shape;
+  }
+
+  private static String describe(Map<Integer, Object> binds) {
+    StringJoiner joiner = new StringJoiner(", ");
+    binds.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .forEach(bind -> joiner.add(bind.getKey() + "=" + LogRedactor.redact(bind.getValue())));
+    return joiner.toString();
+  }
+
+  /** Normalizes a statement to its shape: literals become {@code ?} and IN lists {@code (?...)}. */
+  static String shape(String sql) {
+    String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+    result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+    result = WHITESPACE.matcher(result).replaceAll(" ").trim();
+    return IN_LIST.matcher(result).replaceAll("(?...)");
+  }
+
+  /**
+   * The heaviest query shapes by total execution time.
+   *
+   * @param limit maximum number of shapes to return
+   */
+  public QueryStatisticsDTO report(int limit) {
+    List<QueryShapeStatsDTO> queries =
+        shapes.values().stream()
+            .map(Shape::toDto)
+            .sorted(Comparator.comparingDouble(QueryShapeStatsDTO::totalMs).reversed())
+            .limit(limit)
+            .toList();
+    return new QueryStatisticsDTO(
+        slowThresholdNanos / 1_000_000, sampleRate, shapes.size(), queries);
+  }
+
+  /** Forgets every shape, e.g. before measuring a load test. */
+  public void reset() {
+    bySql.clear();
+    shapes.clear();
+  }
+
+  private static final class Shape {
+
+    final String query;
+    final LongAdder count = new LongAdder();
+    final LongAdder slow = new LongAdder();
+    final LongAdder totalNanos = new LongAdder();
+    final AtomicLong maxNanos = new AtomicLong();
+
+    Shape(String query) {
+      this.query = query;
+    }
+
+    QueryShapeStatsDTO toDto() {
+      long executions = count.sum();
+      double totalMs = totalNanos.sum() / 1e6;
+      return new QueryShapeStatsDTO(
+          query,
+          executions,
+          slow.sum(),
+          totalMs,
+          executions == 0 ? 0 : totalMs / executions,
+          maxNanos.get() / 1e6);
+    }
+  }
+}
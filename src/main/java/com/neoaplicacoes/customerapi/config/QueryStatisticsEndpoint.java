@@ -0,0 +1,35 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.neoaplicacoes.customerapi.model.dto.response.QueryStatisticsDTO;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/queries}: per-shape query statistics (GET, {@code ?limit=} shapes, default 50)
+ * and their reset (DELETE). Admin only.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+
+  private static final int DEFAULT_LIMIT = 50;
+
+  private final QueryStatistics statistics;
+
+  public QueryStatisticsEndpoint(QueryStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @ReadOperation
+  public QueryStatisticsDTO queries(@Nullable Integer limit) {
+    return statistics.report(limit == null || limit <= 0 ? DEFAULT_LIMIT : limit);
+  }
+
+  @DeleteOperation
+  public void reset() {
+    statistics.reset();
+  }
+}
@@ -0,0 +1,78 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.neoaplicacoes.customerapi.util.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Starts the {@link RequestDeadline} of each API request from its endpoint group (lookups,
+ * searches, exports...). Runs ahead of Spring Security, so the user lookup of the JWT filter is
+ * bounded too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@EnableConfigurationProperties(RequestTimeoutProperties.class)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+  private static final List<String> LIMITED = List.of("/api/**", "/auth/**");
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final RequestTimeoutProperties properties;
+
+  public RequestDeadlineFilter(RequestTimeoutProperties properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = path(request);
+    return !properties.enabled()
+        || LIMITED.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestTimeoutProperties.Group group = groupFor(request.getMethod(), path(request));
+    if (group == null) {
+      RequestDeadline.start("default", properties.defaultTimeout());
+    } else {
+      RequestDeadline.start(group.name(), group.timeout());
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestDeadline.clear();
+    }
+  }
+
+  RequestTimeoutProperties.Group groupFor(String method, String path) {
+    for (RequestTimeoutProperties.Group group : properties.groups()) {
+      if (!group.methods().isEmpty()
+          && group.methods().stream().noneMatch(allowed -> allowed.equalsIgnoreCase(method))) {
+        continue;
+      }
+      for (String pattern : group.paths()) {
+        if (pathMatcher.match(pattern, path)) {
+          return group;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+}
@@ -0,0 +1,50 @@
+package com.neoaplicacoes.customerapi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Tags every log line of a request with its id: the caller's {@code X-Request-Id} when it looks
+ * like one (so a gateway's id follows the request), otherwise a new UUID. The id goes to the MDC
+ * and back in the response header. The {@code user} MDC field, set by the JWT filter, is cleared
+ * here too, since this filter wraps the whole chain.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Request-Id";
+  public static final String REQUEST_ID = "requestId";
+  public static final String USER = "user";
+
+  // Client-supplied ids end up in every log line: keep them short and free of separators
+  private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._-]{8,64}");
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String requestId = request.getHeader(HEADER);
+    if (requestId == null || !VALID.matcher(requestId).matches()) {
+      requestId = UUID.randomUUID().toString();
+    }
+    MDC.put(REQUEST_ID, requestId);
+    response.setHeader(HEADER, requestId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(REQUEST_ID);
+      MDC.remove(USER);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.neoaplicacoes.customerapi.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Request deadlines per endpoint group ({@code request-timeout.*} in application.yml).
+ *
+ * @param enabled turns deadlines off entirely
+ * @param defaultTimeout for /api and /auth requests matching no group
+ * @param groups checked in order, the first group with a matching path applies
+ */
+@ConfigurationProperties("request-timeout")
+public record RequestTimeoutProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10s") Duration defaultTimeout,
+    @DefaultValue List<Group> groups) {
+
+  /**
+   * @param name group name, reported in the 504 message
+   * @param paths Ant-style patterns
+   * @param methods HTTP methods the group applies to; empty for all
+   * @param timeout time the whole request may take, database included
+   */
+  public record Group(
+      String name, List<String> paths, @DefaultValue List<String> methods, Duration timeout) {}
+}
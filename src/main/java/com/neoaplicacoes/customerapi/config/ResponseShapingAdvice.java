@@ -0,0 +1,95 @@
+package com.neoaplicacoes.customerapi.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.model.dto.response.CompactPageDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ErrorResponseDTO;
+import com.neoaplicacoes.customerapi.util.JsonFieldFilter;
+import com.neoaplicacoes.customerapi.util.PageQueries;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Opt-in payload slimming for the REST controllers, driven by query parameters:
+ *
+ * <ul>
+ *   <li>{@code envelope=compact}: a {@link Page} body is replaced by a {@link CompactPageDTO}
+ *       (items + next cursor, plus the total when {@code withTotal=true}) instead of the full
+ *       {@code PageImpl} metadata. Without {@code withTotal} the controllers ask the services to
+ *       skip the count query (see {@link PageQueries});
+ *   <li>{@code fields=id,name,address.city}: only the listed properties of each item are written
+ *       (see {@link JsonFieldFilter}).
+ * </ul>
+ *
+ * Requests without these parameters get the usual response.
+ */
+@RestControllerAdvice(basePackages = "com.neoaplicacoes.customerapi.controller")
+public class ResponseShapingAdvice implements ResponseBodyAdvice<Object> {
+
+  static final String FIELDS_PARAM = "fields";
+
+  private final ObjectMapper objectMapper;
+
+  public ResponseShapingAdvice(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (body == null
+        || body instanceof ErrorResponseDTO
+        || !(request instanceof ServletServerHttpRequest servletRequest)) {
+      return body;
+    }
+    HttpServletRequest httpRequest = servletRequest.getServletRequest();
+
+    Object shaped = body;
+    String envelope = httpRequest.getParameter(PageQueries.ENVELOPE_PARAM);
+    if (body instanceof Page<?> page && PageQueries.COMPACT.equalsIgnoreCase(envelope)) {
+      boolean withTotal =
+          Boolean.parseBoolean(httpRequest.getParameter(PageQueries.WITH_TOTAL_PARAM));
+      shaped = compact(page, PageQueries.totalShown(envelope, withTotal));
+    }
+
+    JsonFieldFilter filter = JsonFieldFilter.parse(httpRequest.getParameter(FIELDS_PARAM));
+    if (filter == null) {
+      return shaped;
+    }
+    JsonNode tree = objectMapper.valueToTree(shaped);
+    if (shaped instanceof Page<?>) {
+      filter.apply(tree.get("content"));
+    } else if (shaped instanceof CompactPageDTO<?>) {
+      filter.apply(tree.get("items"));
+    } else {
+      filter.apply(tree);
+    }
+    return tree;
+  }
+
+  private static CompactPageDTO<?> compact(Page<?> page, boolean withTotal) {
+    String nextCursor = page.hasNext() ? String.valueOf(page.getNumber() + 1) : null;
+    return new CompactPageDTO<>(
+        page.getContent(), nextCursor, withTotal ? page.getTotalElements() : null);
+  }
+}
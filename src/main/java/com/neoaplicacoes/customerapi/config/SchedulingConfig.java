@@ -0,0 +1,9 @@
+package com.neoaplicacoes.customerapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} background jobs (statistics reconciliation, etc.). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -1,8 +1,13 @@
 package com.neoaplicacoes.customerapi.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neoaplicacoes.customerapi.security.jwt.JwtAuthenticationFilter;
+import com.neoaplicacoes.customerapi.security.ratelimit.RateLimitFilter;
+import com.neoaplicacoes.customerapi.security.ratelimit.RateLimitProperties;
+import com.neoaplicacoes.customerapi.security.ratelimit.RateLimiter;
 import com.neoaplicacoes.customerapi.security.service.CustomUserDetailsService;
 import java.util.List;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -21,16 +26,26 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
   private final CustomUserDetailsService userDetailsService;
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final RateLimiter rateLimiter;
+  private final RateLimitProperties rateLimitProperties;
+  private final ObjectMapper objectMapper;
 
   public SecurityConfig(
       CustomUserDetailsService userDetailsService,
-      JwtAuthenticationFilter jwtAuthenticationFilter) {
+      JwtAuthenticationFilter jwtAuthenticationFilter,
+      RateLimiter rateLimiter,
+      RateLimitProperties rateLimitProperties,
+      ObjectMapper objectMapper) {
     this.userDetailsService = userDetailsService;
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    this.rateLimiter = rateLimiter;
+    this.rateLimitProperties = rateLimitProperties;
+    this.objectMapper = objectMapper;
   }
 
   @Bean
@@ -95,6 +110,9 @@ public class SecurityConfig {
                     .hasRole("ADMIN")
                     .requestMatchers(HttpMethod.GET, "/api/users/**")
                     .hasRole("ADMIN")
+                    .requestMatchers(
+                        "/actuator/queries", "/actuator/queries/**", "/actuator/startup")
+                    .hasRole("ADMIN")
 
                     // Other API GET endpoints accessible by USER and ADMIN
                     .requestMatchers(HttpMethod.GET, "/api/**")
@@ -105,6 +123,12 @@ public class SecurityConfig {
                     .authenticated())
         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+    // Throttling runs once the JWT user is known, before any controller work
+    if (rateLimitProperties.enabled()) {
+      http.addFilterAfter(
+          new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class);
+    }
+
     return http.build();
   }
 }
@@ -0,0 +1,176 @@
+package com.neoaplicacoes.customerapi.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.StreamSupport;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Startup tuning, mostly for the {@code fast-start} profile (lazy initialization, see
+ * application-fast-start.yml).
+ *
+ * <ul>
+ *   <li>Beans with {@code @Scheduled} methods stay eager: a lazy one would never be created, so its
+ *       jobs would never run.
+ *   <li>With {@code startup.flyway-skip-when-current}, Flyway is only run when the history table
+ *       does not match the checksum manifest of the scripts. Otherwise {@code migrate()} would
+ *       still scan, read and checksum every script to validate them on each start.
+ *   <li>The {@link BufferingApplicationStartup} set in {@code main} records a step per bean; with
+ *       {@code startup.timeline.log} the slowest ones are logged once the application is ready, and
+ *       the whole timeline is at {@code /actuator/startup}.
+ * </ul>
+ */
+@Configuration
+public class StartupConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+  static final String MIGRATIONS = "db/migration";
+  static final String MANIFEST = "db/migration-checksums.txt";
+
+  private final boolean logTimeline;
+  private final int timelineTop;
+
+  public StartupConfig(
+      @Value("${startup.timeline.log:false}") boolean logTimeline,
+      @Value("${startup.timeline.top:15}") int timelineTop) {
+    this.logTimeline = logTimeline;
+    this.timelineTop = timelineTop;
+  }
+
+  @Bean
+  static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+    return (beanName, definition, type) ->
+        !MethodIntrospector.selectMethods(
+                type,
+                (MethodIntrospector.MetadataLookup<Scheduled>)
+                    method -> AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class))
+            .isEmpty();
+  }
+
+  @Bean
+  FlywayMigrationStrategy flywayMigrationStrategy(
+      @Value("${startup.flyway-skip-when-current:false}") boolean skipWhenCurrent) {
+    return flyway -> {
+      if (skipWhenCurrent && isCurrent(flyway)) {
+        logger.info("Schema matches the migration manifest, skipping Flyway");
+        return;
+      }
+      flyway.migrate();
+    };
+  }
+
+  /**
+   * Compares the checksum manifest of the migrations ({@value #MANIFEST}, kept in step by {@code
+   * StartupConfigTest}) with one read of the history table: current when every script was applied
+   * with the same checksum, repeatable ones included (their latest run counts). Nothing is scanned
+   * or read but the manifest. Any doubt (no history, another location, no manifest) means "not
+   * current", so Flyway migrates as usual.
+   */
+  static boolean isCurrent(Flyway flyway) {
+    try {
+      Location[] locations = flyway.getConfiguration().getLocations();
+      if (locations.length != 1
+          || !locations[0].isClassPath()
+          || !MIGRATIONS.equals(locations[0].getRootPath())) {
+        return false;
+      }
+      Map<String, Integer> manifest = readManifest();
+      if (manifest.isEmpty()) {
+        return false;
+      }
+      Map<String, Integer> applied = new HashMap<>();
+      // Quoted as Flyway creates them: lower case on every database, H2 included
+      new JdbcTemplate(flyway.getConfiguration().getDataSource())
+          .query(
+              "SELECT \"script\", \"checksum\" FROM \""
+                  + flyway.getConfiguration().getTable()
+                  + "\" WHERE \"success\" ORDER BY \"installed_rank\"",
+              (RowCallbackHandler)
+                  row -> applied.put(row.getString(1), (Integer) row.getObject(2)));
+      return manifest.entrySet().stream()
+          .allMatch(
+              script ->
+                  applied.containsKey(script.getKey())
+                      && Objects.equals(script.getValue(), applied.get(script.getKey())));
+    } catch (Exception e) {
+      logger.debug("Cannot tell whether the schema is current, running Flyway: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Script name to Flyway checksum, one {@code name checksum} pair per line. Java migrations have
+   * no checksum: {@code null}.
+   */
+  static Map<String, Integer> readManifest() throws IOException {
+    ClassPathResource resource = new ClassPathResource(MANIFEST);
+    if (!resource.exists()) {
+      return Map.of();
+    }
+    Map<String, Integer> manifest = new LinkedHashMap<>();
+    String content = resource.getContentAsString(StandardCharsets.UTF_8);
+    for (String line : content.lines().map(String::strip).toList()) {
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        String[] parts = line.split("\\s+");
+        manifest.put(parts[0], parts[1].equals("null") ? null : Integer.valueOf(parts[1]));
+      }
+    }
+    return manifest;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void reportStartup(ApplicationReadyEvent event) {
+    if (!logTimeline
+        || !(event.getApplicationContext().getApplicationStartup()
+            instanceof BufferingApplicationStartup startup)) {
+      return;
+    }
+    StartupTimeline timeline = startup.getBufferedTimeline();
+    List<StartupTimeline.TimelineEvent> slowest =
+        timeline.getEvents().stream()
+            .filter(step -> step.getStartupStep().getName().equals("spring.beans.instantiate"))
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+            .limit(timelineTop)
+            .toList();
+    StringBuilder report = new StringBuilder();
+    for (StartupTimeline.TimelineEvent step : slowest) {
+      String bean =
+          StreamSupport.stream(step.getStartupStep().getTags().spliterator(), false)
+              .filter(tag -> tag.getKey().equals("beanName"))
+              .map(StartupStep.Tag::getValue)
+              .findFirst()
+              .orElse("?");
+      report.append(String.format("%n  %6d ms  %s", step.getDuration().toMillis(), bean));
+    }
+    logger.info(
+        "Ready in {} ms; slowest bean creations, dependencies included:{}",
+        event.getTimeTaken().toMillis(),
+        report);
+  }
+}
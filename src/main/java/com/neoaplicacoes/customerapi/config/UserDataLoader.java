@@ -2,27 +2,54 @@ package com.neoaplicacoes.customerapi.config;
 
 import com.neoaplicacoes.customerapi.model.entity.User;
 import com.neoaplicacoes.customerapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Seeds the admin and common users on an empty database. With {@code startup.defer-data-loader}
+ * (fast-start profile) the check runs on a background thread, so startup does not wait for its
+ * query and, on a fresh database, for two BCrypt hashes.
+ */
 @Component
 public class UserDataLoader implements CommandLineRunner {
 
+  private static final Logger logger = LoggerFactory.getLogger(UserDataLoader.class);
+
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final boolean deferred;
 
-  public UserDataLoader(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public UserDataLoader(
+      UserRepository userRepository,
+      PasswordEncoder passwordEncoder,
+      @Value("${startup.defer-data-loader:false}") boolean deferred) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.deferred = deferred;
   }
 
   @Override
-  public void run(String... args) throws Exception {
+  public void run(String... args) {
+    if (!deferred) {
+      seed();
+      return;
+    }
+    Thread loader = new Thread(this::seed, "user-data-loader");
+    loader.setDaemon(true);
+    loader.setUncaughtExceptionHandler(
+        (thread, e) -> logger.error("Could not create the initial users", e));
+    loader.start();
+  }
+
+  private void seed() {
     if (userRepository.count() == 0) {
       createAdminUser();
       createCommonUser();
-      System.out.println("✅ Initial users created successfully!");
+      logger.info("Initial users created");
     }
   }
 
@@ -34,7 +61,7 @@ public class UserDataLoader implements CommandLineRunner {
       admin.setRole("ROLE_ADMIN");
       admin.setActive(true);
       userRepository.save(admin);
-      System.out.println("👨‍💼 Admin user created: admin@email.com / admin123");
+      logger.info("Admin user created: admin@email.com");
     }
   }
 
@@ -46,7 +73,7 @@ public class UserDataLoader implements CommandLineRunner {
       user.setRole("ROLE_USER");
       user.setActive(true);
       userRepository.save(user);
-      System.out.println("👤 Common user created: user@email.com / user123");
+      logger.info("Common user created: user@email.com");
     }
   }
 }
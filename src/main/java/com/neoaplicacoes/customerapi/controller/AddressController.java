@@ -1,8 +1,17 @@
 package com.neoaplicacoes.customerapi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.neoaplicacoes.customerapi.model.dto.request.AddressBatchGetRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.request.AddressBulkDeleteRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
 import com.neoaplicacoes.customerapi.service.AddressService;
+import com.neoaplicacoes.customerapi.service.PatchResult;
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import com.neoaplicacoes.customerapi.util.ETags;
+import com.neoaplicacoes.customerapi.util.JsonMergePatch;
 import com.neoaplicacoes.customerapi.util.PaginationUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +21,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -37,23 +47,44 @@ public class AddressController {
   // -------------------- CRUD --------------------
 
   @Operation(summary = "Create address", description = "Creates a new address")
-  @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @PostMapping
   public ResponseEntity<AddressResponseDTO> create(@Valid @RequestBody AddressRequestDTO dto) {
     AddressResponseDTO created = addressService.create(dto);
-    return ResponseEntity.status(HttpStatus.CREATED)
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(created);
+    return ResponseEntity.status(HttpStatus.CREATED).body(created);
   }
 
   @Operation(
       summary = "Update address",
       description = "Updates an existing address by ID (ADMIN only)")
   @PreAuthorize("hasRole('ADMIN')")
-  @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+  @PutMapping("/{id}")
   public ResponseEntity<AddressResponseDTO> update(
       @PathVariable Long id, @Valid @RequestBody AddressRequestDTO dto) {
     AddressResponseDTO updated = addressService.update(id, dto);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(updated);
+    return ResponseEntity.ok().body(updated);
+  }
+
+  @Operation(
+      summary = "Patch address",
+      description =
+          "Applies a JSON Merge Patch (RFC 7396) to an address (ADMIN only). With If-Match, plain"
+              + " field changes are written with a single conditional UPDATE and answered with"
+              + " 204 and the new ETag; otherwise the updated address is returned. A stale If-Match"
+              + " yields 412.")
+  @PreAuthorize("hasRole('ADMIN')")
+  @PatchMapping(
+      value = "/{id}",
+      consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<AddressResponseDTO> patch(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody JsonNode patch) {
+    PatchResult<AddressResponseDTO> result =
+        addressService.patch(id, ETags.parseVersion(ifMatch), patch);
+    if (result.body() == null) {
+      return ResponseEntity.noContent().eTag(ETags.of(result.version())).build();
+    }
+    return ResponseEntity.ok().eTag(ETags.of(result.version())).body(result.body());
   }
 
   @Operation(summary = "Delete address", description = "Deletes an address by ID (ADMIN only)")
@@ -65,10 +96,36 @@ public class AddressController {
   }
 
   @Operation(summary = "Get address by ID", description = "Retrieves an address by ID")
-  @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/{id}")
   public ResponseEntity<AddressResponseDTO> getById(@PathVariable Long id) {
     AddressResponseDTO dto = addressService.getById(id);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(dto);
+    return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
+  }
+
+  @Operation(
+      summary = "Batch get addresses",
+      description =
+          "Resolves up to "
+              + BatchLookup.MAX_KEYS
+              + " ids in a single round-trip. Items keep the input order; ids without an address"
+              + " are listed in 'missing'.")
+  @PostMapping("/batch-get")
+  public ResponseEntity<BatchGetResponseDTO<Long, AddressResponseDTO>> batchGet(
+      @Valid @RequestBody AddressBatchGetRequestDTO dto) {
+    return ResponseEntity.ok(addressService.batchGetByIds(dto.ids()));
+  }
+
+  @Operation(
+      summary = "Bulk delete addresses",
+      description =
+          "Deletes addresses by id, together with the customers living at them, using set-based"
+              + " DELETEs in short batches (ADMIN only). Returns the rows removed, batch count and"
+              + " timings.")
+  @PreAuthorize("hasRole('ADMIN')")
+  @PostMapping("/bulk-delete")
+  public ResponseEntity<BulkDeleteResponseDTO> bulkDelete(
+      @Valid @RequestBody AddressBulkDeleteRequestDTO dto) {
+    return ResponseEntity.ok(addressService.bulkDeleteByIds(dto.ids()));
   }
 
   // -------------------- UNPAGINATED SEARCH --------------------
@@ -76,61 +133,61 @@ public class AddressController {
   @Operation(
       summary = "Get all addresses (unpaginated)",
       description = "Retrieves all addresses without pagination")
-  @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all")
   public ResponseEntity<List<AddressResponseDTO>> getAll() {
     List<AddressResponseDTO> list = addressService.getAll();
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   @Operation(summary = "Search addresses by city (unpaginated)")
-  @GetMapping(value = "/all/by-city", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all/by-city")
   public ResponseEntity<List<AddressResponseDTO>> getByCity(@RequestParam String city) {
     List<AddressResponseDTO> list = addressService.getByCity(city);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   @Operation(summary = "Search addresses by state (unpaginated)")
-  @GetMapping(value = "/all/by-state", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all/by-state")
   public ResponseEntity<List<AddressResponseDTO>> getByState(@RequestParam String state) {
     List<AddressResponseDTO> list = addressService.getByState(state);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   @Operation(summary = "Search addresses by neighborhood (unpaginated)")
-  @GetMapping(value = "/all/by-neighborhood", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all/by-neighborhood")
   public ResponseEntity<List<AddressResponseDTO>> getByNeighborhood(
       @RequestParam String neighborhood) {
     List<AddressResponseDTO> list = addressService.getByNeighborhood(neighborhood);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   @Operation(summary = "Search addresses by city and neighborhood (unpaginated)")
-  @GetMapping(value = "/all/by-city-and-neighborhood", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all/by-city-and-neighborhood")
   public ResponseEntity<List<AddressResponseDTO>> getByCityAndNeighborhood(
       @RequestParam String city, @RequestParam String neighborhood) {
     List<AddressResponseDTO> list = addressService.getByCityAndNeighborhood(city, neighborhood);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   @Operation(summary = "Search addresses by street (unpaginated)")
-  @GetMapping(value = "/all/by-street", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all/by-street")
   public ResponseEntity<List<AddressResponseDTO>> getByStreet(@RequestParam String street) {
     List<AddressResponseDTO> list = addressService.getByStreet(street);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   @Operation(summary = "Search addresses by city and street (unpaginated)")
-  @GetMapping(value = "/all/by-city-and-street", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/all/by-city-and-street")
   public ResponseEntity<List<AddressResponseDTO>> getByCityAndStreet(
       @RequestParam String city, @RequestParam String street) {
     List<AddressResponseDTO> list = addressService.getByCityAndStreet(city, street);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(list);
+    return ResponseEntity.ok().body(list);
   }
 
   // -------------------- PAGINATED SEARCH --------------------
 
   @Operation(summary = "Get all addresses (paginated)")
-  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping
   public ResponseEntity<Page<AddressResponseDTO>> getAllPaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -140,15 +197,21 @@ public class AddressController {
           int size,
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "city,asc")
           @RequestParam(required = false)
-          String sort) {
+          String sort,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> pageResult = addressService.getAllPaged(pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(pageResult);
+    return ResponseEntity.ok().body(pageResult);
   }
 
   @Operation(summary = "Search addresses by city (paginated)")
-  @GetMapping(value = "/search/by-city", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/search/by-city")
   public ResponseEntity<Page<AddressResponseDTO>> getByCityPaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -159,15 +222,21 @@ public class AddressController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "city,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String city) {
+      @RequestParam String city,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> page = addressService.getByCityPaged(city, pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+    return ResponseEntity.ok().body(page);
   }
 
   @Operation(summary = "Search addresses by state (paginated)")
-  @GetMapping(value = "/search/by-state", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/search/by-state")
   public ResponseEntity<Page<AddressResponseDTO>> getByStatePaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -178,15 +247,21 @@ public class AddressController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "city,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String state) {
+      @RequestParam String state,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> page = addressService.getByStatePaged(state, pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+    return ResponseEntity.ok().body(page);
   }
 
   @Operation(summary = "Search addresses by neighborhood (paginated)")
-  @GetMapping(value = "/search/by-neighborhood", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/search/by-neighborhood")
   public ResponseEntity<Page<AddressResponseDTO>> getByNeighborhoodPaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -197,17 +272,21 @@ public class AddressController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "city,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String neighborhood) {
+      @RequestParam String neighborhood,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> page = addressService.getByNeighborhoodPaged(neighborhood, pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+    return ResponseEntity.ok().body(page);
   }
 
   @Operation(summary = "Search addresses by city and neighborhood (paginated)")
-  @GetMapping(
-      value = "/search/by-city-and-neighborhood",
-      produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/search/by-city-and-neighborhood")
   public ResponseEntity<Page<AddressResponseDTO>> getByCityAndNeighborhoodPaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -219,16 +298,22 @@ public class AddressController {
           @RequestParam(required = false)
           String sort,
       @RequestParam String city,
-      @RequestParam String neighborhood) {
+      @RequestParam String neighborhood,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> page =
         addressService.getByCityAndNeighborhoodPaged(city, neighborhood, pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+    return ResponseEntity.ok().body(page);
   }
 
   @Operation(summary = "Search addresses by street (paginated)")
-  @GetMapping(value = "/search/by-street", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/search/by-street")
   public ResponseEntity<Page<AddressResponseDTO>> getByStreetPaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -239,15 +324,21 @@ public class AddressController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "city,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String street) {
+      @RequestParam String street,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> page = addressService.getByStreetPaged(street, pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+    return ResponseEntity.ok().body(page);
   }
 
   @Operation(summary = "Search addresses by city and street (paginated)")
-  @GetMapping(value = "/search/by-city-and-street", produces = MediaType.APPLICATION_JSON_VALUE)
+  @GetMapping("/search/by-city-and-street")
   public ResponseEntity<Page<AddressResponseDTO>> getByCityAndStreetPaged(
       @Parameter(description = "Page number (0-based)", example = "0")
           @RequestParam(defaultValue = "0")
@@ -259,10 +350,16 @@ public class AddressController {
           @RequestParam(required = false)
           String sort,
       @RequestParam String city,
-      @RequestParam String street) {
+      @RequestParam String street,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     Page<AddressResponseDTO> page = addressService.getByCityAndStreetPaged(city, street, pageable);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+    return ResponseEntity.ok().body(page);
   }
 }
@@ -0,0 +1,70 @@
+package com.neoaplicacoes.customerapi.controller;
+
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeFeedResponseDTO;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/changes")
+@Tag(name = "Changes", description = "Incremental feed of customer, address and user changes")
+public class ChangeEventController {
+
+  private static final int MAX_LIMIT = 1000;
+  private static final int MAX_WAIT_SECONDS = 60;
+
+  private final ChangeEventService changeEventService;
+
+  @Autowired
+  public ChangeEventController(ChangeEventService changeEventService) {
+    this.changeEventService = changeEventService;
+  }
+
+  @Operation(
+      summary = "Read changes since a cursor (ADMIN only)",
+      description =
+          "Returns the changes after 'since' in commit order. When there is nothing new the"
+              + " request is held for up to 'wait' seconds (long-poll). Pass 'nextCursor' back as"
+              + " 'since' to continue.")
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping
+  public DeferredResult<ChangeFeedResponseDTO> changes(
+      @Parameter(description = "Last event id seen, 0 to start from the oldest retained")
+          @RequestParam(defaultValue = "0")
+          long since,
+      @Parameter(description = "Maximum number of events (1-1000)")
+          @RequestParam(defaultValue = "500")
+          int limit,
+      @Parameter(description = "Seconds to wait for new events (0-60)")
+          @RequestParam(defaultValue = "25")
+          int wait) {
+    if (since < 0 || limit < 1 || limit > MAX_LIMIT || wait < 0 || wait > MAX_WAIT_SECONDS) {
+      throw new BadRequestException(
+          "Expected since >= 0, limit in 1-" + MAX_LIMIT + " and wait in 0-" + MAX_WAIT_SECONDS);
+    }
+    // Timeout handled by the service; the request timeout only needs to outlast it
+    DeferredResult<ChangeFeedResponseDTO> result =
+        new DeferredResult<>(Duration.ofSeconds(wait + 10L).toMillis());
+    changeEventService
+        .poll(since, limit, Duration.ofSeconds(wait))
+        .whenComplete(
+            (feed, error) -> {
+              if (error != null) {
+                result.setErrorResult(error);
+              } else {
+                result.setResult(feed);
+              }
+            });
+    return result;
+  }
+}
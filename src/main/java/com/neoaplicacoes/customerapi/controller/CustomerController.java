@@ -1,22 +1,41 @@
 package com.neoaplicacoes.customerapi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.model.dto.request.CustomerBatchGetRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.request.CustomerBulkDeleteRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangesResponseDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerStatsResponseDTO;
+import com.neoaplicacoes.customerapi.service.CustomerPushService;
 import com.neoaplicacoes.customerapi.service.CustomerService;
+import com.neoaplicacoes.customerapi.service.CustomerStatisticsService;
+import com.neoaplicacoes.customerapi.service.PatchResult;
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import com.neoaplicacoes.customerapi.util.ETags;
+import com.neoaplicacoes.customerapi.util.JsonMergePatch;
+import com.neoaplicacoes.customerapi.util.PageQueries;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.HashSet;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST controller for managing Customers. Provides CRUD operations, filtering, and both paginated
@@ -28,10 +47,17 @@ import org.springframework.web.bind.annotation.*;
 public class CustomerController {
 
   private final CustomerService customerService;
+  private final CustomerStatisticsService statisticsService;
+  private final CustomerPushService pushService;
 
   @Autowired
-  public CustomerController(CustomerService customerService) {
+  public CustomerController(
+      CustomerService customerService,
+      CustomerStatisticsService statisticsService,
+      CustomerPushService pushService) {
     this.customerService = customerService;
+    this.statisticsService = statisticsService;
+    this.pushService = pushService;
   }
 
   // CRUD BASE
@@ -54,6 +80,29 @@ public class CustomerController {
     return ResponseEntity.ok(updated);
   }
 
+  @Operation(
+      summary = "Patch customer",
+      description =
+          "Applies a JSON Merge Patch (RFC 7396) to a customer (ADMIN only). With If-Match, plain"
+              + " field changes are written with a single conditional UPDATE and answered with"
+              + " 204 and the new ETag; otherwise the updated customer is returned. A stale"
+              + " If-Match yields 412.")
+  @PreAuthorize("hasRole('ADMIN')")
+  @PatchMapping(
+      value = "/{id}",
+      consumes = {JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<CustomerResponseDTO> patch(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody JsonNode patch) {
+    PatchResult<CustomerResponseDTO> result =
+        customerService.patch(id, ETags.parseVersion(ifMatch), patch);
+    if (result.body() == null) {
+      return ResponseEntity.noContent().eTag(ETags.of(result.version())).build();
+    }
+    return ResponseEntity.ok().eTag(ETags.of(result.version())).body(result.body());
+  }
+
   @Operation(summary = "Delete customer", description = "Deletes a customer by ID (ADMIN only)")
   @PreAuthorize("hasRole('ADMIN')")
   @DeleteMapping("/{id}")
@@ -66,7 +115,110 @@ public class CustomerController {
   @GetMapping("/{id}")
   public ResponseEntity<CustomerResponseDTO> getById(@PathVariable Long id) {
     CustomerResponseDTO customer = customerService.getById(id);
-    return ResponseEntity.ok(customer);
+    return ResponseEntity.ok().eTag(ETags.of(customer.version())).body(customer);
+  }
+
+  // DELTA SYNC
+
+  @Operation(
+      summary = "Customers changed since a cursor",
+      description =
+          "Delta sync ordered by (updatedAt, id): created and updated customers with their current"
+              + " state, deleted ones as tombstones. 'since' takes the 'nextCursor' of the previous"
+              + " call or an ISO-8601 date-time; keep calling while 'hasMore' is true.")
+  @GetMapping("/changes")
+  public ResponseEntity<CustomerChangesResponseDTO> getChanges(
+      @Parameter(description = "Cursor or ISO-8601 date-time; empty for everything")
+          @RequestParam(required = false)
+          String since,
+      @Parameter(description = "Maximum number of items (1-1000)")
+          @RequestParam(defaultValue = "500")
+          int limit) {
+    if (limit < 1 || limit > 1000) {
+      throw new BadRequestException("limit must be between 1 and 1000");
+    }
+    return ResponseEntity.ok(customerService.getChanges(since, limit));
+  }
+
+  // PUSH
+
+  @Operation(
+      summary = "Stream customer changes",
+      description =
+          "Server-Sent Events stream of committed changes (events 'created', 'updated' and"
+              + " 'deleted') to the given customer ids and/or to customers in a state, optionally"
+              + " narrowed to a city. Slow consumers are disconnected and should reconnect and"
+              + " resync through /changes; 503 when the connection limit is reached.")
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(
+      @Parameter(description = "Customer ids to follow (up to 100)") @RequestParam(required = false)
+          List<Long> ids,
+      @Parameter(description = "State (UF) to follow") @RequestParam(required = false) String state,
+      @Parameter(description = "City within the state") @RequestParam(required = false)
+          String city) {
+    return pushService.subscribe(ids == null ? null : new HashSet<>(ids), state, city);
+  }
+
+  // BATCH LOOKUP
+
+  @Operation(
+      summary = "Batch get customers",
+      description =
+          "Resolves up to "
+              + BatchLookup.MAX_KEYS
+              + " ids, CPFs or emails (exactly one list) in a single round-trip. Items keep the"
+              + " input order; keys without a customer are listed in 'missing'.")
+  @PostMapping("/batch-get")
+  public ResponseEntity<BatchGetResponseDTO<?, CustomerResponseDTO>> batchGet(
+      @Valid @RequestBody CustomerBatchGetRequestDTO dto) {
+    boolean byIds = dto.ids() != null && !dto.ids().isEmpty();
+    boolean byCpfs = dto.cpfs() != null && !dto.cpfs().isEmpty();
+    boolean byEmails = dto.emails() != null && !dto.emails().isEmpty();
+    if ((byIds ? 1 : 0) + (byCpfs ? 1 : 0) + (byEmails ? 1 : 0) != 1) {
+      throw new BadRequestException("Inform exactly one of ids, cpfs or emails");
+    }
+    if (byIds) {
+      return ResponseEntity.ok(customerService.batchGetByIds(dto.ids()));
+    }
+    if (byCpfs) {
+      return ResponseEntity.ok(customerService.batchGetByCpfs(dto.cpfs()));
+    }
+    return ResponseEntity.ok(customerService.batchGetByEmails(dto.emails()));
+  }
+
+  // BULK DELETE
+
+  @Operation(
+      summary = "Bulk delete customers",
+      description =
+          "Deletes customers and their addresses by id list or by criteria (state, city and/or"
+              + " createdBefore; exactly one kind of selection), using set-based DELETEs in short"
+              + " batches (ADMIN only). Returns the rows removed, batch count and timings.")
+  @PreAuthorize("hasRole('ADMIN')")
+  @PostMapping("/bulk-delete")
+  public ResponseEntity<BulkDeleteResponseDTO> bulkDelete(
+      @Valid @RequestBody CustomerBulkDeleteRequestDTO dto) {
+    boolean byIds = dto.ids() != null && !dto.ids().isEmpty();
+    boolean byCriteria = dto.state() != null || dto.city() != null || dto.createdBefore() != null;
+    if (byIds == byCriteria) {
+      throw new BadRequestException("Inform either ids or state/city/createdBefore criteria");
+    }
+    if (byIds) {
+      return ResponseEntity.ok(customerService.bulkDeleteByIds(dto.ids()));
+    }
+    return ResponseEntity.ok(
+        customerService.bulkDeleteByCriteria(dto.state(), dto.city(), dto.createdBefore()));
+  }
+
+  // STATISTICS
+
+  @Operation(
+      summary = "Customer statistics",
+      description =
+          "Customer counts by state, city and age bracket, served from pre-aggregated counters")
+  @GetMapping("/stats")
+  public ResponseEntity<CustomerStatsResponseDTO> getStats() {
+    return ResponseEntity.ok(statisticsService.getStats());
   }
 
   // PAGINATED ENDPOINTS
@@ -84,9 +236,15 @@ public class CustomerController {
           int size,
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "name,asc")
           @RequestParam(required = false)
-          String sort) {
+          String sort,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(customerService.getAllPaged(pageable));
   }
 
@@ -104,9 +262,15 @@ public class CustomerController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "name,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String name) {
+      @RequestParam String name,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(customerService.getByNamePaged(name, pageable));
   }
 
@@ -124,9 +288,15 @@ public class CustomerController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "email,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String email) {
+      @RequestParam String email,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(customerService.getByEmailPaged(email, pageable));
   }
 
@@ -144,9 +314,15 @@ public class CustomerController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "name,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String cpf) {
+      @RequestParam String cpf,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(customerService.getByCpfPaged(cpf, pageable));
   }
 
@@ -164,9 +340,15 @@ public class CustomerController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "city,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String city) {
+      @RequestParam String city,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(customerService.getByCityPaged(city, pageable));
   }
 
@@ -184,9 +366,15 @@ public class CustomerController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "state,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String state) {
+      @RequestParam String state,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(customerService.getByStatePaged(state, pageable));
   }
 
@@ -205,14 +393,61 @@ public class CustomerController {
           @RequestParam(required = false)
           String sort,
       @RequestParam String city,
-      @RequestParam String neighborhood) {
+      @RequestParam String neighborhood,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = createPageable(pageNumber, size, sort);
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(
         customerService.getByCityAndNeighborhoodPaged(city, neighborhood, pageable));
   }
 
-  // Utility method to create Pageable
+  @Operation(
+      summary = "Search customers by age range (paginated)",
+      description =
+          "Finds customers whose age is between minAge and maxAge (inclusive) with pagination."
+              + " At least one bound is required.")
+  @GetMapping("/search/by-age")
+  public ResponseEntity<Page<CustomerResponseDTO>> getByAgeRangePaged(
+      @Parameter(description = "Page number (0-based)", example = "0")
+          @RequestParam(defaultValue = "0")
+          int pageNumber,
+      @Parameter(description = "Number of items per page", example = "10")
+          @RequestParam(defaultValue = "10")
+          int size,
+      @Parameter(description = "Sorting criteria: property,asc|desc", example = "birthDate,desc")
+          @RequestParam(required = false)
+          String sort,
+      @Parameter(description = "Minimum age in years", example = "18")
+          @RequestParam(required = false)
+          Integer minAge,
+      @Parameter(description = "Maximum age in years", example = "65")
+          @RequestParam(required = false)
+          Integer maxAge,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
+
+    Pageable pageable = createPageable(pageNumber, size, sort, envelope, withTotal);
+    return ResponseEntity.ok(customerService.getByAgeRangePaged(minAge, maxAge, pageable));
+  }
+
+  // Utility method to create Pageable; the compact envelope without withTotal skips the count
+  private Pageable createPageable(
+      int pageNumber, int size, String sort, String envelope, boolean withTotal) {
+    Pageable pageable = createPageable(pageNumber, size, sort);
+    return PageQueries.totalShown(envelope, withTotal)
+        ? pageable
+        : PageQueries.withoutTotal(pageable);
+  }
+
   private Pageable createPageable(int pageNumber, int size, String sort) {
     if (sort != null && !sort.trim().isEmpty()) {
       String[] sortParams = sort.split(",");
@@ -283,4 +518,16 @@ public class CustomerController {
       @RequestParam String city, @RequestParam String neighborhood) {
     return ResponseEntity.ok(customerService.getByCityAndNeighborhood(city, neighborhood));
   }
+
+  @Operation(
+      summary = "Search customers by age range (unpaginated)",
+      description =
+          "Finds customers whose age is between minAge and maxAge (inclusive) without pagination."
+              + " At least one bound is required.")
+  @GetMapping("/all/by-age")
+  public ResponseEntity<List<CustomerResponseDTO>> getByAgeRange(
+      @RequestParam(required = false) Integer minAge,
+      @RequestParam(required = false) Integer maxAge) {
+    return ResponseEntity.ok(customerService.getByAgeRange(minAge, maxAge));
+  }
 }
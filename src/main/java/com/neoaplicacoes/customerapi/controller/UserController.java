@@ -131,9 +131,15 @@ public class UserController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "email,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String email) {
+      @RequestParam String email,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(userService.getByEmailPaged(email, pageable));
   }
 
@@ -150,9 +156,15 @@ public class UserController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "role,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam String role) {
+      @RequestParam String role,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(userService.getByRolePaged(role, pageable));
   }
 
@@ -169,9 +181,15 @@ public class UserController {
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "active,asc")
           @RequestParam(required = false)
           String sort,
-      @RequestParam Boolean active) {
+      @RequestParam Boolean active,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(userService.getByActivePaged(active, pageable));
   }
 
@@ -187,9 +205,15 @@ public class UserController {
           int size,
       @Parameter(description = "Sorting criteria: property,asc|desc", example = "email,asc")
           @RequestParam(required = false)
-          String sort) {
+          String sort,
+      @Parameter(description = "Response envelope: compact for items and a next cursor")
+          @RequestParam(required = false)
+          String envelope,
+      @Parameter(description = "With envelope=compact, also count the total")
+          @RequestParam(defaultValue = "false")
+          boolean withTotal) {
 
-    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort);
+    Pageable pageable = PaginationUtil.createPageable(pageNumber, size, sort, envelope, withTotal);
     return ResponseEntity.ok(userService.getAllPaged(pageable));
   }
 }
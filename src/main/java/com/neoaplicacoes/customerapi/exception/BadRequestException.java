@@ -0,0 +1,21 @@
+package com.neoaplicacoes.customerapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Invalid client input that bean validation cannot express (parameter combinations, malformed
+ * cursors or patches). Its message is returned to the client, so it must not carry internal
+ * details.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+  public BadRequestException(String message) {
+    super(message);
+  }
+
+  public BadRequestException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
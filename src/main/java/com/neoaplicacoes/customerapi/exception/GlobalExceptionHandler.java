@@ -1,13 +1,17 @@
 package com.neoaplicacoes.customerapi.exception;
 
 import com.neoaplicacoes.customerapi.model.dto.response.ErrorResponseDTO;
+import com.neoaplicacoes.customerapi.util.RequestDeadline;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -62,6 +66,55 @@ public class GlobalExceptionHandler {
     return buildResponse(HttpStatus.BAD_REQUEST, "Validation error", errors);
   }
 
+  @ExceptionHandler(ConstraintViolationException.class)
+  public ResponseEntity<ErrorResponseDTO> handleConstraintViolation(
+      ConstraintViolationException ex) {
+    Map<String, String> errors = new HashMap<>();
+    ex.getConstraintViolations()
+        .forEach(
+            violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+    return buildResponse(HttpStatus.BAD_REQUEST, "Validation error", errors);
+  }
+
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<ErrorResponseDTO> handleBadRequest(BadRequestException ex) {
+    return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
+  }
+
+  // Conditional requests and concurrent writes
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ErrorResponseDTO> handlePreconditionFailed(PreconditionFailedException ex) {
+    return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), null);
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorResponseDTO> handleOptimisticLock(
+      OptimisticLockingFailureException ex) {
+    return buildResponse(
+        HttpStatus.CONFLICT, "Resource was modified concurrently, retry with a fresh copy", null);
+  }
+
+  // Capacity limits
+
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<ErrorResponseDTO> handleServiceUnavailable(ServiceUnavailableException ex) {
+    return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), null);
+  }
+
+  // A query cancelled at the request deadline (the connection is already back in the pool)
+  @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+  public ResponseEntity<ErrorResponseDTO> handleQueryTimeout(RuntimeException ex) {
+    String group = RequestDeadline.group();
+    logger.warn("Query cancelled at the deadline of request group {}: {}", group, ex.getMessage());
+    String message =
+        group == null
+            ? "The query took too long and was cancelled"
+            : "The request exceeded its time limit (" + group + ") and was cancelled";
+    return buildResponse(HttpStatus.GATEWAY_TIMEOUT, message, null);
+  }
+
   // Database constraint violations
 
   @ExceptionHandler(DataIntegrityViolationException.class)
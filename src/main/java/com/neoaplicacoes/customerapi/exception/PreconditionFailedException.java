@@ -0,0 +1,19 @@
+package com.neoaplicacoes.customerapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+  public PreconditionFailedException(String message) {
+    super(message);
+  }
+
+  public PreconditionFailedException(String resourceName, Long id, Long expectedVersion) {
+    super(
+        String.format(
+            "%s %d was modified: version %d is no longer current",
+            resourceName, id, expectedVersion));
+  }
+}
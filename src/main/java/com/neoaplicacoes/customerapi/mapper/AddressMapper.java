@@ -33,6 +33,14 @@ public interface AddressMapper {
    */
   AddressResponseDTO toResponse(Address address);
 
+  /**
+   * Converts Address entity back to AddressRequestDTO, the document a merge patch is applied to.
+   *
+   * @param address the entity
+   * @return DTO with the current state
+   */
+  AddressRequestDTO toRequest(Address address);
+
   /**
    * Converts a list of Address entities to a list of AddressResponseDTO.
    *
@@ -2,17 +2,25 @@ package com.neoaplicacoes.customerapi.mapper;
 
 import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.Address;
 import com.neoaplicacoes.customerapi.model.entity.Customer;
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.springframework.data.domain.Page;
 
 /**
  * Mapper interface for converting between Customer entity and DTOs. Uses MapStruct to automatically
  * generate implementation at compile time. Calculates age when converting to CustomerResponseDTO.
+ *
+ * <p>The age is computed against a reference day passed as {@link Context}. The list and page
+ * conversions read the clock once and reuse that day for every row.
  */
 @Mapper(componentModel = "spring")
 public interface CustomerMapper {
@@ -21,10 +29,36 @@ public interface CustomerMapper {
    * Converts Customer entity to CustomerResponseDTO. Calculates the age from birthDate.
    *
    * @param customer the entity
+   * @param today reference day for the age
    * @return DTO with age calculated
    */
-  @Mapping(target = "age", expression = "java(calculateAge(customer.getBirthDate()))")
-  CustomerResponseDTO toDto(Customer customer);
+  @Mapping(target = "age", expression = "java(calculateAge(customer.getBirthDate(), today))")
+  CustomerResponseDTO toDto(Customer customer, @Context LocalDate today);
+
+  /**
+   * Converts Customer entity to CustomerResponseDTO, using the current day for the age.
+   *
+   * @param customer the entity
+   * @return DTO with age calculated
+   */
+  default CustomerResponseDTO toDto(Customer customer) {
+    return toDto(customer, LocalDate.now());
+  }
+
+  /**
+   * Converts Customer entity to CustomerResponseDTO using an address resolved elsewhere (e.g. by a
+   * batch loader) instead of the entity's lazy association.
+   *
+   * @param customer the entity
+   * @param address the customer's address, or null
+   * @param today reference day for the age
+   * @return DTO with age calculated
+   */
+  @Mapping(target = "id", source = "customer.id")
+  @Mapping(target = "version", source = "customer.version")
+  @Mapping(target = "address", source = "address")
+  @Mapping(target = "age", expression = "java(calculateAge(customer.getBirthDate(), today))")
+  CustomerResponseDTO toDto(Customer customer, Address address, @Context LocalDate today);
 
   /**
    * Converts a list of Customer entities to a list of CustomerResponseDTO.
@@ -32,7 +66,59 @@ public interface CustomerMapper {
    * @param customers list of entities
    * @return list of DTOs with age calculated
    */
-  List<CustomerResponseDTO> toDtoList(List<Customer> customers);
+  default List<CustomerResponseDTO> toDtoList(List<Customer> customers) {
+    if (customers == null) {
+      return null;
+    }
+    LocalDate today = LocalDate.now();
+    List<CustomerResponseDTO> dtos = new ArrayList<>(customers.size());
+    for (Customer customer : customers) {
+      dtos.add(toDto(customer, today));
+    }
+    return dtos;
+  }
+
+  /**
+   * Converts a list of Customer entities whose addresses were already resolved.
+   *
+   * @param customers list of entities
+   * @param addresses addresses by id
+   * @return list of DTOs with age calculated
+   */
+  default List<CustomerResponseDTO> toDtoList(
+      List<Customer> customers, Map<Long, Address> addresses) {
+    LocalDate today = LocalDate.now();
+    List<CustomerResponseDTO> dtos = new ArrayList<>(customers.size());
+    for (Customer customer : customers) {
+      dtos.add(toDto(customer, addresses.get(customer.getAddressId()), today));
+    }
+    return dtos;
+  }
+
+  /**
+   * Converts a page of Customer entities whose addresses were already resolved.
+   *
+   * @param customers page of entities
+   * @param addresses addresses by id
+   * @return page of DTOs with age calculated
+   */
+  default Page<CustomerResponseDTO> toDtoPage(
+      Page<Customer> customers, Map<Long, Address> addresses) {
+    LocalDate today = LocalDate.now();
+    return customers.map(
+        customer -> toDto(customer, addresses.get(customer.getAddressId()), today));
+  }
+
+  /**
+   * Converts a page of Customer entities to a page of CustomerResponseDTO.
+   *
+   * @param customers page of entities
+   * @return page of DTOs with age calculated
+   */
+  default Page<CustomerResponseDTO> toDtoPage(Page<Customer> customers) {
+    LocalDate today = LocalDate.now();
+    return customers.map(customer -> toDto(customer, today));
+  }
 
   /**
    * Converts CustomerRequestDTO to Customer entity.
@@ -42,6 +128,14 @@ public interface CustomerMapper {
    */
   Customer toEntity(CustomerRequestDTO dto);
 
+  /**
+   * Converts Customer entity back to CustomerRequestDTO, the document a merge patch is applied to.
+   *
+   * @param customer the entity (address is loaded)
+   * @return DTO with the current state
+   */
+  CustomerRequestDTO toRequestDto(Customer customer);
+
   /**
    * Updates an existing Customer entity from CustomerRequestDTO.
    *
@@ -54,12 +148,13 @@ public interface CustomerMapper {
    * Helper method to calculate age from birthDate.
    *
    * @param birthDate the birth date
+   * @param today reference day
    * @return age in years, or null if birthDate is null
    */
-  default Integer calculateAge(LocalDate birthDate) {
+  default Integer calculateAge(LocalDate birthDate, LocalDate today) {
     if (birthDate == null) {
       return null;
     }
-    return Period.between(birthDate, LocalDate.now()).getYears();
+    return (int) ChronoUnit.YEARS.between(birthDate, today);
   }
 }
@@ -0,0 +1,12 @@
+package com.neoaplicacoes.customerapi.model.dto.request;
+
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/** Keys for {@code POST /api/addresses/batch-get}. */
+public record AddressBatchGetRequestDTO(
+    @NotEmpty(message = "Informe ao menos um id")
+        @Size(max = BatchLookup.MAX_KEYS, message = "No máximo " + BatchLookup.MAX_KEYS + " ids")
+        List<Long> ids) {}
@@ -0,0 +1,14 @@
+package com.neoaplicacoes.customerapi.model.dto.request;
+
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/** Keys for {@code POST /api/customers/batch-get}. Exactly one of the lists must be informed. */
+public record CustomerBatchGetRequestDTO(
+    @Size(max = BatchLookup.MAX_KEYS, message = "No máximo " + BatchLookup.MAX_KEYS + " ids")
+        List<Long> ids,
+    @Size(max = BatchLookup.MAX_KEYS, message = "No máximo " + BatchLookup.MAX_KEYS + " CPFs")
+        List<String> cpfs,
+    @Size(max = BatchLookup.MAX_KEYS, message = "No máximo " + BatchLookup.MAX_KEYS + " emails")
+        List<String> emails) {}
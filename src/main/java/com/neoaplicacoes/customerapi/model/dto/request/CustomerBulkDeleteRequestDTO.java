@@ -0,0 +1,17 @@
+package com.neoaplicacoes.customerapi.model.dto.request;
+
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selection for {@code POST /api/customers/bulk-delete}: either a list of ids or criteria (state,
+ * city and/or created-before cut-off, combined with AND), never both.
+ */
+public record CustomerBulkDeleteRequestDTO(
+    @Size(max = BatchLookup.MAX_KEYS, message = "No máximo " + BatchLookup.MAX_KEYS + " ids")
+        List<Long> ids,
+    String state,
+    String city,
+    LocalDateTime createdBefore) {}
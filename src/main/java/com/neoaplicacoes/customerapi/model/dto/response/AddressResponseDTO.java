@@ -8,4 +8,5 @@ public record AddressResponseDTO(
     String street,
     String neighborhood,
     String city,
-    String state) {}
+    String state,
+    Long version) {} // optimistic-lock version, sent back as ETag / If-Match
@@ -0,0 +1,9 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import java.util.List;
+
+/**
+ * Result of a batch lookup: the items found, in the order of the requested keys, and the keys that
+ * matched nothing.
+ */
+public record BatchGetResponseDTO<K, T>(List<T> items, List<K> missing) {}
@@ -0,0 +1,20 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+/**
+ * Outcome of a bulk delete. Each batch runs in its own transaction, so {@code maxBatchMs} bounds
+ * how long row locks were held.
+ *
+ * @param customersDeleted customer rows removed
+ * @param addressesDeleted address rows removed
+ * @param batches number of transactions
+ * @param elapsedMs wall time of the whole operation
+ * @param maxBatchMs slowest batch (lock hold time)
+ * @param rowsPerSecond customer and address rows removed per second
+ */
+public record BulkDeleteResponseDTO(
+    long customersDeleted,
+    long addressesDeleted,
+    int batches,
+    long elapsedMs,
+    long maxBatchMs,
+    long rowsPerSecond) {}
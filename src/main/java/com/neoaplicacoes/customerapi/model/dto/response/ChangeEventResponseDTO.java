@@ -0,0 +1,28 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed.
+ *
+ * @param id feed position, pass it back as {@code since}
+ * @param aggregateType kind of resource
+ * @param aggregateId id of the resource
+ * @param changeType what happened
+ * @param payload the resource after the change; only the changed fields for conditional patches,
+ *     absent for deletes
+ * @param occurredAt when the change was written
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEventResponseDTO(
+    Long id,
+    AggregateType aggregateType,
+    Long aggregateId,
+    ChangeType changeType,
+    JsonNode payload,
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSS") LocalDateTime occurredAt) {}
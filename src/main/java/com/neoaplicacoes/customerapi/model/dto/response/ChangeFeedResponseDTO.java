@@ -0,0 +1,11 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import java.util.List;
+
+/**
+ * A batch of the change feed.
+ *
+ * @param events changes in feed order, possibly empty
+ * @param nextCursor value for the next {@code since}; unchanged when there was nothing new
+ */
+public record ChangeFeedResponseDTO(List<ChangeEventResponseDTO> events, long nextCursor) {}
@@ -0,0 +1,12 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Slim alternative to the serialized {@code PageImpl} (returned when the request has {@code
+ * envelope=compact}). {@code nextCursor} is the value to send as {@code pageNumber} for the next
+ * page and is null on the last page; {@code total} is only filled with {@code withTotal=true}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactPageDTO<T>(List<T> items, String nextCursor, Long total) {}
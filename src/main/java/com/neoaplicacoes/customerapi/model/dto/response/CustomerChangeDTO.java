@@ -0,0 +1,16 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the customer delta sync.
+ *
+ * @param id customer id
+ * @param updatedAt when the customer last changed
+ * @param deleted true for a tombstone
+ * @param customer current state, absent for tombstones
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CustomerChangeDTO(
+    Long id, LocalDateTime updatedAt, boolean deleted, CustomerResponseDTO customer) {}
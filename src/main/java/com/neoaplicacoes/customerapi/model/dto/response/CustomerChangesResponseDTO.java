@@ -0,0 +1,13 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import java.util.List;
+
+/**
+ * A page of the customer delta sync, ordered by {@code (updatedAt, id)}.
+ *
+ * @param items changed and deleted customers
+ * @param nextCursor value for the next {@code since}; unchanged when the page was empty
+ * @param hasMore true if more changes are already available
+ */
+public record CustomerChangesResponseDTO(
+    List<CustomerChangeDTO> items, String nextCursor, boolean hasMore) {}
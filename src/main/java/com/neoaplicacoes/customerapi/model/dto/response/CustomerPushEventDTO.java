@@ -0,0 +1,16 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+
+/**
+ * Data of a customer push event (Server-Sent Events).
+ *
+ * @param id customer id
+ * @param changeType what happened
+ * @param customer the customer after the change; only the changed fields for conditional patches,
+ *     absent for deletes
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CustomerPushEventDTO(Long id, ChangeType changeType, JsonNode customer) {}
@@ -10,4 +10,5 @@ public record CustomerResponseDTO(
     String phone,
     LocalDate birthDate,
     Integer age, // already calculed on service via getAge() of the entity
-    AddressResponseDTO address) {}
+    AddressResponseDTO address,
+    Long version) {} // optimistic-lock version, sent back as ETag / If-Match
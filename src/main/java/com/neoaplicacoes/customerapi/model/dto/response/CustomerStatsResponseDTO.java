@@ -0,0 +1,12 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record CustomerStatsResponseDTO(
+    long total,
+    Map<String, Long> byState,
+    Map<String, Map<String, Long>> byCity, // state -> normalized city -> count
+    Map<String, Long> byAgeBracket,
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime reconciledAt) {}
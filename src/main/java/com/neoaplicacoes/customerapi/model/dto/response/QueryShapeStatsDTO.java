@@ -0,0 +1,5 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+/** Execution statistics of one query shape (the SQL with literals and IN lists collapsed). */
+public record QueryShapeStatsDTO(
+    String query, long count, long slow, double totalMs, double meanMs, double maxMs) {}
@@ -0,0 +1,7 @@
+package com.neoaplicacoes.customerapi.model.dto.response;
+
+import java.util.List;
+
+/** Query statistics since startup (or the last reset), heaviest shapes first. */
+public record QueryStatisticsDTO(
+    long slowThresholdMs, double sampleRate, int shapes, List<QueryShapeStatsDTO> queries) {}
@@ -1,12 +1,27 @@
 package com.neoaplicacoes.customerapi.model.entity;
 
+import com.neoaplicacoes.customerapi.util.TextNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Table(name = "addresses")
+@DynamicUpdate
+@SQLDelete(
+    sql =
+        "UPDATE addresses SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP"
+            + " WHERE id = ? AND version = ?")
+@SQLRestriction("deleted_at IS NULL")
 @Data
 public class Address {
 
@@ -39,4 +54,50 @@ public class Address {
   @NotBlank
   @Column(nullable = false, length = 2)
   private String state;
+
+  // Accent-folded, lowercased copies used by the filter queries (see TextNormalizer).
+  // Maintained by the setters below, never written directly.
+
+  @Setter(AccessLevel.NONE)
+  @Column(name = "neighborhood_normalized", nullable = false)
+  private String neighborhoodNormalized;
+
+  @Setter(AccessLevel.NONE)
+  @Column(name = "city_normalized", nullable = false)
+  private String cityNormalized;
+
+  @Setter(AccessLevel.NONE)
+  @Column(name = "state_normalized", nullable = false, length = 2)
+  private String stateNormalized;
+
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @CreationTimestamp
+  @Column(name = "created_at", updatable = false)
+  private LocalDateTime createdAt;
+
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  // Soft-delete marker, written by @SQLDelete and by the bulk deletes
+  @Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
+  public void setNeighborhood(String neighborhood) {
+    this.neighborhood = neighborhood;
+    this.neighborhoodNormalized = TextNormalizer.normalize(neighborhood);
+  }
+
+  public void setCity(String city) {
+    this.city = city;
+    this.cityNormalized = TextNormalizer.normalize(city);
+  }
+
+  public void setState(String state) {
+    this.state = state;
+    this.stateNormalized = TextNormalizer.normalize(state);
+  }
 }
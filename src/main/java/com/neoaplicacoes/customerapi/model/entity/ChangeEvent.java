@@ -0,0 +1,39 @@
+package com.neoaplicacoes.customerapi.model.entity;
+
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Outbox row written in the same transaction as the mutation it describes. The id doubles as the
+ * cursor of the change feed.
+ */
+@Entity
+@Table(name = "change_events")
+@Data
+public class ChangeEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "aggregate_type", nullable = false, length = 20)
+  private AggregateType aggregateType;
+
+  @Column(name = "aggregate_id", nullable = false)
+  private Long aggregateId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "change_type", nullable = false, length = 10)
+  private ChangeType changeType;
+
+  // JSON of the resource after the change; null for deletes
+  @Column(length = 10000)
+  private String payload;
+
+  @Column(name = "occurred_at", nullable = false)
+  private LocalDateTime occurredAt;
+}
@@ -5,11 +5,25 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Table(name = "customers")
+@DynamicUpdate
+@SQLDelete(
+    sql =
+        "UPDATE customers SET deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP"
+            + " WHERE id = ? AND version = ?")
+@SQLRestriction("deleted_at IS NULL")
 @Data
 public class Customer {
 
@@ -23,12 +37,12 @@ public class Customer {
 
   @Email
   @NotBlank
-  @Column(nullable = false, unique = true)
+  @Column(nullable = false)
   private String email;
 
   @NotBlank
   @Pattern(regexp = "\\d{11}", message = "CPF must have exactly 11 digits")
-  @Column(name = "cpf", length = 11, nullable = false, unique = true)
+  @Column(name = "cpf", length = 11, nullable = false)
   private String cpf;
 
   private String phone;
@@ -36,13 +50,41 @@ public class Customer {
   @Column(name = "birth_date", nullable = false)
   private LocalDate birthDate;
 
-  @OneToOne(cascade = CascadeType.ALL)
+  @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @JoinColumn(name = "address_id")
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private Address address;
 
+  // Read-only copy of the FK, so the address can be batch-loaded without touching the proxy
+  @Column(name = "address_id", insertable = false, updatable = false)
+  private Long addressId;
+
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @CreationTimestamp
+  @Column(name = "created_at", updatable = false)
+  private LocalDateTime createdAt;
+
+  // Watermark of the change feed; also moved by deletes and by address changes
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  // Set by deletes (see @SQLDelete); such rows are invisible to queries until purged
+  @Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
   @Transient
   public Integer getAge() {
+    return getAge(LocalDate.now());
+  }
+
+  @Transient
+  public Integer getAge(LocalDate today) {
     if (this.birthDate == null) return null;
-    return Period.between(this.birthDate, LocalDate.now()).getYears();
+    return (int) ChronoUnit.YEARS.between(this.birthDate, today);
   }
 }
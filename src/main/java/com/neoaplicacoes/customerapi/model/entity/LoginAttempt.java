@@ -0,0 +1,30 @@
+package com.neoaplicacoes.customerapi.model.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Persisted failed-login counter of one email or IP address. */
+@Entity
+@Table(name = "login_attempts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAttempt {
+
+  // "email:<address>" or "ip:<address>"
+  @Id
+  @Column(length = 330)
+  private String subject;
+
+  @Column(nullable = false)
+  private int failures;
+
+  @Column(name = "locked_until")
+  private LocalDateTime lockedUntil;
+
+  @Column(name = "last_failure_at", nullable = false)
+  private LocalDateTime lastFailureAt;
+}
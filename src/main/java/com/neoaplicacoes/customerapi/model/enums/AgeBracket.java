@@ -0,0 +1,64 @@
+package com.neoaplicacoes.customerapi.model.enums;
+
+import com.neoaplicacoes.customerapi.util.BirthDateRange;
+import java.time.LocalDate;
+
+/** Age brackets used by the customer statistics. */
+public enum AgeBracket {
+  UNDER_18("0-17", 0, 17),
+  FROM_18_TO_24("18-24", 18, 24),
+  FROM_25_TO_34("25-34", 25, 34),
+  FROM_35_TO_44("35-44", 35, 44),
+  FROM_45_TO_54("45-54", 45, 54),
+  FROM_55_TO_64("55-64", 55, 64),
+  FROM_65("65+", 65, null);
+
+  private final String label;
+  private final int minAge;
+  private final Integer maxAge;
+
+  AgeBracket(String label, int minAge, Integer maxAge) {
+    this.label = label;
+    this.minAge = minAge;
+    this.maxAge = maxAge;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  /**
+   * Finds the bracket for an age in years.
+   *
+   * @param age the age, never negative
+   * @return the matching bracket
+   */
+  public static AgeBracket of(int age) {
+    for (AgeBracket bracket : values()) {
+      if (bracket.maxAge == null || age <= bracket.maxAge) {
+        return bracket;
+      }
+    }
+    return FROM_65;
+  }
+
+  /**
+   * Latest birth date (inclusive) of someone inside this bracket on the given day.
+   *
+   * @param today the reference day
+   * @return the upper bound for birth_date
+   */
+  public LocalDate bornOnOrBefore(LocalDate today) {
+    return BirthDateRange.latestBirthDate(minAge, today);
+  }
+
+  /**
+   * Earliest birth date (inclusive) of someone inside this bracket on the given day.
+   *
+   * @param today the reference day
+   * @return the lower bound for birth_date, or null for the open-ended bracket
+   */
+  public LocalDate bornOnOrAfter(LocalDate today) {
+    return maxAge == null ? null : BirthDateRange.earliestBirthDate(maxAge, today);
+  }
+}
@@ -0,0 +1,8 @@
+package com.neoaplicacoes.customerapi.model.enums;
+
+/** Kind of resource a change event refers to. */
+public enum AggregateType {
+  CUSTOMER,
+  ADDRESS,
+  USER
+}
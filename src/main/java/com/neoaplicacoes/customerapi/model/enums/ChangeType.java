@@ -0,0 +1,8 @@
+package com.neoaplicacoes.customerapi.model.enums;
+
+/** What happened to the resource a change event refers to. */
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED
+}
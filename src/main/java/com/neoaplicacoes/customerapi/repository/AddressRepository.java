@@ -1,11 +1,16 @@
 package com.neoaplicacoes.customerapi.repository;
 
 import com.neoaplicacoes.customerapi.model.entity.Address;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,31 +41,33 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
   Optional<Address> findByCepAndStreetAndNumber(String cep, String street, String number);
 
   // Common filters
+  // City, state and neighborhood filters run against the *_normalized shadow columns, so the
+  // arguments must already be folded with TextNormalizer.
 
   /**
-   * Find addresses by city (case-insensitive).
+   * Find addresses by normalized city.
    *
-   * @param city the city name
+   * @param city the city name, normalized
    * @return list of matching addresses
    */
-  List<Address> findByCityIgnoreCase(String city);
+  List<Address> findByCityNormalized(String city);
 
-  Page<Address> findByCityIgnoreCase(String city, Pageable pageable);
+  Page<Address> findByCityNormalized(String city, Pageable pageable);
 
-  List<Address> findByStateIgnoreCase(String state);
+  List<Address> findByStateNormalized(String state);
 
-  Page<Address> findByStateIgnoreCase(String state, Pageable pageable);
+  Page<Address> findByStateNormalized(String state, Pageable pageable);
 
-  List<Address> findByNeighborhoodIgnoreCase(String neighborhood);
+  List<Address> findByNeighborhoodNormalized(String neighborhood);
 
-  Page<Address> findByNeighborhoodIgnoreCase(String neighborhood, Pageable pageable);
+  Page<Address> findByNeighborhoodNormalized(String neighborhood, Pageable pageable);
 
-  List<Address> findByCityIgnoreCaseAndNeighborhoodIgnoreCase(String city, String neighborhood);
+  List<Address> findByCityNormalizedAndNeighborhoodNormalized(String city, String neighborhood);
 
-  Page<Address> findByCityIgnoreCaseAndNeighborhoodIgnoreCase(
+  Page<Address> findByCityNormalizedAndNeighborhoodNormalized(
       String city, String neighborhood, Pageable pageable);
 
-  List<Address> findByCepAndStateIgnoreCase(String cep, String state);
+  List<Address> findByCepAndStateNormalized(String cep, String state);
 
   // Convenience filters
 
@@ -68,8 +75,59 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
 
   Page<Address> findByStreetContainingIgnoreCase(String street, Pageable pageable);
 
-  List<Address> findByCityIgnoreCaseAndStreetContainingIgnoreCase(String city, String street);
+  List<Address> findByCityNormalizedAndStreetContainingIgnoreCase(String city, String street);
 
-  Page<Address> findByCityIgnoreCaseAndStreetContainingIgnoreCase(
+  Page<Address> findByCityNormalizedAndStreetContainingIgnoreCase(
       String city, String street, Pageable pageable);
+
+  // Slices: the paged queries without their count query (compact envelope, see PageQueries)
+
+  Slice<Address> findSliceBy(Pageable pageable);
+
+  Slice<Address> findSliceByCityNormalized(String city, Pageable pageable);
+
+  Slice<Address> findSliceByStateNormalized(String state, Pageable pageable);
+
+  Slice<Address> findSliceByNeighborhoodNormalized(String neighborhood, Pageable pageable);
+
+  Slice<Address> findSliceByCityNormalizedAndNeighborhoodNormalized(
+      String city, String neighborhood, Pageable pageable);
+
+  Slice<Address> findSliceByStreetContainingIgnoreCase(String street, Pageable pageable);
+
+  Slice<Address> findSliceByCityNormalizedAndStreetContainingIgnoreCase(
+      String city, String street, Pageable pageable);
+
+  // Bulk delete
+
+  /**
+   * Soft-delete addresses with a single statement. Customers living at them must be marked first.
+   *
+   * @param ids address ids
+   * @return number of rows marked
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update Address a set a.deletedAt = CURRENT_TIMESTAMP, a.updatedAt = CURRENT_TIMESTAMP,"
+          + " a.version = a.version + 1"
+          + " where a.id in :ids and a.deletedAt is null")
+  int markDeletedByIdIn(Collection<Long> ids);
+
+  /**
+   * Physically remove up to {@code limit} addresses soft-deleted before the cutoff. Addresses still
+   * referenced by a customer row (even a deleted one) are kept until that customer is purged.
+   *
+   * @param cutoff rows deleted before this instant are removed
+   * @param limit maximum rows per call
+   * @return number of rows removed
+   */
+  @Modifying
+  @Query(
+      value =
+          "delete from addresses where id in (select a.id from addresses a"
+              + " where a.deleted_at < :cutoff"
+              + " and not exists (select 1 from customers c where c.address_id = a.id)"
+              + " order by a.id limit :limit)",
+      nativeQuery = true)
+  int purgeDeletedBefore(LocalDateTime cutoff, int limit);
 }
@@ -0,0 +1,66 @@
+package com.neoaplicacoes.customerapi.repository;
+
+import com.neoaplicacoes.customerapi.model.entity.ChangeEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+  /**
+   * Next batch of the feed, before the reader holds back anything past a gap in the ids.
+   *
+   * @param cursor last id the consumer has seen
+   * @param limit batch size (page 0)
+   * @return events in id order
+   */
+  List<ChangeEvent> findByIdGreaterThanOrderByIdAsc(Long cursor, Pageable limit);
+
+  // Set-based tombstones for the bulk delete paths: one INSERT ... SELECT per chunk instead of
+  // one insert per row. They must run before the rows are marked deleted.
+
+  @Modifying
+  @Query(
+      value =
+          "insert into change_events (aggregate_type, aggregate_id, change_type, occurred_at)"
+              + " select 'CUSTOMER', c.id, 'DELETED', :occurredAt from customers c"
+              + " where c.id in (:ids) and c.deleted_at is null",
+      nativeQuery = true)
+  int insertCustomerDeletions(List<Long> ids, LocalDateTime occurredAt);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into change_events (aggregate_type, aggregate_id, change_type, occurred_at)"
+              + " select 'CUSTOMER', c.id, 'DELETED', :occurredAt from customers c"
+              + " where c.address_id in (:addressIds) and c.deleted_at is null",
+      nativeQuery = true)
+  int insertCustomerDeletionsAtAddresses(List<Long> addressIds, LocalDateTime occurredAt);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into change_events (aggregate_type, aggregate_id, change_type, occurred_at)"
+              + " select 'ADDRESS', a.id, 'DELETED', :occurredAt from addresses a"
+              + " where a.id in (:ids) and a.deleted_at is null",
+      nativeQuery = true)
+  int insertAddressDeletions(List<Long> ids, LocalDateTime occurredAt);
+
+  /**
+   * Removes up to {@code limit} events older than the cutoff, oldest first.
+   *
+   * @return rows removed
+   */
+  @Modifying
+  @Query(
+      value =
+          "delete from change_events where id in (select id from change_events"
+              + " where occurred_at < :cutoff order by id limit :limit)",
+      nativeQuery = true)
+  int deleteOccurredBefore(LocalDateTime cutoff, int limit);
+}
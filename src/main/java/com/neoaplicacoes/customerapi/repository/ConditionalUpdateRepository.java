@@ -0,0 +1,46 @@
+package com.neoaplicacoes.customerapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.Map;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compare-and-set updates for versioned entities. The changed columns are written with a single
+ * {@code UPDATE ... SET <changes>, version = version + 1 WHERE id = ? AND version = ?}, without
+ * loading the row first; the caller learns from the row count whether the version still matched.
+ * {@code updatedAt} is set as well, since {@code @UpdateTimestamp} does not apply to bulk updates.
+ */
+@Repository
+public class ConditionalUpdateRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Updates the given attributes if the row is still at the expected version.
+   *
+   * @param type the entity class; must have {@code id}, {@code version} and {@code updatedAt}
+   *     attributes
+   * @param id the row id
+   * @param expectedVersion the version the client last saw
+   * @param changes attribute name to new value (null clears the column)
+   * @return 1 if the row was updated, 0 if it does not exist or has another version
+   */
+  @Transactional
+  public <T> int updateIfVersion(
+      Class<T> type, Long id, long expectedVersion, Map<String, Object> changes) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaUpdate<T> update = cb.createCriteriaUpdate(type);
+    Root<T> root = update.from(type);
+    changes.forEach(update::set);
+    update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+    update.set(root.<LocalDateTime>get("updatedAt"), cb.localDateTime());
+    update.where(cb.equal(root.get("id"), id), cb.equal(root.get("version"), expectedVersion));
+    return entityManager.createQuery(update).executeUpdate();
+  }
+}
@@ -1,10 +1,21 @@
 package com.neoaplicacoes.customerapi.repository;
 
 import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.repository.projection.ChangeRow;
+import com.neoaplicacoes.customerapi.repository.projection.GroupCount;
+import com.neoaplicacoes.customerapi.repository.projection.ResidentRow;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,6 +25,16 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+  /**
+   * Find a customer by id, fetching its address in the same query.
+   *
+   * @param id the id
+   * @return the customer, if any
+   */
+  @Override
+  @EntityGraph(attributePaths = "address")
+  Optional<Customer> findById(Long id);
+
   // Basic lookup methods
 
   /**
@@ -100,56 +121,405 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
   Page<Customer> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
       String name, String email, Pageable pageable);
 
+  // Address filters run against the *_normalized shadow columns of the address, so the
+  // arguments must already be folded with TextNormalizer.
+
   /**
-   * Find customers by city in the address (case-insensitive).
+   * Find customers by normalized city in the address.
    *
-   * @param city the city to search for
+   * @param city the city to search for, normalized
    * @return list of matching customers
    */
-  List<Customer> findByAddressCityIgnoreCase(String city);
+  List<Customer> findByAddressCityNormalized(String city);
 
   /**
-   * Find customers by city in the address (case-insensitive) with pagination.
+   * Find customers by normalized city in the address with pagination.
    *
-   * @param city the city to search for
+   * @param city the city to search for, normalized
    * @param pageable page request information
    * @return paged result of customers
    */
-  Page<Customer> findByAddressCityIgnoreCase(String city, Pageable pageable);
+  Page<Customer> findByAddressCityNormalized(String city, Pageable pageable);
 
   /**
-   * Find customers by state (case-insensitive).
+   * Find customers by normalized state.
    *
-   * @param state the state to search for
+   * @param state the state to search for, normalized
    * @return list of matching customers
    */
-  List<Customer> findByAddressStateIgnoreCase(String state);
+  List<Customer> findByAddressStateNormalized(String state);
 
   /**
-   * Find customers by state (case-insensitive) with pagination.
+   * Find customers by normalized state with pagination.
    *
-   * @param state the state to search for
+   * @param state the state to search for, normalized
    * @param pageable page request information
    * @return paged result of customers
    */
-  Page<Customer> findByAddressStateIgnoreCase(String state, Pageable pageable);
+  Page<Customer> findByAddressStateNormalized(String state, Pageable pageable);
 
   /**
-   * Find customers by city and neighborhood (case-insensitive).
+   * Find customers by normalized city and neighborhood.
    *
-   * @param city the city to search for
+   * @param city the city to search for, normalized
+   * @param neighborhood the neighborhood to search for, normalized
    * @return list of matching customers
    */
-  List<Customer> findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
+  List<Customer> findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
       String city, String neighborhood);
 
   /**
-   * Find customers by city and neighborhood (case-insensitive) with pagination.
+   * Find customers by normalized city and neighborhood with pagination.
    *
-   * @param city the city to search for
-   * @param neighborhood the neighborhood to search for
+   * @param city the city to search for, normalized
+   * @param neighborhood the neighborhood to search for, normalized
+   * @param pageable page request information
    * @return paged result of customers
    */
-  Page<Customer> findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
+  Page<Customer> findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
       String city, String neighborhood, Pageable pageable);
+
+  // Batch lookups (IN queries, see BatchLookup)
+
+  /**
+   * Find customers by a list of ids, fetching their addresses in the same query.
+   *
+   * @param ids the ids
+   * @return matching customers, in no particular order
+   */
+  @EntityGraph(attributePaths = "address")
+  List<Customer> findByIdIn(Collection<Long> ids);
+
+  /**
+   * Find customers by a list of CPFs, fetching their addresses in the same query.
+   *
+   * @param cpfs the CPFs
+   * @return matching customers, in no particular order
+   */
+  @EntityGraph(attributePaths = "address")
+  List<Customer> findByCpfIn(Collection<String> cpfs);
+
+  /**
+   * Find customers by a list of emails (exact match), fetching their addresses in the same query.
+   *
+   * @param emails the emails
+   * @return matching customers, in no particular order
+   */
+  @EntityGraph(attributePaths = "address")
+  List<Customer> findByEmailIn(Collection<String> emails);
+
+  // Birth date ranges (age filters are translated into these, see BirthDateRange)
+
+  /**
+   * Find customers born inside a date range (inclusive).
+   *
+   * @param from earliest birth date
+   * @param to latest birth date
+   * @return list of matching customers
+   */
+  List<Customer> findByBirthDateBetween(LocalDate from, LocalDate to);
+
+  /**
+   * Find customers born inside a date range (inclusive) with pagination.
+   *
+   * @param from earliest birth date
+   * @param to latest birth date
+   * @param pageable page request information
+   * @return paged result of customers
+   */
+  Page<Customer> findByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+  /**
+   * Find customers born on or after a date.
+   *
+   * @param from earliest birth date
+   * @return list of matching customers
+   */
+  List<Customer> findByBirthDateGreaterThanEqual(LocalDate from);
+
+  /**
+   * Find customers born on or after a date with pagination.
+   *
+   * @param from earliest birth date
+   * @param pageable page request information
+   * @return paged result of customers
+   */
+  Page<Customer> findByBirthDateGreaterThanEqual(LocalDate from, Pageable pageable);
+
+  /**
+   * Find customers born on or before a date.
+   *
+   * @param to latest birth date
+   * @return list of matching customers
+   */
+  List<Customer> findByBirthDateLessThanEqual(LocalDate to);
+
+  /**
+   * Find customers born on or before a date with pagination.
+   *
+   * @param to latest birth date
+   * @param pageable page request information
+   * @return paged result of customers
+   */
+  Page<Customer> findByBirthDateLessThanEqual(LocalDate to, Pageable pageable);
+
+  // Slices: the paged queries above without their count query. The compact envelope only needs
+  // to know whether there is a next page (see PageQueries).
+
+  /**
+   * Page of all customers, without counting them.
+   *
+   * @param pageable page request information
+   * @return the customers of the page and whether there is a next one
+   */
+  Slice<Customer> findSliceBy(Pageable pageable);
+
+  Slice<Customer> findSliceByNameContainingIgnoreCase(String name, Pageable pageable);
+
+  Slice<Customer> findSliceByEmailContainingIgnoreCase(String email, Pageable pageable);
+
+  Slice<Customer> findSliceByCpfContaining(String cpf, Pageable pageable);
+
+  Slice<Customer> findSliceByAddressCityNormalized(String city, Pageable pageable);
+
+  Slice<Customer> findSliceByAddressStateNormalized(String state, Pageable pageable);
+
+  Slice<Customer> findSliceByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+      String city, String neighborhood, Pageable pageable);
+
+  Slice<Customer> findSliceByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+  Slice<Customer> findSliceByBirthDateGreaterThanEqual(LocalDate from, Pageable pageable);
+
+  Slice<Customer> findSliceByBirthDateLessThanEqual(LocalDate to, Pageable pageable);
+
+  // Aggregations (used to reconcile the customer statistics)
+
+  /**
+   * Count customers grouped by normalized state.
+   *
+   * @return one row per state
+   */
+  @Query(
+      "select a.stateNormalized as state, count(c) as total from Customer c join c.address a"
+          + " group by a.stateNormalized")
+  List<GroupCount> countGroupedByState();
+
+  /**
+   * Count customers grouped by normalized state and city.
+   *
+   * @return one row per (state, city)
+   */
+  @Query(
+      "select a.stateNormalized as state, a.cityNormalized as city, count(c) as total"
+          + " from Customer c join c.address a group by a.stateNormalized, a.cityNormalized")
+  List<GroupCount> countGroupedByStateAndCity();
+
+  /**
+   * Count customers born inside a date range (inclusive).
+   *
+   * @param from earliest birth date
+   * @param to latest birth date
+   * @return number of customers
+   */
+  long countByBirthDateBetween(LocalDate from, LocalDate to);
+
+  /**
+   * Count customers born on or before a date.
+   *
+   * @param to latest birth date
+   * @return number of customers
+   */
+  long countByBirthDateLessThanEqual(LocalDate to);
+
+  /**
+   * Customers living at an address, with the address location they are counted under.
+   *
+   * @param addressId the address id
+   * @return one row per customer
+   */
+  @Query(
+      "select a.stateNormalized as state, a.cityNormalized as city, c.birthDate as birthDate"
+          + " from Customer c join c.address a where c.addressId = :addressId")
+  List<ResidentRow> findResidentsByAddressId(Long addressId);
+
+  /**
+   * Customers living at any of the given addresses, with the location they are counted under.
+   *
+   * @param addressIds address ids
+   * @return one row per customer
+   */
+  @Query(
+      "select a.stateNormalized as state, a.cityNormalized as city, c.birthDate as birthDate"
+          + " from Customer c join c.address a where c.addressId in :addressIds")
+  List<ResidentRow> findResidentsByAddressIdIn(Collection<Long> addressIds);
+
+  /**
+   * The given customers with the location they are counted under.
+   *
+   * @param ids customer ids
+   * @return one row per customer that has an address
+   */
+  @Query(
+      "select a.stateNormalized as state, a.cityNormalized as city, c.birthDate as birthDate"
+          + " from Customer c join c.address a where c.id in :ids")
+  List<ResidentRow> findResidentsByIdIn(Collection<Long> ids);
+
+  // Bulk delete: set-based soft deletes, run one chunk per transaction by the service,
+  // and the physical purge of soft-deleted rows
+
+  // One query per filter combination instead of optional ":x is null or" predicates: with a
+  // plain equality on state_normalized the planner can prune the addresses partitions (V9)
+  // even for generic prepared-statement plans. The created-before cut-off is always bound (the
+  // service defaults it to the start of the request), so rows inserted while a long purge runs are
+  // never swept up by it.
+
+  /**
+   * Ids of the customers created before a cut-off, lowest first.
+   *
+   * @param createdBefore exclusive upper bound of {@code created_at}
+   * @param limit how many ids to return (page 0)
+   * @return the next chunk of ids
+   */
+  @Query("select c.id from Customer c where c.createdAt < :createdBefore order by c.id")
+  List<Long> findIdsCreatedBefore(LocalDateTime createdBefore, Pageable limit);
+
+  /**
+   * Ids of the customers living in a state, lowest first.
+   *
+   * @param state normalized state
+   * @param createdBefore exclusive upper bound of {@code created_at}
+   * @param limit how many ids to return (page 0)
+   * @return the next chunk of ids
+   */
+  @Query(
+      "select c.id from Customer c join c.address a"
+          + " where a.stateNormalized = :state and c.createdAt < :createdBefore"
+          + " order by c.id")
+  List<Long> findIdsByState(String state, LocalDateTime createdBefore, Pageable limit);
+
+  /**
+   * Ids of the customers living in a city of a state, lowest first.
+   *
+   * @param state normalized state
+   * @param city normalized city
+   * @param createdBefore exclusive upper bound of {@code created_at}
+   * @param limit how many ids to return (page 0)
+   * @return the next chunk of ids
+   */
+  @Query(
+      "select c.id from Customer c join c.address a"
+          + " where a.stateNormalized = :state and a.cityNormalized = :city"
+          + " and c.createdAt < :createdBefore"
+          + " order by c.id")
+  List<Long> findIdsByStateAndCity(
+      String state, String city, LocalDateTime createdBefore, Pageable limit);
+
+  /**
+   * Ids of the customers living in a city of any state, lowest first. Scans every partition.
+   *
+   * @param city normalized city
+   * @param createdBefore exclusive upper bound of {@code created_at}
+   * @param limit how many ids to return (page 0)
+   * @return the next chunk of ids
+   */
+  @Query(
+      "select c.id from Customer c join c.address a"
+          + " where a.cityNormalized = :city and c.createdAt < :createdBefore"
+          + " order by c.id")
+  List<Long> findIdsByCity(String city, LocalDateTime createdBefore, Pageable limit);
+
+  /**
+   * Address ids referenced by the given customers.
+   *
+   * @param ids customer ids
+   * @return the address ids
+   */
+  @Query("select c.addressId from Customer c where c.id in :ids")
+  List<Long> findAddressIdsByIdIn(Collection<Long> ids);
+
+  /**
+   * Ids of the customers living at the given addresses.
+   *
+   * @param addressIds address ids
+   * @return the customer ids
+   */
+  @Query("select c.id from Customer c where c.addressId in :addressIds")
+  List<Long> findIdsByAddressIdIn(Collection<Long> addressIds);
+
+  /**
+   * Soft-delete customers with a single statement. The version is bumped so outstanding ETags stop
+   * matching.
+   *
+   * @param ids customer ids
+   * @return number of rows marked
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update Customer c set c.deletedAt = CURRENT_TIMESTAMP, c.updatedAt = CURRENT_TIMESTAMP,"
+          + " c.version = c.version + 1 where c.id in :ids and c.deletedAt is null")
+  int markDeletedByIdIn(Collection<Long> ids);
+
+  /**
+   * Soft-delete the customers living at the given addresses with a single statement.
+   *
+   * @param addressIds address ids
+   * @return number of rows marked
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update Customer c set c.deletedAt = CURRENT_TIMESTAMP, c.updatedAt = CURRENT_TIMESTAMP,"
+          + " c.version = c.version + 1 where c.addressId in :addressIds and c.deletedAt is null")
+  int markDeletedByAddressIdIn(Collection<Long> addressIds);
+
+  /**
+   * Moves the watermark of the customers living at the given addresses, whose representation embeds
+   * the address. The version is bumped as well, so their ETags change.
+   *
+   * @param addressIds changed addresses
+   * @return number of customers touched
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "update Customer c set c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1"
+          + " where c.addressId in :addressIds")
+  int touchByAddressIdIn(Collection<Long> addressIds);
+
+  // Delta sync
+
+  /**
+   * Customers changed after a keyset position, soft-deleted ones included (native, so the
+   * deleted_at filter of the entity does not apply). The redundant {@code updated_at >= :since}
+   * gives the planner a range on idx_customers_updated_at.
+   *
+   * @param since watermark of the last row seen
+   * @param afterId id of the last row seen
+   * @param horizon rows changed after this instant are left for a later call
+   * @param limit maximum rows
+   * @return rows in (updated_at, id) order
+   */
+  @Query(
+      value =
+          "select id as id, updated_at as updatedAt, deleted_at as deletedAt from customers"
+              + " where updated_at >= :since and (updated_at > :since or id > :afterId)"
+              + " and updated_at <= :horizon"
+              + " order by updated_at, id limit :limit",
+      nativeQuery = true)
+  List<ChangeRow> findChangedAfter(
+      LocalDateTime since, long afterId, LocalDateTime horizon, int limit);
+
+  /**
+   * Physically remove up to {@code limit} customers soft-deleted before the cutoff.
+   *
+   * @param cutoff rows deleted before this instant are removed
+   * @param limit maximum rows per call
+   * @return number of rows removed
+   */
+  @Modifying
+  @Query(
+      value =
+          "delete from customers where id in (select id from customers"
+              + " where deleted_at < :cutoff order by id limit :limit)",
+      nativeQuery = true)
+  int purgeDeletedBefore(LocalDateTime cutoff, int limit);
 }
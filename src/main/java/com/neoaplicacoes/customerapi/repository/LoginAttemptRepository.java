@@ -0,0 +1,75 @@
+package com.neoaplicacoes.customerapi.repository;
+
+import com.neoaplicacoes.customerapi.model.entity.LoginAttempt;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, String> {
+
+  /**
+   * Counts one failure in place, so concurrent failures on any instance are all counted. A subject
+   * whose failures have expired starts over at 1.
+   *
+   * @param subject the subject
+   * @param now time of the failure
+   * @param cutoff failures older than this (and not locked past it) are forgotten
+   * @return 1 if the subject had a row, 0 otherwise
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "update LoginAttempt a set a.failures = case when a.lastFailureAt < :cutoff"
+          + " and (a.lockedUntil is null or a.lockedUntil < :cutoff) then 1"
+          + " else a.failures + 1 end, a.lastFailureAt = :now where a.subject = :subject")
+  int incrementFailures(String subject, LocalDateTime now, LocalDateTime cutoff);
+
+  /**
+   * First failure of a subject. Fails with a duplicate key if another instance inserted it first.
+   *
+   * @param subject the subject
+   * @param now time of the failure
+   * @return rows inserted
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO login_attempts (subject, failures, locked_until, last_failure_at)"
+              + " VALUES (:subject, 1, NULL, :now)",
+      nativeQuery = true)
+  int insertFirstFailure(String subject, LocalDateTime now);
+
+  /**
+   * Extends the lock, never shortens it: of two concurrent failures the one with the higher count
+   * wins whatever the order of the writes.
+   *
+   * @param subject the subject
+   * @param lockedUntil new end of the lock
+   * @return rows updated
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "update LoginAttempt a set a.lockedUntil = :lockedUntil where a.subject = :subject"
+          + " and (a.lockedUntil is null or a.lockedUntil < :lockedUntil)")
+  int extendLock(String subject, LocalDateTime lockedUntil);
+
+  /** Forgets a subject, whether or not it has a row. */
+  @Modifying
+  @Transactional
+  @Query("delete from LoginAttempt a where a.subject = :subject")
+  int forget(String subject);
+
+  /** Forgets subjects whose last failure is older than the cutoff and that are not locked. */
+  @Modifying
+  @Transactional
+  @Query(
+      "delete from LoginAttempt a where a.lastFailureAt < :cutoff"
+          + " and (a.lockedUntil is null or a.lockedUntil < :cutoff)")
+  int deleteExpired(LocalDateTime cutoff);
+}
@@ -1,10 +1,14 @@
 package com.neoaplicacoes.customerapi.repository;
 
 import com.neoaplicacoes.customerapi.model.entity.User;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -72,4 +76,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return paged result of users
    */
   Page<User> findByActive(Boolean active, Pageable pageable);
+
+  // =========================
+  // Slices: the paged queries without their count query (compact envelope, see PageQueries)
+  // =========================
+
+  /**
+   * Page of all users, without counting them.
+   *
+   * @param pageable page request information
+   * @return the users of the page and whether there is a next one
+   */
+  Slice<User> findSliceBy(Pageable pageable);
+
+  Slice<User> findSliceByEmailContainingIgnoreCase(String email, Pageable pageable);
+
+  Slice<User> findSliceByRoleIgnoreCase(String role, Pageable pageable);
+
+  Slice<User> findSliceByActive(Boolean active, Pageable pageable);
+
+  // =========================
+  // Purge of soft-deleted rows
+  // =========================
+
+  /**
+   * Physically remove up to {@code limit} users soft-deleted before the cutoff.
+   *
+   * @param cutoff rows deleted before this instant are removed
+   * @param limit maximum rows per call
+   * @return number of rows removed
+   */
+  @Modifying
+  @Query(
+      value =
+          "delete from users where id in (select id from users"
+              + " where deleted_at < :cutoff order by id limit :limit)",
+      nativeQuery = true)
+  int purgeDeletedBefore(LocalDateTime cutoff, int limit);
 }
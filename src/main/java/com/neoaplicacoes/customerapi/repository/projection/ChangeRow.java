@@ -0,0 +1,13 @@
+package com.neoaplicacoes.customerapi.repository.projection;
+
+import java.time.LocalDateTime;
+
+/** Row of a keyset change query: id, watermark and, for tombstones, when it was deleted. */
+public interface ChangeRow {
+
+  Long getId();
+
+  LocalDateTime getUpdatedAt();
+
+  LocalDateTime getDeletedAt();
+}
@@ -0,0 +1,11 @@
+package com.neoaplicacoes.customerapi.repository.projection;
+
+/** Row of a GROUP BY count query: the grouping key(s) and the number of rows in the group. */
+public interface GroupCount {
+
+  String getState();
+
+  String getCity();
+
+  long getTotal();
+}
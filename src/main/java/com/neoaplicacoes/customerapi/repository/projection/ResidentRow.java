@@ -0,0 +1,13 @@
+package com.neoaplicacoes.customerapi.repository.projection;
+
+import java.time.LocalDate;
+
+/** Customer living at an address, reduced to what the statistics counters group by. */
+public interface ResidentRow {
+
+  String getState();
+
+  String getCity();
+
+  LocalDate getBirthDate();
+}
@@ -3,13 +3,17 @@ package com.neoaplicacoes.customerapi.security.controller;
 import com.neoaplicacoes.customerapi.model.dto.request.UserRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.UserResponseDTO;
 import com.neoaplicacoes.customerapi.security.service.CustomUserDetailsService;
+import com.neoaplicacoes.customerapi.security.service.LoginAttemptService;
 import com.neoaplicacoes.customerapi.security.util.JwtUtils;
 import com.neoaplicacoes.customerapi.service.UserService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -26,27 +30,42 @@ public class AuthController {
   private final CustomUserDetailsService userDetailsService;
   private final JwtUtils jwtUtils;
   private final UserService userService;
+  private final LoginAttemptService loginAttemptService;
 
   @Autowired
   public AuthController(
       AuthenticationManager authenticationManager,
       CustomUserDetailsService userDetailsService,
       JwtUtils jwtUtils,
-      UserService userService) {
+      UserService userService,
+      LoginAttemptService loginAttemptService) {
     this.authenticationManager = authenticationManager;
     this.userDetailsService = userDetailsService;
     this.jwtUtils = jwtUtils;
     this.userService = userService;
+    this.loginAttemptService = loginAttemptService;
   }
 
   /**
    * Endpoint to login user and return JWT token.
    *
    * @param request UserRequestDTO containing email and password
-   * @return JWT token + user info
+   * @param httpRequest the HTTP request, for the client address
+   * @return JWT token + user info, 401 on bad credentials, 429 while the email or address is locked
+   *     out after repeated failures
    */
   @PostMapping("/login")
-  public ResponseEntity<?> login(@Valid @RequestBody UserRequestDTO request) {
+  public ResponseEntity<?> login(
+      @Valid @RequestBody UserRequestDTO request, HttpServletRequest httpRequest) {
+    String ip = httpRequest.getRemoteAddr();
+    // Checked first: a locked attempt must not cost a user lookup and a BCrypt verification
+    long lockedSeconds = loginAttemptService.lockedSeconds(request.email(), ip);
+    if (lockedSeconds > 0) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(lockedSeconds))
+          .body("Too many failed login attempts, retry in " + lockedSeconds + "s");
+    }
+
     try {
       // Authenticate email/password
       authenticationManager.authenticate(
@@ -58,6 +77,7 @@ public class AuthController {
 
       // Load user info for response
       UserResponseDTO userDto = userService.getByEmail(request.email()).get(0);
+      loginAttemptService.loginSucceeded(request.email());
 
       Map<String, Object> response = new HashMap<>();
       response.put("token", token);
@@ -66,6 +86,7 @@ public class AuthController {
       return ResponseEntity.ok(response);
 
     } catch (BadCredentialsException e) {
+      loginAttemptService.loginFailed(request.email(), ip);
       return ResponseEntity.status(401).body("Invalid email or password");
     }
   }
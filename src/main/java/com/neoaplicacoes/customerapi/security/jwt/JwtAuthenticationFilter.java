@@ -1,6 +1,8 @@
 package com.neoaplicacoes.customerapi.security.jwt;
 
+import com.neoaplicacoes.customerapi.config.RequestIdFilter;
 import com.neoaplicacoes.customerapi.security.service.CustomUserDetailsService;
+import com.neoaplicacoes.customerapi.security.service.CustomUserDetailsService.AccountUser;
 import com.neoaplicacoes.customerapi.security.util.JwtUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,8 +11,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -56,6 +60,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
           SecurityContextHolder.getContext().setAuthentication(authentication);
         }
+        // The id, never the email: log lines leave the application
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AccountUser user) {
+          MDC.put(RequestIdFilter.USER, String.valueOf(user.getId()));
+        }
       }
 
     } catch (Exception ex) {
@@ -0,0 +1,81 @@
+package com.neoaplicacoes.customerapi.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.model.dto.response.ErrorResponseDTO;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Throttles requests with {@link RateLimiter}. Runs right after {@code JwtAuthenticationFilter}, so
+ * authenticated clients are limited per user (the email of the token) wherever they connect from,
+ * and anonymous ones, login attempts included, per IP address. Rejected requests get 429 with a
+ * {@code Retry-After} header.
+ *
+ * <p>Not a bean on purpose: Spring Boot would also register a bean filter in the servlet chain,
+ * where it would run before authentication and count every request twice.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final RateLimiter rateLimiter;
+  private final ObjectMapper objectMapper;
+
+  public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+    this.rateLimiter = rateLimiter;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String group =
+        rateLimiter.groupFor(request.getRequestURI().substring(request.getContextPath().length()));
+    if (group != null) {
+      long waitNanos = rateLimiter.tryAcquire(group, clientKey(request));
+      if (waitNanos > 0) {
+        reject(response, group, waitNanos);
+        return;
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  private static String clientKey(HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null
+        && authentication.isAuthenticated()
+        && !(authentication instanceof AnonymousAuthenticationToken)) {
+      return "user:" + authentication.getName();
+    }
+    // The peer address; behind a reverse proxy set server.forward-headers-strategy so that it
+    // is taken from X-Forwarded-For by the container instead of trusting the header here
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private void reject(HttpServletResponse response, String group, long waitNanos)
+      throws IOException {
+    long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    ErrorResponseDTO body =
+        new ErrorResponseDTO(
+            LocalDateTime.now(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too many requests (" + group + "), retry in " + seconds + "s",
+            null);
+    objectMapper.writeValue(response.getOutputStream(), body);
+  }
+}
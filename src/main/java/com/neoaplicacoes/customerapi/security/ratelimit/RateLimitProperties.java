@@ -0,0 +1,31 @@
+package com.neoaplicacoes.customerapi.security.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Rate limits per endpoint group ({@code rate-limit.*} in application.yml).
+ *
+ * @param enabled turns the filter off entirely (tests, local profiling)
+ * @param sweepInterval how often idle buckets are evicted
+ * @param maxKeysPerGroup distinct clients tracked per group; clients beyond that share one bucket
+ * @param groups checked in order, the first group with a matching path applies; requests matching
+ *     no group are not limited
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("30s") Duration sweepInterval,
+    @DefaultValue("100000") int maxKeysPerGroup,
+    @DefaultValue List<Group> groups) {
+
+  /**
+   * @param name group name, used in metrics and in the 429 message
+   * @param paths Ant-style patterns, e.g. {@code /api/customers/all/**}
+   * @param capacity burst size: requests a client can make at once after being idle
+   * @param refillPerMinute sustained rate once the burst is used up
+   */
+  public record Group(String name, List<String> paths, long capacity, long refillPerMinute) {}
+}
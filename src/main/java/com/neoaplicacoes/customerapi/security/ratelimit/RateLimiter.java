@@ -0,0 +1,144 @@
+package com.neoaplicacoes.customerapi.security.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Token buckets per endpoint group and client key.
+ *
+ * <p>Each group keeps its buckets in its own {@link ConcurrentHashMap}, so lookups are lock-free
+ * and writes are striped by key hash. A bucket left idle refills completely and is then
+ * indistinguishable from a new one; the periodic sweep drops those, so memory follows the number of
+ * clients active within one refill window rather than the number ever seen. A group that still
+ * tracks {@code max-keys-per-group} clients lets additional ones share a single overflow bucket, so
+ * a flood of distinct keys is throttled as a whole instead of growing the map.
+ *
+ * <p>Metrics (tag {@code group}): {@code rate_limit.requests} (tag {@code outcome}
+ * allowed/rejected) and the {@code rate_limit.buckets} gauge.
+ */
+@Component
+public class RateLimiter {
+
+  private static final String OVERFLOW_KEY = "";
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final List<GroupLimiter> groups = new ArrayList<>();
+  private final int maxKeys;
+  private final LongSupplier clock;
+
+  @Autowired
+  public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, System::nanoTime);
+  }
+
+  RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+    this.maxKeys = properties.maxKeysPerGroup();
+    this.clock = clock;
+    for (RateLimitProperties.Group group : properties.groups()) {
+      if (group.capacity() < 1 || group.refillPerMinute() < 1) {
+        throw new IllegalArgumentException(
+            "rate-limit group " + group.name() + " needs capacity and refill-per-minute >= 1");
+      }
+      groups.add(new GroupLimiter(group, meterRegistry));
+    }
+  }
+
+  /**
+   * Finds the group of a request path.
+   *
+   * @return the first group with a matching pattern, or null if the path is not limited
+   */
+  public String groupFor(String path) {
+    for (GroupLimiter group : groups) {
+      for (String pattern : group.config.paths()) {
+        if (pathMatcher.match(pattern, path)) {
+          return group.config.name();
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes a token from the client's bucket in the given group.
+   *
+   * @param group a name returned by {@link #groupFor}
+   * @param key identifies the client, e.g. {@code user:<email>} or {@code ip:<address>}
+   * @return 0 if the request may proceed, otherwise the nanoseconds until it may be retried
+   */
+  public long tryAcquire(String group, String key) {
+    GroupLimiter limiter = find(group);
+    long now = clock.getAsLong();
+    TokenBucket bucket = limiter.buckets.get(key);
+    if (bucket == null) {
+      String effectiveKey = limiter.buckets.size() < maxKeys ? key : OVERFLOW_KEY;
+      bucket =
+          limiter.buckets.computeIfAbsent(
+              effectiveKey,
+              k ->
+                  new TokenBucket(
+                      limiter.config.capacity(), limiter.config.refillPerMinute(), now));
+    }
+    long wait = bucket.tryAcquire(now);
+    (wait == 0 ? limiter.allowed : limiter.rejected).increment();
+    return wait;
+  }
+
+  /**
+   * Drops buckets that have refilled completely. A request racing with the removal may still take
+   * its token from the dropped bucket and the next one starts a full bucket: at most one extra
+   * request per client and sweep.
+   */
+  @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:30s}")
+  public void evictIdle() {
+    long now = clock.getAsLong();
+    for (GroupLimiter group : groups) {
+      group.buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+  }
+
+  int buckets(String group) {
+    return find(group).buckets.size();
+  }
+
+  private GroupLimiter find(String group) {
+    for (GroupLimiter limiter : groups) {
+      if (limiter.config.name().equals(group)) {
+        return limiter;
+      }
+    }
+    throw new IllegalArgumentException("Unknown rate-limit group: " + group);
+  }
+
+  private static final class GroupLimiter {
+
+    final RateLimitProperties.Group config;
+    final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    final Counter allowed;
+    final Counter rejected;
+
+    GroupLimiter(RateLimitProperties.Group config, MeterRegistry meterRegistry) {
+      this.config = config;
+      this.allowed =
+          meterRegistry.counter(
+              "rate_limit.requests", "group", config.name(), "outcome", "allowed");
+      this.rejected =
+          meterRegistry.counter(
+              "rate_limit.requests", "group", config.name(), "outcome", "rejected");
+      Gauge.builder("rate_limit.buckets", buckets, Map::size)
+          .description("Clients currently tracked")
+          .tag("group", config.name())
+          .register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.neoaplicacoes.customerapi.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single {@link AtomicLong}: the time at which the bucket will be
+ * full again ("theoretical arrival time" of the generic cell rate algorithm). Taking a token moves
+ * that time forward by one refill interval; a request is rejected if that would put it more than
+ * {@code capacity} intervals ahead of now. This is equivalent to a bucket of {@code capacity}
+ * tokens refilled continuously, without a separate token count and timestamp to update together.
+ *
+ * <p>Times are {@link System#nanoTime()} values and only compared through differences. Also used
+ * outside request throttling, by the log rate limit.
+ */
+public final class TokenBucket {
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final AtomicLong fullAt;
+
+  public TokenBucket(long capacity, long refillPerMinute, long now) {
+    this.intervalNanos = 60_000_000_000L / refillPerMinute;
+    this.burstNanos = intervalNanos * capacity;
+    this.fullAt = new AtomicLong(now);
+  }
+
+  /**
+   * Takes one token if available.
+   *
+   * @return 0 if the token was taken, otherwise the nanoseconds until one becomes available
+   */
+  public long tryAcquire(long now) {
+    while (true) {
+      long current = fullAt.get();
+      long next = (current - now > 0 ? current : now) + intervalNanos;
+      long wait = next - now - burstNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** A full bucket behaves exactly like a new one, so dropping it loses nothing. */
+  public boolean isFull(long now) {
+    return fullAt.get() - now <= 0;
+  }
+}
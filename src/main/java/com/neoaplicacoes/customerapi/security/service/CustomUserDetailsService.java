@@ -2,7 +2,11 @@ package com.neoaplicacoes.customerapi.security.service;
 
 import com.neoaplicacoes.customerapi.model.entity.User;
 import com.neoaplicacoes.customerapi.repository.UserRepository;
+import com.neoaplicacoes.customerapi.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
@@ -21,9 +25,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
   private final UserRepository userRepository;
 
+  // Concurrent lookups of the same email share one query. What is shared is an immutable snapshot,
+  // never the managed entity nor the UserDetails: Spring Security erases the password of the
+  // UserDetails after authentication, so every caller builds its own instance.
+  private final SingleFlight<String, Optional<Account>> byEmailFlight;
+
   @Autowired
-  public CustomUserDetailsService(UserRepository userRepository) {
+  public CustomUserDetailsService(UserRepository userRepository, MeterRegistry meterRegistry) {
     this.userRepository = userRepository;
+    this.byEmailFlight = new SingleFlight<>("user.by-email", meterRegistry);
   }
 
   /**
@@ -35,26 +45,66 @@ public class CustomUserDetailsService implements UserDetailsService {
    */
   @Override
   public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-    User user =
-        userRepository.findByEmailIgnoreCase(email).stream()
-            .findFirst()
+    Account account =
+        byEmailFlight
+            .execute(
+                email.toLowerCase(Locale.ROOT),
+                () ->
+                    userRepository.findByEmailIgnoreCase(email).stream()
+                        .findFirst()
+                        .map(Account::of))
             .orElseThrow(
                 () -> new UsernameNotFoundException("User not found with email: " + email));
 
     // Map role(s) to GrantedAuthority
     List<GrantedAuthority> authorities =
-        List.of(user.getRole()).stream()
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-    return org.springframework.security.core.userdetails.User.builder()
-        .username(user.getEmail())
-        .password(user.getPassword())
-        .authorities(authorities)
-        .accountExpired(false)
-        .accountLocked(!user.getActive()) // Block login if user inactive
-        .credentialsExpired(false)
-        .disabled(!user.getActive()) // Disable account if inactive
-        .build();
+        account.roles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+
+    UserDetails details =
+        org.springframework.security.core.userdetails.User.builder()
+            .username(account.email())
+            .password(account.passwordHash())
+            .authorities(authorities)
+            .accountExpired(false)
+            .accountLocked(!account.active()) // Block login if user inactive
+            .credentialsExpired(false)
+            .disabled(!account.active()) // Disable account if inactive
+            .build();
+    return new AccountUser(account.id(), details);
+  }
+
+  /** The authenticated principal: Spring's UserDetails plus the user id, which logs can carry. */
+  public static class AccountUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+
+    AccountUser(Long id, UserDetails details) {
+      super(
+          details.getUsername(),
+          details.getPassword(),
+          details.isEnabled(),
+          details.isAccountNonExpired(),
+          details.isCredentialsNonExpired(),
+          details.isAccountNonLocked(),
+          details.getAuthorities());
+      this.id = id;
+    }
+
+    public Long getId() {
+      return id;
+    }
+  }
+
+  /** Immutable copy of the columns authentication needs, safe to hand to coalesced callers. */
+  record Account(Long id, String email, String passwordHash, List<String> roles, boolean active) {
+
+    static Account of(User user) {
+      return new Account(
+          user.getId(),
+          user.getEmail(),
+          user.getPassword(),
+          List.of(user.getRole()),
+          Boolean.TRUE.equals(user.getActive()));
+    }
   }
 }
@@ -0,0 +1,237 @@
+package com.neoaplicacoes.customerapi.security.service;
+
+import com.neoaplicacoes.customerapi.model.entity.LoginAttempt;
+import com.neoaplicacoes.customerapi.repository.LoginAttemptRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks failed logins per email and per IP address and locks them out with exponential back-off:
+ * once a subject reaches its free attempts, every further failure doubles the lock, from {@code
+ * base-delay} up to {@code max-delay}. The login endpoint checks the lock before authenticating, so
+ * a locked subject costs a map lookup instead of a user query and a BCrypt verification. Failures
+ * are forgotten after {@code reset-after} without new ones; a successful login clears its email.
+ *
+ * <p>State lives in a {@link ConcurrentHashMap} and is updated with {@code compute}, so concurrent
+ * failures of one subject are counted exactly. With {@code login-throttle.persistence} the table
+ * {@code login_attempts} is the source of truth instead, so locks survive restarts and are shared
+ * by every instance: failures are counted with an in-place increment, locks only ever grow, and a
+ * lock is read from the table unless this instance already knows it is still running (a lock cannot
+ * end early elsewhere, since a locked email never reaches a successful login).
+ */
+@Service
+public class LoginAttemptService {
+
+  private final LoginAttemptRepository repository;
+  private final boolean persistence;
+  private final int emailFreeAttempts;
+  private final int ipFreeAttempts;
+  private final Duration baseDelay;
+  private final Duration maxDelay;
+  private final Duration resetAfter;
+  private final Supplier<LocalDateTime> clock;
+  private final Counter blocked;
+
+  private final Map<String, LoginAttempt> attempts = new ConcurrentHashMap<>();
+
+  @Autowired
+  public LoginAttemptService(
+      LoginAttemptRepository repository,
+      MeterRegistry meterRegistry,
+      @Value("${login-throttle.persistence:false}") boolean persistence,
+      @Value("${login-throttle.email-free-attempts:5}") int emailFreeAttempts,
+      @Value("${login-throttle.ip-free-attempts:20}") int ipFreeAttempts,
+      @Value("${login-throttle.base-delay:1s}") Duration baseDelay,
+      @Value("${login-throttle.max-delay:15m}") Duration maxDelay,
+      @Value("${login-throttle.reset-after:1h}") Duration resetAfter) {
+    this(
+        repository,
+        meterRegistry,
+        persistence,
+        emailFreeAttempts,
+        ipFreeAttempts,
+        baseDelay,
+        maxDelay,
+        resetAfter,
+        LocalDateTime::now);
+  }
+
+  LoginAttemptService(
+      LoginAttemptRepository repository,
+      MeterRegistry meterRegistry,
+      boolean persistence,
+      int emailFreeAttempts,
+      int ipFreeAttempts,
+      Duration baseDelay,
+      Duration maxDelay,
+      Duration resetAfter,
+      Supplier<LocalDateTime> clock) {
+    this.repository = repository;
+    this.persistence = persistence;
+    this.emailFreeAttempts = emailFreeAttempts;
+    this.ipFreeAttempts = ipFreeAttempts;
+    this.baseDelay = baseDelay;
+    this.maxDelay = maxDelay;
+    this.resetAfter = resetAfter;
+    this.clock = clock;
+    this.blocked = meterRegistry.counter("login_throttle.blocked");
+  }
+
+  /**
+   * Remaining lock of a login attempt.
+   *
+   * @param email the email being logged into
+   * @param ip the client address
+   * @return seconds until the email and the address are both unlocked, 0 if neither is locked
+   */
+  public long lockedSeconds(String email, String ip) {
+    LocalDateTime now = clock.get();
+    Duration wait = max(remaining(emailKey(email), now), remaining(ipKey(ip), now));
+    if (wait.isZero()) {
+      return 0;
+    }
+    blocked.increment();
+    // Rounded up, so a client honouring Retry-After never arrives just before the unlock
+    return wait.plusMillis(999).toSeconds();
+  }
+
+  /** Counts a failed login against the email and the address. */
+  public void loginFailed(String email, String ip) {
+    LocalDateTime now = clock.get();
+    recordFailure(emailKey(email), emailFreeAttempts, now);
+    recordFailure(ipKey(ip), ipFreeAttempts, now);
+  }
+
+  /** Clears the email's failures. The address keeps its count: one success proves little. */
+  public void loginSucceeded(String email) {
+    String key = emailKey(email);
+    if (key == null) {
+      return;
+    }
+    attempts.remove(key);
+    if (persistence) {
+      // Failures may have been counted by another instance only
+      repository.forget(key);
+    }
+  }
+
+  /** Forgets subjects that are neither locked nor failed recently, bounding the map. */
+  @Scheduled(fixedDelayString = "${login-throttle.sweep-interval:5m}")
+  public void evictExpired() {
+    LocalDateTime cutoff = clock.get().minus(resetAfter);
+    attempts.values().removeIf(attempt -> isExpired(attempt, cutoff));
+    if (persistence) {
+      repository.deleteExpired(cutoff);
+    }
+  }
+
+  int tracked() {
+    return attempts.size();
+  }
+
+  private Duration remaining(String key, LocalDateTime now) {
+    if (key == null) {
+      return Duration.ZERO;
+    }
+    LoginAttempt attempt = attempts.get(key);
+    if (persistence && !isLocked(attempt, now)) {
+      attempt = repository.findById(key).orElse(null);
+      if (attempt == null) {
+        attempts.remove(key);
+      } else {
+        attempts.put(key, attempt);
+      }
+    }
+    if (!isLocked(attempt, now)) {
+      return Duration.ZERO;
+    }
+    return Duration.between(now, attempt.getLockedUntil());
+  }
+
+  private void recordFailure(String key, int freeAttempts, LocalDateTime now) {
+    if (key == null) {
+      return;
+    }
+    if (persistence) {
+      recordPersistedFailure(key, freeAttempts, now);
+      return;
+    }
+    attempts.compute(
+        key,
+        (k, current) -> {
+          int failures =
+              current == null || isExpired(current, now.minus(resetAfter))
+                  ? 1
+                  : current.getFailures() + 1;
+          return new LoginAttempt(k, failures, lockedUntil(failures, freeAttempts, now), now);
+        });
+  }
+
+  // Increment first and insert only for a new subject; losing the insert race to another
+  // instance just means the row now exists, so the increment is retried
+  private void recordPersistedFailure(String key, int freeAttempts, LocalDateTime now) {
+    LocalDateTime cutoff = now.minus(resetAfter);
+    if (repository.incrementFailures(key, now, cutoff) == 0) {
+      try {
+        repository.insertFirstFailure(key, now);
+      } catch (DataIntegrityViolationException e) {
+        repository.incrementFailures(key, now, cutoff);
+      }
+    }
+    LoginAttempt attempt = repository.findById(key).orElse(null);
+    if (attempt == null) {
+      return; // cleared by a successful login in between
+    }
+    LocalDateTime lockedUntil = lockedUntil(attempt.getFailures(), freeAttempts, now);
+    if (lockedUntil != null && repository.extendLock(key, lockedUntil) > 0) {
+      attempt.setLockedUntil(lockedUntil);
+    }
+    attempts.put(key, attempt);
+  }
+
+  private static boolean isLocked(LoginAttempt attempt, LocalDateTime now) {
+    return attempt != null
+        && attempt.getLockedUntil() != null
+        && attempt.getLockedUntil().isAfter(now);
+  }
+
+  private LocalDateTime lockedUntil(int failures, int freeAttempts, LocalDateTime now) {
+    if (failures < freeAttempts) {
+      return null;
+    }
+    // Capped shift: 2^30 times any sensible base delay is far above max-delay already
+    int doublings = Math.min(failures - freeAttempts, 30);
+    Duration lock = baseDelay.multipliedBy(1L << doublings);
+    return now.plus(lock.compareTo(maxDelay) > 0 ? maxDelay : lock);
+  }
+
+  private static boolean isExpired(LoginAttempt attempt, LocalDateTime cutoff) {
+    return attempt.getLastFailureAt().isBefore(cutoff)
+        && (attempt.getLockedUntil() == null || attempt.getLockedUntil().isBefore(cutoff));
+  }
+
+  private static Duration max(Duration a, Duration b) {
+    return a.compareTo(b) >= 0 ? a : b;
+  }
+
+  private static String emailKey(String email) {
+    return email == null || email.isBlank()
+        ? null
+        : "email:" + email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static String ipKey(String ip) {
+    return ip == null ? null : "ip:" + ip;
+  }
+}
@@ -1,7 +1,10 @@
 package com.neoaplicacoes.customerapi.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +29,16 @@ public interface AddressService {
    */
   AddressResponseDTO update(Long id, AddressRequestDTO dto);
 
+  /**
+   * Apply a JSON Merge Patch (RFC 7396) to an address.
+   *
+   * @param id the ID of the address to patch
+   * @param expectedVersion version taken from If-Match, or null to patch the current state
+   * @param patch the merge patch document
+   * @return the new version, plus the updated address when it had to be read to apply the patch
+   */
+  PatchResult<AddressResponseDTO> patch(Long id, Long expectedVersion, JsonNode patch);
+
   /**
    * Delete an address by ID.
    *
@@ -56,6 +69,23 @@ public interface AddressService {
    */
   Page<AddressResponseDTO> getAllPaged(Pageable pageable);
 
+  /**
+   * Resolve addresses by id with a single round-trip.
+   *
+   * @param ids the ids, in the order the caller wants them back
+   * @return the addresses found, in input order, and the ids not found
+   */
+  BatchGetResponseDTO<Long, AddressResponseDTO> batchGetByIds(List<Long> ids);
+
+  /**
+   * Delete addresses by id with set-based statements in short batches. Customers living at those
+   * addresses are deleted with them, as the foreign key cascade does for single deletes.
+   *
+   * @param ids the ids to delete; unknown ids are ignored
+   * @return rows removed and timings
+   */
+  BulkDeleteResponseDTO bulkDeleteByIds(List<Long> ids);
+
   // Filters without pagination
 
   List<AddressResponseDTO> getByCity(String city);
@@ -0,0 +1,67 @@
+package com.neoaplicacoes.customerapi.service;
+
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeFeedResponseDTO;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transactional outbox of customer, address and user mutations. The record methods must be called
+ * inside the mutating transaction, so an event exists if and only if its change was committed;
+ * consumers then read the feed incrementally by cursor.
+ */
+public interface ChangeEventService {
+
+  /**
+   * Write an event for a single resource.
+   *
+   * @param type kind of resource
+   * @param id resource id
+   * @param change what happened
+   * @param payload response DTO (or changed fields) to serialize, null for none
+   */
+  void record(AggregateType type, Long id, ChangeType change, Object payload);
+
+  /**
+   * Write delete events for the live customers among the given ids, in one statement.
+   *
+   * @param ids customer ids about to be marked deleted
+   */
+  void recordCustomerDeletions(List<Long> ids);
+
+  /**
+   * Write delete events for the live customers living at the given addresses, in one statement.
+   *
+   * @param addressIds address ids whose customers are about to be marked deleted
+   */
+  void recordCustomerDeletionsAtAddresses(List<Long> addressIds);
+
+  /**
+   * Write delete events for the live addresses among the given ids, in one statement.
+   *
+   * @param ids address ids about to be marked deleted
+   */
+  void recordAddressDeletions(List<Long> ids);
+
+  /**
+   * Read the next batch after a cursor.
+   *
+   * @param cursor last event id seen, 0 to start from the oldest retained event
+   * @param limit maximum number of events
+   * @return the batch and the next cursor
+   */
+  ChangeFeedResponseDTO readSince(long cursor, int limit);
+
+  /**
+   * Long-poll variant of {@link #readSince}: completes right away when there are events, otherwise
+   * as soon as a change is committed on this instance or when {@code wait} runs out.
+   *
+   * @param cursor last event id seen
+   * @param limit maximum number of events
+   * @param wait how long to hold the request when there is nothing new
+   * @return the batch, possibly empty
+   */
+  CompletableFuture<ChangeFeedResponseDTO> poll(long cursor, int limit, Duration wait);
+}
@@ -0,0 +1,22 @@
+package com.neoaplicacoes.customerapi.service;
+
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import java.util.List;
+
+/**
+ * Published inside the transaction of a customer mutation, or of an address mutation for each
+ * customer living there, and delivered to listeners after it commits.
+ *
+ * @param id customer id
+ * @param changeType what happened
+ * @param customer the customer after the change (response DTO), only the changed fields for
+ *     conditional patches and address changes ({@code id} plus {@code address}), null for deletes
+ * @param locations normalized state/city of the customer before and after the change; empty when
+ *     unknown (conditional patches never read the row)
+ */
+public record CustomerChangedEvent(
+    Long id, ChangeType changeType, Object customer, List<Location> locations) {
+
+  /** Normalized state and city, as stored in the address shadow columns. */
+  public record Location(String state, String city) {}
+}
@@ -0,0 +1,33 @@
+package com.neoaplicacoes.customerapi.service;
+
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import java.util.Set;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes committed customer changes to long-lived Server-Sent Events connections, so screens that
+ * show customers do not have to poll them.
+ */
+public interface CustomerPushService {
+
+  /**
+   * Open a subscription. A change is delivered if the customer id is listed, or if the customer
+   * lives (or lived, before the change) in the given state and, when informed, city.
+   *
+   * @param ids customer ids to follow, may be empty
+   * @param state state to follow, or null
+   * @param city city within the state, or null for the whole state
+   * @return the event stream; completes when the client is too slow to keep up
+   * @throws BadRequestException if nothing is followed or a city comes without a state
+   * @throws com.neoaplicacoes.customerapi.exception.ServiceUnavailableException at the connection
+   *     limit
+   */
+  SseEmitter subscribe(Set<Long> ids, String state, String city);
+
+  /**
+   * Number of open subscriptions.
+   *
+   * @return open connections
+   */
+  int connections();
+}
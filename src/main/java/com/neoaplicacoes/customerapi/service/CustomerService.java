@@ -1,7 +1,12 @@
 package com.neoaplicacoes.customerapi.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangesResponseDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -30,6 +35,16 @@ public interface CustomerService {
    */
   CustomerResponseDTO update(Long id, CustomerRequestDTO dto);
 
+  /**
+   * Apply a JSON Merge Patch (RFC 7396) to a customer.
+   *
+   * @param id the ID of the customer to patch
+   * @param expectedVersion version taken from If-Match, or null to patch the current state
+   * @param patch the merge patch document
+   * @return the new version, plus the updated customer when it had to be read to apply the patch
+   */
+  PatchResult<CustomerResponseDTO> patch(Long id, Long expectedVersion, JsonNode patch);
+
   /**
    * Delete a customer by ID.
    *
@@ -52,6 +67,73 @@ public interface CustomerService {
    */
   List<CustomerResponseDTO> getAll();
 
+  // =========================
+  // Batch lookups
+  // =========================
+
+  /**
+   * Resolve customers by id with a single round-trip.
+   *
+   * @param ids the ids, in the order the caller wants them back
+   * @return the customers found, in input order, and the ids not found
+   */
+  BatchGetResponseDTO<Long, CustomerResponseDTO> batchGetByIds(List<Long> ids);
+
+  /**
+   * Resolve customers by CPF with a single round-trip.
+   *
+   * @param cpfs the CPFs, in the order the caller wants them back
+   * @return the customers found, in input order, and the CPFs not found
+   */
+  BatchGetResponseDTO<String, CustomerResponseDTO> batchGetByCpfs(List<String> cpfs);
+
+  /**
+   * Resolve customers by email (exact match) with a single round-trip.
+   *
+   * @param emails the emails, in the order the caller wants them back
+   * @return the customers found, in input order, and the emails not found
+   */
+  BatchGetResponseDTO<String, CustomerResponseDTO> batchGetByEmails(List<String> emails);
+
+  // =========================
+  // Bulk delete
+  // =========================
+
+  /**
+   * Delete customers, and their addresses, by id with set-based statements in short batches.
+   *
+   * @param ids the ids to delete; unknown ids are ignored
+   * @return rows removed and timings
+   */
+  BulkDeleteResponseDTO bulkDeleteByIds(List<Long> ids);
+
+  /**
+   * Delete every customer, and its address, matching the criteria with set-based statements in
+   * short batches. At least one criterion must be informed; only customers created before the
+   * request started are ever selected.
+   *
+   * @param state state to filter, or null
+   * @param city city to filter, or null
+   * @param createdBefore only customers created before this instant, or null
+   * @return rows removed and timings
+   */
+  BulkDeleteResponseDTO bulkDeleteByCriteria(
+      String state, String city, LocalDateTime createdBefore);
+
+  // =========================
+  // Delta sync
+  // =========================
+
+  /**
+   * Customers created, updated or deleted after a position, in (updatedAt, id) order. Deleted
+   * customers come as tombstones until the soft-delete purge removes them.
+   *
+   * @param since cursor returned by the previous call, an ISO-8601 date-time, or null for all
+   * @param limit maximum number of items
+   * @return the page and the cursor to continue from
+   */
+  CustomerChangesResponseDTO getChanges(String since, int limit);
+
   // =========================
   // Filtering methods
   // =========================
@@ -105,6 +187,15 @@ public interface CustomerService {
    */
   List<CustomerResponseDTO> getByCityAndNeighborhood(String city, String neighborhood);
 
+  /**
+   * Find customers whose age is inside a range. At least one bound must be informed.
+   *
+   * @param minAge minimum age in years (inclusive), or null
+   * @param maxAge maximum age in years (inclusive), or null
+   * @return list of customer responses
+   */
+  List<CustomerResponseDTO> getByAgeRange(Integer minAge, Integer maxAge);
+
   // Pagination methods
 
   /**
@@ -170,4 +261,15 @@ public interface CustomerService {
    */
   Page<CustomerResponseDTO> getByCityAndNeighborhoodPaged(
       String city, String neighborhood, Pageable pageable);
+
+  /**
+   * Find customers whose age is inside a range with pagination. At least one bound must be
+   * informed.
+   *
+   * @param minAge minimum age in years (inclusive), or null
+   * @param maxAge maximum age in years (inclusive), or null
+   * @param pageable pagination information
+   * @return paged result of customer responses
+   */
+  Page<CustomerResponseDTO> getByAgeRangePaged(Integer minAge, Integer maxAge, Pageable pageable);
 }
@@ -0,0 +1,93 @@
+package com.neoaplicacoes.customerapi.service;
+
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerStatsResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Pre-aggregated customer counts by state, city and age bracket. Counters are maintained
+ * incrementally by the customer write paths and periodically reconciled against the database.
+ */
+public interface CustomerStatisticsService {
+
+  /**
+   * Grouping key of a customer as seen by the counters. Taken before an update so the old groups
+   * can be decremented.
+   */
+  record Key(String state, String city, String ageBracket) {}
+
+  /**
+   * Build the counter key for a customer.
+   *
+   * @param customer the customer (address must be loaded)
+   * @return the key, or null if the customer cannot be counted
+   */
+  Key keyOf(Customer customer);
+
+  /**
+   * Account for a newly created customer.
+   *
+   * @param customer the saved customer
+   */
+  void recordCreated(Customer customer);
+
+  /**
+   * Move a customer between groups after an update.
+   *
+   * @param before the key taken before the update
+   * @param after the updated customer
+   */
+  void recordUpdated(Key before, Customer after);
+
+  /**
+   * Account for a removed customer.
+   *
+   * @param before the key taken before the delete
+   */
+  void recordDeleted(Key before);
+
+  /**
+   * Keys of the customers living at an address. Taken before the address changes or is removed,
+   * since every one of those customers moves with it.
+   *
+   * @param addressId the address id
+   * @return one key per countable customer
+   */
+  List<Key> keysAtAddress(Long addressId);
+
+  /**
+   * Keys of the customers living at any of the given addresses, taken before a bulk delete.
+   *
+   * @param addressIds address ids
+   * @return one key per countable customer
+   */
+  List<Key> keysAtAddresses(Collection<Long> addressIds);
+
+  /**
+   * Keys of the given customers, taken before a bulk delete.
+   *
+   * @param customerIds customer ids
+   * @return one key per countable customer
+   */
+  List<Key> keysOf(Collection<Long> customerIds);
+
+  /**
+   * Move the customers of an address to its new state and city.
+   *
+   * @param before keys taken with {@link #keysAtAddress} before the change
+   * @param state new normalized state, or null if unchanged
+   * @param city new normalized city, or null if unchanged
+   */
+  void recordAddressMoved(List<Key> before, String state, String city);
+
+  /**
+   * Current counters. O(number of groups), no database access.
+   *
+   * @return statistics snapshot
+   */
+  CustomerStatsResponseDTO getStats();
+
+  /** Rebuild all counters from GROUP BY queries, discarding any drift. */
+  void reconcile();
+}
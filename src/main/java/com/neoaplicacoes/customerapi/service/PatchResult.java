@@ -0,0 +1,10 @@
+package com.neoaplicacoes.customerapi.service;
+
+/**
+ * Outcome of a merge-patch. The body is only present when the row had to be read to apply the
+ * patch; a conditional single-statement update only knows the new version.
+ *
+ * @param body the updated resource, or null
+ * @param version the version of the row after the update
+ */
+public record PatchResult<T>(T body, long version) {}
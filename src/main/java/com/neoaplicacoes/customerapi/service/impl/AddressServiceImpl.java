@@ -1,17 +1,42 @@
 package com.neoaplicacoes.customerapi.service.impl;
 
+import static com.neoaplicacoes.customerapi.util.TextNormalizer.normalize;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.exception.PreconditionFailedException;
 import com.neoaplicacoes.customerapi.mapper.AddressMapper;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
 import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
 import com.neoaplicacoes.customerapi.repository.AddressRepository;
+import com.neoaplicacoes.customerapi.repository.ConditionalUpdateRepository;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
 import com.neoaplicacoes.customerapi.service.AddressService;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
+import com.neoaplicacoes.customerapi.service.CustomerChangedEvent;
+import com.neoaplicacoes.customerapi.service.CustomerStatisticsService;
+import com.neoaplicacoes.customerapi.service.PatchResult;
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import com.neoaplicacoes.customerapi.util.JsonMergePatch;
+import com.neoaplicacoes.customerapi.util.PageQueries;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of {@link AddressService}. Provides CRUD operations, filtering, and pagination
@@ -22,31 +47,71 @@ public class AddressServiceImpl implements AddressService {
 
   private final AddressRepository addressRepository;
   private final AddressMapper addressMapper;
+  private final ConditionalUpdateRepository conditionalUpdateRepository;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final CustomerRepository customerRepository;
+  private final CustomerStatisticsService statisticsService;
+  private final ChunkedDeleteExecutor chunkedDeleteExecutor;
+  private final ChangeEventService changeEventService;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Autowired
-  public AddressServiceImpl(AddressRepository addressRepository, AddressMapper addressMapper) {
+  public AddressServiceImpl(
+      AddressRepository addressRepository,
+      AddressMapper addressMapper,
+      ConditionalUpdateRepository conditionalUpdateRepository,
+      ObjectMapper objectMapper,
+      Validator validator,
+      CustomerRepository customerRepository,
+      CustomerStatisticsService statisticsService,
+      ChunkedDeleteExecutor chunkedDeleteExecutor,
+      ChangeEventService changeEventService,
+      ApplicationEventPublisher eventPublisher) {
     this.addressRepository = addressRepository;
+    this.eventPublisher = eventPublisher;
+    this.customerRepository = customerRepository;
+    this.statisticsService = statisticsService;
+    this.chunkedDeleteExecutor = chunkedDeleteExecutor;
+    this.changeEventService = changeEventService;
     this.addressMapper = addressMapper;
+    this.conditionalUpdateRepository = conditionalUpdateRepository;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
   }
 
   // CRUD METHODS
 
   @Override
+  @Transactional
   public AddressResponseDTO create(AddressRequestDTO dto) {
     Address address = addressMapper.toEntity(dto);
     Address saved = addressRepository.save(address);
-    return addressMapper.toResponse(saved);
+    AddressResponseDTO created = addressMapper.toResponse(saved);
+    changeEventService.record(AggregateType.ADDRESS, saved.getId(), ChangeType.CREATED, created);
+    return created;
   }
 
   @Override
+  @Transactional
   public AddressResponseDTO update(Long id, AddressRequestDTO dto) {
     Address existing =
         addressRepository
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Address not found with id " + id));
+    List<CustomerStatisticsService.Key> residents =
+        residentsIfMoving(id, dto.state() != null || dto.city() != null);
+    CustomerChangedEvent.Location from = locationOf(existing);
     updateAddressPartial(dto, existing);
-    Address updated = addressRepository.save(existing);
-    return addressMapper.toResponse(updated);
+    // Flushed so the response and the event carry the incremented version
+    Address updated = addressRepository.saveAndFlush(existing);
+    statisticsService.recordAddressMoved(
+        residents, updated.getStateNormalized(), updated.getCityNormalized());
+    AddressResponseDTO result = addressMapper.toResponse(updated);
+    changeEventService.record(AggregateType.ADDRESS, id, ChangeType.UPDATED, result);
+    customerRepository.touchByAddressIdIn(List.of(id));
+    publishResidents(id, ChangeType.UPDATED, result, locations(from, locationOf(updated)));
+    return result;
   }
 
   private void updateAddressPartial(AddressRequestDTO dto, Address entity) {
@@ -74,12 +139,153 @@ public class AddressServiceImpl implements AddressService {
   }
 
   @Override
+  @Transactional
+  public PatchResult<AddressResponseDTO> patch(Long id, Long expectedVersion, JsonNode patch) {
+    if (patch == null || !patch.isObject()) {
+      throw new BadRequestException("Merge patch must be a JSON object");
+    }
+    JsonMergePatch.requireKnownFields(patch, AddressRequestDTO.class);
+    List<CustomerStatisticsService.Key> residents =
+        residentsIfMoving(id, patch.has("state") || patch.has("city"));
+    if (expectedVersion != null && !patch.isEmpty()) {
+      return patchDirect(id, expectedVersion, patch, residents);
+    }
+    Address existing =
+        addressRepository
+            .findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Address not found with id " + id));
+    if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+      throw new PreconditionFailedException("Address", id, expectedVersion);
+    }
+    CustomerChangedEvent.Location from = locationOf(existing);
+    JsonNode current = objectMapper.valueToTree(addressMapper.toRequest(existing));
+    AddressRequestDTO merged =
+        JsonMergePatch.toValue(
+            objectMapper, JsonMergePatch.apply(current, patch), AddressRequestDTO.class);
+    JsonMergePatch.validate(validator, merged);
+    addressMapper.updateFromDto(merged, existing);
+    Address updated = addressRepository.saveAndFlush(existing);
+    statisticsService.recordAddressMoved(
+        residents, updated.getStateNormalized(), updated.getCityNormalized());
+    AddressResponseDTO result = addressMapper.toResponse(updated);
+    changeEventService.record(AggregateType.ADDRESS, id, ChangeType.UPDATED, result);
+    customerRepository.touchByAddressIdIn(List.of(id));
+    publishResidents(id, ChangeType.UPDATED, result, locations(from, locationOf(updated)));
+    return new PatchResult<>(result, updated.getVersion());
+  }
+
+  // Single UPDATE ... WHERE id = ? AND version = ?, without reading the row first.
+  // The *_normalized shadow columns are written alongside their source column.
+  private PatchResult<AddressResponseDTO> patchDirect(
+      Long id,
+      long expectedVersion,
+      JsonNode patch,
+      List<CustomerStatisticsService.Key> residents) {
+    AddressRequestDTO values = JsonMergePatch.toValue(objectMapper, patch, AddressRequestDTO.class);
+    JsonMergePatch.validatePatched(validator, values, patch);
+
+    Map<String, Object> changes = new LinkedHashMap<>();
+    if (patch.has("cep")) {
+      changes.put("cep", values.cep());
+    }
+    if (patch.has("number")) {
+      changes.put("number", values.number());
+    }
+    if (patch.has("complement")) {
+      changes.put("complement", values.complement());
+    }
+    if (patch.has("street")) {
+      changes.put("street", values.street());
+    }
+    if (patch.has("neighborhood")) {
+      changes.put("neighborhood", values.neighborhood());
+      changes.put("neighborhoodNormalized", normalize(values.neighborhood()));
+    }
+    if (patch.has("city")) {
+      changes.put("city", values.city());
+      changes.put("cityNormalized", normalize(values.city()));
+    }
+    if (patch.has("state")) {
+      changes.put("state", values.state());
+      changes.put("stateNormalized", normalize(values.state()));
+    }
+
+    int rows =
+        conditionalUpdateRepository.updateIfVersion(Address.class, id, expectedVersion, changes);
+    if (rows == 0) {
+      if (!addressRepository.existsById(id)) {
+        throw new EntityNotFoundException("Address not found with id " + id);
+      }
+      throw new PreconditionFailedException("Address", id, expectedVersion);
+    }
+    statisticsService.recordAddressMoved(
+        residents, (String) changes.get("stateNormalized"), (String) changes.get("cityNormalized"));
+    ObjectNode changed = ((ObjectNode) patch.deepCopy()).put("id", id);
+    changed.put("version", expectedVersion + 1);
+    changeEventService.record(AggregateType.ADDRESS, id, ChangeType.UPDATED, changed);
+    // Customers embed their address, so their delta-sync watermark moves with it
+    customerRepository.touchByAddressIdIn(List.of(id));
+    // The row is never read, so the location is unknown: only id subscribers are reached
+    publishResidents(id, ChangeType.UPDATED, changed, List.of());
+    return new PatchResult<>(null, expectedVersion + 1);
+  }
+
+  @Override
+  @Transactional
   public void delete(Long id) {
     Address existing =
         addressRepository
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Address not found with id " + id));
+    // The row is only marked, so the FK cascade to customers does not fire; mark them here
+    List<CustomerStatisticsService.Key> residents = statisticsService.keysAtAddress(id);
+    List<Long> customerIds = customerRepository.findIdsByAddressIdIn(List.of(id));
+    changeEventService.recordCustomerDeletionsAtAddresses(List.of(id));
+    customerRepository.markDeletedByAddressIdIn(List.of(id));
+    residents.forEach(statisticsService::recordDeleted);
     addressRepository.delete(existing);
+    changeEventService.record(AggregateType.ADDRESS, id, ChangeType.DELETED, null);
+    List<CustomerChangedEvent.Location> locations = locations(locationOf(existing), null);
+    for (Long customerId : customerIds) {
+      eventPublisher.publishEvent(
+          new CustomerChangedEvent(customerId, ChangeType.DELETED, null, locations));
+    }
+  }
+
+  // Customers embed their address, so push subscribers of each resident hear about the change.
+  // The payload is the resident's id plus its new address (all of it, or the patched fields).
+  private void publishResidents(
+      Long addressId,
+      ChangeType changeType,
+      Object address,
+      List<CustomerChangedEvent.Location> locations) {
+    for (Long customerId : customerRepository.findIdsByAddressIdIn(List.of(addressId))) {
+      Map<String, Object> customer = new LinkedHashMap<>();
+      customer.put("id", customerId);
+      customer.put("address", address);
+      eventPublisher.publishEvent(
+          new CustomerChangedEvent(customerId, changeType, customer, locations));
+    }
+  }
+
+  // Before and after, so subscribers of the old state/city also see the customers moving away
+  private static List<CustomerChangedEvent.Location> locations(
+      CustomerChangedEvent.Location from, CustomerChangedEvent.Location to) {
+    if (to == null || to.equals(from)) {
+      return List.of(from);
+    }
+    return List.of(from, to);
+  }
+
+  private static CustomerChangedEvent.Location locationOf(Address address) {
+    return new CustomerChangedEvent.Location(
+        address.getStateNormalized(), address.getCityNormalized());
+  }
+
+  // Customers are counted under their address's state and city, so a move shifts all of them.
+  // Read before the change: afterwards the rows already carry the new location.
+  private List<CustomerStatisticsService.Key> residentsIfMoving(Long id, boolean moving) {
+    return moving ? statisticsService.keysAtAddress(id) : List.of();
   }
 
   @Override
@@ -103,31 +309,59 @@ public class AddressServiceImpl implements AddressService {
    */
   @Override
   public Page<AddressResponseDTO> getAllPaged(Pageable pageable) {
-    return addressRepository.findAll(pageable).map(addressMapper::toResponse);
+    return PageQueries.page(pageable, addressRepository::findAll, addressRepository::findSliceBy)
+        .map(addressMapper::toResponse);
+  }
+
+  @Override
+  public BatchGetResponseDTO<Long, AddressResponseDTO> batchGetByIds(List<Long> ids) {
+    BatchLookup.Result<Long, Address> result =
+        BatchLookup.load(ids, addressRepository::findAllById, Address::getId);
+    return new BatchGetResponseDTO<>(
+        addressMapper.toResponseList(result.found()), result.missing());
+  }
+
+  // Customers living at the addresses are marked too: a soft delete never fires the
+  // fk_address ON DELETE CASCADE that used to remove them
+  @Override
+  public BulkDeleteResponseDTO bulkDeleteByIds(List<Long> ids) {
+    return chunkedDeleteExecutor.forIds(
+        "addresses",
+        ids,
+        chunk -> {
+          List<CustomerStatisticsService.Key> residents = statisticsService.keysAtAddresses(chunk);
+          changeEventService.recordCustomerDeletionsAtAddresses(chunk);
+          changeEventService.recordAddressDeletions(chunk);
+          int customers = customerRepository.markDeletedByAddressIdIn(chunk);
+          residents.forEach(statisticsService::recordDeleted);
+          return new ChunkedDeleteExecutor.Deleted(
+              customers, addressRepository.markDeletedByIdIn(chunk));
+        });
   }
 
   // FILTERS WITHOUT PAGINATION
 
   @Override
   public List<AddressResponseDTO> getByCity(String city) {
-    return addressMapper.toResponseList(addressRepository.findByCityIgnoreCase(city));
+    return addressMapper.toResponseList(addressRepository.findByCityNormalized(normalize(city)));
   }
 
   @Override
   public List<AddressResponseDTO> getByState(String state) {
-    return addressMapper.toResponseList(addressRepository.findByStateIgnoreCase(state));
+    return addressMapper.toResponseList(addressRepository.findByStateNormalized(normalize(state)));
   }
 
   @Override
   public List<AddressResponseDTO> getByNeighborhood(String neighborhood) {
     return addressMapper.toResponseList(
-        addressRepository.findByNeighborhoodIgnoreCase(neighborhood));
+        addressRepository.findByNeighborhoodNormalized(normalize(neighborhood)));
   }
 
   @Override
   public List<AddressResponseDTO> getByCityAndNeighborhood(String city, String neighborhood) {
     return addressMapper.toResponseList(
-        addressRepository.findByCityIgnoreCaseAndNeighborhoodIgnoreCase(city, neighborhood));
+        addressRepository.findByCityNormalizedAndNeighborhoodNormalized(
+            normalize(city), normalize(neighborhood)));
   }
 
   @Override
@@ -137,7 +371,8 @@ public class AddressServiceImpl implements AddressService {
 
   @Override
   public List<AddressResponseDTO> getByCepAndState(String cep, String state) {
-    return addressMapper.toResponseList(addressRepository.findByCepAndStateIgnoreCase(cep, state));
+    return addressMapper.toResponseList(
+        addressRepository.findByCepAndStateNormalized(cep, normalize(state)));
   }
 
   @Override
@@ -148,48 +383,79 @@ public class AddressServiceImpl implements AddressService {
   @Override
   public List<AddressResponseDTO> getByCityAndStreet(String city, String street) {
     return addressMapper.toResponseList(
-        addressRepository.findByCityIgnoreCaseAndStreetContainingIgnoreCase(city, street));
+        addressRepository.findByCityNormalizedAndStreetContainingIgnoreCase(
+            normalize(city), street));
   }
 
   // FILTERS WITH PAGINATION
 
   @Override
   public Page<AddressResponseDTO> getByCityPaged(String city, Pageable pageable) {
-    return addressRepository.findByCityIgnoreCase(city, pageable).map(addressMapper::toResponse);
+    String normalized = normalize(city);
+    return PageQueries.page(
+            pageable,
+            p -> addressRepository.findByCityNormalized(normalized, p),
+            p -> addressRepository.findSliceByCityNormalized(normalized, p))
+        .map(addressMapper::toResponse);
   }
 
   @Override
   public Page<AddressResponseDTO> getByStatePaged(String state, Pageable pageable) {
-    return addressRepository.findByStateIgnoreCase(state, pageable).map(addressMapper::toResponse);
+    String normalized = normalize(state);
+    return PageQueries.page(
+            pageable,
+            p -> addressRepository.findByStateNormalized(normalized, p),
+            p -> addressRepository.findSliceByStateNormalized(normalized, p))
+        .map(addressMapper::toResponse);
   }
 
   @Override
   public Page<AddressResponseDTO> getByNeighborhoodPaged(String neighborhood, Pageable pageable) {
-    return addressRepository
-        .findByNeighborhoodIgnoreCase(neighborhood, pageable)
+    String normalized = normalize(neighborhood);
+    return PageQueries.page(
+            pageable,
+            p -> addressRepository.findByNeighborhoodNormalized(normalized, p),
+            p -> addressRepository.findSliceByNeighborhoodNormalized(normalized, p))
         .map(addressMapper::toResponse);
   }
 
   @Override
   public Page<AddressResponseDTO> getByCityAndNeighborhoodPaged(
       String city, String neighborhood, Pageable pageable) {
-    return addressRepository
-        .findByCityIgnoreCaseAndNeighborhoodIgnoreCase(city, neighborhood, pageable)
+    String normalizedCity = normalize(city);
+    String normalizedNeighborhood = normalize(neighborhood);
+    return PageQueries.page(
+            pageable,
+            p ->
+                addressRepository.findByCityNormalizedAndNeighborhoodNormalized(
+                    normalizedCity, normalizedNeighborhood, p),
+            p ->
+                addressRepository.findSliceByCityNormalizedAndNeighborhoodNormalized(
+                    normalizedCity, normalizedNeighborhood, p))
         .map(addressMapper::toResponse);
   }
 
   @Override
   public Page<AddressResponseDTO> getByStreetPaged(String street, Pageable pageable) {
-    return addressRepository
-        .findByStreetContainingIgnoreCase(street, pageable)
+    return PageQueries.page(
+            pageable,
+            p -> addressRepository.findByStreetContainingIgnoreCase(street, p),
+            p -> addressRepository.findSliceByStreetContainingIgnoreCase(street, p))
         .map(addressMapper::toResponse);
   }
 
   @Override
   public Page<AddressResponseDTO> getByCityAndStreetPaged(
       String city, String street, Pageable pageable) {
-    return addressRepository
-        .findByCityIgnoreCaseAndStreetContainingIgnoreCase(city, street, pageable)
+    String normalized = normalize(city);
+    return PageQueries.page(
+            pageable,
+            p ->
+                addressRepository.findByCityNormalizedAndStreetContainingIgnoreCase(
+                    normalized, street, p),
+            p ->
+                addressRepository.findSliceByCityNormalizedAndStreetContainingIgnoreCase(
+                    normalized, street, p))
         .map(addressMapper::toResponse);
   }
 }
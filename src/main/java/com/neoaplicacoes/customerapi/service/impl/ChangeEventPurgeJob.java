@@ -0,0 +1,54 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import com.neoaplicacoes.customerapi.repository.ChangeEventRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Prunes change events older than {@code change-events.retention}, one short transaction per batch.
+ * A consumer whose cursor falls behind the retention window must resynchronize with a full read.
+ */
+@Component
+public class ChangeEventPurgeJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChangeEventPurgeJob.class);
+
+  private final ChangeEventRepository changeEventRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration retention;
+  private final int batchSize;
+
+  @Autowired
+  public ChangeEventPurgeJob(
+      ChangeEventRepository changeEventRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${change-events.retention:7d}") Duration retention,
+      @Value("${bulk-delete.batch-size:500}") int batchSize) {
+    this.changeEventRepository = changeEventRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.retention = retention;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(cron = "${change-events.purge-cron:0 30 3 * * *}")
+  public void purge() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+    long total = 0;
+    int removed;
+    do {
+      removed =
+          transactionTemplate.execute(
+              status -> changeEventRepository.deleteOccurredBefore(cutoff, batchSize));
+      total += removed;
+    } while (removed == batchSize);
+    logger.info("Pruned {} change events older than {}", total, cutoff);
+  }
+}
@@ -0,0 +1,198 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeEventResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeFeedResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.ChangeEvent;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import com.neoaplicacoes.customerapi.repository.ChangeEventRepository;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Implementation of {@link ChangeEventService}.
+ *
+ * <p>Ids come from a sequence, so a transaction that commits late can make a lower id visible after
+ * a reader has already moved past it. Reads are therefore gap-aware: they stop before the first
+ * missing id, since that id may belong to a transaction still in flight. A gap is only skipped once
+ * the event right after it was recorded more than {@code change-events.gap-timeout} ago; the
+ * missing id was allocated before that event, so its transaction would have run longer than any
+ * mutating transaction does and must have rolled back (or its row was pruned).
+ *
+ * <p>Long-polls wait on a future that is completed (and replaced) after each commit that wrote
+ * events, then read again on a dedicated pool, never on the common fork-join pool. The signal is
+ * local to this instance; waiters on other instances pick the change up when their wait runs out.
+ */
+@Service
+public class ChangeEventServiceImpl implements ChangeEventService {
+
+  private final ChangeEventRepository changeEventRepository;
+  private final ObjectMapper objectMapper;
+  private final Duration gapTimeout;
+  private final ExecutorService pollReader;
+  private final AtomicReference<CompletableFuture<Void>> changed =
+      new AtomicReference<>(new CompletableFuture<>());
+
+  @Autowired
+  public ChangeEventServiceImpl(
+      ChangeEventRepository changeEventRepository,
+      ObjectMapper objectMapper,
+      @Value("${change-events.gap-timeout:60s}") Duration gapTimeout,
+      @Value("${change-events.poll-threads:4}") int pollThreads) {
+    this(
+        changeEventRepository, objectMapper, gapTimeout, Executors.newFixedThreadPool(pollThreads));
+  }
+
+  ChangeEventServiceImpl(
+      ChangeEventRepository changeEventRepository,
+      ObjectMapper objectMapper,
+      Duration gapTimeout,
+      ExecutorService pollReader) {
+    this.changeEventRepository = changeEventRepository;
+    this.objectMapper = objectMapper;
+    this.gapTimeout = gapTimeout;
+    this.pollReader = pollReader;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pollReader.shutdownNow();
+  }
+
+  // Writing
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(AggregateType type, Long id, ChangeType change, Object payload) {
+    ChangeEvent event = new ChangeEvent();
+    event.setAggregateType(type);
+    event.setAggregateId(id);
+    event.setChangeType(change);
+    event.setPayload(serialize(payload));
+    event.setOccurredAt(LocalDateTime.now());
+    changeEventRepository.save(event);
+    signalAfterCommit();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordCustomerDeletions(List<Long> ids) {
+    if (changeEventRepository.insertCustomerDeletions(ids, LocalDateTime.now()) > 0) {
+      signalAfterCommit();
+    }
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordCustomerDeletionsAtAddresses(List<Long> addressIds) {
+    if (changeEventRepository.insertCustomerDeletionsAtAddresses(addressIds, LocalDateTime.now())
+        > 0) {
+      signalAfterCommit();
+    }
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordAddressDeletions(List<Long> ids) {
+    if (changeEventRepository.insertAddressDeletions(ids, LocalDateTime.now()) > 0) {
+      signalAfterCommit();
+    }
+  }
+
+  private String serialize(Object payload) {
+    if (payload == null) {
+      return null;
+    }
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize change event payload", e);
+    }
+  }
+
+  private void signalAfterCommit() {
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            changed.getAndSet(new CompletableFuture<>()).complete(null);
+          }
+        });
+  }
+
+  // Reading
+
+  @Override
+  public ChangeFeedResponseDTO readSince(long cursor, int limit) {
+    List<ChangeEvent> rows =
+        changeEventRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, limit));
+    LocalDateTime abandonedBefore = LocalDateTime.now().minus(gapTimeout);
+    long expected = cursor + 1;
+    int visible = 0;
+    for (ChangeEvent row : rows) {
+      if (row.getId() != expected && row.getOccurredAt().isAfter(abandonedBefore)) {
+        break; // a lower id may still commit
+      }
+      expected = row.getId() + 1;
+      visible++;
+    }
+    List<ChangeEventResponseDTO> events =
+        rows.subList(0, visible).stream().map(this::toDto).toList();
+    long next = events.isEmpty() ? cursor : events.get(events.size() - 1).id();
+    return new ChangeFeedResponseDTO(events, next);
+  }
+
+  @Override
+  public CompletableFuture<ChangeFeedResponseDTO> poll(long cursor, int limit, Duration wait) {
+    // Taken before reading, so a commit landing between the read and the wait still wakes us up
+    CompletableFuture<Void> nextCommit = changed.get();
+    ChangeFeedResponseDTO current = readSince(cursor, limit);
+    if (!current.events().isEmpty() || wait.isZero()) {
+      return CompletableFuture.completedFuture(current);
+    }
+    return nextCommit
+        .copy()
+        .completeOnTimeout(null, wait.toMillis(), TimeUnit.MILLISECONDS)
+        .thenApplyAsync(ignored -> readSince(cursor, limit), pollReader);
+  }
+
+  private ChangeEventResponseDTO toDto(ChangeEvent event) {
+    return new ChangeEventResponseDTO(
+        event.getId(),
+        event.getAggregateType(),
+        event.getAggregateId(),
+        event.getChangeType(),
+        parse(event.getPayload()),
+        event.getOccurredAt());
+  }
+
+  private JsonNode parse(String payload) {
+    if (payload == null) {
+      return null;
+    }
+    try {
+      return objectMapper.readTree(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Corrupt change event payload", e);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import com.neoaplicacoes.customerapi.util.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a bulk delete as a sequence of short transactions of at most {@code bulk-delete.batch-size}
+ * rows each, so locks are released between batches instead of being held for the whole purge. Every
+ * batch is timed ({@code bulk_delete.batch} timer, tagged by target).
+ *
+ * <p>Each batch runs under its own {@link RequestDeadline} of {@code bulk-delete.batch-timeout}
+ * rather than the request's: batches already committed stay committed, so cutting the sequence
+ * halfway would only leave the caller without the totals of what was deleted.
+ */
+@Component
+public class ChunkedDeleteExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkedDeleteExecutor.class);
+
+  /** Rows removed by one batch. */
+  public record Deleted(int customers, int addresses) {}
+
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final int batchSize;
+  private final Duration batchTimeout;
+
+  @Autowired
+  public ChunkedDeleteExecutor(
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${bulk-delete.batch-size:500}") int batchSize,
+      @Value("${bulk-delete.batch-timeout:30s}") Duration batchTimeout) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.meterRegistry = meterRegistry;
+    this.batchSize = batchSize;
+    this.batchTimeout = batchTimeout;
+  }
+
+  /**
+   * Deletes a known list of ids, one chunk per transaction.
+   *
+   * @param target metric tag
+   * @param ids ids to delete, duplicates are ignored
+   * @param deleter deletes one chunk of ids
+   * @return totals and timings
+   */
+  public BulkDeleteResponseDTO forIds(
+      String target, List<Long> ids, Function<List<Long>, Deleted> deleter) {
+    List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+    Iterator<List<Long>> chunks = BatchLookup.partition(distinct, batchSize).iterator();
+    return run(target, () -> chunks.hasNext() ? deleter.apply(chunks.next()) : null);
+  }
+
+  /**
+   * Deletes by criteria: the deleter selects and removes up to {@code limit} matching rows per
+   * transaction, until it reports that nothing matched.
+   *
+   * @param target metric tag
+   * @param deleter deletes the next chunk, returning null once no row matches
+   * @return totals and timings
+   */
+  public BulkDeleteResponseDTO untilExhausted(String target, IntFunction<Deleted> deleter) {
+    return run(target, () -> deleter.apply(batchSize));
+  }
+
+  private BulkDeleteResponseDTO run(String target, Supplier<Deleted> nextBatch) {
+    Timer timer = Timer.builder("bulk_delete.batch").tag("target", target).register(meterRegistry);
+    long start = System.nanoTime();
+    long customers = 0;
+    long addresses = 0;
+    long maxBatchNanos = 0;
+    int batches = 0;
+
+    while (true) {
+      long batchStart = System.nanoTime();
+      Deleted deleted =
+          RequestDeadline.within(
+              "bulk-delete",
+              batchTimeout,
+              () -> transactionTemplate.execute(status -> nextBatch.get()));
+      if (deleted == null) {
+        break;
+      }
+      long batchNanos = System.nanoTime() - batchStart;
+      timer.record(batchNanos, TimeUnit.NANOSECONDS);
+      maxBatchNanos = Math.max(maxBatchNanos, batchNanos);
+      customers += deleted.customers();
+      addresses += deleted.addresses();
+      batches++;
+    }
+
+    long elapsedNanos = System.nanoTime() - start;
+    long rowsPerSecond =
+        elapsedNanos == 0 ? 0 : (customers + addresses) * 1_000_000_000L / elapsedNanos;
+    logger.info(
+        "Bulk delete of {}: {} customers and {} addresses in {} batches, {} ms (slowest batch {}"
+            + " ms)",
+        target,
+        customers,
+        addresses,
+        batches,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+        TimeUnit.NANOSECONDS.toMillis(maxBatchNanos));
+    return new BulkDeleteResponseDTO(
+        customers,
+        addresses,
+        batches,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+        TimeUnit.NANOSECONDS.toMillis(maxBatchNanos),
+        rowsPerSecond);
+  }
+}
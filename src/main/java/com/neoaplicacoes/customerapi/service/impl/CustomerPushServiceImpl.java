@@ -0,0 +1,310 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import static com.neoaplicacoes.customerapi.util.TextNormalizer.normalize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.exception.ServiceUnavailableException;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerPushEventDTO;
+import com.neoaplicacoes.customerapi.service.CustomerChangedEvent;
+import com.neoaplicacoes.customerapi.service.CustomerPushService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Implementation of {@link CustomerPushService}.
+ *
+ * <p>Subscriptions are indexed by customer id and by state in concurrent maps, so fan-out after a
+ * commit only reads lock-free sets and never touches the subscriptions that cannot match. Each
+ * event is serialized once and offered to a bounded per-connection queue; a small sender pool
+ * drains the queues. A connection whose queue is full is closed rather than buffered without bound:
+ * the client reconnects (EventSource does so by itself) and reloads what it shows.
+ */
+@Service
+public class CustomerPushServiceImpl implements CustomerPushService {
+
+  private static final Logger logger = LoggerFactory.getLogger(CustomerPushServiceImpl.class);
+
+  private static final int MAX_IDS = 100;
+
+  private final ObjectMapper objectMapper;
+  private final ExecutorService sender;
+  private final int queueCapacity;
+  private final int maxConnections;
+  private final long timeoutMs;
+  private final Counter delivered;
+  private final Counter dropped;
+  // Slots are reserved before a subscription is built and released when it is unregistered, so
+  // concurrent subscribes can never push the count past maxConnections
+  private final AtomicInteger slots = new AtomicInteger();
+
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final Map<Long, Set<Subscription>> byId = new ConcurrentHashMap<>();
+  private final Map<String, Set<Subscription>> byState = new ConcurrentHashMap<>();
+
+  @Autowired
+  public CustomerPushServiceImpl(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${customer-push.queue-capacity:64}") int queueCapacity,
+      @Value("${customer-push.max-connections:1000}") int maxConnections,
+      @Value("${customer-push.timeout:30m}") Duration timeout,
+      @Value("${customer-push.sender-threads:4}") int senderThreads) {
+    this(
+        objectMapper,
+        meterRegistry,
+        queueCapacity,
+        maxConnections,
+        timeout,
+        Executors.newFixedThreadPool(senderThreads));
+  }
+
+  CustomerPushServiceImpl(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      int queueCapacity,
+      int maxConnections,
+      Duration timeout,
+      ExecutorService sender) {
+    this.objectMapper = objectMapper;
+    this.queueCapacity = queueCapacity;
+    this.maxConnections = maxConnections;
+    this.timeoutMs = timeout.toMillis();
+    this.sender = sender;
+    this.delivered = meterRegistry.counter("customer_push.events", "outcome", "queued");
+    this.dropped = meterRegistry.counter("customer_push.events", "outcome", "dropped");
+    meterRegistry.gauge("customer_push.connections", subscriptions, Set::size);
+  }
+
+  // Subscriptions
+
+  @Override
+  public SseEmitter subscribe(Set<Long> ids, String state, String city) {
+    if ((ids == null || ids.isEmpty()) && state == null) {
+      throw new BadRequestException("Inform ids and/or state");
+    }
+    if (city != null && state == null) {
+      throw new BadRequestException("city requires state");
+    }
+    if (ids != null && ids.size() > MAX_IDS) {
+      throw new BadRequestException("At most " + MAX_IDS + " ids per subscription");
+    }
+    if (!reserveSlot()) {
+      throw new ServiceUnavailableException("Too many push connections, retry later");
+    }
+
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    Subscription subscription;
+    try {
+      subscription =
+          new Subscription(
+              emitter,
+              ids == null ? Set.of() : Set.copyOf(ids),
+              normalize(state),
+              normalize(city),
+              new ArrayBlockingQueue<>(queueCapacity));
+      register(subscription);
+    } catch (RuntimeException e) {
+      slots.decrementAndGet();
+      throw e;
+    }
+    emitter.onCompletion(() -> unregister(subscription));
+    emitter.onTimeout(() -> unregister(subscription));
+    emitter.onError(error -> unregister(subscription));
+    // Flushes the response headers right away, so proxies see an open stream
+    offer(subscription, SseEmitter.event().comment("subscribed"));
+    return emitter;
+  }
+
+  @Override
+  public int connections() {
+    return subscriptions.size();
+  }
+
+  private boolean reserveSlot() {
+    int taken;
+    do {
+      taken = slots.get();
+      if (taken >= maxConnections) {
+        return false;
+      }
+    } while (!slots.compareAndSet(taken, taken + 1));
+    return true;
+  }
+
+  private void register(Subscription subscription) {
+    subscriptions.add(subscription);
+    for (Long id : subscription.ids) {
+      byId.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+    }
+    if (subscription.state != null) {
+      byState
+          .computeIfAbsent(subscription.state, key -> ConcurrentHashMap.newKeySet())
+          .add(subscription);
+    }
+  }
+
+  // Empty index sets are left in place; they are few (one per followed id/state) and reused
+  private void unregister(Subscription subscription) {
+    if (!subscriptions.remove(subscription)) {
+      return;
+    }
+    slots.decrementAndGet();
+    for (Long id : subscription.ids) {
+      Set<Subscription> set = byId.get(id);
+      if (set != null) {
+        set.remove(subscription);
+      }
+    }
+    if (subscription.state != null) {
+      Set<Subscription> set = byState.get(subscription.state);
+      if (set != null) {
+        set.remove(subscription);
+      }
+    }
+    subscription.queue.clear();
+  }
+
+  // Fan-out
+
+  /** Delivers a committed change to the matching subscriptions. Never blocks on a connection. */
+  @TransactionalEventListener
+  public void onCustomerChanged(CustomerChangedEvent event) {
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+    Set<Subscription> targets = new HashSet<>();
+    targets.addAll(byId.getOrDefault(event.id(), Set.of()));
+    for (CustomerChangedEvent.Location location : event.locations()) {
+      for (Subscription subscription : byState.getOrDefault(location.state(), Set.of())) {
+        if (subscription.city == null || subscription.city.equals(location.city())) {
+          targets.add(subscription);
+        }
+      }
+    }
+    if (targets.isEmpty()) {
+      return;
+    }
+    String data = serialize(event);
+    String name = event.changeType().name().toLowerCase();
+    for (Subscription subscription : targets) {
+      offer(
+          subscription,
+          SseEmitter.event()
+              .name(name)
+              .id(String.valueOf(event.id()))
+              .data(data, MediaType.APPLICATION_JSON));
+    }
+  }
+
+  private String serialize(CustomerChangedEvent event) {
+    try {
+      return objectMapper.writeValueAsString(
+          new CustomerPushEventDTO(
+              event.id(),
+              event.changeType(),
+              event.customer() == null ? null : objectMapper.valueToTree(event.customer())));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize customer push event", e);
+    }
+  }
+
+  /** Keeps idle connections alive and finds the dead ones (a failed send unregisters). */
+  @Scheduled(fixedDelayString = "${customer-push.heartbeat-interval-ms:15000}")
+  public void heartbeat() {
+    for (Subscription subscription : subscriptions) {
+      offer(subscription, SseEmitter.event().comment("ping"));
+    }
+  }
+
+  private void offer(Subscription subscription, SseEmitter.SseEventBuilder event) {
+    if (!subscription.queue.offer(event)) {
+      dropped.increment();
+      logger.debug("Closing slow push connection following {}", subscription.describe());
+      unregister(subscription);
+      subscription.emitter.complete();
+      return;
+    }
+    delivered.increment();
+    if (subscription.draining.compareAndSet(false, true)) {
+      sender.execute(() -> drain(subscription));
+    }
+  }
+
+  private void drain(Subscription subscription) {
+    try {
+      SseEmitter.SseEventBuilder next;
+      while ((next = subscription.queue.poll()) != null) {
+        subscription.emitter.send(next);
+      }
+    } catch (IOException | IllegalStateException e) {
+      // Client went away; the container reports it through onError/onCompletion as well
+      unregister(subscription);
+      return;
+    } finally {
+      subscription.draining.set(false);
+    }
+    // An event offered after the last poll but before the flag was cleared
+    if (!subscription.queue.isEmpty() && subscription.draining.compareAndSet(false, true)) {
+      sender.execute(() -> drain(subscription));
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sender.shutdownNow();
+    for (Subscription subscription : subscriptions) {
+      subscription.emitter.complete();
+    }
+  }
+
+  private static final class Subscription {
+
+    final SseEmitter emitter;
+    final Set<Long> ids;
+    final String state;
+    final String city;
+    final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    final AtomicBoolean draining = new AtomicBoolean();
+
+    Subscription(
+        SseEmitter emitter,
+        Set<Long> ids,
+        String state,
+        String city,
+        BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+      this.emitter = emitter;
+      this.ids = ids;
+      this.state = state;
+      this.city = city;
+      this.queue = queue;
+    }
+
+    String describe() {
+      return "ids=" + ids + " state=" + state + " city=" + city;
+    }
+  }
+}
@@ -1,19 +1,62 @@
 package com.neoaplicacoes.customerapi.service.impl;
 
+import static com.neoaplicacoes.customerapi.util.TextNormalizer.normalize;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.exception.PreconditionFailedException;
 import com.neoaplicacoes.customerapi.mapper.CustomerMapper;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangeDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangesResponseDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
 import com.neoaplicacoes.customerapi.model.entity.Address;
 import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import com.neoaplicacoes.customerapi.repository.AddressRepository;
+import com.neoaplicacoes.customerapi.repository.ConditionalUpdateRepository;
 import com.neoaplicacoes.customerapi.repository.CustomerRepository;
+import com.neoaplicacoes.customerapi.repository.projection.ChangeRow;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
+import com.neoaplicacoes.customerapi.service.CustomerChangedEvent;
 import com.neoaplicacoes.customerapi.service.CustomerService;
+import com.neoaplicacoes.customerapi.service.CustomerStatisticsService;
+import com.neoaplicacoes.customerapi.service.PatchResult;
+import com.neoaplicacoes.customerapi.util.BatchLoader;
+import com.neoaplicacoes.customerapi.util.BatchLookup;
+import com.neoaplicacoes.customerapi.util.BirthDateRange;
+import com.neoaplicacoes.customerapi.util.JsonMergePatch;
+import com.neoaplicacoes.customerapi.util.PageQueries;
+import com.neoaplicacoes.customerapi.util.SingleFlight;
+import com.neoaplicacoes.customerapi.util.SyncCursor;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validator;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of {@link CustomerService}. Provides CRUD operations, filtering, and pagination
@@ -23,32 +66,84 @@ import org.springframework.stereotype.Service;
 public class CustomerServiceImpl implements CustomerService {
 
   private final CustomerRepository customerRepository;
+  private final AddressRepository addressRepository;
   private final CustomerMapper customerMapper;
+  private final CustomerStatisticsService statisticsService;
+  private final ConditionalUpdateRepository conditionalUpdateRepository;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final ChunkedDeleteExecutor chunkedDeleteExecutor;
+  private final ChangeEventService changeEventService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Duration settleDelay;
+
+  // Concurrent identical lookups share one query (see SingleFlight)
+  private final SingleFlight<Long, CustomerResponseDTO> byIdFlight;
+  private final SingleFlight<String, List<CustomerResponseDTO>> byCpfFlight;
 
   @Autowired
-  public CustomerServiceImpl(CustomerRepository customerRepository, CustomerMapper customerMapper) {
+  public CustomerServiceImpl(
+      CustomerRepository customerRepository,
+      AddressRepository addressRepository,
+      CustomerMapper customerMapper,
+      CustomerStatisticsService statisticsService,
+      MeterRegistry meterRegistry,
+      ConditionalUpdateRepository conditionalUpdateRepository,
+      ObjectMapper objectMapper,
+      Validator validator,
+      ChunkedDeleteExecutor chunkedDeleteExecutor,
+      ChangeEventService changeEventService,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${change-events.settle-delay:1s}") Duration settleDelay) {
     this.customerRepository = customerRepository;
+    this.addressRepository = addressRepository;
     this.customerMapper = customerMapper;
+    this.statisticsService = statisticsService;
+    this.conditionalUpdateRepository = conditionalUpdateRepository;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.chunkedDeleteExecutor = chunkedDeleteExecutor;
+    this.changeEventService = changeEventService;
+    this.eventPublisher = eventPublisher;
+    this.settleDelay = settleDelay;
+    this.byIdFlight = new SingleFlight<>("customer.by-id", meterRegistry);
+    this.byCpfFlight = new SingleFlight<>("customer.by-cpf", meterRegistry);
   }
 
-  // CRUD methods
+  // CRUD methods (each mutation writes its change event in the same transaction and publishes a
+  // CustomerChangedEvent, which push subscribers receive once the transaction commits)
 
   @Override
+  @Transactional
   public CustomerResponseDTO create(CustomerRequestDTO dto) {
     Customer customer = customerMapper.toEntity(dto);
     Customer saved = customerRepository.save(customer);
-    return customerMapper.toDto(saved);
+    statisticsService.recordCreated(saved);
+    CustomerResponseDTO created = customerMapper.toDto(saved);
+    changeEventService.record(AggregateType.CUSTOMER, saved.getId(), ChangeType.CREATED, created);
+    publish(saved.getId(), ChangeType.CREATED, created, locations(null, saved));
+    return created;
   }
 
   @Override
+  @Transactional
   public CustomerResponseDTO update(Long id, CustomerRequestDTO dto) {
     Customer existing =
         customerRepository
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Customer not found with id " + id));
+    CustomerStatisticsService.Key before = statisticsService.keyOf(existing);
+    CustomerChangedEvent.Location from = locationOf(existing);
     updateCustomerPartial(dto, existing);
-    Customer updated = customerRepository.save(existing);
-    return customerMapper.toDto(updated);
+    // An address-only change leaves the customer row clean; it must still move the watermark
+    existing.setUpdatedAt(LocalDateTime.now());
+    // Flushed so the response and the event carry the incremented version
+    Customer updated = customerRepository.saveAndFlush(existing);
+    statisticsService.recordUpdated(before, updated);
+    CustomerResponseDTO result = customerMapper.toDto(updated);
+    changeEventService.record(AggregateType.CUSTOMER, id, ChangeType.UPDATED, result);
+    publish(id, ChangeType.UPDATED, result, locations(from, updated));
+    return result;
   }
 
   private void updateCustomerPartial(CustomerRequestDTO dto, Customer entity) {
@@ -99,26 +194,265 @@ public class CustomerServiceImpl implements CustomerService {
     }
   }
 
+  // Columns a conditional patch may write directly. birthDate and address move the customer
+  // between statistics groups, so patches touching them go through the read-modify-write path.
+  private static final Set<String> DIRECT_PATCH_FIELDS = Set.of("name", "email", "cpf", "phone");
+
   @Override
+  @Transactional
+  public PatchResult<CustomerResponseDTO> patch(Long id, Long expectedVersion, JsonNode patch) {
+    if (patch == null || !patch.isObject()) {
+      throw new BadRequestException("Merge patch must be a JSON object");
+    }
+    JsonMergePatch.requireKnownFields(patch, CustomerRequestDTO.class);
+    if (expectedVersion != null && isDirectPatch(patch)) {
+      return patchDirect(id, expectedVersion, patch);
+    }
+    Customer existing =
+        customerRepository
+            .findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Customer not found with id " + id));
+    if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+      throw new PreconditionFailedException("Customer", id, expectedVersion);
+    }
+    CustomerStatisticsService.Key before = statisticsService.keyOf(existing);
+    CustomerChangedEvent.Location from = locationOf(existing);
+    JsonNode current = objectMapper.valueToTree(customerMapper.toRequestDto(existing));
+    CustomerRequestDTO merged =
+        JsonMergePatch.toValue(
+            objectMapper, JsonMergePatch.apply(current, patch), CustomerRequestDTO.class);
+    JsonMergePatch.validate(validator, merged);
+    customerMapper.updateEntityFromDto(merged, existing);
+    existing.setUpdatedAt(LocalDateTime.now());
+    Customer updated = customerRepository.saveAndFlush(existing);
+    statisticsService.recordUpdated(before, updated);
+    CustomerResponseDTO result = customerMapper.toDto(updated);
+    changeEventService.record(AggregateType.CUSTOMER, id, ChangeType.UPDATED, result);
+    publish(id, ChangeType.UPDATED, result, locations(from, updated));
+    return new PatchResult<>(result, updated.getVersion());
+  }
+
+  private static boolean isDirectPatch(JsonNode patch) {
+    if (patch.isEmpty()) {
+      return false;
+    }
+    Iterator<String> names = patch.fieldNames();
+    while (names.hasNext()) {
+      if (!DIRECT_PATCH_FIELDS.contains(names.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Single UPDATE ... WHERE id = ? AND version = ?, without reading the row first
+  private PatchResult<CustomerResponseDTO> patchDirect(
+      Long id, long expectedVersion, JsonNode patch) {
+    CustomerRequestDTO values =
+        JsonMergePatch.toValue(objectMapper, patch, CustomerRequestDTO.class);
+    JsonMergePatch.validatePatched(validator, values, patch);
+
+    Map<String, Object> changes = new LinkedHashMap<>();
+    if (patch.has("name")) {
+      changes.put("name", values.name());
+    }
+    if (patch.has("email")) {
+      changes.put("email", values.email());
+    }
+    if (patch.has("cpf")) {
+      changes.put("cpf", values.cpf());
+    }
+    if (patch.has("phone")) {
+      changes.put("phone", values.phone());
+    }
+
+    int rows =
+        conditionalUpdateRepository.updateIfVersion(Customer.class, id, expectedVersion, changes);
+    if (rows == 0) {
+      if (!customerRepository.existsById(id)) {
+        throw new EntityNotFoundException("Customer not found with id " + id);
+      }
+      throw new PreconditionFailedException("Customer", id, expectedVersion);
+    }
+    // The row was never read, so the event carries only the patched fields
+    ObjectNode changed = ((ObjectNode) patch.deepCopy()).put("id", id);
+    changed.put("version", expectedVersion + 1);
+    changeEventService.record(AggregateType.CUSTOMER, id, ChangeType.UPDATED, changed);
+    // Location unknown as well: only subscribers following this id are notified
+    publish(id, ChangeType.UPDATED, changed, List.of());
+    return new PatchResult<>(null, expectedVersion + 1);
+  }
+
+  @Override
+  @Transactional
   public void delete(Long id) {
     Customer existing =
         customerRepository
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Customer not found with id " + id));
+    CustomerStatisticsService.Key before = statisticsService.keyOf(existing);
     customerRepository.delete(existing);
+    statisticsService.recordDeleted(before);
+    changeEventService.record(AggregateType.CUSTOMER, id, ChangeType.DELETED, null);
+    publish(id, ChangeType.DELETED, null, locations(locationOf(existing), null));
+  }
+
+  private void publish(
+      Long id,
+      ChangeType changeType,
+      Object customer,
+      List<CustomerChangedEvent.Location> locations) {
+    eventPublisher.publishEvent(new CustomerChangedEvent(id, changeType, customer, locations));
+  }
+
+  // Before and after, so subscribers of the old state/city also see a customer moving away
+  private static List<CustomerChangedEvent.Location> locations(
+      CustomerChangedEvent.Location from, Customer to) {
+    CustomerChangedEvent.Location after = to == null ? null : locationOf(to);
+    if (from == null) {
+      return after == null ? List.of() : List.of(after);
+    }
+    return after == null || after.equals(from) ? List.of(from) : List.of(from, after);
+  }
+
+  private static CustomerChangedEvent.Location locationOf(Customer customer) {
+    Address address = customer.getAddress();
+    return address == null
+        ? null
+        : new CustomerChangedEvent.Location(
+            address.getStateNormalized(), address.getCityNormalized());
   }
 
   @Override
   public CustomerResponseDTO getById(Long id) {
-    return customerRepository
-        .findById(id)
-        .map(customerMapper::toDto)
-        .orElseThrow(() -> new EntityNotFoundException("Customer not found with id " + id));
+    return byIdFlight.execute(
+        id,
+        () ->
+            customerRepository
+                .findById(id)
+                .map(customerMapper::toDto)
+                .orElseThrow(
+                    () -> new EntityNotFoundException("Customer not found with id " + id)));
   }
 
   @Override
   public List<CustomerResponseDTO> getAll() {
-    return customerMapper.toDtoList(customerRepository.findAll());
+    return toDtoList(customerRepository.findAll());
+  }
+
+  // Batch lookups
+
+  @Override
+  public BatchGetResponseDTO<Long, CustomerResponseDTO> batchGetByIds(List<Long> ids) {
+    return toBatchResponse(BatchLookup.load(ids, customerRepository::findByIdIn, Customer::getId));
+  }
+
+  @Override
+  public BatchGetResponseDTO<String, CustomerResponseDTO> batchGetByCpfs(List<String> cpfs) {
+    return toBatchResponse(
+        BatchLookup.load(cpfs, customerRepository::findByCpfIn, Customer::getCpf));
+  }
+
+  @Override
+  public BatchGetResponseDTO<String, CustomerResponseDTO> batchGetByEmails(List<String> emails) {
+    return toBatchResponse(
+        BatchLookup.load(emails, customerRepository::findByEmailIn, Customer::getEmail));
+  }
+
+  private <K> BatchGetResponseDTO<K, CustomerResponseDTO> toBatchResponse(
+      BatchLookup.Result<K, Customer> result) {
+    return new BatchGetResponseDTO<>(customerMapper.toDtoList(result.found()), result.missing());
+  }
+
+  // Bulk delete
+
+  @Override
+  public BulkDeleteResponseDTO bulkDeleteByIds(List<Long> ids) {
+    return chunkedDeleteExecutor.forIds("customers", ids, this::deleteCustomerChunk);
+  }
+
+  @Override
+  public BulkDeleteResponseDTO bulkDeleteByCriteria(
+      String state, String city, LocalDateTime createdBefore) {
+    if (state == null && city == null && createdBefore == null) {
+      throw new BadRequestException("Inform at least one of state, city or createdBefore");
+    }
+    String stateKey = normalize(state);
+    String cityKey = normalize(city);
+    LocalDateTime cutOff = createdBefore != null ? createdBefore : LocalDateTime.now();
+    return chunkedDeleteExecutor.untilExhausted(
+        "customers",
+        limit -> {
+          List<Long> ids = findIdsByCriteria(stateKey, cityKey, cutOff, PageRequest.of(0, limit));
+          return ids.isEmpty() ? null : deleteCustomerChunk(ids);
+        });
+  }
+
+  private List<Long> findIdsByCriteria(
+      String state, String city, LocalDateTime createdBefore, Pageable limit) {
+    if (state == null) {
+      return city == null
+          ? customerRepository.findIdsCreatedBefore(createdBefore, limit)
+          : customerRepository.findIdsByCity(city, createdBefore, limit);
+    }
+    return city == null
+        ? customerRepository.findIdsByState(state, createdBefore, limit)
+        : customerRepository.findIdsByStateAndCity(state, city, createdBefore, limit);
+  }
+
+  // Marks the customers and then their addresses; the purge job removes the rows later. The
+  // statistics take the deltas of the chunk instead of a full reconcile per request
+  private ChunkedDeleteExecutor.Deleted deleteCustomerChunk(List<Long> ids) {
+    List<Long> addressIds = customerRepository.findAddressIdsByIdIn(ids);
+    List<CustomerStatisticsService.Key> counted = statisticsService.keysOf(ids);
+    changeEventService.recordCustomerDeletions(ids);
+    int customers = customerRepository.markDeletedByIdIn(ids);
+    counted.forEach(statisticsService::recordDeleted);
+    if (addressIds.isEmpty()) {
+      return new ChunkedDeleteExecutor.Deleted(customers, 0);
+    }
+    changeEventService.recordAddressDeletions(addressIds);
+    int addresses = addressRepository.markDeletedByIdIn(addressIds);
+    return new ChunkedDeleteExecutor.Deleted(customers, addresses);
+  }
+
+  // Delta sync
+
+  @Override
+  public CustomerChangesResponseDTO getChanges(String since, int limit) {
+    SyncCursor from = SyncCursor.parse(since);
+    // Rows younger than the settle delay may still be joined by slower transactions with an
+    // earlier updated_at; leaving them for the next call keeps the watermark from skipping those
+    LocalDateTime horizon = LocalDateTime.now().minus(settleDelay);
+    List<ChangeRow> rows =
+        customerRepository.findChangedAfter(from.updatedAt(), from.id(), horizon, limit + 1);
+    boolean hasMore = rows.size() > limit;
+    List<ChangeRow> page = hasMore ? rows.subList(0, limit) : rows;
+    if (page.isEmpty()) {
+      return new CustomerChangesResponseDTO(List.of(), from.toString(), false);
+    }
+
+    List<Long> liveIds =
+        page.stream().filter(row -> row.getDeletedAt() == null).map(ChangeRow::getId).toList();
+    Map<Long, CustomerResponseDTO> live =
+        liveIds.isEmpty()
+            ? Map.of()
+            : toDtoList(customerRepository.findByIdIn(liveIds)).stream()
+                .collect(Collectors.toMap(CustomerResponseDTO::id, Function.identity()));
+
+    // A customer deleted between the two queries is missing from 'live' and reported as deleted
+    List<CustomerChangeDTO> items =
+        page.stream()
+            .map(
+                row -> {
+                  CustomerResponseDTO customer = live.get(row.getId());
+                  return new CustomerChangeDTO(
+                      row.getId(), row.getUpdatedAt(), customer == null, customer);
+                })
+            .toList();
+    ChangeRow last = page.get(page.size() - 1);
+    return new CustomerChangesResponseDTO(
+        items, new SyncCursor(last.getUpdatedAt(), last.getId()).toString(), hasMore);
   }
 
   // Filtering methods
@@ -126,87 +460,169 @@ public class CustomerServiceImpl implements CustomerService {
   @Override
   public List<CustomerResponseDTO> getByName(String name) {
     List<Customer> list = customerRepository.findByNameContainingIgnoreCase(name);
-    return customerMapper.toDtoList(list);
+    return toDtoList(list);
   }
 
   @Override
   public List<CustomerResponseDTO> getByEmail(String email) {
     List<Customer> list = customerRepository.findByEmailIgnoreCase(email);
-    return customerMapper.toDtoList(list);
+    return toDtoList(list);
   }
 
   @Override
   public List<CustomerResponseDTO> getByCpf(String cpf) {
-    List<Customer> list = customerRepository.findByCpf(cpf);
-    return customerMapper.toDtoList(list);
+    return byCpfFlight.execute(
+        cpf, () -> List.copyOf(toDtoList(customerRepository.findByCpf(cpf))));
   }
 
   @Override
   public List<CustomerResponseDTO> getByCity(String city) {
-    List<Customer> list = customerRepository.findByAddressCityIgnoreCase(city);
-    return customerMapper.toDtoList(list);
+    List<Customer> list = customerRepository.findByAddressCityNormalized(normalize(city));
+    return toDtoList(list);
   }
 
   @Override
   public List<CustomerResponseDTO> getByState(String state) {
-    List<Customer> list = customerRepository.findByAddressStateIgnoreCase(state);
-    return customerMapper.toDtoList(list);
+    List<Customer> list = customerRepository.findByAddressStateNormalized(normalize(state));
+    return toDtoList(list);
   }
 
   @Override
   public List<CustomerResponseDTO> getByCityAndNeighborhood(String city, String neighborhood) {
     List<Customer> list =
-        customerRepository.findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
-            city, neighborhood);
-    return customerMapper.toDtoList(list);
+        customerRepository.findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+            normalize(city), normalize(neighborhood));
+    return toDtoList(list);
+  }
+
+  @Override
+  public List<CustomerResponseDTO> getByAgeRange(Integer minAge, Integer maxAge) {
+    BirthDateRange range = BirthDateRange.forAges(minAge, maxAge, LocalDate.now());
+    List<Customer> list;
+    if (range.from() == null) {
+      list = customerRepository.findByBirthDateLessThanEqual(range.to());
+    } else if (range.to() == null) {
+      list = customerRepository.findByBirthDateGreaterThanEqual(range.from());
+    } else {
+      list = customerRepository.findByBirthDateBetween(range.from(), range.to());
+    }
+    return toDtoList(list);
   }
 
   // Pagination methods
 
   @Override
   public Page<CustomerResponseDTO> getAllPaged(Pageable pageable) {
-    return customerRepository.findAll(pageable).map(customerMapper::toDto);
+    return toDtoPage(
+        PageQueries.page(pageable, customerRepository::findAll, customerRepository::findSliceBy));
   }
 
   @Override
   public Page<CustomerResponseDTO> getByNamePaged(String name, Pageable pageable) {
-    return customerRepository
-        .findByNameContainingIgnoreCase(name, pageable)
-        .map(customerMapper::toDto);
+    return toDtoPage(
+        PageQueries.page(
+            pageable,
+            p -> customerRepository.findByNameContainingIgnoreCase(name, p),
+            p -> customerRepository.findSliceByNameContainingIgnoreCase(name, p)));
   }
 
   @Override
   public Page<CustomerResponseDTO> getByEmailPaged(String email, Pageable pageable) {
-    return customerRepository
-        .findByEmailContainingIgnoreCase(email, pageable)
-        .map(customerMapper::toDto);
+    return toDtoPage(
+        PageQueries.page(
+            pageable,
+            p -> customerRepository.findByEmailContainingIgnoreCase(email, p),
+            p -> customerRepository.findSliceByEmailContainingIgnoreCase(email, p)));
   }
 
   @Override
   public Page<CustomerResponseDTO> getByCpfPaged(String cpf, Pageable pageable) {
-    return customerRepository.findByCpfContaining(cpf, pageable).map(customerMapper::toDto);
+    return toDtoPage(
+        PageQueries.page(
+            pageable,
+            p -> customerRepository.findByCpfContaining(cpf, p),
+            p -> customerRepository.findSliceByCpfContaining(cpf, p)));
   }
 
   @Override
   public Page<CustomerResponseDTO> getByCityPaged(String city, Pageable pageable) {
-    return customerRepository
-        .findByAddressCityIgnoreCase(city, pageable)
-        .map(customerMapper::toDto);
+    String normalized = normalize(city);
+    return toDtoPage(
+        PageQueries.page(
+            pageable,
+            p -> customerRepository.findByAddressCityNormalized(normalized, p),
+            p -> customerRepository.findSliceByAddressCityNormalized(normalized, p)));
   }
 
   @Override
   public Page<CustomerResponseDTO> getByStatePaged(String state, Pageable pageable) {
-    return customerRepository
-        .findByAddressStateIgnoreCase(state, pageable)
-        .map(customerMapper::toDto);
+    String normalized = normalize(state);
+    return toDtoPage(
+        PageQueries.page(
+            pageable,
+            p -> customerRepository.findByAddressStateNormalized(normalized, p),
+            p -> customerRepository.findSliceByAddressStateNormalized(normalized, p)));
   }
 
   @Override
   public Page<CustomerResponseDTO> getByCityAndNeighborhoodPaged(
       String city, String neighborhood, Pageable pageable) {
-    Page<Customer> page =
-        customerRepository.findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
-            city, neighborhood, pageable);
-    return page.map(customerMapper::toDto);
+    String normalizedCity = normalize(city);
+    String normalizedNeighborhood = normalize(neighborhood);
+    return toDtoPage(
+        PageQueries.page(
+            pageable,
+            p ->
+                customerRepository.findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+                    normalizedCity, normalizedNeighborhood, p),
+            p ->
+                customerRepository.findSliceByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+                    normalizedCity, normalizedNeighborhood, p)));
+  }
+
+  @Override
+  public Page<CustomerResponseDTO> getByAgeRangePaged(
+      Integer minAge, Integer maxAge, Pageable pageable) {
+    BirthDateRange range = BirthDateRange.forAges(minAge, maxAge, LocalDate.now());
+    Page<Customer> page;
+    if (range.from() == null) {
+      page =
+          PageQueries.page(
+              pageable,
+              p -> customerRepository.findByBirthDateLessThanEqual(range.to(), p),
+              p -> customerRepository.findSliceByBirthDateLessThanEqual(range.to(), p));
+    } else if (range.to() == null) {
+      page =
+          PageQueries.page(
+              pageable,
+              p -> customerRepository.findByBirthDateGreaterThanEqual(range.from(), p),
+              p -> customerRepository.findSliceByBirthDateGreaterThanEqual(range.from(), p));
+    } else {
+      page =
+          PageQueries.page(
+              pageable,
+              p -> customerRepository.findByBirthDateBetween(range.from(), range.to(), p),
+              p -> customerRepository.findSliceByBirthDateBetween(range.from(), range.to(), p));
+    }
+    return toDtoPage(page);
+  }
+
+  // Mapping helpers: addresses are lazy and resolved in one query per page/list
+
+  private List<CustomerResponseDTO> toDtoList(List<Customer> customers) {
+    return customerMapper.toDtoList(customers, loadAddresses(customers));
+  }
+
+  private Page<CustomerResponseDTO> toDtoPage(Page<Customer> page) {
+    return customerMapper.toDtoPage(page, loadAddresses(page.getContent()));
+  }
+
+  private Map<Long, Address> loadAddresses(List<Customer> customers) {
+    List<Long> ids = new ArrayList<>(customers.size());
+    for (Customer customer : customers) {
+      ids.add(customer.getAddressId());
+    }
+    return BatchLoader.requestScoped("address", addressRepository::findAllById, Address::getId)
+        .loadMany(ids);
   }
 }
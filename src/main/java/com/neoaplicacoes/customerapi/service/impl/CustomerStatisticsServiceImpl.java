@@ -0,0 +1,227 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerStatsResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.model.enums.AgeBracket;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
+import com.neoaplicacoes.customerapi.repository.projection.GroupCount;
+import com.neoaplicacoes.customerapi.repository.projection.ResidentRow;
+import com.neoaplicacoes.customerapi.service.CustomerStatisticsService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link CustomerStatisticsService}. Counters are {@link LongAdder}s held in
+ * concurrent maps, so the write paths never block each other. A scheduled job rebuilds them from
+ * GROUP BY queries; increments racing with a reconcile may be lost until the next run.
+ */
+@Service
+public class CustomerStatisticsServiceImpl implements CustomerStatisticsService {
+
+  private static final Logger logger = LoggerFactory.getLogger(CustomerStatisticsServiceImpl.class);
+
+  private final CustomerRepository customerRepository;
+  private final AtomicReference<Counters> counters = new AtomicReference<>(new Counters(null));
+
+  @Autowired
+  public CustomerStatisticsServiceImpl(CustomerRepository customerRepository) {
+    this.customerRepository = customerRepository;
+  }
+
+  @Override
+  public Key keyOf(Customer customer) {
+    Address address = customer.getAddress();
+    if (address == null) {
+      return null;
+    }
+    return key(address.getStateNormalized(), address.getCityNormalized(), customer.getBirthDate());
+  }
+
+  private static Key key(String state, String city, LocalDate birthDate) {
+    if (state == null || city == null || birthDate == null) {
+      return null;
+    }
+    int age = Period.between(birthDate, LocalDate.now()).getYears();
+    return new Key(stateKey(state), city, AgeBracket.of(Math.max(age, 0)).getLabel());
+  }
+
+  @Override
+  public void recordCreated(Customer customer) {
+    counters.get().add(keyOf(customer), 1);
+  }
+
+  @Override
+  public void recordUpdated(Key before, Customer after) {
+    Key current = keyOf(after);
+    if (before != null && before.equals(current)) {
+      return;
+    }
+    Counters active = counters.get();
+    active.add(before, -1);
+    active.add(current, 1);
+  }
+
+  @Override
+  public void recordDeleted(Key before) {
+    counters.get().add(before, -1);
+  }
+
+  @Override
+  public List<Key> keysAtAddress(Long addressId) {
+    return keys(customerRepository.findResidentsByAddressId(addressId));
+  }
+
+  @Override
+  public List<Key> keysAtAddresses(Collection<Long> addressIds) {
+    return keys(customerRepository.findResidentsByAddressIdIn(addressIds));
+  }
+
+  @Override
+  public List<Key> keysOf(Collection<Long> customerIds) {
+    return keys(customerRepository.findResidentsByIdIn(customerIds));
+  }
+
+  private static List<Key> keys(List<ResidentRow> rows) {
+    return rows.stream()
+        .map(row -> key(row.getState(), row.getCity(), row.getBirthDate()))
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  @Override
+  public void recordAddressMoved(List<Key> before, String state, String city) {
+    Counters active = counters.get();
+    for (Key key : before) {
+      Key moved =
+          new Key(
+              state == null ? key.state() : stateKey(state),
+              city == null ? key.city() : city,
+              key.ageBracket());
+      if (!moved.equals(key)) {
+        active.add(key, -1);
+        active.add(moved, 1);
+      }
+    }
+  }
+
+  @Override
+  public CustomerStatsResponseDTO getStats() {
+    Counters active = counters.get();
+
+    Map<String, Map<String, Long>> byCity = new TreeMap<>();
+    active.byCity.forEach(
+        (state, cities) -> {
+          Map<String, Long> values = snapshot(cities);
+          if (!values.isEmpty()) {
+            byCity.put(state, values);
+          }
+        });
+
+    return new CustomerStatsResponseDTO(
+        active.total.sum(),
+        snapshot(active.byState),
+        byCity,
+        snapshot(active.byAgeBracket),
+        active.reconciledAt);
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${customer-stats.reconcile-interval-ms:300000}")
+  public void reconcile() {
+    long start = System.nanoTime();
+    Counters fresh = new Counters(LocalDateTime.now());
+
+    for (GroupCount row : customerRepository.countGroupedByState()) {
+      fresh.counter(fresh.byState, stateKey(row.getState())).add(row.getTotal());
+      fresh.total.add(row.getTotal());
+    }
+    for (GroupCount row : customerRepository.countGroupedByStateAndCity()) {
+      fresh.counter(fresh.cities(stateKey(row.getState())), row.getCity()).add(row.getTotal());
+    }
+
+    LocalDate today = LocalDate.now();
+    for (AgeBracket bracket : AgeBracket.values()) {
+      LocalDate from = bracket.bornOnOrAfter(today);
+      LocalDate to = bracket.bornOnOrBefore(today);
+      long count =
+          from == null
+              ? customerRepository.countByBirthDateLessThanEqual(to)
+              : customerRepository.countByBirthDateBetween(from, to);
+      fresh.counter(fresh.byAgeBracket, bracket.getLabel()).add(count);
+    }
+
+    counters.set(fresh);
+    logger.debug(
+        "Customer statistics reconciled in {} ms ({} customers)",
+        (System.nanoTime() - start) / 1_000_000,
+        fresh.total.sum());
+  }
+
+  private static String stateKey(String state) {
+    return state == null ? null : state.toUpperCase(Locale.ROOT);
+  }
+
+  private static Map<String, Long> snapshot(Map<String, LongAdder> source) {
+    Map<String, Long> result = new TreeMap<>();
+    source.forEach(
+        (key, adder) -> {
+          long value = adder.sum();
+          if (value > 0) {
+            result.put(key, value);
+          }
+        });
+    return result;
+  }
+
+  /** One generation of counters; replaced as a whole by {@link #reconcile()}. */
+  private static final class Counters {
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byState = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> byCity = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byAgeBracket = new ConcurrentHashMap<>();
+    private final LocalDateTime reconciledAt;
+
+    private Counters(LocalDateTime reconciledAt) {
+      this.reconciledAt = reconciledAt;
+    }
+
+    private void add(Key key, long delta) {
+      if (key == null) {
+        return;
+      }
+      total.add(delta);
+      counter(byState, key.state()).add(delta);
+      counter(cities(key.state()), key.city()).add(delta);
+      counter(byAgeBracket, key.ageBracket()).add(delta);
+    }
+
+    private Map<String, LongAdder> cities(String state) {
+      Map<String, LongAdder> cities = byCity.get(state);
+      return cities != null
+          ? cities
+          : byCity.computeIfAbsent(state, s -> new ConcurrentHashMap<>());
+    }
+
+    private LongAdder counter(Map<String, LongAdder> map, String key) {
+      LongAdder adder = map.get(key);
+      return adder != null ? adder : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import com.neoaplicacoes.customerapi.repository.AddressRepository;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
+import com.neoaplicacoes.customerapi.repository.UserRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Physically removes soft-deleted rows older than {@code soft-delete.retention}. Runs in the
+ * off-peak window given by {@code soft-delete.purge-cron}, one transaction per batch of {@code
+ * bulk-delete.batch-size} rows, and stops early once {@code soft-delete.purge-max-duration} is
+ * spent; whatever is left is picked up by the next run. Customers are purged before addresses,
+ * since an address stays as long as a customer row references it.
+ */
+@Component
+public class SoftDeletePurgeJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(SoftDeletePurgeJob.class);
+
+  private final CustomerRepository customerRepository;
+  private final AddressRepository addressRepository;
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration retention;
+  private final Duration maxDuration;
+  private final int batchSize;
+
+  @Autowired
+  public SoftDeletePurgeJob(
+      CustomerRepository customerRepository,
+      AddressRepository addressRepository,
+      UserRepository userRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${soft-delete.retention:30d}") Duration retention,
+      @Value("${soft-delete.purge-max-duration:1h}") Duration maxDuration,
+      @Value("${bulk-delete.batch-size:500}") int batchSize) {
+    this.customerRepository = customerRepository;
+    this.addressRepository = addressRepository;
+    this.userRepository = userRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.retention = retention;
+    this.maxDuration = maxDuration;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(cron = "${soft-delete.purge-cron:0 0 3 * * *}")
+  public void purge() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+    long deadline = System.nanoTime() + maxDuration.toNanos();
+
+    long customers =
+        purgeTable(deadline, () -> customerRepository.purgeDeletedBefore(cutoff, batchSize));
+    long addresses =
+        purgeTable(deadline, () -> addressRepository.purgeDeletedBefore(cutoff, batchSize));
+    long users = purgeTable(deadline, () -> userRepository.purgeDeletedBefore(cutoff, batchSize));
+
+    logger.info(
+        "Purged rows soft-deleted before {}: {} customers, {} addresses, {} users",
+        cutoff,
+        customers,
+        addresses,
+        users);
+  }
+
+  private long purgeTable(long deadline, IntSupplier batch) {
+    long total = 0;
+    int removed;
+    do {
+      if (System.nanoTime() - deadline > 0) {
+        logger.warn("Purge window exhausted, remaining rows wait for the next run");
+        break;
+      }
+      removed = transactionTemplate.execute(status -> batch.getAsInt());
+      total += removed;
+    } while (removed == batchSize);
+    return total;
+  }
+}
@@ -5,8 +5,12 @@ import com.neoaplicacoes.customerapi.model.dto.request.UserAdminRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.request.UserRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.UserResponseDTO;
 import com.neoaplicacoes.customerapi.model.entity.User;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
 import com.neoaplicacoes.customerapi.repository.UserRepository;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
 import com.neoaplicacoes.customerapi.service.UserService;
+import com.neoaplicacoes.customerapi.util.PageQueries;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implementation of {@link UserService}. Provides CRUD operations, filtering, pagination, and
@@ -25,18 +30,24 @@ public class UserServiceImpl implements UserService {
   private final UserRepository userRepository;
   private final UserMapper userMapper;
   private final PasswordEncoder passwordEncoder;
+  private final ChangeEventService changeEventService;
 
   @Autowired
   public UserServiceImpl(
-      UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+      UserRepository userRepository,
+      UserMapper userMapper,
+      PasswordEncoder passwordEncoder,
+      ChangeEventService changeEventService) {
     this.userRepository = userRepository;
     this.userMapper = userMapper;
     this.passwordEncoder = passwordEncoder;
+    this.changeEventService = changeEventService;
   }
 
-  // CRUD methods
+  // CRUD methods (each mutation writes its change event in the same transaction)
 
   @Override
+  @Transactional
   public UserResponseDTO create(UserRequestDTO dto) {
     // Encodes password
     UserRequestDTO dtoWithEncodedPassword =
@@ -44,10 +55,11 @@ public class UserServiceImpl implements UserService {
 
     User user = userMapper.toEntity(dtoWithEncodedPassword);
     User saved = userRepository.save(user);
-    return userMapper.toDto(saved);
+    return recorded(saved, ChangeType.CREATED);
   }
 
   @Override
+  @Transactional
   public UserResponseDTO update(Long id, UserRequestDTO dto) {
     User existing =
         userRepository
@@ -55,16 +67,25 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new EntityNotFoundException("User not found with id " + id));
     userMapper.updateEntityFromDto(dto, existing);
     User updated = userRepository.save(existing);
-    return userMapper.toDto(updated);
+    return recorded(updated, ChangeType.UPDATED);
   }
 
   @Override
+  @Transactional
   public void delete(Long id) {
     User existing =
         userRepository
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException("User not found with id " + id));
     userRepository.delete(existing);
+    changeEventService.record(AggregateType.USER, id, ChangeType.DELETED, null);
+  }
+
+  // The event payload is the response DTO, which never carries the password
+  private UserResponseDTO recorded(User user, ChangeType change) {
+    UserResponseDTO dto = userMapper.toDto(user);
+    changeEventService.record(AggregateType.USER, user.getId(), change, dto);
+    return dto;
   }
 
   @Override
@@ -105,37 +126,52 @@ public class UserServiceImpl implements UserService {
 
   @Override
   public Page<UserResponseDTO> getAllPaged(Pageable pageable) {
-    return userRepository.findAll(pageable).map(userMapper::toDto);
+    return PageQueries.page(pageable, userRepository::findAll, userRepository::findSliceBy)
+        .map(userMapper::toDto);
   }
 
   @Override
   public Page<UserResponseDTO> getByEmailPaged(String email, Pageable pageable) {
-    return userRepository.findByEmailContainingIgnoreCase(email, pageable).map(userMapper::toDto);
+    return PageQueries.page(
+            pageable,
+            p -> userRepository.findByEmailContainingIgnoreCase(email, p),
+            p -> userRepository.findSliceByEmailContainingIgnoreCase(email, p))
+        .map(userMapper::toDto);
   }
 
   @Override
   public Page<UserResponseDTO> getByRolePaged(String role, Pageable pageable) {
-    return userRepository.findByRoleIgnoreCase(role, pageable).map(userMapper::toDto);
+    return PageQueries.page(
+            pageable,
+            p -> userRepository.findByRoleIgnoreCase(role, p),
+            p -> userRepository.findSliceByRoleIgnoreCase(role, p))
+        .map(userMapper::toDto);
   }
 
   @Override
   public Page<UserResponseDTO> getByActivePaged(Boolean active, Pageable pageable) {
-    return userRepository.findByActive(active, pageable).map(userMapper::toDto);
+    return PageQueries.page(
+            pageable,
+            p -> userRepository.findByActive(active, p),
+            p -> userRepository.findSliceByActive(active, p))
+        .map(userMapper::toDto);
   }
 
   // Self-registration
 
   /** Registers a new user via self-registration. Forces role to USER and sets active to true. */
+  @Transactional
   public UserResponseDTO register(UserRequestDTO dto) {
     UserRequestDTO registrationDto =
         new UserRequestDTO(dto.email(), passwordEncoder.encode(dto.password()));
 
     User user = userMapper.toEntity(registrationDto);
     User savedUser = userRepository.save(user);
-    return userMapper.toDto(savedUser);
+    return recorded(savedUser, ChangeType.CREATED);
   }
 
   @Override
+  @Transactional
   public UserResponseDTO updateAdmin(Long id, UserAdminRequestDTO dto) {
     User existing =
         userRepository
@@ -146,7 +182,7 @@ public class UserServiceImpl implements UserService {
     updateAdminFields(dto, existing);
 
     User updated = userRepository.save(existing);
-    return userMapper.toDto(updated);
+    return recorded(updated, ChangeType.UPDATED);
   }
 
   private void updateAdminFields(UserAdminRequestDTO dto, User entity) {
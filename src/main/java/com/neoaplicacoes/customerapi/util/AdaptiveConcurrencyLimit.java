@@ -0,0 +1,146 @@
+package com.neoaplicacoes.customerapi.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive cap on in-flight requests (gradient algorithm, as in Netflix concurrency-limits).
+ *
+ * <p>Each completed request reports its latency. A long moving average of those latencies is the
+ * baseline; the ratio baseline / latest sample (the gradient, clamped to [0.5, 1]) says whether
+ * requests are queueing somewhere downstream, typically for a database connection. The new limit is
+ * {@code limit * gradient + sqrt(limit)}, smoothed: it keeps growing while latency stays at the
+ * baseline and the limit is actually used, and shrinks as soon as latency rises. Requests above the
+ * limit are rejected at once rather than queued, so the ones admitted keep their latency.
+ *
+ * <p>Priorities get a share of the limit: bulk work may only fill part of it, so under pressure it
+ * is shed first and cheap lookups still get through.
+ *
+ * <p>Metrics: {@code concurrency_limit.limit} and {@code concurrency_limit.inflight} gauges, and
+ * {@code concurrency_limit.requests} (tags {@code priority} and {@code outcome} accepted/rejected).
+ */
+public final class AdaptiveConcurrencyLimit {
+
+  /** Order of shedding: bulk first, critical last. */
+  public enum Priority {
+    CRITICAL,
+    NORMAL,
+    BULK
+  }
+
+  // Samples in the baseline moving average, and weight of each new limit in the smoothed one
+  private static final int BASELINE_WINDOW = 500;
+  private static final double SMOOTHING = 0.2;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final Map<Priority, Double> shares;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Map<Priority, Counter> accepted = new EnumMap<>(Priority.class);
+  private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+  private volatile double limit;
+  private double baselineNanos; // guarded by this
+
+  /**
+   * @param initialLimit starting limit, before any latency was measured
+   * @param minLimit the limit never drops below this
+   * @param maxLimit nor grows above this (keep it under the Tomcat thread pool size)
+   * @param shares fraction of the limit each priority may fill; missing priorities get 1.0
+   */
+  public AdaptiveConcurrencyLimit(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      Map<Priority, Double> shares,
+      MeterRegistry registry) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.shares = new EnumMap<>(Priority.class);
+    for (Priority priority : Priority.values()) {
+      this.shares.put(priority, shares.getOrDefault(priority, 1.0));
+      String tag = priority.name().toLowerCase(Locale.ROOT);
+      accepted.put(priority, requests(registry, tag, "accepted"));
+      rejected.put(priority, requests(registry, tag, "rejected"));
+    }
+    Gauge.builder("concurrency_limit.limit", this, AdaptiveConcurrencyLimit::limit)
+        .description("Current cap on in-flight requests")
+        .register(registry);
+    Gauge.builder("concurrency_limit.inflight", inFlight, AtomicInteger::get)
+        .description("Requests currently admitted")
+        .register(registry);
+  }
+
+  private static Counter requests(MeterRegistry registry, String priority, String outcome) {
+    return Counter.builder("concurrency_limit.requests")
+        .tag("priority", priority)
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  /**
+   * Admits a request if its priority's share of the limit is not full. Every admitted request must
+   * be followed by exactly one {@link #release} call.
+   */
+  public boolean tryAcquire(Priority priority) {
+    int allowed = Math.max(1, (int) (limit * shares.get(priority)));
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        rejected.get(priority).increment();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        accepted.get(priority).increment();
+        return true;
+      }
+    }
+  }
+
+  /** Ends an admitted request without a latency sample (e.g. it went async). */
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /** Ends an admitted request and adapts the limit to its latency. */
+  public void release(long latencyNanos) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    update(latencyNanos, inFlightBefore);
+  }
+
+  private synchronized void update(long latencyNanos, int inFlightBefore) {
+    double sample = Math.max(1, latencyNanos);
+    if (baselineNanos == 0) {
+      baselineNanos = sample;
+    } else {
+      baselineNanos += (sample - baselineNanos) / BASELINE_WINDOW;
+    }
+    // After a slow period the baseline is inflated; let it recover quickly once latency is back
+    if (baselineNanos > 2 * sample) {
+      baselineNanos *= 0.95;
+    }
+    double gradient = Math.max(0.5, Math.min(1.0, baselineNanos / sample));
+    // Fast responses from a mostly idle server say nothing about how far the limit could go
+    if (gradient >= 1.0 && inFlightBefore < limit / 2) {
+      return;
+    }
+    double current = limit;
+    double target = current * gradient + Math.sqrt(current);
+    double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+    limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+  }
+
+  public double limit() {
+    return limit;
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+}
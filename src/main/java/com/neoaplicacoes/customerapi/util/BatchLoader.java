@@ -0,0 +1,104 @@
+package com.neoaplicacoes.customerapi.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves related entities by key in batches, with a memo of everything already loaded.
+ *
+ * <p>{@link #loadMany} collects the keys that are not in the memo and resolves them with one loader
+ * call (split into chunks of {@link BatchLookup#IN_CHUNK_SIZE}). Mapping a page of N rows therefore
+ * costs one query for the related entities, not N. Keys that matched nothing are remembered as
+ * well, so they are not queried again.
+ *
+ * <p>Use {@link #requestScoped} to share one loader, and its memo, for the duration of the current
+ * HTTP request. Outside a request, for example in scheduled jobs or unit tests, a fresh loader is
+ * returned each time.
+ */
+public final class BatchLoader<K, V> {
+
+  private static final String ATTRIBUTE_PREFIX = BatchLoader.class.getName() + ".";
+
+  private final Function<List<K>, List<V>> loader;
+  private final Function<V, K> keyOf;
+  private final Map<K, V> memo = new HashMap<>();
+
+  public BatchLoader(Function<List<K>, List<V>> loader, Function<V, K> keyOf) {
+    this.loader = loader;
+    this.keyOf = keyOf;
+  }
+
+  /**
+   * Returns the loader registered under {@code name} for the current request, creating it on first
+   * use.
+   *
+   * @param name identifies the kind of entity, e.g. {@code "address"}
+   * @param loader runs one {@code IN} query for a chunk of keys
+   * @param keyOf extracts the key of a loaded entity
+   * @return the request's loader, or a new one when no request is bound to the thread
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> BatchLoader<K, V> requestScoped(
+      String name, Function<List<K>, List<V>> loader, Function<V, K> keyOf) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return new BatchLoader<>(loader, keyOf);
+    }
+    String attribute = ATTRIBUTE_PREFIX + name;
+    Object existing = attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+    if (existing != null) {
+      return (BatchLoader<K, V>) existing;
+    }
+    BatchLoader<K, V> created = new BatchLoader<>(loader, keyOf);
+    attributes.setAttribute(attribute, created, RequestAttributes.SCOPE_REQUEST);
+    return created;
+  }
+
+  /**
+   * Resolves the given keys, querying only those not loaded before. Null keys are ignored.
+   *
+   * @param keys the keys to resolve
+   * @return key to entity, without the keys that matched nothing
+   */
+  public synchronized Map<K, V> loadMany(Collection<K> keys) {
+    List<K> pending = new ArrayList<>();
+    for (K key : new LinkedHashSet<>(keys)) {
+      if (key != null && !memo.containsKey(key)) {
+        pending.add(key);
+      }
+    }
+    for (List<K> chunk : BatchLookup.partition(pending, BatchLookup.IN_CHUNK_SIZE)) {
+      for (V value : loader.apply(chunk)) {
+        memo.put(keyOf.apply(value), value);
+      }
+    }
+    pending.forEach(key -> memo.putIfAbsent(key, null));
+
+    Map<K, V> result = new HashMap<>();
+    for (K key : keys) {
+      V value = key == null ? null : memo.get(key);
+      if (value != null) {
+        result.put(key, value);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Resolves a single key through the same memo.
+   *
+   * @param key the key
+   * @return the entity, or null if it does not exist
+   */
+  public V load(K key) {
+    return loadMany(List.of(Objects.requireNonNull(key))).get(key);
+  }
+}
@@ -0,0 +1,79 @@
+package com.neoaplicacoes.customerapi.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of keys with {@code IN} queries instead of one select per key. Keys are
+ * de-duplicated and split into chunks of {@link #IN_CHUNK_SIZE} to stay well below the driver's
+ * bind-parameter limit; the rows come back in the order of the requested keys.
+ */
+public final class BatchLookup {
+
+  /** Maximum number of keys accepted by the batch-get endpoints. */
+  public static final int MAX_KEYS = 5000;
+
+  /** Maximum number of bind parameters in a single {@code IN} list. */
+  public static final int IN_CHUNK_SIZE = 1000;
+
+  private BatchLookup() {}
+
+  /**
+   * Result of a lookup.
+   *
+   * @param found rows matching the keys, in key order
+   * @param missing keys with no row
+   */
+  public record Result<K, E>(List<E> found, List<K> missing) {}
+
+  /**
+   * Loads the rows for the given keys.
+   *
+   * @param keys requested keys, possibly with duplicates
+   * @param loader runs one {@code IN} query for a chunk of keys
+   * @param keyOf extracts the key of a loaded row
+   * @return found rows in key order and the missing keys
+   */
+  public static <K, E> Result<K, E> load(
+      Collection<K> keys, Function<List<K>, List<E>> loader, Function<E, K> keyOf) {
+    List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+    Map<K, E> byKey = new HashMap<>(distinct.size() * 2);
+    for (List<K> chunk : partition(distinct, IN_CHUNK_SIZE)) {
+      for (E row : loader.apply(chunk)) {
+        byKey.put(keyOf.apply(row), row);
+      }
+    }
+
+    List<E> found = new ArrayList<>(byKey.size());
+    List<K> missing = new ArrayList<>();
+    for (K key : distinct) {
+      E row = byKey.get(key);
+      if (row != null) {
+        found.add(row);
+      } else {
+        missing.add(key);
+      }
+    }
+    return new Result<>(found, missing);
+  }
+
+  /**
+   * Splits a list into consecutive sub-lists of at most {@code size} elements.
+   *
+   * @param list the list to split
+   * @param size maximum chunk size
+   * @return views over the original list
+   */
+  public static <T> List<List<T>> partition(List<T> list, int size) {
+    List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+    for (int from = 0; from < list.size(); from += size) {
+      chunks.add(list.subList(from, Math.min(from + size, list.size())));
+    }
+    return chunks;
+  }
+}
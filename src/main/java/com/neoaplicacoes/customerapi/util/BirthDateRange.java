@@ -0,0 +1,68 @@
+package com.neoaplicacoes.customerapi.util;
+
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import java.time.LocalDate;
+
+/**
+ * Inclusive birth date interval equivalent to an age interval on a given day. Age filters are
+ * turned into this range so the database can answer them with an index scan on {@code birth_date}
+ * instead of computing the age of every row.
+ *
+ * @param from earliest birth date, or null when there is no maximum age
+ * @param to latest birth date, or null when there is no minimum age
+ */
+public record BirthDateRange(LocalDate from, LocalDate to) {
+
+  /** Largest accepted age; keeps the date arithmetic far from the limits of {@link LocalDate}. */
+  public static final int MAX_AGE = 150;
+
+  /**
+   * Builds the birth date range of everyone aged between {@code minAge} and {@code maxAge}.
+   *
+   * @param minAge minimum age in years (inclusive), or null
+   * @param maxAge maximum age in years (inclusive), or null
+   * @param today reference day
+   * @return the range
+   * @throws BadRequestException if both ages are null, outside 0-{@value #MAX_AGE} or inverted
+   */
+  public static BirthDateRange forAges(Integer minAge, Integer maxAge, LocalDate today) {
+    if (minAge == null && maxAge == null) {
+      throw new BadRequestException("minAge or maxAge must be informed");
+    }
+    if (!inRange(minAge) || !inRange(maxAge)) {
+      throw new BadRequestException("Ages must be between 0 and " + MAX_AGE);
+    }
+    if (minAge != null && maxAge != null && minAge > maxAge) {
+      throw new BadRequestException("minAge must not be greater than maxAge");
+    }
+    return new BirthDateRange(
+        maxAge == null ? null : earliestBirthDate(maxAge, today),
+        minAge == null ? null : latestBirthDate(minAge, today));
+  }
+
+  private static boolean inRange(Integer age) {
+    return age == null || (age >= 0 && age <= MAX_AGE);
+  }
+
+  /**
+   * Latest birth date of someone who is at least {@code age} years old on {@code today}.
+   *
+   * @param age age in years
+   * @param today reference day
+   * @return inclusive upper bound for the birth date
+   */
+  public static LocalDate latestBirthDate(int age, LocalDate today) {
+    return today.minusYears(age);
+  }
+
+  /**
+   * Earliest birth date of someone who is at most {@code age} years old on {@code today}.
+   *
+   * @param age age in years
+   * @param today reference day
+   * @return inclusive lower bound for the birth date
+   */
+  public static LocalDate earliestBirthDate(int age, LocalDate today) {
+    return today.minusYears(age + 1L).plusDays(1);
+  }
+}
@@ -0,0 +1,51 @@
+package com.neoaplicacoes.customerapi.util;
+
+import com.neoaplicacoes.customerapi.exception.PreconditionFailedException;
+
+/**
+ * Entity tags derived from the optimistic-lock {@code version} column. The tag of a row is its
+ * version in quotes ({@code "3"}), so an {@code If-Match} header can be turned back into the
+ * version the client last saw without reading the row.
+ */
+public final class ETags {
+
+  private ETags() {}
+
+  /**
+   * Builds the entity tag for a version.
+   *
+   * @param version the row version, may be null
+   * @return the quoted tag, or null when there is no version
+   */
+  public static String of(Long version) {
+    return version == null ? null : "\"" + version + "\"";
+  }
+
+  /**
+   * Parses an {@code If-Match} header.
+   *
+   * @param ifMatch the header value, may be null
+   * @return the expected version, or null when the header is absent or {@code *}
+   * @throws PreconditionFailedException if the tag is not a version issued by this API
+   */
+  public static Long parseVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank()) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.equals("*")) {
+      return null;
+    }
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      tag = tag.substring(1, tag.length() - 1);
+    }
+    try {
+      return Long.parseLong(tag);
+    } catch (NumberFormatException e) {
+      throw new PreconditionFailedException("If-Match does not match any version: " + ifMatch);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.neoaplicacoes.customerapi.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sparse fieldsets for JSON responses: keeps only the properties listed in a {@code fields}
+ * expression such as {@code "id,name,address.city"}. Dotted paths select nested properties; a
+ * property listed without a path keeps its whole subtree. Arrays are filtered element by element
+ * and unknown names are ignored.
+ */
+public final class JsonFieldFilter {
+
+  private final Map<String, JsonFieldFilter> children = new LinkedHashMap<>();
+
+  private JsonFieldFilter() {}
+
+  /**
+   * Parses a comma separated {@code fields} expression.
+   *
+   * @param fields the expression, e.g. {@code "id,name,address.city"}
+   * @return the filter, or null if the expression has no field names
+   */
+  public static JsonFieldFilter parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return null;
+    }
+    JsonFieldFilter root = new JsonFieldFilter();
+    for (String path : fields.split(",")) {
+      JsonFieldFilter node = root;
+      for (String name : path.trim().split("\\.")) {
+        if (!name.isEmpty()) {
+          node = node.children.computeIfAbsent(name, n -> new JsonFieldFilter());
+        }
+      }
+    }
+    return root.children.isEmpty() ? null : root;
+  }
+
+  /**
+   * Removes in place every property not selected by this filter.
+   *
+   * @param node an object, or an array of objects
+   */
+  public void apply(JsonNode node) {
+    if (node == null || children.isEmpty()) {
+      return;
+    }
+    if (node.isArray()) {
+      node.forEach(this::apply);
+    } else if (node.isObject()) {
+      ObjectNode object = (ObjectNode) node;
+      object.retain(children.keySet());
+      children.forEach((name, child) -> child.apply(object.get(name)));
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.neoaplicacoes.customerapi.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Merge Patch (RFC 7396). Members of the patch replace the members of the target, {@code null}
+ * removes a member and nested objects are merged recursively; any non-object patch replaces the
+ * target as a whole.
+ */
+public final class JsonMergePatch {
+
+  /** Media type of a merge patch document. */
+  public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+  private JsonMergePatch() {}
+
+  /**
+   * Applies a merge patch. The target is not modified.
+   *
+   * @param target the current document, may be null
+   * @param patch the merge patch
+   * @return the patched document
+   */
+  public static JsonNode apply(JsonNode target, JsonNode patch) {
+    if (patch == null || !patch.isObject()) {
+      return patch;
+    }
+    ObjectNode result =
+        target != null && target.isObject()
+            ? ((ObjectNode) target).deepCopy()
+            : JsonNodeFactory.instance.objectNode();
+    Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      if (field.getValue().isNull()) {
+        result.remove(field.getKey());
+      } else {
+        result.set(field.getKey(), apply(result.get(field.getKey()), field.getValue()));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Rejects patch members that are not components of the target record. Nested objects are checked
+   * against the type of the matching component.
+   *
+   * @param patch the merge patch
+   * @param type the record the patch applies to
+   * @throws BadRequestException on the first unknown member
+   */
+  public static void requireKnownFields(JsonNode patch, Class<?> type) {
+    if (patch == null || !patch.isObject() || !type.isRecord()) {
+      return;
+    }
+    Map<String, Class<?>> components = new HashMap<>();
+    for (RecordComponent component : type.getRecordComponents()) {
+      components.put(component.getName(), component.getType());
+    }
+    Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      Class<?> componentType = components.get(field.getKey());
+      if (componentType == null) {
+        throw new BadRequestException("Unknown field: " + field.getKey());
+      }
+      requireKnownFields(field.getValue(), componentType);
+    }
+  }
+
+  /**
+   * Binds a (patched) document to its request type.
+   *
+   * @throws BadRequestException if the document does not fit the type
+   */
+  public static <T> T toValue(ObjectMapper objectMapper, JsonNode document, Class<T> type) {
+    try {
+      return objectMapper.treeToValue(document, type);
+    } catch (JsonProcessingException e) {
+      throw new BadRequestException("Invalid patch: " + e.getOriginalMessage(), e);
+    }
+  }
+
+  /**
+   * Validates only the members present in the patch, for updates that never see the whole resource.
+   *
+   * @throws ConstraintViolationException if any of those members is invalid
+   */
+  public static <T> void validatePatched(Validator validator, T value, JsonNode patch) {
+    Set<ConstraintViolation<T>> violations = new HashSet<>();
+    patch
+        .fieldNames()
+        .forEachRemaining(name -> violations.addAll(validator.validateProperty(value, name)));
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+  }
+
+  /**
+   * Validates the whole patched resource.
+   *
+   * @throws ConstraintViolationException if the result is invalid
+   */
+  public static <T> void validate(Validator validator, T value) {
+    Set<ConstraintViolation<T>> violations = validator.validate(value);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+  }
+}
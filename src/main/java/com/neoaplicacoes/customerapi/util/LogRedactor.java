@@ -0,0 +1,40 @@
+package com.neoaplicacoes.customerapi.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Masks personal data before it reaches a log line: CPFs (formatted or bare 11 digits) and e-mail
+ * addresses. Meant for values that end up in logs by accident, such as SQL bind values; it does not
+ * attempt to recognize names or addresses.
+ */
+public final class LogRedactor {
+
+  private static final Pattern CPF =
+      Pattern.compile("(?<!\\d)\\d{3}\\.?\\d{3}\\.?\\d{3}-?\\d{2}(?!\\d)");
+  private static final Pattern EMAIL =
+      Pattern.compile("[\\w.%+-]+@([\\w-]+(?:\\.[\\w-]+)+)", Pattern.UNICODE_CHARACTER_CLASS);
+
+  private LogRedactor() {}
+
+  /**
+   * Redacts CPFs to {@code ***.***.***-**} and e-mails to {@code ***@domain}.
+   *
+   * @param text any text, may be null
+   * @return the text with personal data masked
+   */
+  public static String redact(String text) {
+    if (text == null || text.isEmpty()) {
+      return text;
+    }
+    String result = text;
+    if (result.indexOf('@') >= 0) {
+      result = EMAIL.matcher(result).replaceAll("***@$1");
+    }
+    return CPF.matcher(result).replaceAll("***.***.***-**");
+  }
+
+  /** Redacts the string form of a value; null stays "null". */
+  public static String redact(Object value) {
+    return value == null ? "null" : redact(value.toString());
+  }
+}
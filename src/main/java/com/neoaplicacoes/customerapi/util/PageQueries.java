@@ -0,0 +1,70 @@
+package com.neoaplicacoes.customerapi.util;
+
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Runs a paged query with or without its count query. The compact page envelope ({@code
+ * envelope=compact}, see {@code ResponseShapingAdvice}) only shows the total with {@code
+ * withTotal=true}; otherwise it just needs to know whether there is a next page, which a {@link
+ * Slice} answers by reading one extra row instead of counting the whole result.
+ *
+ * <p>The controller makes the call: it passes a page request marked with {@link
+ * #withoutTotal(Pageable)} when its response will not show the total. Any other page request gets a
+ * real total.
+ */
+public final class PageQueries {
+
+  public static final String ENVELOPE_PARAM = "envelope";
+  public static final String COMPACT = "compact";
+  public static final String WITH_TOTAL_PARAM = "withTotal";
+
+  private PageQueries() {}
+
+  /** Whether a response in this envelope shows the total. */
+  public static boolean totalShown(String envelope, boolean withTotal) {
+    return !COMPACT.equalsIgnoreCase(envelope) || withTotal;
+  }
+
+  /**
+   * The same page request, marked as not needing the total. The mark does not survive {@code
+   * next()}, {@code withPage()} and the like, which return plain page requests.
+   */
+  public static Pageable withoutTotal(Pageable pageable) {
+    if (pageable instanceof Uncounted || pageable.isUnpaged()) {
+      return pageable;
+    }
+    return new Uncounted(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+  }
+
+  /**
+   * Runs {@code paged}, or {@code sliced} for a page request marked {@link #withoutTotal}.
+   *
+   * @param pageable the requested page
+   * @param paged query returning a {@link Page} (content plus count query)
+   * @param sliced the same query returning a {@link Slice} (no count query)
+   * @return the page; without the count its total is only a lower bound, enough for {@link
+   *     Page#hasNext()}
+   */
+  public static <T> Page<T> page(
+      Pageable pageable, Function<Pageable, Page<T>> paged, Function<Pageable, Slice<T>> sliced) {
+    if (!(pageable instanceof Uncounted)) {
+      return paged.apply(pageable);
+    }
+    Slice<T> slice = sliced.apply(pageable);
+    long seen = pageable.getOffset() + slice.getNumberOfElements();
+    return new PageImpl<>(slice.getContent(), pageable, slice.hasNext() ? seen + 1 : seen);
+  }
+
+  private static final class Uncounted extends PageRequest {
+
+    private Uncounted(int pageNumber, int pageSize, Sort sort) {
+      super(pageNumber, pageSize, sort);
+    }
+  }
+}
@@ -18,6 +18,15 @@ public class PaginationUtil {
     return PageRequest.of(pageNumber, size);
   }
 
+  // Overload for the page envelope: the compact one without withTotal skips the count query
+  public static Pageable createPageable(
+      int pageNumber, int size, String sort, String envelope, boolean withTotal) {
+    Pageable pageable = createPageable(pageNumber, size, sort);
+    return PageQueries.totalShown(envelope, withTotal)
+        ? pageable
+        : PageQueries.withoutTotal(pageable);
+  }
+
   // Overloading for default values
   public static Pageable createPageable(int pageNumber, int size) {
     return createPageable(pageNumber, size, null);
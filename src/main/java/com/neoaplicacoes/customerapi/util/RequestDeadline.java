@@ -0,0 +1,65 @@
+package com.neoaplicacoes.customerapi.util;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the request being handled by the current thread. Set by {@code RequestDeadlineFilter}
+ * and read by the data source, which caps the timeout of every statement at the time the request
+ * has left. Threads without a deadline (jobs, async completions) run unbounded.
+ */
+public final class RequestDeadline {
+
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  private RequestDeadline() {}
+
+  /** Starts a deadline for the current thread. */
+  public static void start(String group, Duration timeout) {
+    CURRENT.set(new Deadline(group, System.nanoTime() + timeout.toNanos()));
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Runs a step under a deadline of its own, then puts back the one the thread had. For work that
+   * commits in steps: each step is bounded, but a long sequence of them is not cut halfway.
+   */
+  public static <T> T within(String group, Duration timeout, Supplier<T> step) {
+    Deadline outer = CURRENT.get();
+    start(group, timeout);
+    try {
+      return step.get();
+    } finally {
+      if (outer == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(outer);
+      }
+    }
+  }
+
+  /** Group name of the current deadline, null when there is none. */
+  public static String group() {
+    Deadline deadline = CURRENT.get();
+    return deadline == null ? null : deadline.group();
+  }
+
+  /**
+   * Time left before the deadline.
+   *
+   * @return milliseconds left, negative once it has passed, or {@link Long#MAX_VALUE} without a
+   *     deadline
+   */
+  public static long remainingMillis() {
+    Deadline deadline = CURRENT.get();
+    if (deadline == null) {
+      return Long.MAX_VALUE;
+    }
+    return Duration.ofNanos(deadline.atNanos() - System.nanoTime()).toMillis();
+  }
+
+  private record Deadline(String group, long atNanos) {}
+}
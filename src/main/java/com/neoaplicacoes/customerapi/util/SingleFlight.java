@@ -0,0 +1,120 @@
+package com.neoaplicacoes.customerapi.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing ("single flight"): while a load for a key is running, concurrent calls for the
+ * same key wait for that load and receive its result (or its exception) instead of starting their
+ * own. Nothing is cached: the entry is removed as soon as the load finishes, so a later call always
+ * reads fresh data.
+ *
+ * <p>The first caller runs the loader on its own thread; the in-flight map is a {@link
+ * ConcurrentHashMap} of futures, so no lock is held while loading. Results are shared between
+ * callers and must therefore be immutable.
+ *
+ * <p>Followers wait at most {@code maxWait} for the leader; past that they stop waiting and run the
+ * loader themselves, so one stuck load cannot hold every caller of that key hostage.
+ *
+ * <p>Metrics (tag {@code name}): {@code singleflight.calls}, {@code singleflight.coalesced}, {@code
+ * singleflight.wait-timeouts} and the {@code singleflight.inflight} gauge.
+ */
+public final class SingleFlight<K, V> {
+
+  /** How long a follower waits for the leader's result unless another bound is given. */
+  public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(5);
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter calls;
+  private final Counter coalesced;
+  private final Counter waitTimeouts;
+  private final Duration maxWait;
+
+  public SingleFlight(String name, MeterRegistry registry) {
+    this(name, registry, DEFAULT_MAX_WAIT);
+  }
+
+  public SingleFlight(String name, MeterRegistry registry, Duration maxWait) {
+    this.maxWait = maxWait;
+    this.calls =
+        Counter.builder("singleflight.calls")
+            .description("Calls that went through the single-flight layer")
+            .tag("name", name)
+            .register(registry);
+    this.coalesced =
+        Counter.builder("singleflight.coalesced")
+            .description("Calls that reused the result of an identical in-flight call")
+            .tag("name", name)
+            .register(registry);
+    this.waitTimeouts =
+        Counter.builder("singleflight.wait-timeouts")
+            .description("Followers that gave up waiting for the leader and loaded on their own")
+            .tag("name", name)
+            .register(registry);
+    Gauge.builder("singleflight.inflight", inFlight, ConcurrentMap::size)
+        .description("Distinct keys currently being loaded")
+        .tag("name", name)
+        .register(registry);
+  }
+
+  /**
+   * Returns the result of {@code loader}, sharing it with every concurrent call for the same key.
+   *
+   * @param key the lookup key
+   * @param loader performs the actual lookup
+   * @return the loaded value
+   */
+  public V execute(K key, Supplier<V> loader) {
+    calls.increment();
+    CompletableFuture<V> mine = new CompletableFuture<>();
+    CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+    if (running != null) {
+      coalesced.increment();
+      try {
+        return await(running, maxWait);
+      } catch (TimeoutException ex) {
+        waitTimeouts.increment();
+        return loader.get();
+      }
+    }
+    try {
+      V value = loader.get();
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException | Error ex) {
+      mine.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> future, Duration maxWait)
+      throws TimeoutException {
+    try {
+      return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new CompletionException(cause);
+    }
+  }
+}
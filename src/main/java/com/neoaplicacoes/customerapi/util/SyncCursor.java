@@ -0,0 +1,48 @@
+package com.neoaplicacoes.customerapi.util;
+
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a feed ordered by {@code (updated_at, id)}. Its text form is {@code <updatedAt>,<id>}
+ * (e.g. {@code 2025-03-01T10:15:30.123456,42}); a bare ISO-8601 date-time starts right before that
+ * instant, so a client can begin a delta sync from the time of its last full export.
+ *
+ * @param updatedAt watermark of the last row seen
+ * @param id id of the last row seen, breaks ties between rows with the same watermark
+ */
+public record SyncCursor(LocalDateTime updatedAt, long id) {
+
+  /** Position before every row. */
+  public static final SyncCursor START = new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+  /**
+   * Parses a cursor or a date-time.
+   *
+   * @param value cursor, ISO-8601 local date-time, or null/blank for {@link #START}
+   * @return the position
+   * @throws BadRequestException if the value is neither
+   */
+  public static SyncCursor parse(String value) {
+    if (value == null || value.isBlank()) {
+      return START;
+    }
+    String text = value.trim();
+    int comma = text.lastIndexOf(',');
+    try {
+      if (comma < 0) {
+        return new SyncCursor(LocalDateTime.parse(text), 0);
+      }
+      return new SyncCursor(
+          LocalDateTime.parse(text.substring(0, comma)), Long.parseLong(text.substring(comma + 1)));
+    } catch (DateTimeParseException | NumberFormatException e) {
+      throw new BadRequestException("Invalid since: " + value, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return updatedAt + "," + id;
+  }
+}
@@ -0,0 +1,25 @@
+package com.neoaplicacoes.customerapi.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds free text into the canonical form stored in the {@code *_normalized} shadow columns:
+ * accents removed, lowercased and trimmed ("São Paulo" → "sao paulo"). Lookups must normalize their
+ * input with the same function so they can hit the indexes on those columns.
+ */
+public final class TextNormalizer {
+
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+  private TextNormalizer() {}
+
+  public static String normalize(String value) {
+    if (value == null) {
+      return null;
+    }
+    String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+    return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,69 @@
+package db.migration;
+
+import com.neoaplicacoes.customerapi.util.TextNormalizer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Recomputes the {@code *_normalized} address columns with {@link TextNormalizer}. The V4 backfill
+ * folded accents with a hand-picked {@code translate()} list, while the application strips every
+ * combining mark after NFD decomposition, so rows outside that list held a different value than the
+ * one lookups search for. Only rows whose value actually changes are updated.
+ *
+ * <p>Found by Flyway's scan of {@code classpath:db/migration}; a native image has no class files to
+ * scan, so run new Java migrations with the JVM image before rolling out a native build.
+ */
+public class V13__Renormalize_address_columns extends BaseJavaMigration {
+
+  private static final int BATCH_SIZE = 1000;
+
+  private static final String SELECT_PAGE =
+      "SELECT id, neighborhood, city, state, neighborhood_normalized, city_normalized,"
+          + " state_normalized FROM addresses WHERE id > ? ORDER BY id LIMIT "
+          + BATCH_SIZE;
+
+  private static final String UPDATE_ROW =
+      "UPDATE addresses SET neighborhood_normalized = ?, city_normalized = ?,"
+          + " state_normalized = ? WHERE id = ? AND state_normalized = ?";
+
+  @Override
+  public void migrate(Context context) throws SQLException {
+    Connection connection = context.getConnection();
+    try (PreparedStatement select = connection.prepareStatement(SELECT_PAGE);
+        PreparedStatement update = connection.prepareStatement(UPDATE_ROW)) {
+      long lastId = 0;
+      int read;
+      do {
+        read = 0;
+        select.setLong(1, lastId);
+        try (ResultSet rows = select.executeQuery()) {
+          while (rows.next()) {
+            read++;
+            lastId = rows.getLong("id");
+            String neighborhood = TextNormalizer.normalize(rows.getString("neighborhood"));
+            String city = TextNormalizer.normalize(rows.getString("city"));
+            String state = TextNormalizer.normalize(rows.getString("state"));
+            String currentState = rows.getString("state_normalized");
+            if (Objects.equals(neighborhood, rows.getString("neighborhood_normalized"))
+                && Objects.equals(city, rows.getString("city_normalized"))
+                && Objects.equals(state, currentState)) {
+              continue;
+            }
+            update.setString(1, neighborhood);
+            update.setString(2, city);
+            update.setString(3, state);
+            update.setLong(4, lastId);
+            update.setString(5, currentState);
+            update.addBatch();
+          }
+        }
+        update.executeBatch();
+      } while (read == BATCH_SIZE);
+    }
+  }
+}
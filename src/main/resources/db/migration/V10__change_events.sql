@@ -0,0 +1,14 @@
+-- Transactional outbox: every customer/address/user mutation writes a row here in the
+-- same transaction, and consumers read it incrementally by id (GET /api/changes)
+-- instead of re-fetching whole tables. Rows are pruned after change-events.retention.
+
+CREATE TABLE change_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    payload TEXT,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_change_events_occurred_at ON change_events(occurred_at);
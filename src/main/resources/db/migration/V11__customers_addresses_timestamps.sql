@@ -0,0 +1,27 @@
+-- Audit timestamps for customers and addresses, mirroring users (V1). updated_at is the
+-- watermark of GET /api/customers/changes, which pages by (updated_at, id); soft-deleted
+-- rows keep their last updated_at and are served as tombstones until purged.
+-- Existing rows start at the migration time, so the first delta sync returns everything.
+
+ALTER TABLE customers ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE customers ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE addresses ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE addresses ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Same trigger as users: set-based updates (bulk soft deletes, conditional patches) and
+-- manual SQL move the watermark too, not only writes that go through Hibernate.
+
+CREATE TRIGGER update_customers_updated_at
+BEFORE UPDATE ON customers
+FOR EACH ROW
+EXECUTE PROCEDURE update_updated_at_column();
+
+CREATE TRIGGER update_addresses_updated_at
+BEFORE UPDATE ON addresses
+FOR EACH ROW
+EXECUTE PROCEDURE update_updated_at_column();
+
+-- Keyset index of the change feed. Not partial: tombstones must be found as well.
+
+CREATE INDEX idx_customers_updated_at ON customers(updated_at, id);
+CREATE INDEX idx_addresses_updated_at ON addresses(updated_at, id);
@@ -0,0 +1,10 @@
+-- Failed login attempts per subject ("email:<address>" or "ip:<address>"), written only when
+-- login-throttle.persistence is on, so that locks survive restarts and reach other instances.
+CREATE TABLE login_attempts (
+    subject VARCHAR(330) PRIMARY KEY,
+    failures INTEGER NOT NULL,
+    locked_until TIMESTAMP,
+    last_failure_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_login_attempts_last_failure_at ON login_attempts (last_failure_at);
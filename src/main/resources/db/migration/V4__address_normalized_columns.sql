@@ -0,0 +1,30 @@
+-- Accent-folded, lowercased shadow columns for the city/state/neighborhood filters.
+-- The application keeps them in sync on write (see Address and TextNormalizer);
+-- the backfill below mirrors the same folding for existing rows.
+
+ALTER TABLE addresses ADD COLUMN neighborhood_normalized VARCHAR(255);
+ALTER TABLE addresses ADD COLUMN city_normalized VARCHAR(255);
+ALTER TABLE addresses ADD COLUMN state_normalized VARCHAR(2);
+
+UPDATE addresses SET
+    neighborhood_normalized = lower(translate(trim(neighborhood),
+        'ÁÀÂÃÄÅáàâãäåÉÈÊËéèêëÍÌÎÏíìîïÓÒÔÕÖóòôõöÚÙÛÜúùûüÇçÑñ',
+        'AAAAAAaaaaaaEEEEeeeeIIIIiiiiOOOOOoooooUUUUuuuuCcNn')),
+    city_normalized = lower(translate(trim(city),
+        'ÁÀÂÃÄÅáàâãäåÉÈÊËéèêëÍÌÎÏíìîïÓÒÔÕÖóòôõöÚÙÛÜúùûüÇçÑñ',
+        'AAAAAAaaaaaaEEEEeeeeIIIIiiiiOOOOOoooooUUUUuuuuCcNn')),
+    state_normalized = lower(trim(state));
+
+ALTER TABLE addresses ALTER COLUMN neighborhood_normalized SET NOT NULL;
+ALTER TABLE addresses ALTER COLUMN city_normalized SET NOT NULL;
+ALTER TABLE addresses ALTER COLUMN state_normalized SET NOT NULL;
+
+-- INDEXES FOR THE LOCATION FILTERS
+-- (state, city, neighborhood) serves state, state+city and state+city+neighborhood lookups;
+-- the other two cover the filters that do not start with the state.
+
+CREATE INDEX idx_addresses_location
+    ON addresses(state_normalized, city_normalized, neighborhood_normalized);
+CREATE INDEX idx_addresses_city_neighborhood
+    ON addresses(city_normalized, neighborhood_normalized);
+CREATE INDEX idx_addresses_neighborhood ON addresses(neighborhood_normalized);
@@ -0,0 +1,4 @@
+-- Age filters are translated into birth_date ranges (see BirthDateRange),
+-- and the statistics reconciliation counts customers per birth_date range.
+
+CREATE INDEX idx_customers_birth_date ON customers(birth_date);
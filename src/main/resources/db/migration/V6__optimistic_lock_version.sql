@@ -0,0 +1,5 @@
+-- Optimistic-lock version (JPA @Version), exposed to clients as ETag / If-Match
+-- so a PATCH can be applied with a single conditional UPDATE.
+
+ALTER TABLE customers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE addresses ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
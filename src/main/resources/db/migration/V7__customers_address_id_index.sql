@@ -0,0 +1,5 @@
+-- Bulk deletes remove customers by address_id, and the fk_address ON DELETE CASCADE
+-- has to find the customers of a deleted address. PostgreSQL does not index foreign
+-- keys on its own, so without this both scan the whole customers table.
+
+CREATE INDEX idx_customers_address_id ON customers(address_id);
@@ -0,0 +1,26 @@
+-- Soft delete: rows are marked with deleted_at instead of being removed, and a
+-- scheduled job purges them physically in batches during the off-peak window.
+
+ALTER TABLE customers ADD COLUMN deleted_at TIMESTAMP;
+ALTER TABLE addresses ADD COLUMN deleted_at TIMESTAMP;
+ALTER TABLE users ADD COLUMN deleted_at TIMESTAMP;
+
+-- Uniqueness only applies to live rows, so an email or CPF can be registered again
+-- once the previous owner was deleted. The partial indexes also replace the plain
+-- email/CPF lookup indexes, since every query filters on deleted_at IS NULL.
+
+ALTER TABLE customers DROP CONSTRAINT customers_email_key;
+ALTER TABLE customers DROP CONSTRAINT customers_cpf_key;
+ALTER TABLE users DROP CONSTRAINT users_email_key;
+DROP INDEX idx_customers_email;
+DROP INDEX idx_customers_cpf;
+
+CREATE UNIQUE INDEX ux_customers_email_live ON customers(email) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX ux_customers_cpf_live ON customers(cpf) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX ux_users_email_live ON users(email) WHERE deleted_at IS NULL;
+
+-- The purge job only looks at deleted rows, which should stay a small fraction.
+
+CREATE INDEX idx_customers_deleted_at ON customers(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_addresses_deleted_at ON addresses(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_users_deleted_at ON users(deleted_at) WHERE deleted_at IS NOT NULL;
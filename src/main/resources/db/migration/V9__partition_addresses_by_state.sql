@@ -0,0 +1,132 @@
+-- List-partition addresses by state. Almost every filter is scoped by state, so a
+-- query with state_normalized = ? only touches one partition, and each partition
+-- carries its own, much smaller, indexes.
+--
+-- A partitioned table's primary key must include the partition key, so the key becomes
+-- (id, state_normalized) and customers reference it through a denormalized
+-- address_state column. Customers themselves stay unpartitioned: partitioning them
+-- would force the email/CPF unique indexes to include the state, and uniqueness could
+-- no longer be enforced across states.
+--
+-- Requires PostgreSQL 15: before it, a row moving to another partition fires the
+-- DELETE action of the foreign key below, so changing an address's state would
+-- cascade-delete its customers. Older servers stop here instead of losing data.
+
+DO $$
+BEGIN
+    IF current_setting('server_version_num')::int < 150000 THEN
+        RAISE EXCEPTION 'V9 needs PostgreSQL 15 or later, this server is %',
+            current_setting('server_version');
+    END IF;
+END;
+$$;
+
+ALTER TABLE customers DROP CONSTRAINT fk_address;
+ALTER TABLE addresses RENAME TO addresses_unpartitioned;
+ALTER TABLE addresses_unpartitioned RENAME CONSTRAINT addresses_pkey TO addresses_unpartitioned_pkey;
+ALTER SEQUENCE addresses_id_seq OWNED BY NONE;
+
+CREATE TABLE addresses (
+    id BIGINT NOT NULL DEFAULT nextval('addresses_id_seq'),
+    cep VARCHAR(8) NOT NULL,
+    number VARCHAR(20) NOT NULL,
+    complement VARCHAR(50),
+    street VARCHAR(255) NOT NULL,
+    neighborhood VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    state VARCHAR(2) NOT NULL,
+    neighborhood_normalized VARCHAR(255) NOT NULL,
+    city_normalized VARCHAR(255) NOT NULL,
+    state_normalized VARCHAR(2) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    deleted_at TIMESTAMP,
+    PRIMARY KEY (id, state_normalized)
+) PARTITION BY LIST (state_normalized);
+
+ALTER SEQUENCE addresses_id_seq OWNED BY addresses.id;
+
+-- One partition per federative unit (values are normalized, i.e. lowercase),
+-- plus a default one so an unexpected value never fails an insert.
+
+CREATE TABLE addresses_ac PARTITION OF addresses FOR VALUES IN ('ac');
+CREATE TABLE addresses_al PARTITION OF addresses FOR VALUES IN ('al');
+CREATE TABLE addresses_am PARTITION OF addresses FOR VALUES IN ('am');
+CREATE TABLE addresses_ap PARTITION OF addresses FOR VALUES IN ('ap');
+CREATE TABLE addresses_ba PARTITION OF addresses FOR VALUES IN ('ba');
+CREATE TABLE addresses_ce PARTITION OF addresses FOR VALUES IN ('ce');
+CREATE TABLE addresses_df PARTITION OF addresses FOR VALUES IN ('df');
+CREATE TABLE addresses_es PARTITION OF addresses FOR VALUES IN ('es');
+CREATE TABLE addresses_go PARTITION OF addresses FOR VALUES IN ('go');
+CREATE TABLE addresses_ma PARTITION OF addresses FOR VALUES IN ('ma');
+CREATE TABLE addresses_mg PARTITION OF addresses FOR VALUES IN ('mg');
+CREATE TABLE addresses_ms PARTITION OF addresses FOR VALUES IN ('ms');
+CREATE TABLE addresses_mt PARTITION OF addresses FOR VALUES IN ('mt');
+CREATE TABLE addresses_pa PARTITION OF addresses FOR VALUES IN ('pa');
+CREATE TABLE addresses_pb PARTITION OF addresses FOR VALUES IN ('pb');
+CREATE TABLE addresses_pe PARTITION OF addresses FOR VALUES IN ('pe');
+CREATE TABLE addresses_pi PARTITION OF addresses FOR VALUES IN ('pi');
+CREATE TABLE addresses_pr PARTITION OF addresses FOR VALUES IN ('pr');
+CREATE TABLE addresses_rj PARTITION OF addresses FOR VALUES IN ('rj');
+CREATE TABLE addresses_rn PARTITION OF addresses FOR VALUES IN ('rn');
+CREATE TABLE addresses_ro PARTITION OF addresses FOR VALUES IN ('ro');
+CREATE TABLE addresses_rr PARTITION OF addresses FOR VALUES IN ('rr');
+CREATE TABLE addresses_rs PARTITION OF addresses FOR VALUES IN ('rs');
+CREATE TABLE addresses_sc PARTITION OF addresses FOR VALUES IN ('sc');
+CREATE TABLE addresses_se PARTITION OF addresses FOR VALUES IN ('se');
+CREATE TABLE addresses_sp PARTITION OF addresses FOR VALUES IN ('sp');
+CREATE TABLE addresses_to PARTITION OF addresses FOR VALUES IN ('to');
+CREATE TABLE addresses_default PARTITION OF addresses DEFAULT;
+
+INSERT INTO addresses (id, cep, number, complement, street, neighborhood, city, state,
+                       neighborhood_normalized, city_normalized, state_normalized,
+                       version, deleted_at)
+SELECT id, cep, number, complement, street, neighborhood, city, state,
+       neighborhood_normalized, city_normalized, state_normalized,
+       version, deleted_at
+FROM addresses_unpartitioned;
+
+DROP TABLE addresses_unpartitioned;
+
+-- Indexes are created on every partition. Inside a partition the state is constant,
+-- so the V4 (state, city, neighborhood) index shrinks to (city, neighborhood).
+
+CREATE INDEX idx_addresses_city_neighborhood
+    ON addresses(city_normalized, neighborhood_normalized);
+CREATE INDEX idx_addresses_neighborhood ON addresses(neighborhood_normalized);
+CREATE INDEX idx_addresses_deleted_at ON addresses(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Customers carry the state of their address. It is filled on insert by the trigger
+-- below and follows address state changes through ON UPDATE CASCADE (since
+-- PostgreSQL 15 a row moving to another partition cascades as an update, not a delete).
+
+ALTER TABLE customers ADD COLUMN address_state VARCHAR(2);
+
+UPDATE customers c SET address_state = a.state_normalized
+FROM addresses a WHERE a.id = c.address_id;
+
+ALTER TABLE customers ALTER COLUMN address_state SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION set_customer_address_state()
+RETURNS TRIGGER AS $$
+BEGIN
+   SELECT state_normalized INTO NEW.address_state FROM addresses WHERE id = NEW.address_id;
+   RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER set_customers_address_state
+BEFORE INSERT OR UPDATE OF address_id ON customers
+FOR EACH ROW
+EXECUTE PROCEDURE set_customer_address_state();
+
+ALTER TABLE customers
+    ADD CONSTRAINT fk_address
+        FOREIGN KEY (address_id, address_state)
+        REFERENCES addresses(id, state_normalized)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE;
+
+-- Serves the FK checks and cascades, and state-scoped customer scans.
+
+DROP INDEX idx_customers_address_id;
+CREATE INDEX idx_customers_address ON customers(address_id, address_state);
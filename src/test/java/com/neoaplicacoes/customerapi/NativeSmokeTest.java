@@ -0,0 +1,94 @@
+package com.neoaplicacoes.customerapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * End-to-end smoke test over real HTTP: login, create, read, merge-patch and search a customer,
+ * plus the OpenAPI document. No mocks, so it also runs inside the native image ({@code mvn
+ * -PnativeTest test}), where it checks the reflection, proxy and resource hints that the JVM run
+ * cannot: JWT, Hibernate entities, MapStruct, springdoc and the JDBC wrappers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class NativeSmokeTest {
+
+  @LocalServerPort private int port;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  private HttpResponse<String> send(String method, String path, String token, String body)
+      throws Exception {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .method(
+                method,
+                body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(body));
+    if (body != null) {
+      request.header(
+          "Content-Type",
+          method.equals("PATCH") ? "application/merge-patch+json" : "application/json");
+    }
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  @Test
+  void mainEndpointsAnswer() throws Exception {
+    assertThat(send("GET", "/actuator/health", null, null).statusCode()).isEqualTo(200);
+    assertThat(send("GET", "/v3/api-docs", null, null).body()).contains("/api/customers");
+
+    HttpResponse<String> login =
+        send(
+            "POST",
+            "/auth/login",
+            null,
+            "{\"email\":\"admin@email.com\",\"password\":\"admin123\"}");
+    assertThat(login.statusCode()).isEqualTo(200);
+    String token = objectMapper.readTree(login.body()).get("token").asText();
+
+    HttpResponse<String> created =
+        send(
+            "POST",
+            "/api/customers",
+            token,
+            """
+            {"name": "Smoke Test", "email": "smoke@example.com", "cpf": "52998224725",
+             "phone": "19991234567", "birthDate": "1990-05-20",
+             "address": {"cep": "13010100", "number": "10", "street": "Rua Um",
+                         "neighborhood": "Centro", "city": "Campinas", "state": "SP"}}
+            """);
+    assertThat(created.statusCode()).isEqualTo(201);
+    long id = objectMapper.readTree(created.body()).get("id").asLong();
+
+    HttpResponse<String> read = send("GET", "/api/customers/" + id, token, null);
+    assertThat(read.statusCode()).isEqualTo(200);
+    assertThat(read.headers().firstValue("X-Request-Id")).isPresent();
+
+    HttpResponse<String> patched =
+        send("PATCH", "/api/customers/" + id, token, "{\"name\": \"Smoke Patched\"}");
+    assertThat(patched.statusCode()).isIn(200, 204);
+
+    JsonNode found =
+        objectMapper.readTree(
+            send("GET", "/api/customers/search/by-name?name=patched", token, null).body());
+    assertThat(found.toString()).contains("Smoke Patched");
+  }
+}
@@ -0,0 +1,100 @@
+package com.neoaplicacoes.customerapi.benchmark;
+
+import com.neoaplicacoes.customerapi.mapper.AddressMapper;
+import com.neoaplicacoes.customerapi.mapper.AddressMapperImpl;
+import com.neoaplicacoes.customerapi.mapper.CustomerMapper;
+import com.neoaplicacoes.customerapi.mapper.CustomerMapperImpl;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of mapping a large customer list to DTOs.
+ *
+ * <ul>
+ *   <li>{@code perRowClock}: previous behaviour, {@code LocalDate.now()} read and {@code
+ *       Period.between} computed for every row;
+ *   <li>{@code sharedToday}: {@link CustomerMapper#toDtoList(java.util.List)}, which reads the
+ *       clock once per list.
+ * </ul>
+ *
+ * <p>Run with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) \
+ *     org.openjdk.jmh.Main CustomerMapperBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+  @Param({"1000"})
+  private int rows;
+
+  private final CustomerMapper mapper = new CustomerMapperImpl();
+
+  private final AddressMapper addressMapper = new AddressMapperImpl();
+
+  private List<Customer> customers;
+
+  @Setup
+  public void setUp() {
+    customers = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      Address address = new Address();
+      address.setId((long) i);
+      address.setCep("01001000");
+      address.setNumber(String.valueOf(i));
+      address.setStreet("Praça da Sé");
+      address.setNeighborhood("Sé");
+      address.setCity("São Paulo");
+      address.setState("SP");
+
+      Customer customer = new Customer();
+      customer.setId((long) i);
+      customer.setName("Customer " + i);
+      customer.setEmail("customer" + i + "@example.com");
+      customer.setCpf(String.format("%011d", i));
+      customer.setBirthDate(LocalDate.of(1950, 1, 1).plusDays(i * 17L));
+      customer.setAddress(address);
+      customers.add(customer);
+    }
+  }
+
+  // What the generated toDto did before: Period.between against a fresh LocalDate.now() per row
+  @Benchmark
+  public List<CustomerResponseDTO> perRowClock() {
+    List<CustomerResponseDTO> dtos = new ArrayList<>(customers.size());
+    for (Customer customer : customers) {
+      dtos.add(
+          new CustomerResponseDTO(
+              customer.getId(),
+              customer.getName(),
+              customer.getEmail(),
+              customer.getCpf(),
+              customer.getPhone(),
+              customer.getBirthDate(),
+              Period.between(customer.getBirthDate(), LocalDate.now()).getYears(),
+              addressMapper.toResponse(customer.getAddress()),
+              customer.getVersion()));
+    }
+    return dtos;
+  }
+
+  @Benchmark
+  public List<CustomerResponseDTO> sharedToday() {
+    return mapper.toDtoList(customers);
+  }
+}
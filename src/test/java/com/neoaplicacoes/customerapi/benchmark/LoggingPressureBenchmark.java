@@ -0,0 +1,112 @@
+package com.neoaplicacoes.customerapi.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.neoaplicacoes.customerapi.config.LogRateLimitFilter;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latency of a request that logs a warning, as every request with a bad token did, while 4 threads
+ * flood the log. The sink takes 20 µs per write, about what a container stdout pipe costs under
+ * load.
+ *
+ * <ul>
+ *   <li>{@code none}: the request without logging, the baseline;
+ *   <li>{@code sync}: previous setup, the console appender writes on the request thread and all
+ *       threads queue on its lock;
+ *   <li>{@code async}: {@code logback-spring.xml} without the rate limit, the request thread only
+ *       enqueues; once the buffer fills the events are dropped instead of blocking;
+ *   <li>{@code limited}: {@code logback-spring.xml} as shipped, the rate limit drops the flood
+ *       before any event is built.
+ * </ul>
+ *
+ * <p>Run like {@link CustomerMapperBenchmark}, replacing the class name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingPressureBenchmark {
+
+  @Param({"none", "sync", "async", "limited"})
+  private String pipeline;
+
+  private LoggerContext context;
+  private Logger logger;
+
+  /** A sink that is slow to write to, like a pipe whose reader lags behind. */
+  static final class SlowSink extends OutputStream {
+
+    @Override
+    public void write(int b) {}
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      LockSupport.parkNanos(20_000);
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    context = new LoggerContext();
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern("%d %level [%thread] %logger %X{requestId} - %msg%n");
+    encoder.start();
+    OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+    sink.setContext(context);
+    sink.setEncoder(encoder);
+    sink.setOutputStream(new SlowSink());
+    sink.start();
+
+    Appender<ILoggingEvent> appender = sink;
+    if (!pipeline.equals("sync")) {
+      AsyncAppender async = new AsyncAppender();
+      async.setContext(context);
+      async.setQueueSize(8192);
+      async.setDiscardingThreshold(1024);
+      async.setNeverBlock(true);
+      async.addAppender(sink);
+      async.start();
+      appender = async;
+    }
+    if (pipeline.equals("limited")) {
+      LogRateLimitFilter filter = new LogRateLimitFilter();
+      filter.setContext(context);
+      filter.start();
+      context.addTurboFilter(filter);
+    }
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.INFO);
+    root.addAppender(appender);
+    logger = context.getLogger("com.neoaplicacoes.customerapi.security.util.JwtUtils");
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.stop();
+  }
+
+  @Benchmark
+  public void request(Blackhole blackhole) {
+    // Stands in for the work of a short request: token parsing, a cache hit, serialization
+    Blackhole.consumeCPU(2_000);
+    if (!pipeline.equals("none")) {
+      logger.warn("Invalid JWT signature: {}", "JWT signature does not match");
+    }
+    blackhole.consume(logger);
+  }
+}
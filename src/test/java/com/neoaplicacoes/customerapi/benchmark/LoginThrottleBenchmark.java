@@ -0,0 +1,83 @@
+package com.neoaplicacoes.customerapi.benchmark;
+
+import com.neoaplicacoes.customerapi.security.service.LoginAttemptService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * CPU cost of one attempt in a credential-stuffing run: 4 threads try a new email per attempt from
+ * a pool of 16 addresses, always with a wrong password, as a stuffing list would.
+ *
+ * <ul>
+ *   <li>{@code off}: previous behaviour, every attempt pays a BCrypt verification (strength 10, as
+ *       in {@code SecurityConfig}), so CPU grows linearly with the attack rate;
+ *   <li>{@code on}: {@link LoginAttemptService} locks each address after its free attempts; from
+ *       then on an attempt is a map lookup and CPU stays flat however fast the attacker goes.
+ * </ul>
+ *
+ * <p>Run like {@link CustomerMapperBenchmark}, replacing the class name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoginThrottleBenchmark {
+
+  private static final int ADDRESSES = 16;
+
+  @Param({"off", "on"})
+  private String throttle;
+
+  private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+  private String hash;
+  private LoginAttemptService attempts;
+
+  @Setup
+  public void setUp() {
+    hash = encoder.encode("the-real-password");
+    // In-memory only: the repository is never touched without persistence
+    attempts =
+        new LoginAttemptService(
+            null,
+            new SimpleMeterRegistry(),
+            false,
+            5,
+            20,
+            Duration.ofSeconds(1),
+            Duration.ofMinutes(15),
+            Duration.ofHours(1));
+    // Measures the steady state of an attack under way: each address is ten failures past its
+    // free attempts, so locked for max-delay. Reaching that costs about 30 BCrypt verifications
+    // per address, once; without the throttle every attempt costs one, forever.
+    for (int n = 0; n < 30 * ADDRESSES; n++) {
+      attempts.loginFailed("warmup-" + n + "@example.com", "203.0.113." + (n % ADDRESSES));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Attacker {
+    int sequence;
+  }
+
+  @Benchmark
+  public boolean attempt(Attacker attacker) {
+    int n = attacker.sequence++;
+    String email = "victim" + Thread.currentThread().getId() + "-" + n + "@example.com";
+    String ip = "203.0.113." + (n % ADDRESSES);
+    boolean throttled = throttle.equals("on");
+    if (throttled && attempts.lockedSeconds(email, ip) > 0) {
+      return false;
+    }
+    boolean matches = encoder.matches("guess-" + n, hash);
+    if (throttled && !matches) {
+      attempts.loginFailed(email, ip);
+    }
+    return matches;
+  }
+}
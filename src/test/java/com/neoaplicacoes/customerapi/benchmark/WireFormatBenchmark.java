@@ -0,0 +1,98 @@
+package com.neoaplicacoes.customerapi.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Encoding and decoding cost of a customer list in JSON, CBOR and Smile. The encoded sizes are
+ * checked by {@code WireFormatSizeTest} on the same payload.
+ *
+ * <p>Run like {@link CustomerMapperBenchmark}, replacing the class name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+  private static final TypeReference<List<CustomerResponseDTO>> LIST = new TypeReference<>() {};
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  @Param({"100"})
+  private int rows;
+
+  private ObjectMapper mapper;
+  private List<CustomerResponseDTO> customers;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws Exception {
+    mapper = mapper(format);
+    customers = customers(rows);
+    encoded = mapper.writeValueAsBytes(customers);
+  }
+
+  static ObjectMapper mapper(String format) {
+    ObjectMapper json =
+        new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    return switch (format) {
+      case "cbor" -> json.copyWith(new CBORFactory());
+      case "smile" -> json.copyWith(new SmileFactory());
+      default -> json;
+    };
+  }
+
+  static List<CustomerResponseDTO> customers(int rows) {
+    List<CustomerResponseDTO> customers = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      customers.add(
+          new CustomerResponseDTO(
+              (long) i,
+              "Customer " + i,
+              "customer" + i + "@example.com",
+              String.format("%011d", i),
+              "11999999999",
+              LocalDate.of(1950, 1, 1).plusDays(i * 17L),
+              30 + i % 40,
+              new AddressResponseDTO(
+                  (long) i,
+                  "01001000",
+                  String.valueOf(i),
+                  null,
+                  "Praça da Sé",
+                  "Sé",
+                  "São Paulo",
+                  "SP",
+                  null),
+              null));
+    }
+    return customers;
+  }
+
+  @Benchmark
+  public byte[] encode() throws Exception {
+    return mapper.writeValueAsBytes(customers);
+  }
+
+  @Benchmark
+  public List<CustomerResponseDTO> decode() throws Exception {
+    return mapper.readValue(encoded, LIST);
+  }
+}
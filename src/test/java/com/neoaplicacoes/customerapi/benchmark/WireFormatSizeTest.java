@@ -0,0 +1,28 @@
+package com.neoaplicacoes.customerapi.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Encoded size of the {@link WireFormatBenchmark} payload: 100 customers in each format. */
+class WireFormatSizeTest {
+
+  private final List<CustomerResponseDTO> customers = WireFormatBenchmark.customers(100);
+
+  private int size(String format) throws Exception {
+    return WireFormatBenchmark.mapper(format).writeValueAsBytes(customers).length;
+  }
+
+  @Test
+  void binaryFormatsAreSmallerThanJson() throws Exception {
+    int json = size("json");
+    int cbor = size("cbor");
+    int smile = size("smile");
+
+    assertThat(cbor).isLessThan(json * 8 / 10);
+    // Smile back-references repeated property names and short strings
+    assertThat(smile).isLessThan(json / 2).isLessThan(cbor);
+  }
+}
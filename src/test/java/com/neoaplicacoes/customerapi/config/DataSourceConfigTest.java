@@ -0,0 +1,94 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class DataSourceConfigTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static DataSourceConfig config(int budget, double writeShare) {
+    return new DataSourceConfig(
+        new DbPoolProperties(
+            budget,
+            writeShare,
+            "",
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(3),
+            Duration.ofSeconds(40),
+            Duration.ofMinutes(30),
+            3,
+            256,
+            5));
+  }
+
+  @Test
+  void poolSizesStayWithinTheBudget() {
+    // Below cores * 2 + 1 on any machine, so the budget decides
+    DataSourceConfig config = config(4, 0.6);
+
+    assertThat(config.totalPoolSize()).isEqualTo(4);
+    assertThat(config.writePoolSize()).isEqualTo(2);
+    assertThat(config(1000, 0.4).totalPoolSize())
+        .isEqualTo(Math.max(4, Runtime.getRuntime().availableProcessors() * 2 + 1));
+  }
+
+  @Test
+  void eachPoolKeepsAtLeastTwoConnections() {
+    assertThat(config(1, 0.4).totalPoolSize()).isEqualTo(4);
+    assertThat(config(4, 0.9).writePoolSize()).isEqualTo(2);
+    assertThat(config(4, 0.0).writePoolSize()).isEqualTo(2);
+  }
+
+  @Test
+  void readRequestsAreRoutedToTheReadPool() {
+    DataSourceConfig.RequestRoutingDataSource routing =
+        new DataSourceConfig.RequestRoutingDataSource(Duration.ZERO);
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("write");
+
+    request("GET", "10.0.0.1");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("read");
+
+    request("PATCH", "10.0.0.1");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("write");
+
+    request("GET", "10.0.0.1");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("read");
+  }
+
+  @Test
+  void readsAfterAWriteStayOnTheWritePoolForTheWindow() throws InterruptedException {
+    DataSourceConfig.RequestRoutingDataSource routing =
+        new DataSourceConfig.RequestRoutingDataSource(Duration.ofMillis(200));
+
+    ServletRequestAttributes write = request("POST", "10.0.0.1");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("write");
+    write.requestCompleted();
+
+    request("GET", "10.0.0.1");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("write");
+    request("GET", "10.0.0.2");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("read");
+
+    Thread.sleep(300);
+    request("GET", "10.0.0.1");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("read");
+  }
+
+  private static ServletRequestAttributes request(String method, String remoteAddr) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/customers/1");
+    request.setRemoteAddr(remoteAddr);
+    ServletRequestAttributes attributes = new ServletRequestAttributes(request);
+    RequestContextHolder.setRequestAttributes(attributes);
+    return attributes;
+  }
+}
@@ -0,0 +1,94 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.neoaplicacoes.customerapi.util.RequestDeadline;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DeadlineAwareDataSourceTest {
+
+  private PreparedStatement statement;
+  private DeadlineAwareDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    statement = mock(PreparedStatement.class);
+    Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    DataSource target = mock(DataSource.class);
+    when(target.getConnection()).thenReturn(connection);
+    dataSource = new DeadlineAwareDataSource(target);
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestDeadline.clear();
+  }
+
+  @Test
+  void statementTimeoutIsCappedAtTheTimeLeft() throws Exception {
+    RequestDeadline.start("lookups", Duration.ofMillis(1500));
+
+    dataSource.getConnection().prepareStatement("select 1");
+
+    verify(statement).setQueryTimeout(2);
+  }
+
+  @Test
+  void shorterExistingTimeoutIsKept() throws Exception {
+    when(statement.getQueryTimeout()).thenReturn(1);
+    RequestDeadline.start("exports", Duration.ofSeconds(30));
+
+    dataSource.getConnection().prepareStatement("select 1");
+
+    verify(statement, never()).setQueryTimeout(anyInt());
+  }
+
+  @Test
+  void statementsOutsideRequestsAreUnbounded() throws Exception {
+    dataSource.getConnection().prepareStatement("select 1");
+
+    verify(statement, never()).setQueryTimeout(anyInt());
+  }
+
+  @Test
+  void expiredDeadlineRefusesTheStatement() throws Exception {
+    RequestDeadline.start("searches", Duration.ofMillis(-1));
+
+    assertThatThrownBy(() -> dataSource.getConnection().prepareStatement("select 1"))
+        .isInstanceOf(SQLTimeoutException.class)
+        .hasMessageContaining("searches");
+    verify(statement).close();
+  }
+
+  @Test
+  void stepDeadlineReplacesAnExpiredRequestDeadline() throws Exception {
+    RequestDeadline.start("exports", Duration.ofMillis(-1));
+
+    RequestDeadline.within(
+        "bulk-delete",
+        Duration.ofSeconds(30),
+        () -> {
+          try {
+            return dataSource.getConnection().prepareStatement("delete from t");
+          } catch (SQLException e) {
+            throw new IllegalStateException(e);
+          }
+        });
+
+    verify(statement).setQueryTimeout(30);
+    assertThat(RequestDeadline.group()).isEqualTo("exports");
+  }
+}
@@ -0,0 +1,60 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LogRateLimitFilterTest {
+
+  private LoggerContext context;
+  private ListAppender<ILoggingEvent> events;
+
+  @BeforeEach
+  void setUp() {
+    context = new LoggerContext();
+    LogRateLimitFilter filter = new LogRateLimitFilter();
+    filter.setEventsPerSecond(1);
+    filter.setBurst(3);
+    filter.setContext(context);
+    filter.start();
+    context.addTurboFilter(filter);
+    events = new ListAppender<>();
+    events.setContext(context);
+    events.start();
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.INFO);
+    root.addAppender(events);
+  }
+
+  @Test
+  void eachLoggerIsLimitedOnItsOwn() {
+    Logger noisy = context.getLogger("noisy");
+    Logger quiet = context.getLogger("quiet");
+    for (int i = 0; i < 50; i++) {
+      noisy.warn("Invalid JWT signature: {}", i);
+    }
+    quiet.info("still logged");
+
+    assertThat(events.list).filteredOn(e -> e.getLoggerName().equals("noisy")).hasSize(3);
+    assertThat(events.list).filteredOn(e -> e.getLoggerName().equals("quiet")).hasSize(1);
+  }
+
+  @Test
+  void errorsAndDisabledLevelsDoNotSpendTheBudget() {
+    Logger noisy = context.getLogger("noisy");
+    for (int i = 0; i < 10; i++) {
+      noisy.error("failure {}", i);
+      noisy.debug("below the logger level {}", i);
+      noisy.isWarnEnabled();
+    }
+    noisy.warn("first warning");
+
+    assertThat(events.list).hasSize(11);
+  }
+}
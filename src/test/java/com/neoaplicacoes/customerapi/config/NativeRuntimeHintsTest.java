@@ -0,0 +1,40 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class NativeRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  NativeRuntimeHintsTest() {
+    new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void registersReflectionForEntitiesPayloadsAndJjwt() {
+    assertThat(RuntimeHintsPredicates.reflection().onType(Customer.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(CustomerRequestDTO.class)).accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder")))
+        .accepts(hints);
+  }
+
+  @Test
+  void registersJdbcProxiesAndMigrations() {
+    assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V1__initial_schema.sql"))
+        .accepts(hints);
+  }
+}
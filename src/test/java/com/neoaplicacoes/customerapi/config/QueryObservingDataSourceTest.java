@@ -0,0 +1,86 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.neoaplicacoes.customerapi.model.dto.response.QueryShapeStatsDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.QueryStatisticsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryObservingDataSourceTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private QueryStatistics statistics;
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    meterRegistry = new SimpleMeterRegistry();
+    // Threshold 0: every execution is slow; sample rate 1: every statement keeps its binds
+    statistics = new QueryStatistics(meterRegistry, Duration.ZERO, 1, 3, () -> 0);
+    PreparedStatement prepared = mock(PreparedStatement.class);
+    Statement plain = mock(Statement.class);
+    Connection target = mock(Connection.class);
+    when(target.prepareStatement(anyString())).thenReturn(prepared);
+    when(target.createStatement()).thenReturn(plain);
+    DataSource pool = mock(DataSource.class);
+    when(pool.getConnection()).thenReturn(target);
+    connection = new QueryObservingDataSource(pool, statistics).getConnection();
+  }
+
+  @Test
+  void shape_collapsesLiteralsAndInLists() {
+    assertThat(
+            QueryStatistics.shape(
+                "select c1_0.id from customers c1_0\n where c1_0.id in (?, ?,?) and name='O''Neil'"
+                    + " limit 10"))
+        .isEqualTo("select c1_0.id from customers c1_0 where c1_0.id in (?...) and name=? limit ?");
+  }
+
+  @Test
+  void executionsAreGroupedByShape() throws Exception {
+    for (String sql :
+        new String[] {
+          "select * from customers where id in (?, ?)", "select * from customers where id in (?)"
+        }) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        statement.setLong(1, 1L);
+        statement.executeQuery();
+      }
+    }
+    connection.createStatement().execute("select count(*) from customers where state = 'SP'");
+
+    QueryStatisticsDTO report = statistics.report(10);
+    assertThat(report.shapes()).isEqualTo(2);
+    assertThat(report.queries())
+        .extracting(QueryShapeStatsDTO::query, QueryShapeStatsDTO::count)
+        .contains(
+            tuple("select * from customers where id in (?...)", 2L),
+            tuple("select count(*) from customers where state = ?", 1L));
+    assertThat(meterRegistry.counter("sql.slow_queries").count()).isEqualTo(3);
+  }
+
+  @Test
+  void shapesAboveTheLimitAreCountedTogether() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      connection.prepareStatement("select col" + "abcde".charAt(i) + " from t").executeQuery();
+    }
+
+    assertThat(statistics.report(10).queries())
+        .extracting(QueryShapeStatsDTO::query)
+        .hasSize(3)
+        .contains(QueryStatistics.OTHER);
+
+    statistics.reset();
+    assertThat(statistics.report(10).shapes()).isZero();
+  }
+}
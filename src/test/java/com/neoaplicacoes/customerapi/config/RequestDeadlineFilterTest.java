@@ -0,0 +1,38 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RequestDeadlineFilterTest {
+
+  private final RequestDeadlineFilter filter =
+      new RequestDeadlineFilter(
+          new RequestTimeoutProperties(
+              true,
+              Duration.ofSeconds(10),
+              List.of(
+                  new RequestTimeoutProperties.Group(
+                      "exports", List.of("/api/*/all"), List.of(), Duration.ofSeconds(30)),
+                  new RequestTimeoutProperties.Group(
+                      "lookups",
+                      List.of("/api/*/{id:\\d+}"),
+                      List.of("GET"),
+                      Duration.ofSeconds(2)))));
+
+  @Test
+  void lookupsOnlyCoverReadsById() {
+    assertThat(filter.groupFor("GET", "/api/customers/42").name()).isEqualTo("lookups");
+    assertThat(filter.groupFor("PUT", "/api/customers/42")).isNull();
+    assertThat(filter.groupFor("GET", "/api/customers/changes")).isNull();
+    assertThat(filter.groupFor("GET", "/api/customers/stream")).isNull();
+  }
+
+  @Test
+  void groupsWithoutMethodsApplyToAll() {
+    assertThat(filter.groupFor("POST", "/api/customers/all").name()).isEqualTo("exports");
+    assertThat(filter.groupFor("POST", "/api/customers/bulk-delete")).isNull();
+  }
+}
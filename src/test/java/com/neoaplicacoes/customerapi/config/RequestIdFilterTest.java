@@ -0,0 +1,49 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestIdFilterTest {
+
+  private final RequestIdFilter filter = new RequestIdFilter();
+
+  private String run(MockHttpServletRequest request, MockHttpServletResponse response)
+      throws Exception {
+    AtomicReference<String> seen = new AtomicReference<>();
+    filter.doFilter(
+        request,
+        response,
+        (req, res) -> {
+          seen.set(MDC.get(RequestIdFilter.REQUEST_ID));
+          MDC.put(RequestIdFilter.USER, "42");
+        });
+    assertThat(MDC.get(RequestIdFilter.REQUEST_ID)).isNull();
+    assertThat(MDC.get(RequestIdFilter.USER)).isNull();
+    return seen.get();
+  }
+
+  @Test
+  void keepsAValidIncomingId() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers");
+    request.addHeader(RequestIdFilter.HEADER, "gw-1234abcd");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertThat(run(request, response)).isEqualTo("gw-1234abcd");
+    assertThat(response.getHeader(RequestIdFilter.HEADER)).isEqualTo("gw-1234abcd");
+  }
+
+  @Test
+  void replacesAMissingOrUnsafeId() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers");
+    request.addHeader(RequestIdFilter.HEADER, "x\n{\"level\":\"ERROR\"}");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    String requestId = run(request, response);
+    assertThat(requestId).hasSize(36).isEqualTo(response.getHeader(RequestIdFilter.HEADER));
+  }
+}
@@ -0,0 +1,105 @@
+package com.neoaplicacoes.customerapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.neoaplicacoes.customerapi.security.ratelimit.RateLimiter;
+import com.neoaplicacoes.customerapi.service.impl.CustomerServiceImpl;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class StartupConfigTest {
+
+  private Flyway flyway;
+  private JdbcTemplate jdbc;
+
+  @BeforeEach
+  void setUp() {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:startup-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+    jdbc = new JdbcTemplate(dataSource);
+    // Only the history table: the real scripts are PostgreSQL and never run here
+    jdbc.execute(
+        """
+        CREATE TABLE "flyway_schema_history" (
+            "installed_rank" INT, "script" VARCHAR(1000), "checksum" INT, "success" BOOLEAN)
+        """);
+    flyway = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load();
+  }
+
+  private void applied(String script, Integer checksum, boolean success) {
+    jdbc.update(
+        "INSERT INTO \"flyway_schema_history\" VALUES ("
+            + "(SELECT COALESCE(MAX(\"installed_rank\"), 0) + 1 FROM \"flyway_schema_history\"),"
+            + " ?, ?, ?)",
+        script,
+        checksum,
+        success);
+  }
+
+  @Test
+  void manifestMatchesTheMigrationScripts() throws IOException {
+    // Checksums as Flyway resolves them, on an empty database where every script is pending
+    JdbcDataSource empty = new JdbcDataSource();
+    empty.setURL("jdbc:h2:mem:manifest-" + System.nanoTime());
+    Flyway resolver =
+        Flyway.configure().dataSource(empty).locations("classpath:db/migration").load();
+    String expected =
+        Arrays.stream(resolver.info().all())
+            .map(info -> info.getScript() + " " + info.getChecksum())
+            .collect(Collectors.joining("\n"));
+    String manifest =
+        StartupConfig.readManifest().entrySet().stream()
+            .map(script -> script.getKey() + " " + script.getValue())
+            .collect(Collectors.joining("\n"));
+
+    assertThat(manifest)
+        .as("update src/main/resources/%s with the scripts' checksums", StartupConfig.MANIFEST)
+        .isEqualTo(expected);
+  }
+
+  @Test
+  void currentOnlyWhenEveryScriptWasAppliedWithItsChecksum() throws IOException {
+    Map<String, Integer> manifest = StartupConfig.readManifest();
+    assertThat(StartupConfig.isCurrent(flyway)).isFalse();
+
+    String first = "V1__initial_schema.sql";
+    manifest.forEach(
+        (script, checksum) -> {
+          if (!script.equals(first)) {
+            applied(script, checksum, true);
+          }
+        });
+    applied(first, manifest.get(first), false);
+    assertThat(StartupConfig.isCurrent(flyway)).isFalse();
+
+    applied(first, manifest.get(first) + 1, true);
+    assertThat(StartupConfig.isCurrent(flyway)).isFalse();
+
+    // A later run wins, as for a repeatable script applied again
+    applied(first, manifest.get(first), true);
+    assertThat(StartupConfig.isCurrent(flyway)).isTrue();
+  }
+
+  @Test
+  void missingHistoryTableMeansNotCurrent() {
+    jdbc.execute("DROP TABLE \"flyway_schema_history\"");
+
+    assertThat(StartupConfig.isCurrent(flyway)).isFalse();
+  }
+
+  @Test
+  void beansWithScheduledJobsStayEager() {
+    LazyInitializationExcludeFilter filter = StartupConfig.scheduledBeansStayEager();
+
+    assertThat(filter.isExcluded("rateLimiter", null, RateLimiter.class)).isTrue();
+    assertThat(filter.isExcluded("customerServiceImpl", null, CustomerServiceImpl.class)).isFalse();
+  }
+}
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neoaplicacoes.customerapi.exception.GlobalExceptionHandler;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
 import com.neoaplicacoes.customerapi.service.AddressService;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
@@ -47,7 +48,7 @@ class AddressControllerTest {
 
   private AddressResponseDTO sampleResponse() {
     return new AddressResponseDTO(
-        1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP");
+        1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP", null);
   }
 
   private Page<AddressResponseDTO> pageOf(AddressResponseDTO dto) {
@@ -141,6 +142,36 @@ class AddressControllerTest {
         .andExpect(jsonPath("$.message", containsString("Address not found")));
   }
 
+  // ------------------ BATCH GET ------------------
+
+  @Test
+  @DisplayName("POST /api/addresses/batch-get → items + missing ids")
+  @WithMockUser(roles = "USER")
+  void batchGet() throws Exception {
+    when(service.batchGetByIds(List.of(1L, 5L)))
+        .thenReturn(new BatchGetResponseDTO<>(List.of(sampleResponse()), List.of(5L)));
+
+    mvc.perform(
+            post("/api/addresses/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,5]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.missing[0]").value(5));
+  }
+
+  @Test
+  @DisplayName("POST /api/addresses/batch-get → 400 without ids")
+  @WithMockUser(roles = "USER")
+  void batchGet_empty() throws Exception {
+    mvc.perform(
+            post("/api/addresses/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[]}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors.ids").exists());
+  }
+
   // ------------------ PAGINATED ------------------
 
   @Test
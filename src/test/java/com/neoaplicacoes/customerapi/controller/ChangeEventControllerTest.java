@@ -0,0 +1,85 @@
+package com.neoaplicacoes.customerapi.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeEventResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeFeedResponseDTO;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeEventControllerTest {
+
+  @Autowired private MockMvc mvc;
+
+  @Autowired private ObjectMapper mapper;
+
+  @MockitoBean private ChangeEventService service;
+
+  @Test
+  @DisplayName("GET /api/changes → 200 with events and next cursor (ADMIN)")
+  @WithMockUser(roles = "ADMIN")
+  void readChanges() throws Exception {
+    ChangeEventResponseDTO event =
+        new ChangeEventResponseDTO(
+            8L,
+            AggregateType.CUSTOMER,
+            3L,
+            ChangeType.UPDATED,
+            mapper.readTree("{\"name\":\"Ana\"}"),
+            LocalDateTime.of(2025, 1, 1, 10, 0));
+    when(service.poll(eq(7L), eq(100), any(Duration.class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(new ChangeFeedResponseDTO(List.of(event), 8)));
+
+    MvcResult pending =
+        mvc.perform(get("/api/changes").param("since", "7").param("limit", "100"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mvc.perform(asyncDispatch(pending))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.nextCursor").value(8))
+        .andExpect(jsonPath("$.events[0].aggregateType").value("CUSTOMER"))
+        .andExpect(jsonPath("$.events[0].payload.name").value("Ana"));
+    verify(service).poll(7L, 100, Duration.ofSeconds(25));
+  }
+
+  @Test
+  @DisplayName("GET /api/changes with limit over the maximum → 400")
+  @WithMockUser(roles = "ADMIN")
+  void rejectsLargeLimit() throws Exception {
+    mvc.perform(get("/api/changes").param("limit", "5000")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /api/changes as USER → 403")
+  @WithMockUser(roles = "USER")
+  void requiresAdmin() throws Exception {
+    mvc.perform(get("/api/changes")).andExpect(status().isForbidden());
+  }
+}
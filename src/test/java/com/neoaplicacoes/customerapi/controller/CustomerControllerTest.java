@@ -1,5 +1,6 @@
 package com.neoaplicacoes.customerapi.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -7,23 +8,41 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
 import com.neoaplicacoes.customerapi.exception.GlobalExceptionHandler;
+import com.neoaplicacoes.customerapi.exception.PreconditionFailedException;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BatchGetResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangeDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerChangesResponseDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerStatsResponseDTO;
 import com.neoaplicacoes.customerapi.service.CustomerService;
+import com.neoaplicacoes.customerapi.service.CustomerStatisticsService;
+import com.neoaplicacoes.customerapi.service.PatchResult;
+import com.neoaplicacoes.customerapi.util.JsonMergePatch;
+import com.neoaplicacoes.customerapi.util.PageQueries;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -42,6 +61,8 @@ class CustomerControllerTest {
 
   @MockitoBean private CustomerService service;
 
+  @MockitoBean private CustomerStatisticsService statisticsService;
+
   private CustomerRequestDTO sampleRequest() {
     AddressRequestDTO addr =
         new AddressRequestDTO("12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP");
@@ -59,7 +80,8 @@ class CustomerControllerTest {
         LocalDate.of(1990, 1, 1),
         34,
         new AddressResponseDTO(
-            1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP"));
+            1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP", null),
+        null);
   }
 
   // ---------- CRUD ----------
@@ -110,6 +132,175 @@ class CustomerControllerTest {
         .andExpect(jsonPath("$.name").value("John"));
   }
 
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("PATCH /api/customers/{id} with If-Match → 204 No Content and new ETag")
+  void patchWithIfMatch() throws Exception {
+    when(service.patch(eq(1L), eq(3L), any())).thenReturn(new PatchResult<>(null, 4L));
+
+    mvc.perform(
+            patch("/api/customers/1")
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content("{\"name\":\"Jane\"}"))
+        .andExpect(status().isNoContent())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("PATCH /api/customers/{id} without If-Match → 200 OK with body")
+  void patchWithoutIfMatch() throws Exception {
+    when(service.patch(eq(1L), isNull(), any()))
+        .thenReturn(new PatchResult<>(sampleResponse(), 2L));
+
+    mvc.perform(
+            patch("/api/customers/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"address\":{\"city\":\"Campinas\"}}"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+        .andExpect(jsonPath("$.name").value("John"));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("PATCH /api/customers/{id} with stale If-Match → 412 Precondition Failed")
+  void patchStaleVersion() throws Exception {
+    when(service.patch(eq(1L), eq(1L), any()))
+        .thenThrow(new PreconditionFailedException("Customer", 1L, 1L));
+
+    mvc.perform(
+            patch("/api/customers/1")
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                .content("{\"name\":\"Jane\"}"))
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("PATCH /api/customers/{id} → 403 Forbidden for USER")
+  void patchAsUserForbidden() throws Exception {
+    mvc.perform(
+            patch("/api/customers/1")
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .content("{\"name\":\"Jane\"}"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("POST /api/customers/bulk-delete by state → 200 OK with counts")
+  void bulkDeleteByState() throws Exception {
+    when(service.bulkDeleteByCriteria("SP", null, null))
+        .thenReturn(new BulkDeleteResponseDTO(2, 2, 1, 5, 5, 800));
+
+    mvc.perform(
+            post("/api/customers/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"state\":\"SP\"}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.customersDeleted").value(2))
+        .andExpect(jsonPath("$.batches").value(1));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("POST /api/customers/bulk-delete with ids and criteria → 400 Bad Request")
+  void bulkDeleteMixedSelection() throws Exception {
+    mvc.perform(
+            post("/api/customers/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1],\"state\":\"SP\"}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("POST /api/customers/bulk-delete → 403 Forbidden for USER")
+  void bulkDeleteAsUserForbidden() throws Exception {
+    mvc.perform(
+            post("/api/customers/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1]}"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("GET /api/customers/changes → 200 OK with items and tombstones")
+  void getChanges() throws Exception {
+    LocalDateTime at = LocalDateTime.of(2025, 1, 1, 10, 0);
+    when(service.getChanges("2025-01-01T00:00:00", 2))
+        .thenReturn(
+            new CustomerChangesResponseDTO(
+                List.of(
+                    new CustomerChangeDTO(1L, at, false, sampleResponse()),
+                    new CustomerChangeDTO(2L, at, true, null)),
+                "2025-01-01T10:00,2",
+                true));
+
+    mvc.perform(
+            get("/api/customers/changes").param("since", "2025-01-01T00:00:00").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].customer.id").value(1))
+        .andExpect(jsonPath("$.items[1].deleted").value(true))
+        .andExpect(jsonPath("$.items[1].customer").doesNotExist())
+        .andExpect(jsonPath("$.nextCursor").value("2025-01-01T10:00,2"))
+        .andExpect(jsonPath("$.hasMore").value(true));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("GET /api/customers/stream → opens an event stream")
+  void stream() throws Exception {
+    mvc.perform(get("/api/customers/stream").param("state", "SP").param("city", "Campinas"))
+        .andExpect(request().asyncStarted())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("GET /api/customers/stream → 400 when city comes without state")
+  void stream_cityWithoutState() throws Exception {
+    mvc.perform(get("/api/customers/stream").param("city", "Campinas"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("GET /api/customers/{id} → 504 when the query hits the request deadline")
+  void getById_queryTimeout() throws Exception {
+    when(service.getById(1L)).thenThrow(new QueryTimeoutException("canceling statement"));
+
+    mvc.perform(get("/api/customers/1"))
+        .andExpect(status().isGatewayTimeout())
+        .andExpect(jsonPath("$.status").value(504))
+        .andExpect(jsonPath("$.message").value(containsString("lookups")));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("GET /api/customers/stats → 200 OK")
+  void getStats() throws Exception {
+    when(statisticsService.getStats())
+        .thenReturn(
+            new CustomerStatsResponseDTO(
+                3,
+                Map.of("SP", 2L, "RJ", 1L),
+                Map.of("SP", Map.of("sao paulo", 2L), "RJ", Map.of("rio", 1L)),
+                Map.of("25-34", 3L),
+                null));
+
+    mvc.perform(get("/api/customers/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(3))
+        .andExpect(jsonPath("$.byState.SP").value(2))
+        .andExpect(jsonPath("$.byCity.SP['sao paulo']").value(2))
+        .andExpect(jsonPath("$.byAgeBracket['25-34']").value(3));
+  }
+
   @Test
   @WithMockUser(roles = "ADMIN")
   @DisplayName("GET /api/customers/{id} → 404 when not found")
@@ -121,6 +312,92 @@ class CustomerControllerTest {
         .andExpect(jsonPath("$.message", containsString("Customer not found")));
   }
 
+  // ---------- Batch get ----------
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("POST /api/customers/batch-get → items in input order + missing keys")
+  void batchGet() throws Exception {
+    when(service.batchGetByIds(List.of(1L, 7L)))
+        .thenReturn(new BatchGetResponseDTO<>(List.of(sampleResponse()), List.of(7L)));
+
+    mvc.perform(
+            post("/api/customers/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,7]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(1))
+        .andExpect(jsonPath("$.missing[0]").value(7));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER")
+  @DisplayName("POST /api/customers/batch-get → 400 unless exactly one key list is sent")
+  void batchGet_invalid() throws Exception {
+    mvc.perform(
+            post("/api/customers/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1],\"cpfs\":[\"12345678901\"]}"))
+        .andExpect(status().isBadRequest());
+    mvc.perform(
+            post("/api/customers/batch-get").contentType(MediaType.APPLICATION_JSON).content("{}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  // ---------- Binary encodings ----------
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("Accept: application/cbor → same DTO encoded as CBOR; JSON stays the default")
+  void getById_cbor() throws Exception {
+    when(service.getById(1L)).thenReturn(sampleResponse());
+
+    byte[] body =
+        mvc.perform(get("/api/customers/1").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    CustomerResponseDTO decoded = cbor().readValue(body, CustomerResponseDTO.class);
+    assertThat(decoded).isEqualTo(sampleResponse());
+
+    mvc.perform(get("/api/customers/1").accept(MediaType.ALL))
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("POST with a Smile body → validated like JSON")
+  void create_smile() throws Exception {
+    MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+    ObjectMapper smileMapper = mapper.copyWith(new SmileFactory());
+    when(service.create(any())).thenReturn(sampleResponse());
+
+    mvc.perform(
+            post("/api/customers")
+                .contentType(smile)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(smileMapper.writeValueAsBytes(sampleRequest())))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(1));
+
+    CustomerRequestDTO invalid =
+        new CustomerRequestDTO(
+            "", "not-an-email", "123", null, LocalDate.of(1990, 1, 1), sampleRequest().address());
+    mvc.perform(
+            post("/api/customers")
+                .contentType(smile)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(smileMapper.writeValueAsBytes(invalid)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors.email").exists());
+  }
+
+  private ObjectMapper cbor() {
+    return mapper.copyWith(new CBORFactory());
+  }
+
   // ---------- Paginated ----------
 
   @Test
@@ -191,6 +468,98 @@ class CustomerControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void getByAgeRangePaged() throws Exception {
+    when(service.getByAgeRangePaged(eq(18), eq(40), any()))
+        .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+    mvc.perform(get("/api/customers/search/by-age?minAge=18&maxAge=40"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content", hasSize(1)));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("GET /api/customers/search/by-age with invalid bounds → 400")
+  void getByAgeRangePaged_invalidBounds() throws Exception {
+    when(service.getByAgeRangePaged(eq(40), eq(18), any()))
+        .thenThrow(new BadRequestException("minAge must not be greater than maxAge"));
+    mvc.perform(get("/api/customers/search/by-age?minAge=40&maxAge=18"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("minAge must not be greater than maxAge"));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("An IllegalArgumentException from inside the application is a 500, not echoed")
+  void internalIllegalArgument() throws Exception {
+    when(service.getByAgeRangePaged(eq(18), eq(40), any()))
+        .thenThrow(new IllegalArgumentException("internal detail"));
+    mvc.perform(get("/api/customers/search/by-age?minAge=18&maxAge=40"))
+        .andExpect(status().isInternalServerError())
+        .andExpect(jsonPath("$.message").value("Internal server error"));
+  }
+
+  // ---------- Response shaping ----------
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("envelope=compact → items + nextCursor, no PageImpl metadata")
+  void getAllPaged_compactEnvelope() throws Exception {
+    Page<CustomerResponseDTO> page =
+        new PageImpl<>(List.of(sampleResponse()), PageRequest.of(0, 1), 3);
+    when(service.getAllPaged(any())).thenReturn(page);
+
+    mvc.perform(get("/api/customers?envelope=compact"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.nextCursor").value("1"))
+        .andExpect(jsonPath("$.total").doesNotExist())
+        .andExpect(jsonPath("$.pageable").doesNotExist());
+
+    mvc.perform(get("/api/customers?envelope=compact&withTotal=true"))
+        .andExpect(jsonPath("$.total").value(3));
+
+    // The controller decides: only the request without withTotal lets the service skip the count
+    ArgumentCaptor<Pageable> pageables = ArgumentCaptor.forClass(Pageable.class);
+    Mockito.verify(service, Mockito.times(2)).getAllPaged(pageables.capture());
+    assertThat(pageables.getAllValues())
+        .extracting(
+            p ->
+                PageQueries.page(
+                        p,
+                        q -> new PageImpl<>(List.of("counted")),
+                        q -> new SliceImpl<>(List.of("sliced")))
+                    .getContent()
+                    .get(0))
+        .containsExactly("sliced", "counted");
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  @DisplayName("fields= keeps only the requested properties, including nested ones")
+  void sparseFieldset() throws Exception {
+    when(service.getByNamePaged(eq("john"), any()))
+        .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+    when(service.getByName("john")).thenReturn(List.of(sampleResponse()));
+
+    mvc.perform(get("/api/customers/search/by-name?name=john&fields=id,address.city"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id").value(1))
+        .andExpect(jsonPath("$.content[0].name").doesNotExist())
+        .andExpect(jsonPath("$.content[0].address.city").value("São Paulo"))
+        .andExpect(jsonPath("$.content[0].address.street").doesNotExist())
+        .andExpect(jsonPath("$.totalElements").value(1));
+
+    mvc.perform(get("/api/customers/search/by-name?name=john&envelope=compact&fields=email"))
+        .andExpect(jsonPath("$.items[0].email").value("john@doe.com"))
+        .andExpect(jsonPath("$.items[0].id").doesNotExist());
+
+    mvc.perform(get("/api/customers/all/by-name?name=john&fields=name"))
+        .andExpect(jsonPath("$[0].name").value("John"))
+        .andExpect(jsonPath("$[0].cpf").doesNotExist());
+  }
+
   // ---------- Unpaginated ----------
 
   @Test
@@ -266,4 +635,13 @@ class CustomerControllerTest {
   void deleteForbiddenForUser() throws Exception {
     mvc.perform(delete("/api/customers/1")).andExpect(status().isForbidden());
   }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void getByAgeRange() throws Exception {
+    when(service.getByAgeRange(65, null)).thenReturn(List.of(sampleResponse()));
+    mvc.perform(get("/api/customers/all/by-age?minAge=65"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)));
+  }
 }
@@ -1,5 +1,6 @@
 package com.neoaplicacoes.customerapi.repository;
 
+import static com.neoaplicacoes.customerapi.util.TextNormalizer.normalize;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.neoaplicacoes.customerapi.model.entity.Address;
@@ -49,29 +50,36 @@ class AddressRepositoryTest {
   // ------------------ FIND METHODS ------------------
 
   @Test
-  @DisplayName("Find by city ignoring case → positive")
-  void findByCityIgnoreCase() {
-    List<Address> result = repository.findByCityIgnoreCase("são paulo");
+  @DisplayName("Find by normalized city → positive")
+  void findByCityNormalized() {
+    List<Address> result = repository.findByCityNormalized(normalize("são paulo"));
     assertThat(result).hasSize(1).contains(address1);
   }
 
   @Test
-  @DisplayName("Find by city ignoring case → not found")
-  void findByCityIgnoreCase_notFound() {
-    List<Address> result = repository.findByCityIgnoreCase("Curitiba");
+  @DisplayName("Find by normalized city → unaccented input matches accented city")
+  void findByCityNormalized_unaccentedInput() {
+    List<Address> result = repository.findByCityNormalized(normalize("SAO PAULO"));
+    assertThat(result).hasSize(1).contains(address1);
+  }
+
+  @Test
+  @DisplayName("Find by normalized city → not found")
+  void findByCityNormalized_notFound() {
+    List<Address> result = repository.findByCityNormalized(normalize("Curitiba"));
     assertThat(result).isEmpty();
   }
 
   @Test
-  @DisplayName("Find by state ignoring case → positive")
-  void findByStateIgnoreCase() {
-    List<Address> result = repository.findByStateIgnoreCase("sp");
+  @DisplayName("Find by normalized state → positive")
+  void findByStateNormalized() {
+    List<Address> result = repository.findByStateNormalized(normalize("sp"));
     assertThat(result).hasSize(1).contains(address1);
   }
 
   @Test
-  @DisplayName("Find by state ignoring case → multiple results")
-  void findByStateIgnoreCase_multiple() {
+  @DisplayName("Find by normalized state → multiple results")
+  void findByStateNormalized_multiple() {
     Address address3 = new Address();
     address3.setCep("99999999");
     address3.setNumber("300");
@@ -81,22 +89,23 @@ class AddressRepositoryTest {
     address3.setState("SP");
     repository.save(address3);
 
-    List<Address> result = repository.findByStateIgnoreCase("SP");
+    List<Address> result = repository.findByStateNormalized(normalize("SP"));
     assertThat(result).hasSize(2).contains(address1, address3);
   }
 
   @Test
-  @DisplayName("Find by neighborhood ignoring case")
-  void findByNeighborhoodIgnoreCase() {
-    List<Address> result = repository.findByNeighborhoodIgnoreCase("centro");
+  @DisplayName("Find by normalized neighborhood")
+  void findByNeighborhoodNormalized() {
+    List<Address> result = repository.findByNeighborhoodNormalized(normalize("centro"));
     assertThat(result).hasSize(1).contains(address1);
   }
 
   @Test
-  @DisplayName("Find by city and neighborhood ignoring case")
-  void findByCityAndNeighborhoodIgnoreCase() {
+  @DisplayName("Find by normalized city and neighborhood")
+  void findByCityAndNeighborhoodNormalized() {
     List<Address> result =
-        repository.findByCityIgnoreCaseAndNeighborhoodIgnoreCase("são paulo", "centro");
+        repository.findByCityNormalizedAndNeighborhoodNormalized(
+            normalize("são paulo"), normalize("centro"));
     assertThat(result).hasSize(1).contains(address1);
   }
 
@@ -115,9 +124,9 @@ class AddressRepositoryTest {
   }
 
   @Test
-  @DisplayName("Find by CEP and state ignoring case")
-  void findByCepAndStateIgnoreCase() {
-    List<Address> result = repository.findByCepAndStateIgnoreCase("12345678", "sp");
+  @DisplayName("Find by CEP and normalized state")
+  void findByCepAndStateNormalized() {
+    List<Address> result = repository.findByCepAndStateNormalized("12345678", normalize("sp"));
     assertThat(result).hasSize(1).contains(address1);
   }
 
@@ -148,10 +157,11 @@ class AddressRepositoryTest {
   }
 
   @Test
-  @DisplayName("Find by city and street ignoring case")
+  @DisplayName("Find by normalized city and street ignoring case")
   void findByCityAndStreetContainingIgnoreCase() {
     List<Address> result =
-        repository.findByCityIgnoreCaseAndStreetContainingIgnoreCase("são paulo", "main");
+        repository.findByCityNormalizedAndStreetContainingIgnoreCase(
+            normalize("são paulo"), "main");
     assertThat(result).hasSize(1).contains(address1);
   }
 
@@ -187,5 +197,6 @@ class AddressRepositoryTest {
     address2.setCity("Niterói");
     Address updated = repository.save(address2);
     assertThat(updated.getCity()).isEqualTo("Niterói");
+    assertThat(updated.getCityNormalized()).isEqualTo("niteroi");
   }
 }
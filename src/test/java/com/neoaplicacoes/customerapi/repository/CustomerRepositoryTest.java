@@ -1,10 +1,14 @@
 package com.neoaplicacoes.customerapi.repository;
 
+import static com.neoaplicacoes.customerapi.util.TextNormalizer.normalize;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.neoaplicacoes.customerapi.model.entity.Address;
 import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.repository.projection.ChangeRow;
+import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,6 +28,10 @@ class CustomerRepositoryTest {
 
   @Autowired private CustomerRepository repository;
 
+  @Autowired private AddressRepository addressRepository;
+
+  @Autowired private EntityManager entityManager;
+
   private Customer c1, c2, c3;
 
   @BeforeEach
@@ -99,42 +107,195 @@ class CustomerRepositoryTest {
   }
 
   @Test
-  @DisplayName("findByAddressCityIgnoreCase (list + page)")
-  void findByAddressCityIgnoreCase() {
-    assertThat(repository.findByAddressCityIgnoreCase("são paulo")).hasSize(2);
+  @DisplayName("findByAddressCityNormalized (list + page)")
+  void findByAddressCityNormalized() {
+    assertThat(repository.findByAddressCityNormalized(normalize("são paulo"))).hasSize(2);
 
     Pageable pageable = PageRequest.of(0, 10);
-    Page<Customer> page = repository.findByAddressCityIgnoreCase("SÃO PAULO", pageable);
+    Page<Customer> page = repository.findByAddressCityNormalized(normalize("SÃO PAULO"), pageable);
     assertThat(page.getTotalElements()).isEqualTo(2);
   }
 
   @Test
-  @DisplayName("findByAddressStateIgnoreCase (list + page)")
-  void findByAddressStateIgnoreCase() {
-    assertThat(repository.findByAddressStateIgnoreCase("sp")).hasSize(2);
+  @DisplayName("findByAddressCityNormalized → unaccented input matches accented city")
+  void findByAddressCityNormalized_unaccentedInput() {
+    assertThat(repository.findByAddressCityNormalized(normalize("Sao Paulo"))).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("findByAddressStateNormalized (list + page)")
+  void findByAddressStateNormalized() {
+    assertThat(repository.findByAddressStateNormalized(normalize("sp"))).hasSize(2);
 
     Pageable pageable = PageRequest.of(0, 10);
-    Page<Customer> page = repository.findByAddressStateIgnoreCase("SP", pageable);
+    Page<Customer> page = repository.findByAddressStateNormalized(normalize("SP"), pageable);
     assertThat(page.getTotalElements()).isEqualTo(2);
   }
 
   @Test
-  @DisplayName("findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase (list + page)")
+  @DisplayName("findByAddressCityNormalizedAndAddressNeighborhoodNormalized (list + page)")
   void findByCityAndNeighborhood() {
     assertThat(
-            repository.findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
-                "São Paulo", "Centro"))
+            repository.findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+                normalize("São Paulo"), normalize("Centro")))
         .extracting(Customer::getId)
         .containsExactly(c1.getId());
 
     Pageable pageable = PageRequest.of(0, 10);
     Page<Customer> page =
-        repository.findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
-            "São Paulo", "Moema", pageable);
+        repository.findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+            normalize("São Paulo"), normalize("Moema"), pageable);
     assertThat(page.getTotalElements()).isEqualTo(1);
     assertThat(page.getContent().get(0).getId()).isEqualTo(c3.getId());
   }
 
+  @Test
+  @DisplayName("findByBirthDate range queries (list + page)")
+  void findByBirthDateRange() {
+    c2.setBirthDate(LocalDate.of(2010, 6, 15));
+    repository.save(c2);
+
+    assertThat(
+            repository.findByBirthDateBetween(LocalDate.of(1989, 1, 1), LocalDate.of(1990, 1, 1)))
+        .extracting(Customer::getId)
+        .containsExactlyInAnyOrder(c1.getId(), c3.getId());
+    assertThat(repository.findByBirthDateGreaterThanEqual(LocalDate.of(2000, 1, 1)))
+        .extracting(Customer::getId)
+        .containsExactly(c2.getId());
+
+    Page<Customer> page =
+        repository.findByBirthDateLessThanEqual(LocalDate.of(1990, 1, 1), PageRequest.of(0, 1));
+    assertThat(page.getTotalElements()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("findByIdIn / findByCpfIn / findByEmailIn")
+  void findByKeysIn() {
+    assertThat(repository.findByIdIn(List.of(c1.getId(), c3.getId(), -1L)))
+        .extracting(Customer::getId)
+        .containsExactlyInAnyOrder(c1.getId(), c3.getId());
+    assertThat(repository.findByCpfIn(List.of("22222222222", "99999999999")))
+        .extracting(Customer::getId)
+        .containsExactly(c2.getId());
+    assertThat(repository.findByEmailIn(List.of("joana@silva.com")))
+        .singleElement()
+        .satisfies(c -> assertThat(c.getAddress().getCity()).isEqualTo("São Paulo"));
+  }
+
+  @Test
+  @DisplayName("findResidentsByAddressId")
+  void findResidentsByAddressId() {
+    assertThat(repository.findResidentsByAddressId(c3.getAddress().getId()))
+        .singleElement()
+        .satisfies(
+            row -> {
+              assertThat(row.getState()).isEqualTo("sp");
+              assertThat(row.getCity()).isEqualTo("sao paulo");
+              assertThat(row.getBirthDate()).isEqualTo(LocalDate.of(1990, 1, 1));
+            });
+  }
+
+  @Test
+  @DisplayName("findResidentsByIdIn / findResidentsByAddressIdIn")
+  void findResidentsIn() {
+    assertThat(repository.findResidentsByIdIn(List.of(c3.getId())))
+        .singleElement()
+        .satisfies(row -> assertThat(row.getCity()).isEqualTo("sao paulo"));
+    assertThat(repository.findResidentsByAddressIdIn(List.of(c3.getAddress().getId())))
+        .singleElement()
+        .satisfies(row -> assertThat(row.getState()).isEqualTo("sp"));
+  }
+
+  @Test
+  @DisplayName("findIds* select only customers created before the cut-off")
+  void findIdsCreatedBefore() {
+    LocalDateTime future = LocalDateTime.now().plusDays(1);
+    LocalDateTime past = LocalDateTime.now().minusDays(1);
+    PageRequest limit = PageRequest.of(0, 10);
+
+    assertThat(repository.findIdsCreatedBefore(future, limit)).contains(c3.getId());
+    assertThat(repository.findIdsCreatedBefore(past, limit)).isEmpty();
+    assertThat(repository.findIdsByState("sp", future, limit)).contains(c3.getId());
+    assertThat(repository.findIdsByState("sp", past, limit)).isEmpty();
+  }
+
+  // --------- soft delete ---------
+
+  @Test
+  @DisplayName("delete marks the customer and its address instead of removing the rows")
+  void deleteIsSoft() {
+    repository.delete(c1);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(repository.findById(c1.getId())).isEmpty();
+    assertThat(repository.findByCpf("12345678901")).isEmpty();
+    assertThat(repository.count()).isEqualTo(2);
+    assertThat(deletedAt("customers", c1.getId())).isNotNull();
+    assertThat(deletedAt("addresses", c1.getAddress().getId())).isNotNull();
+  }
+
+  @Test
+  @DisplayName("purgeDeletedBefore removes only rows deleted before the cutoff, in batches")
+  void purgeDeletedBefore() {
+    repository.deleteAll(List.of(c1, c2));
+    entityManager.flush();
+
+    assertThat(repository.purgeDeletedBefore(LocalDateTime.now().minusDays(1), 10)).isZero();
+    assertThat(repository.purgeDeletedBefore(LocalDateTime.now().plusSeconds(1), 1)).isEqualTo(1);
+    assertThat(repository.purgeDeletedBefore(LocalDateTime.now().plusSeconds(1), 10)).isEqualTo(1);
+    // the addresses lost their customers, so they can go as well
+    assertThat(addressRepository.purgeDeletedBefore(LocalDateTime.now().plusSeconds(1), 10))
+        .isEqualTo(2);
+    assertThat(repository.findById(c3.getId())).isPresent();
+  }
+
+  // --------- delta sync ---------
+
+  @Test
+  @DisplayName("findChangedAfter pages by (updated_at, id) and includes tombstones")
+  void findChangedAfter() {
+    repository.delete(c2);
+    entityManager.flush();
+    LocalDateTime t = LocalDateTime.of(2025, 1, 1, 10, 0);
+    setUpdatedAt(c1, t);
+    setUpdatedAt(c2, t);
+    setUpdatedAt(c3, t.plusMinutes(1));
+    LocalDateTime horizon = LocalDateTime.now();
+
+    List<ChangeRow> all = repository.findChangedAfter(t.minusDays(1), 0, horizon, 10);
+    assertThat(all)
+        .extracting(ChangeRow::getId)
+        .containsExactly(c1.getId(), c2.getId(), c3.getId());
+    assertThat(all.get(1).getDeletedAt()).isNotNull();
+    assertThat(all.get(0).getUpdatedAt()).isEqualTo(t);
+
+    // same watermark as c1: the id breaks the tie
+    assertThat(repository.findChangedAfter(t, c1.getId(), horizon, 10))
+        .extracting(ChangeRow::getId)
+        .containsExactly(c2.getId(), c3.getId());
+    assertThat(repository.findChangedAfter(t, c1.getId(), horizon, 1))
+        .extracting(ChangeRow::getId)
+        .containsExactly(c2.getId());
+    // rows after the horizon are left for a later call
+    assertThat(repository.findChangedAfter(t.minusDays(1), 0, t, 10)).hasSize(2);
+  }
+
+  private void setUpdatedAt(Customer customer, LocalDateTime updatedAt) {
+    entityManager
+        .createNativeQuery("update customers set updated_at = :at where id = :id")
+        .setParameter("at", updatedAt)
+        .setParameter("id", customer.getId())
+        .executeUpdate();
+  }
+
+  private Object deletedAt(String table, Long id) {
+    return entityManager
+        .createNativeQuery("select deleted_at from " + table + " where id = :id")
+        .setParameter("id", id)
+        .getSingleResult();
+  }
+
   // --------- helpers ---------
 
   private static Customer customer(
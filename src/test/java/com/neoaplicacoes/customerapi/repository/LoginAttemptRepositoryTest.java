@@ -0,0 +1,62 @@
+package com.neoaplicacoes.customerapi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.neoaplicacoes.customerapi.model.entity.LoginAttempt;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class LoginAttemptRepositoryTest {
+
+  private static final String SUBJECT = "email:a@test.com";
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+  @Autowired private LoginAttemptRepository repository;
+
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  @DisplayName("incrementFailures counts in place and starts over once the failures expired")
+  void incrementFailures() {
+    LocalDateTime cutoff = NOW.minusHours(1);
+    assertThat(repository.incrementFailures(SUBJECT, NOW, cutoff)).isZero();
+    assertThat(repository.insertFirstFailure(SUBJECT, NOW)).isEqualTo(1);
+
+    repository.incrementFailures(SUBJECT, NOW.plusSeconds(1), cutoff);
+    repository.incrementFailures(SUBJECT, NOW.plusSeconds(2), cutoff);
+    assertThat(reload().getFailures()).isEqualTo(3);
+
+    LocalDateTime later = NOW.plusHours(2);
+    repository.incrementFailures(SUBJECT, later, later.minusHours(1));
+    LoginAttempt restarted = reload();
+    assertThat(restarted.getFailures()).isEqualTo(1);
+    assertThat(restarted.getLastFailureAt()).isEqualTo(later);
+  }
+
+  @Test
+  @DisplayName("extendLock never shortens a lock; forget deletes the row")
+  void extendLockAndForget() {
+    repository.insertFirstFailure(SUBJECT, NOW);
+
+    assertThat(repository.extendLock(SUBJECT, NOW.plusSeconds(4))).isEqualTo(1);
+    assertThat(repository.extendLock(SUBJECT, NOW.plusSeconds(2))).isZero();
+    assertThat(reload().getLockedUntil()).isEqualTo(NOW.plusSeconds(4));
+
+    assertThat(repository.forget(SUBJECT)).isEqualTo(1);
+    assertThat(repository.forget(SUBJECT)).isZero();
+    entityManager.clear();
+    assertThat(repository.findById(SUBJECT)).isEmpty();
+  }
+
+  private LoginAttempt reload() {
+    entityManager.clear();
+    return repository.findById(SUBJECT).orElseThrow();
+  }
+}
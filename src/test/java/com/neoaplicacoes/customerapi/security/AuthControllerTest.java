@@ -9,6 +9,7 @@ import com.neoaplicacoes.customerapi.model.dto.request.UserRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.UserResponseDTO;
 import com.neoaplicacoes.customerapi.security.controller.AuthController;
 import com.neoaplicacoes.customerapi.security.service.CustomUserDetailsService;
+import com.neoaplicacoes.customerapi.security.service.LoginAttemptService;
 import com.neoaplicacoes.customerapi.security.util.JwtUtils;
 import com.neoaplicacoes.customerapi.service.UserService;
 import java.time.LocalDateTime;
@@ -19,7 +20,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -35,6 +38,8 @@ class AuthControllerTest {
 
   @Mock private UserService userService;
 
+  @Mock private LoginAttemptService loginAttemptService;
+
   @InjectMocks private AuthController authController;
 
   @BeforeEach
@@ -63,7 +68,7 @@ class AuthControllerTest {
     when(jwtUtils.generateToken(anyString())).thenReturn("mock-token");
 
     // Act
-    ResponseEntity<?> response = authController.login(request);
+    ResponseEntity<?> response = authController.login(request, new MockHttpServletRequest());
 
     // Assert
     assertEquals(200, response.getStatusCodeValue());
@@ -83,10 +88,23 @@ class AuthControllerTest {
         .authenticate(any(UsernamePasswordAuthenticationToken.class));
 
     // Act
-    ResponseEntity<?> response = authController.login(request);
+    ResponseEntity<?> response = authController.login(request, new MockHttpServletRequest());
 
     // Assert
     assertEquals(401, response.getStatusCodeValue());
     assertEquals("Invalid email or password", response.getBody());
+    verify(loginAttemptService).loginFailed("wrong@email.com", "127.0.0.1");
+  }
+
+  @Test
+  void login_locked_returns429WithoutAuthenticating() {
+    UserRequestDTO request = new UserRequestDTO("locked@email.com", "password");
+    when(loginAttemptService.lockedSeconds("locked@email.com", "127.0.0.1")).thenReturn(8L);
+
+    ResponseEntity<?> response = authController.login(request, new MockHttpServletRequest());
+
+    assertEquals(429, response.getStatusCode().value());
+    assertEquals("8", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    verifyNoInteractions(authenticationManager, userDetailsService);
   }
 }
@@ -5,12 +5,14 @@ import static org.mockito.Mockito.*;
 
 import com.neoaplicacoes.customerapi.model.entity.User;
 import com.neoaplicacoes.customerapi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -18,6 +20,8 @@ class CustomUserDetailsServiceTest {
 
   @Mock private UserRepository userRepository;
 
+  @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @InjectMocks private CustomUserDetailsService service;
 
   @BeforeEach
@@ -28,6 +32,7 @@ class CustomUserDetailsServiceTest {
   @Test
   void loadUserByUsername_userExists_returnsUserDetails() {
     User user = new User();
+    user.setId(7L);
     user.setEmail("test@example.com");
     user.setPassword("encodedPass");
     user.setRole("USER");
@@ -41,6 +46,7 @@ class CustomUserDetailsServiceTest {
     assertEquals("test@example.com", userDetails.getUsername());
     assertEquals("encodedPass", userDetails.getPassword());
     assertTrue(userDetails.isEnabled());
+    assertEquals(7L, ((CustomUserDetailsService.AccountUser) userDetails).getId());
   }
 
   @Test
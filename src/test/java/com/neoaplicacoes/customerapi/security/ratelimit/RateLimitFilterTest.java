@@ -0,0 +1,84 @@
+package com.neoaplicacoes.customerapi.security.ratelimit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(
+    properties = {
+      "rate-limit.enabled=true",
+      "rate-limit.groups[0].name=auth",
+      "rate-limit.groups[0].paths=/auth/**",
+      "rate-limit.groups[0].capacity=2",
+      "rate-limit.groups[0].refill-per-minute=1",
+      "rate-limit.groups[1].name=api",
+      "rate-limit.groups[1].paths=/api/**",
+      "rate-limit.groups[1].capacity=1",
+      "rate-limit.groups[1].refill-per-minute=1"
+    })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTest {
+
+  @Autowired private MockMvc mvc;
+
+  @Test
+  void anonymousClientsAreLimitedPerIp() throws Exception {
+    String body = "{\"email\":\"nobody@test.com\",\"password\":\"wrong\"}";
+    for (int i = 0; i < 2; i++) {
+      mvc.perform(
+              post("/auth/login")
+                  .with(request -> remote(request, "10.0.0.1"))
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(body))
+          .andExpect(status().is4xxClientError())
+          .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    mvc.perform(
+            post("/auth/login")
+                .with(request -> remote(request, "10.0.0.1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"))
+        .andExpect(jsonPath("$.status").value(429));
+
+    // Another address still has its burst
+    mvc.perform(
+            post("/auth/login")
+                .with(request -> remote(request, "10.0.0.2"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().is4xxClientError())
+        .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  @WithMockUser(username = "limited@test.com")
+  void authenticatedClientsAreLimitedPerUser() throws Exception {
+    mvc.perform(get("/api/customers/stats").with(request -> remote(request, "10.0.1.1")))
+        .andExpect(status().isOk());
+    // Same user from another address shares the bucket
+    mvc.perform(get("/api/customers/stats").with(request -> remote(request, "10.0.1.2")))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  private static MockHttpServletRequest remote(MockHttpServletRequest request, String address) {
+    request.setRemoteAddr(address);
+    return request;
+  }
+}
@@ -0,0 +1,97 @@
+package com.neoaplicacoes.customerapi.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+  private SimpleMeterRegistry meterRegistry;
+  private RateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimiter = limiter(100);
+  }
+
+  private RateLimiter limiter(int maxKeys) {
+    RateLimitProperties properties =
+        new RateLimitProperties(
+            true,
+            Duration.ofSeconds(30),
+            maxKeys,
+            List.of(
+                new RateLimitProperties.Group("auth", List.of("/auth/**"), 3, 60),
+                new RateLimitProperties.Group("bulk", List.of("/api/*/all/**"), 5, 60),
+                new RateLimitProperties.Group("api", List.of("/api/**"), 100, 6000)));
+    return new RateLimiter(properties, meterRegistry, now::get);
+  }
+
+  private void advance(long millis) {
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  @Test
+  void groupFor_firstMatchingGroupWins() {
+    assertThat(rateLimiter.groupFor("/auth/login")).isEqualTo("auth");
+    assertThat(rateLimiter.groupFor("/api/customers/all/by-city")).isEqualTo("bulk");
+    assertThat(rateLimiter.groupFor("/api/customers/1")).isEqualTo("api");
+    assertThat(rateLimiter.groupFor("/actuator/health")).isNull();
+  }
+
+  @Test
+  void tryAcquire_allowsBurstThenRefillsAtConfiguredRate() {
+    for (int i = 0; i < 3; i++) {
+      assertThat(rateLimiter.tryAcquire("auth", "ip:1")).isZero();
+    }
+    // 60 per minute: the next token arrives one second after the burst
+    assertThat(rateLimiter.tryAcquire("auth", "ip:1")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    // Other clients have their own bucket
+    assertThat(rateLimiter.tryAcquire("auth", "ip:2")).isZero();
+
+    advance(1000);
+    assertThat(rateLimiter.tryAcquire("auth", "ip:1")).isZero();
+    assertThat(rateLimiter.tryAcquire("auth", "ip:1")).isPositive();
+    assertThat(
+            meterRegistry
+                .counter("rate_limit.requests", "group", "auth", "outcome", "rejected")
+                .count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void evictIdle_dropsOnlyRefilledBuckets() {
+    rateLimiter.tryAcquire("auth", "ip:1");
+    rateLimiter.tryAcquire("auth", "ip:2");
+    rateLimiter.tryAcquire("auth", "ip:2");
+
+    advance(1000);
+    rateLimiter.evictIdle();
+    assertThat(rateLimiter.buckets("auth")).isEqualTo(1);
+
+    advance(1000);
+    rateLimiter.evictIdle();
+    assertThat(rateLimiter.buckets("auth")).isZero();
+  }
+
+  @Test
+  void tryAcquire_clientsBeyondMaxKeysShareOneBucket() {
+    rateLimiter = limiter(2);
+    rateLimiter.tryAcquire("auth", "ip:1");
+    rateLimiter.tryAcquire("auth", "ip:2");
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(rateLimiter.tryAcquire("auth", "ip:new-" + i)).isZero();
+    }
+    assertThat(rateLimiter.tryAcquire("auth", "ip:another")).isPositive();
+    assertThat(rateLimiter.buckets("auth")).isEqualTo(3);
+  }
+}
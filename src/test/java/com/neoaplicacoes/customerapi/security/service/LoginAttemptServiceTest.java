@@ -0,0 +1,156 @@
+package com.neoaplicacoes.customerapi.security.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.neoaplicacoes.customerapi.model.entity.LoginAttempt;
+import com.neoaplicacoes.customerapi.repository.LoginAttemptRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class LoginAttemptServiceTest {
+
+  private static final String IP = "10.0.0.1";
+
+  private final AtomicReference<LocalDateTime> now =
+      new AtomicReference<>(LocalDateTime.of(2025, 1, 1, 12, 0));
+  private LoginAttemptRepository repository;
+  private LoginAttemptService service;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(LoginAttemptRepository.class);
+    service = service(false);
+  }
+
+  private LoginAttemptService service(boolean persistence) {
+    return new LoginAttemptService(
+        repository,
+        new SimpleMeterRegistry(),
+        persistence,
+        3,
+        10,
+        Duration.ofSeconds(1),
+        Duration.ofSeconds(30),
+        Duration.ofHours(1),
+        now::get);
+  }
+
+  private void advance(Duration duration) {
+    now.set(now.get().plus(duration));
+  }
+
+  @Test
+  void locksEmailWithExponentialBackoffUpToMaxDelay() {
+    service.loginFailed("a@test.com", IP);
+    service.loginFailed("a@test.com", IP);
+    assertThat(service.lockedSeconds("a@test.com", IP)).isZero();
+
+    service.loginFailed("a@test.com", IP);
+    assertThat(service.lockedSeconds("a@test.com", IP)).isEqualTo(1);
+    service.loginFailed("A@Test.com ", IP);
+    assertThat(service.lockedSeconds("a@test.com", IP)).isEqualTo(2);
+    service.loginFailed("a@test.com", IP);
+    assertThat(service.lockedSeconds("a@test.com", IP)).isEqualTo(4);
+
+    for (int i = 0; i < 10; i++) {
+      service.loginFailed("a@test.com", IP);
+    }
+    assertThat(service.lockedSeconds("a@test.com", IP)).isEqualTo(30);
+
+    // Other emails from the same address are not locked yet (the address allows 10)
+    assertThat(service.lockedSeconds("b@test.com", "10.0.0.2")).isZero();
+    advance(Duration.ofSeconds(30));
+    assertThat(service.lockedSeconds("a@test.com", IP)).isZero();
+  }
+
+  @Test
+  void locksAddressSprayingManyEmails() {
+    for (int i = 0; i < 10; i++) {
+      service.loginFailed("user" + i + "@test.com", IP);
+    }
+    assertThat(service.lockedSeconds("fresh@test.com", IP)).isEqualTo(1);
+    assertThat(service.lockedSeconds("fresh@test.com", "10.0.0.2")).isZero();
+  }
+
+  @Test
+  void successClearsEmailAndOldFailuresAreForgotten() {
+    for (int i = 0; i < 3; i++) {
+      service.loginFailed("a@test.com", IP);
+    }
+    service.loginSucceeded("a@test.com");
+    assertThat(service.lockedSeconds("a@test.com", "10.0.0.2")).isZero();
+
+    service.loginFailed("b@test.com", IP);
+    advance(Duration.ofHours(2));
+    service.evictExpired();
+    assertThat(service.tracked()).isZero();
+  }
+
+  @Test
+  void persistenceReadsLocksFromTheTable() {
+    service = service(true);
+    when(repository.findById("email:a@test.com"))
+        .thenReturn(
+            Optional.of(
+                new LoginAttempt(
+                    "email:a@test.com", 4, now.get().plusSeconds(5), now.get().minusSeconds(1))));
+
+    assertThat(service.lockedSeconds("a@test.com", IP)).isEqualTo(5);
+    // A running lock is known locally; the table is not asked again until it ends
+    assertThat(service.lockedSeconds("a@test.com", IP)).isEqualTo(5);
+    verify(repository, times(1)).findById("email:a@test.com");
+  }
+
+  @Test
+  void persistenceCountsFailuresInTheTable() {
+    service = service(true);
+    LocalDateTime cutoff = now.get().minusHours(1);
+    when(repository.incrementFailures("email:a@test.com", now.get(), cutoff)).thenReturn(1);
+    when(repository.findById("email:a@test.com"))
+        .thenReturn(Optional.of(new LoginAttempt("email:a@test.com", 4, null, now.get())));
+    when(repository.extendLock(eq("email:a@test.com"), any())).thenReturn(1);
+
+    service.loginFailed("a@test.com", IP);
+
+    // 4 failures with 3 free attempts: the second lock step, 2s
+    verify(repository).extendLock("email:a@test.com", now.get().plusSeconds(2));
+    // The address had no row yet: it is inserted, and never saved over another instance's count
+    verify(repository).insertFirstFailure("ip:" + IP, now.get());
+    verify(repository, never()).save(any(LoginAttempt.class));
+  }
+
+  @Test
+  void persistenceRetriesTheIncrementWhenAnotherInstanceInsertedFirst() {
+    service = service(true);
+    LocalDateTime cutoff = now.get().minusHours(1);
+    when(repository.incrementFailures("ip:" + IP, now.get(), cutoff)).thenReturn(0);
+    when(repository.insertFirstFailure("ip:" + IP, now.get()))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+    service.loginFailed(null, IP);
+
+    verify(repository, times(2)).incrementFailures("ip:" + IP, now.get(), cutoff);
+  }
+
+  @Test
+  void persistenceSuccessDeletesTheRowEvenIfUnknownLocally() {
+    service = service(true);
+
+    service.loginSucceeded("a@test.com");
+
+    verify(repository).forget("email:a@test.com");
+  }
+}
@@ -8,10 +8,14 @@ import com.neoaplicacoes.customerapi.mapper.AddressMapper;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
 import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
 import com.neoaplicacoes.customerapi.repository.AddressRepository;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
 import com.neoaplicacoes.customerapi.service.impl.AddressServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,6 +23,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
@@ -30,6 +35,14 @@ class AddressServiceImplTest {
 
   @Mock private AddressMapper mapper;
 
+  @Mock private CustomerRepository customerRepository;
+
+  @Mock private ChangeEventService changeEventService;
+
+  @Mock private CustomerStatisticsService statisticsService;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
   private Address sampleEntity() {
     Address a = new Address();
     a.setId(1L);
@@ -45,13 +58,24 @@ class AddressServiceImplTest {
 
   private AddressResponseDTO sampleResponse() {
     return new AddressResponseDTO(
-        1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP");
+        1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP", null);
   }
 
   @BeforeEach
   void setup() {
     MockitoAnnotations.openMocks(this);
-    service = new AddressServiceImpl(repository, mapper);
+    service =
+        new AddressServiceImpl(
+            repository,
+            mapper,
+            null,
+            null,
+            null,
+            customerRepository,
+            statisticsService,
+            null,
+            changeEventService,
+            eventPublisher);
   }
 
   // ------------------- CRUD -------------------
@@ -81,11 +105,69 @@ class AddressServiceImplTest {
     AddressResponseDTO response = sampleResponse();
 
     when(repository.findById(1L)).thenReturn(Optional.of(entity));
-    when(repository.save(entity)).thenReturn(entity);
+    when(repository.saveAndFlush(entity)).thenReturn(entity);
     when(mapper.toResponse(entity)).thenReturn(response);
 
     AddressResponseDTO result = service.update(1L, dto);
     assertThat(result).isEqualTo(response);
+    verify(changeEventService).record(AggregateType.ADDRESS, 1L, ChangeType.UPDATED, response);
+  }
+
+  @Test
+  @DisplayName("Update Address - moving it moves its customers in the statistics")
+  void updateMovesStatistics() {
+    AddressRequestDTO dto = new AddressRequestDTO(null, null, null, null, null, "Niterói", "RJ");
+    Address entity = sampleEntity();
+    List<CustomerStatisticsService.Key> residents =
+        List.of(new CustomerStatisticsService.Key("SP", "sao paulo", "25-34"));
+
+    when(repository.findById(1L)).thenReturn(Optional.of(entity));
+    when(statisticsService.keysAtAddress(1L)).thenReturn(residents);
+    when(repository.saveAndFlush(entity)).thenReturn(entity);
+
+    service.update(1L, dto);
+
+    verify(statisticsService).recordAddressMoved(residents, "rj", "niteroi");
+  }
+
+  @Test
+  @DisplayName("Update Address - residents' push subscribers hear about the move")
+  void updatePublishesResidentEvents() {
+    AddressRequestDTO dto = new AddressRequestDTO(null, null, null, null, null, "Niterói", "RJ");
+    Address entity = sampleEntity();
+    AddressResponseDTO response = sampleResponse();
+
+    when(repository.findById(1L)).thenReturn(Optional.of(entity));
+    when(repository.saveAndFlush(entity)).thenReturn(entity);
+    when(mapper.toResponse(entity)).thenReturn(response);
+    when(customerRepository.findIdsByAddressIdIn(List.of(1L))).thenReturn(List.of(7L));
+
+    service.update(1L, dto);
+
+    verify(eventPublisher)
+        .publishEvent(
+            new CustomerChangedEvent(
+                7L,
+                ChangeType.UPDATED,
+                Map.of("id", 7L, "address", response),
+                List.of(
+                    new CustomerChangedEvent.Location("sp", "sao paulo"),
+                    new CustomerChangedEvent.Location("rj", "niteroi"))));
+  }
+
+  @Test
+  @DisplayName("Update Address - other fields leave the statistics alone")
+  void updateKeepsStatistics() {
+    AddressRequestDTO dto = new AddressRequestDTO(null, "200", null, null, null, null, null);
+    Address entity = sampleEntity();
+
+    when(repository.findById(1L)).thenReturn(Optional.of(entity));
+    when(repository.saveAndFlush(entity)).thenReturn(entity);
+
+    service.update(1L, dto);
+
+    verify(statisticsService, never()).keysAtAddress(any());
+    verify(statisticsService).recordAddressMoved(List.of(), "sp", "sao paulo");
   }
 
   @Test
@@ -102,8 +184,31 @@ class AddressServiceImplTest {
   void delete() {
     Address entity = sampleEntity();
     when(repository.findById(1L)).thenReturn(Optional.of(entity));
+    CustomerStatisticsService.Key resident =
+        new CustomerStatisticsService.Key("SP", "sao paulo", "25-34");
+    when(statisticsService.keysAtAddress(1L)).thenReturn(List.of(resident));
     service.delete(1L);
+    verify(statisticsService).recordDeleted(resident);
+    verify(changeEventService).recordCustomerDeletionsAtAddresses(List.of(1L));
+    verify(customerRepository).markDeletedByAddressIdIn(List.of(1L));
     verify(repository).delete(entity);
+    verify(changeEventService).record(AggregateType.ADDRESS, 1L, ChangeType.DELETED, null);
+  }
+
+  @Test
+  @DisplayName("Delete Address - residents are published as deleted")
+  void deletePublishesResidentEvents() {
+    when(repository.findById(1L)).thenReturn(Optional.of(sampleEntity()));
+    when(customerRepository.findIdsByAddressIdIn(List.of(1L))).thenReturn(List.of(7L, 8L));
+
+    service.delete(1L);
+
+    List<CustomerChangedEvent.Location> from =
+        List.of(new CustomerChangedEvent.Location("sp", "sao paulo"));
+    verify(eventPublisher)
+        .publishEvent(new CustomerChangedEvent(7L, ChangeType.DELETED, null, from));
+    verify(eventPublisher)
+        .publishEvent(new CustomerChangedEvent(8L, ChangeType.DELETED, null, from));
   }
 
   @Test
@@ -152,7 +257,7 @@ class AddressServiceImplTest {
     @Test
     void getByCity() {
       Address entity = sampleEntity();
-      when(repository.findByCityIgnoreCase("São Paulo")).thenReturn(List.of(entity));
+      when(repository.findByCityNormalized("sao paulo")).thenReturn(List.of(entity));
       when(mapper.toResponseList(List.of(entity))).thenReturn(List.of(sampleResponse()));
 
       List<AddressResponseDTO> result = service.getByCity("São Paulo");
@@ -162,7 +267,7 @@ class AddressServiceImplTest {
     @Test
     void getByState() {
       Address entity = sampleEntity();
-      when(repository.findByStateIgnoreCase("SP")).thenReturn(List.of(entity));
+      when(repository.findByStateNormalized("sp")).thenReturn(List.of(entity));
       when(mapper.toResponseList(List.of(entity))).thenReturn(List.of(sampleResponse()));
 
       List<AddressResponseDTO> result = service.getByState("SP");
@@ -172,7 +277,7 @@ class AddressServiceImplTest {
     @Test
     void getByNeighborhood() {
       Address entity = sampleEntity();
-      when(repository.findByNeighborhoodIgnoreCase("Centro")).thenReturn(List.of(entity));
+      when(repository.findByNeighborhoodNormalized("centro")).thenReturn(List.of(entity));
       when(mapper.toResponseList(List.of(entity))).thenReturn(List.of(sampleResponse()));
 
       List<AddressResponseDTO> result = service.getByNeighborhood("Centro");
@@ -182,7 +287,7 @@ class AddressServiceImplTest {
     @Test
     void getByCityAndNeighborhood() {
       Address entity = sampleEntity();
-      when(repository.findByCityIgnoreCaseAndNeighborhoodIgnoreCase("São Paulo", "Centro"))
+      when(repository.findByCityNormalizedAndNeighborhoodNormalized("sao paulo", "centro"))
           .thenReturn(List.of(entity));
       when(mapper.toResponseList(List.of(entity))).thenReturn(List.of(sampleResponse()));
 
@@ -203,7 +308,7 @@ class AddressServiceImplTest {
     @Test
     void getByCepAndState() {
       Address entity = sampleEntity();
-      when(repository.findByCepAndStateIgnoreCase("12345678", "SP")).thenReturn(List.of(entity));
+      when(repository.findByCepAndStateNormalized("12345678", "sp")).thenReturn(List.of(entity));
       when(mapper.toResponseList(List.of(entity))).thenReturn(List.of(sampleResponse()));
 
       List<AddressResponseDTO> result = service.getByCepAndState("12345678", "SP");
@@ -223,7 +328,7 @@ class AddressServiceImplTest {
     @Test
     void getByCityAndStreet() {
       Address entity = sampleEntity();
-      when(repository.findByCityIgnoreCaseAndStreetContainingIgnoreCase("São Paulo", "Main"))
+      when(repository.findByCityNormalizedAndStreetContainingIgnoreCase("sao paulo", "Main"))
           .thenReturn(List.of(entity));
       when(mapper.toResponseList(List.of(entity))).thenReturn(List.of(sampleResponse()));
 
@@ -240,7 +345,7 @@ class AddressServiceImplTest {
     @Test
     void getByCityPaged() {
       Address entity = sampleEntity();
-      when(repository.findByCityIgnoreCase("São Paulo", PageRequest.of(0, 10)))
+      when(repository.findByCityNormalized("sao paulo", PageRequest.of(0, 10)))
           .thenReturn(new PageImpl<>(List.of(entity)));
       when(mapper.toResponse(entity)).thenReturn(sampleResponse());
 
@@ -251,7 +356,7 @@ class AddressServiceImplTest {
     @Test
     void getByStatePaged() {
       Address entity = sampleEntity();
-      when(repository.findByStateIgnoreCase("SP", PageRequest.of(0, 10)))
+      when(repository.findByStateNormalized("sp", PageRequest.of(0, 10)))
           .thenReturn(new PageImpl<>(List.of(entity)));
       when(mapper.toResponse(entity)).thenReturn(sampleResponse());
 
@@ -262,7 +367,7 @@ class AddressServiceImplTest {
     @Test
     void getByNeighborhoodPaged() {
       Address entity = sampleEntity();
-      when(repository.findByNeighborhoodIgnoreCase("Centro", PageRequest.of(0, 10)))
+      when(repository.findByNeighborhoodNormalized("centro", PageRequest.of(0, 10)))
           .thenReturn(new PageImpl<>(List.of(entity)));
       when(mapper.toResponse(entity)).thenReturn(sampleResponse());
 
@@ -273,8 +378,8 @@ class AddressServiceImplTest {
     @Test
     void getByCityAndNeighborhoodPaged() {
       Address entity = sampleEntity();
-      when(repository.findByCityIgnoreCaseAndNeighborhoodIgnoreCase(
-              "São Paulo", "Centro", PageRequest.of(0, 10)))
+      when(repository.findByCityNormalizedAndNeighborhoodNormalized(
+              "sao paulo", "centro", PageRequest.of(0, 10)))
           .thenReturn(new PageImpl<>(List.of(entity)));
       when(mapper.toResponse(entity)).thenReturn(sampleResponse());
 
@@ -297,8 +402,8 @@ class AddressServiceImplTest {
     @Test
     void getByCityAndStreetPaged() {
       Address entity = sampleEntity();
-      when(repository.findByCityIgnoreCaseAndStreetContainingIgnoreCase(
-              "São Paulo", "Main", PageRequest.of(0, 10)))
+      when(repository.findByCityNormalizedAndStreetContainingIgnoreCase(
+              "sao paulo", "Main", PageRequest.of(0, 10)))
           .thenReturn(new PageImpl<>(List.of(entity)));
       when(mapper.toResponse(entity)).thenReturn(sampleResponse());
 
@@ -0,0 +1,81 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeEventResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeFeedResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.ChangeEvent;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import com.neoaplicacoes.customerapi.repository.ChangeEventRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the gap-aware reading of ChangeEventServiceImpl. The repository is mocked. */
+class ChangeEventServiceImplTest {
+
+  private final ChangeEventRepository repository = mock(ChangeEventRepository.class);
+  private final ExecutorService pollReader = Executors.newSingleThreadExecutor();
+  private ChangeEventServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new ChangeEventServiceImpl(
+            repository, new ObjectMapper(), Duration.ofSeconds(60), pollReader);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pollReader.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("events after a recent gap are held back: the missing id may still commit")
+  void holdsBackAfterRecentGap() {
+    LocalDateTime now = LocalDateTime.now();
+    when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+        .thenReturn(List.of(event(11, now), event(13, now), event(14, now)));
+
+    ChangeFeedResponseDTO feed = service.readSince(10, 100);
+
+    assertThat(feed.events()).extracting(ChangeEventResponseDTO::id).containsExactly(11L);
+    assertThat(feed.nextCursor()).isEqualTo(11);
+  }
+
+  @Test
+  @DisplayName("a gap older than the timeout is skipped, as is a gap right after the cursor")
+  void skipsAbandonedGap() {
+    LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+    LocalDateTime now = LocalDateTime.now();
+    when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+        .thenReturn(List.of(event(7, old), event(9, old), event(10, now), event(12, now)));
+
+    ChangeFeedResponseDTO feed = service.readSince(0, 100);
+
+    assertThat(feed.events()).extracting(ChangeEventResponseDTO::id).containsExactly(7L, 9L, 10L);
+    assertThat(feed.nextCursor()).isEqualTo(10);
+  }
+
+  private static ChangeEvent event(long id, LocalDateTime occurredAt) {
+    ChangeEvent event = new ChangeEvent();
+    event.setId(id);
+    event.setAggregateType(AggregateType.CUSTOMER);
+    event.setAggregateId(id);
+    event.setChangeType(ChangeType.UPDATED);
+    event.setOccurredAt(occurredAt);
+    return event;
+  }
+}
@@ -0,0 +1,120 @@
+package com.neoaplicacoes.customerapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeEventResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.ChangeFeedResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.enums.AggregateType;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import com.neoaplicacoes.customerapi.repository.ChangeEventRepository;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+/** Outbox writes happen inside the mutating transaction and are read back in order by cursor. */
+// each test empties the table, so the ids left behind would read as gaps of in-flight transactions
+@SpringBootTest(properties = "change-events.gap-timeout=0s")
+@ActiveProfiles("test")
+class ChangeEventServiceTest {
+
+  @Autowired private ChangeEventService changeEventService;
+
+  @Autowired private ChangeEventRepository changeEventRepository;
+
+  @Autowired private CustomerService customerService;
+
+  @Autowired private CustomerRepository customerRepository;
+
+  @BeforeEach
+  void setUp() {
+    changeEventRepository.deleteAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    customerRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("create and delete: events in order, payload only for the create")
+  void mutationsAreRecorded() {
+    CustomerResponseDTO created = customerService.create(request("feed1"));
+    customerService.delete(created.id());
+
+    ChangeFeedResponseDTO feed = changeEventService.readSince(0, 100);
+
+    assertThat(feed.events())
+        .extracting(ChangeEventResponseDTO::changeType)
+        .containsExactly(ChangeType.CREATED, ChangeType.DELETED);
+    ChangeEventResponseDTO first = feed.events().get(0);
+    assertThat(first.aggregateType()).isEqualTo(AggregateType.CUSTOMER);
+    assertThat(first.aggregateId()).isEqualTo(created.id());
+    assertThat(first.payload().get("email").asText()).isEqualTo("feed1@example.com");
+    assertThat(feed.events().get(1).payload()).isNull();
+    assertThat(feed.nextCursor()).isEqualTo(feed.events().get(1).id());
+    assertThat(changeEventService.readSince(feed.nextCursor(), 100).events()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("bulk delete: one tombstone per customer and address")
+  void bulkDeleteWritesTombstones() {
+    CustomerResponseDTO a = customerService.create(request("feed2"));
+    CustomerResponseDTO b = customerService.create(request("feed3"));
+    long cursor = changeEventService.readSince(0, 100).nextCursor();
+
+    customerService.bulkDeleteByIds(List.of(a.id(), b.id()));
+
+    List<ChangeEventResponseDTO> events = changeEventService.readSince(cursor, 100).events();
+    assertThat(events).hasSize(4).allMatch(e -> e.changeType() == ChangeType.DELETED);
+    assertThat(events)
+        .filteredOn(e -> e.aggregateType() == AggregateType.CUSTOMER)
+        .extracting(ChangeEventResponseDTO::aggregateId)
+        .containsExactlyInAnyOrder(a.id(), b.id());
+  }
+
+  @Test
+  @DisplayName("record outside a transaction is rejected")
+  void recordRequiresTransaction() {
+    assertThatThrownBy(
+            () -> changeEventService.record(AggregateType.USER, 1L, ChangeType.DELETED, null))
+        .isInstanceOf(IllegalTransactionStateException.class);
+  }
+
+  @Test
+  @DisplayName("poll: completes as soon as a change is committed")
+  void pollWakesUpOnCommit() throws Exception {
+    CompletableFuture<ChangeFeedResponseDTO> pending =
+        changeEventService.poll(0, 100, Duration.ofSeconds(30));
+    assertThat(pending).isNotDone();
+
+    customerService.create(request("feed4"));
+
+    ChangeFeedResponseDTO feed = pending.get(5, TimeUnit.SECONDS);
+    assertThat(feed.events()).hasSize(1);
+  }
+
+  private static CustomerRequestDTO request(String key) {
+    return new CustomerRequestDTO(
+        "Feed " + key,
+        key + "@example.com",
+        String.format("%011d", Math.abs(key.hashCode())),
+        "11999999999",
+        LocalDate.of(1990, 1, 1),
+        new AddressRequestDTO("01001000", "1", null, "Rua A", "Centro", "São Paulo", "SP"));
+  }
+}
@@ -0,0 +1,155 @@
+package com.neoaplicacoes.customerapi.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.exception.ServiceUnavailableException;
+import com.neoaplicacoes.customerapi.model.enums.ChangeType;
+import com.neoaplicacoes.customerapi.service.CustomerChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Unit tests for CustomerPushServiceImpl. The sender pool is a mock that never runs the drains, so
+ * queued events stay queued and the tests see exactly what fan-out put in each queue.
+ */
+@ActiveProfiles("test")
+class CustomerPushServiceImplTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private CustomerPushServiceImpl pushService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    pushService =
+        new CustomerPushServiceImpl(
+            new ObjectMapper(),
+            meterRegistry,
+            2,
+            3,
+            Duration.ofMinutes(1),
+            mock(ExecutorService.class));
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.counter("customer_push.events", "outcome", outcome).count();
+  }
+
+  private static CustomerChangedEvent updated(Long id, String state, String city) {
+    return new CustomerChangedEvent(
+        id,
+        ChangeType.UPDATED,
+        Map.of("id", id),
+        List.of(new CustomerChangedEvent.Location(state, city)));
+  }
+
+  @Test
+  void subscribe_validatesFilters() {
+    assertThatThrownBy(() -> pushService.subscribe(Set.of(), null, null))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> pushService.subscribe(null, null, "Campinas"))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  void subscribe_rejectsAboveConnectionLimit() {
+    pushService.subscribe(Set.of(1L), null, null);
+    pushService.subscribe(Set.of(2L), null, null);
+    pushService.subscribe(Set.of(3L), null, null);
+
+    assertThatThrownBy(() -> pushService.subscribe(Set.of(4L), null, null))
+        .isInstanceOf(ServiceUnavailableException.class);
+    assertThat(pushService.connections()).isEqualTo(3);
+  }
+
+  @Test
+  void subscribe_concurrentCallsNeverExceedLimit() throws Exception {
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> calls = new ArrayList<>();
+      for (long id = 0; id < 16; id++) {
+        Set<Long> ids = Set.of(id);
+        calls.add(callers.submit(() -> pushService.subscribe(ids, null, null)));
+      }
+      int rejected = 0;
+      for (Future<?> call : calls) {
+        try {
+          call.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+          assertThat(e.getCause()).isInstanceOf(ServiceUnavailableException.class);
+          rejected++;
+        }
+      }
+      assertThat(rejected).isEqualTo(13);
+      assertThat(pushService.connections()).isEqualTo(3);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  void subscribe_closedConnectionFreesItsSlot() {
+    pushService.subscribe(Set.of(1L), null, null);
+    pushService.subscribe(Set.of(2L), null, null);
+    pushService.subscribe(Set.of(3L), null, null);
+
+    // Capacity 2: the second event overflows the queue and closes the subscription
+    pushService.onCustomerChanged(updated(1L, "sp", "sao paulo"));
+    pushService.onCustomerChanged(updated(1L, "sp", "sao paulo"));
+    assertThat(pushService.connections()).isEqualTo(2);
+
+    pushService.subscribe(Set.of(4L), null, null);
+    assertThat(pushService.connections()).isEqualTo(3);
+  }
+
+  @Test
+  void onCustomerChanged_deliversOnlyToMatchingSubscriptions() {
+    pushService.subscribe(Set.of(1L), null, null);
+    pushService.subscribe(null, "SP", "Campinas");
+    pushService.subscribe(null, "RJ", null);
+    double subscribed = count("queued");
+
+    // Matches the id subscription only: same state as the second one, but another city
+    pushService.onCustomerChanged(updated(1L, "sp", "sao paulo"));
+    assertThat(count("queued")).isEqualTo(subscribed + 1);
+
+    // Subscription filters are normalized like the stored state/city keys
+    pushService.onCustomerChanged(updated(2L, "sp", "campinas"));
+    pushService.onCustomerChanged(updated(3L, "rj", "niteroi"));
+    assertThat(count("queued")).isEqualTo(subscribed + 3);
+    assertThat(count("dropped")).isZero();
+  }
+
+  @Test
+  void onCustomerChanged_closesSlowSubscription() {
+    pushService.subscribe(Set.of(1L), null, null);
+
+    // Capacity 2: the "subscribed" comment and one event fill the queue
+    pushService.onCustomerChanged(updated(1L, "sp", "sao paulo"));
+    assertThat(pushService.connections()).isEqualTo(1);
+
+    pushService.onCustomerChanged(updated(1L, "sp", "sao paulo"));
+    assertThat(count("dropped")).isEqualTo(1);
+    assertThat(pushService.connections()).isZero();
+
+    // Nothing is queued for a closed subscription
+    pushService.onCustomerChanged(updated(1L, "sp", "sao paulo"));
+    assertThat(count("dropped")).isEqualTo(1);
+  }
+}
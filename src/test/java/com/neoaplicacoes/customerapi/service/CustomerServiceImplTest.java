@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
 import com.neoaplicacoes.customerapi.mapper.CustomerMapper;
 import com.neoaplicacoes.customerapi.model.dto.request.AddressRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
@@ -11,12 +12,22 @@ import com.neoaplicacoes.customerapi.model.dto.response.AddressResponseDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
 import com.neoaplicacoes.customerapi.model.entity.Address;
 import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.repository.AddressRepository;
 import com.neoaplicacoes.customerapi.repository.CustomerRepository;
 import com.neoaplicacoes.customerapi.service.impl.CustomerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -24,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -37,8 +49,18 @@ class CustomerServiceImplTest {
 
   @Mock private CustomerRepository repository;
 
+  @Mock private AddressRepository addressRepository;
+
   @Mock private CustomerMapper mapper;
 
+  @Mock private CustomerStatisticsService statisticsService;
+
+  @Mock private ChangeEventService changeEventService;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @InjectMocks private CustomerServiceImpl service;
 
   private CustomerRequestDTO request;
@@ -98,7 +120,8 @@ class CustomerServiceImplTest {
             LocalDate.of(1990, 1, 1), // birthDate
             34, // age (will be ignored in assertions that do not care)
             new AddressResponseDTO(
-                1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP"));
+                1L, "12345678", "100", "Apt 10", "Main St", "Centro", "São Paulo", "SP", null),
+            null);
 
     // Generic stub: whenever mapper.toDto(any Customer) is called, build a DTO mirroring the
     // entity.
@@ -119,7 +142,8 @@ class CustomerServiceImplTest {
                           a.getStreet(),
                           a.getNeighborhood(),
                           a.getCity(),
-                          a.getState());
+                          a.getState(),
+                          null);
               return new CustomerResponseDTO(
                   c.getId(),
                   c.getName(),
@@ -128,7 +152,8 @@ class CustomerServiceImplTest {
                   c.getPhone(),
                   c.getBirthDate(),
                   c.getAge(),
-                  aDto);
+                  aDto,
+                  null);
             });
     lenient()
         .when(mapper.toDtoList(anyList()))
@@ -137,6 +162,20 @@ class CustomerServiceImplTest {
               List<Customer> list = inv.getArgument(0);
               return list.stream().map(c -> mapper.toDto(c)).toList();
             });
+    lenient()
+        .when(mapper.toDtoList(anyList(), anyMap()))
+        .thenAnswer(
+            inv -> {
+              List<Customer> list = inv.getArgument(0);
+              return list.stream().map(c -> mapper.toDto(c)).toList();
+            });
+    lenient()
+        .when(mapper.toDtoPage(any(), anyMap()))
+        .thenAnswer(
+            inv -> {
+              Page<Customer> page = inv.getArgument(0);
+              return page.map(c -> mapper.toDto(c));
+            });
   }
 
   // ---------- CRUD ----------
@@ -153,6 +192,7 @@ class CustomerServiceImplTest {
     verify(mapper).toEntity(request);
     verify(repository).save(entity);
     verify(mapper).toDto(saved);
+    verify(statisticsService).recordCreated(saved);
   }
 
   @Test
@@ -165,7 +205,7 @@ class CustomerServiceImplTest {
         new CustomerRequestDTO("Jane", null, null, null, null, addrUpdate);
 
     when(repository.findById(1L)).thenReturn(Optional.of(entity));
-    when(repository.save(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(repository.saveAndFlush(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
 
     CustomerResponseDTO result = service.update(1L, updateReq);
 
@@ -175,7 +215,15 @@ class CustomerServiceImplTest {
     assertThat(result.address().city()).isEqualTo("Rio");
     assertThat(result.address().state()).isEqualTo("RJ");
     verify(repository).findById(1L);
-    verify(repository).save(any(Customer.class));
+    verify(repository).saveAndFlush(any(Customer.class));
+    // Subscribers of the old and of the new location are both notified
+    ArgumentCaptor<CustomerChangedEvent> event =
+        ArgumentCaptor.forClass(CustomerChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().locations())
+        .containsExactly(
+            new CustomerChangedEvent.Location("sp", "sao paulo"),
+            new CustomerChangedEvent.Location("rj", "rio"));
   }
 
   @Test
@@ -195,6 +243,7 @@ class CustomerServiceImplTest {
     when(repository.findById(1L)).thenReturn(Optional.of(entity));
     service.delete(1L);
     verify(repository).delete(entity);
+    verify(statisticsService).recordDeleted(any());
   }
 
   @Test
@@ -222,13 +271,85 @@ class CustomerServiceImplTest {
     assertThatThrownBy(() -> service.getById(2L)).isInstanceOf(EntityNotFoundException.class);
   }
 
+  @Test
+  @DisplayName("getById: concurrent calls for the same id share one query")
+  void getById_coalescesConcurrentCalls() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(repository.findById(1L))
+        .thenAnswer(
+            inv -> {
+              loading.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return Optional.of(entity);
+            });
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      Future<CustomerResponseDTO> first = pool.submit(() -> service.getById(1L));
+      assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+      List<Future<CustomerResponseDTO>> others = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        others.add(pool.submit(() -> service.getById(1L)));
+      }
+      // wait until the three followers have joined the in-flight call
+      await(
+          () ->
+              meterRegistry.counter("singleflight.coalesced", "name", "customer.by-id").count()
+                  == 3);
+      release.countDown();
+
+      CustomerResponseDTO dto = first.get(5, TimeUnit.SECONDS);
+      for (Future<CustomerResponseDTO> other : others) {
+        assertThat(other.get(5, TimeUnit.SECONDS)).isSameAs(dto);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    verify(repository, times(1)).findById(1L);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+
   @Test
   @DisplayName("getAll: should map list to DTO list")
   void getAll_success() {
     when(repository.findAll()).thenReturn(List.of(entity, saved));
     List<CustomerResponseDTO> list = service.getAll();
     assertThat(list).hasSize(2);
-    verify(mapper).toDtoList(anyList());
+    verify(mapper).toDtoList(anyList(), anyMap());
+  }
+
+  // ---------- Batch lookups ----------
+
+  @Test
+  @DisplayName("batchGetByIds: one IN query, input order kept, missing ids reported")
+  void batchGetByIds() {
+    entity.setId(1L);
+    saved.setId(2L);
+    when(repository.findByIdIn(List.of(2L, 9L, 1L))).thenReturn(List.of(entity, saved));
+
+    var result = service.batchGetByIds(List.of(2L, 9L, 1L, 2L));
+
+    assertThat(result.items()).extracting(CustomerResponseDTO::id).containsExactly(2L, 1L);
+    assertThat(result.missing()).containsExactly(9L);
+    verify(repository).findByIdIn(anyCollection());
+  }
+
+  @Test
+  void batchGetByCpfs() {
+    when(repository.findByCpfIn(List.of("12345678901", "00000000000"))).thenReturn(List.of(entity));
+
+    var result = service.batchGetByCpfs(List.of("12345678901", "00000000000"));
+
+    assertThat(result.items()).hasSize(1);
+    assertThat(result.missing()).containsExactly("00000000000");
   }
 
   // ---------- Filtering (unpaged) ----------
@@ -254,24 +375,73 @@ class CustomerServiceImplTest {
 
   @Test
   void getByCity_success() {
-    when(repository.findByAddressCityIgnoreCase("São Paulo")).thenReturn(List.of(entity));
+    when(repository.findByAddressCityNormalized("sao paulo")).thenReturn(List.of(entity));
     assertThat(service.getByCity("São Paulo")).hasSize(1);
   }
 
   @Test
   void getByState_success() {
-    when(repository.findByAddressStateIgnoreCase("SP")).thenReturn(List.of(entity));
+    when(repository.findByAddressStateNormalized("sp")).thenReturn(List.of(entity));
     assertThat(service.getByState("SP")).hasSize(1);
   }
 
   @Test
   void getByCityAndNeighborhood_success() {
-    when(repository.findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
-            "São Paulo", "Centro"))
+    when(repository.findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+            "sao paulo", "centro"))
         .thenReturn(List.of(entity));
     assertThat(service.getByCityAndNeighborhood("São Paulo", "Centro")).hasSize(1);
   }
 
+  @Test
+  @DisplayName("getByAgeRange: translates the ages into a birth_date range")
+  void getByAgeRange_success() {
+    LocalDate today = LocalDate.now();
+    when(repository.findByBirthDateBetween(today.minusYears(31).plusDays(1), today.minusYears(18)))
+        .thenReturn(List.of(entity));
+    assertThat(service.getByAgeRange(18, 30)).hasSize(1);
+  }
+
+  @Test
+  void getByAgeRange_openBounds() {
+    LocalDate today = LocalDate.now();
+    when(repository.findByBirthDateLessThanEqual(today.minusYears(65))).thenReturn(List.of(entity));
+    when(repository.findByBirthDateGreaterThanEqual(today.minusYears(18).plusDays(1)))
+        .thenReturn(List.of(entity, saved));
+    assertThat(service.getByAgeRange(65, null)).hasSize(1);
+    assertThat(service.getByAgeRange(null, 17)).hasSize(2);
+  }
+
+  @Test
+  void getByAgeRange_invalid() {
+    assertThatThrownBy(() -> service.getByAgeRange(null, null))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> service.getByAgeRange(40, 30)).isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> service.getByAgeRange(null, Integer.MAX_VALUE))
+        .isInstanceOf(BadRequestException.class);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("list mapping: addresses are resolved with one findAllById call")
+  void getAll_batchLoadsAddresses() {
+    entity.setAddressId(10L);
+    saved.setAddressId(11L);
+    Customer third = new Customer();
+    third.setAddressId(10L);
+    Address a10 = new Address();
+    a10.setId(10L);
+    Address a11 = new Address();
+    a11.setId(11L);
+    when(repository.findAll()).thenReturn(List.of(entity, saved, third));
+    when(addressRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(a10, a11));
+
+    service.getAll();
+
+    verify(addressRepository, times(1)).findAllById(anyIterable());
+    verify(mapper).toDtoList(anyList(), eq(Map.of(10L, a10, 11L, a11)));
+  }
+
   // ---------- Pagination ----------
 
   @Nested
@@ -313,24 +483,33 @@ class CustomerServiceImplTest {
 
     @Test
     void getByCityPaged_success() {
-      when(repository.findByAddressCityIgnoreCase("São Paulo", pageable)).thenReturn(page);
+      when(repository.findByAddressCityNormalized("sao paulo", pageable)).thenReturn(page);
       assertThat(service.getByCityPaged("São Paulo", pageable).getContent()).hasSize(1);
     }
 
     @Test
     void getByStatePaged_success() {
-      when(repository.findByAddressStateIgnoreCase("SP", pageable)).thenReturn(page);
+      when(repository.findByAddressStateNormalized("sp", pageable)).thenReturn(page);
       assertThat(service.getByStatePaged("SP", pageable).getContent()).hasSize(1);
     }
 
     @Test
     void getByCityAndNeighborhoodPaged_success() {
-      when(repository.findByAddressCityIgnoreCaseAndAddressNeighborhoodIgnoreCase(
-              "São Paulo", "Centro", pageable))
+      when(repository.findByAddressCityNormalizedAndAddressNeighborhoodNormalized(
+              "sao paulo", "centro", pageable))
           .thenReturn(page);
       assertThat(
               service.getByCityAndNeighborhoodPaged("São Paulo", "Centro", pageable).getContent())
           .hasSize(1);
     }
+
+    @Test
+    void getByAgeRangePaged_success() {
+      LocalDate today = LocalDate.now();
+      when(repository.findByBirthDateBetween(
+              today.minusYears(41).plusDays(1), today.minusYears(30), pageable))
+          .thenReturn(page);
+      assertThat(service.getByAgeRangePaged(30, 40, pageable).getContent()).hasSize(1);
+    }
   }
 }
@@ -0,0 +1,211 @@
+package com.neoaplicacoes.customerapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.exception.PreconditionFailedException;
+import com.neoaplicacoes.customerapi.model.dto.response.BulkDeleteResponseDTO;
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.repository.AddressRepository;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Checks that mapping customers resolves their addresses in batch: the number of SQL statements
+ * must not grow with the page size. Also checks that a conditional merge patch is written with a
+ * single UPDATE (plus its outbox insert), and that bulk deletes issue a fixed number of statements
+ * per batch.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "bulk-delete.batch-size=16"
+    })
+@ActiveProfiles("test")
+class CustomerServiceQueryCountTest {
+
+  @Autowired private CustomerService service;
+
+  @Autowired private CustomerRepository repository;
+
+  @Autowired private AddressRepository addressRepository;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  // keeps the scheduled reconciliation from issuing queries during the measurement
+  @MockitoBean private CustomerStatisticsService statisticsService;
+
+  private Statistics statistics;
+
+  private Customer first;
+
+  @BeforeEach
+  void setUp() {
+    List<Customer> customers = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      customers.add(customer(i));
+    }
+    first = repository.saveAll(customers).get(0);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @AfterEach
+  void tearDown() {
+    repository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("getAllPaged: statements stay flat as the page grows")
+  void pagedMappingIsBatched() {
+    long small = statementsFor(5);
+    long large = statementsFor(40);
+
+    assertThat(large).isEqualTo(small);
+    assertThat(large).isLessThanOrEqualTo(3); // page + count + addresses
+  }
+
+  @Test
+  @DisplayName("patch with If-Match: a single UPDATE and the change event, no SELECT")
+  void conditionalPatchIsSingleStatement() throws Exception {
+    statistics.clear();
+    PatchResult<CustomerResponseDTO> result =
+        service.patch(first.getId(), first.getVersion(), json("{\"name\":\"Renamed\"}"));
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(result.body()).isNull();
+    assertThat(result.version()).isEqualTo(first.getVersion() + 1);
+    Customer reloaded = repository.findById(first.getId()).orElseThrow();
+    assertThat(reloaded.getName()).isEqualTo("Renamed");
+    assertThat(reloaded.getVersion()).isEqualTo(first.getVersion() + 1);
+  }
+
+  @Test
+  @DisplayName("patch with stale If-Match: 412 and the row is left untouched")
+  void conditionalPatchRejectsStaleVersion() throws Exception {
+    JsonNode patch = json("{\"name\":\"Renamed\"}");
+    long stale = first.getVersion() + 1;
+
+    assertThatThrownBy(() -> service.patch(first.getId(), stale, patch))
+        .isInstanceOf(PreconditionFailedException.class);
+    assertThat(repository.findById(first.getId()).orElseThrow().getName())
+        .isEqualTo(first.getName());
+  }
+
+  @Test
+  @DisplayName("patch with If-Match on a soft-deleted customer: not found")
+  void conditionalPatchSkipsDeletedRows() throws Exception {
+    JsonNode patch = json("{\"name\":\"Renamed\"}");
+    service.delete(first.getId());
+    long version = first.getVersion();
+
+    assertThatThrownBy(() -> service.patch(first.getId(), version, patch))
+        .isInstanceOf(EntityNotFoundException.class);
+  }
+
+  @Test
+  @DisplayName("patch without If-Match: merges nested address and returns the new state")
+  void patchWithoutVersionMergesAddress() throws Exception {
+    PatchResult<CustomerResponseDTO> result =
+        service.patch(
+            first.getId(), null, json("{\"phone\":null,\"address\":{\"city\":\"Campinas\"}}"));
+
+    assertThat(result.body().phone()).isNull();
+    assertThat(result.body().address().city()).isEqualTo("Campinas");
+    assertThat(result.body().address().street()).isEqualTo("Rua 0");
+    assertThat(result.version()).isEqualTo(first.getVersion() + 1);
+  }
+
+  @Test
+  @DisplayName("bulk delete by location: set-based batches, addresses removed with customers")
+  void bulkDeleteByLocationIsBatched() {
+    statistics.clear();
+    BulkDeleteResponseDTO result = service.bulkDeleteByCriteria("SP", "São Paulo", null);
+
+    // 40 rows in batches of 16; each batch selects ids and address ids, inserts the customer and
+    // address change events and runs two UPDATEs, plus the final select that finds nothing
+    assertThat(result.batches()).isEqualTo(3);
+    assertThat(result.customersDeleted()).isEqualTo(40);
+    assertThat(result.addressesDeleted()).isEqualTo(40);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 * 6 + 1);
+    assertThat(repository.count()).isZero();
+    assertThat(addressRepository.count()).isZero();
+  }
+
+  @Test
+  @DisplayName("bulk delete created before: customers created after the cut-off are kept")
+  void bulkDeleteCreatedBefore() {
+    BulkDeleteResponseDTO result =
+        service.bulkDeleteByCriteria(null, null, LocalDateTime.now().minusDays(1));
+
+    assertThat(result.customersDeleted()).isZero();
+    assertThat(result.batches()).isZero();
+    assertThat(repository.count()).isEqualTo(40);
+  }
+
+  @Test
+  @DisplayName("bulk delete by ids: unknown ids are ignored")
+  void bulkDeleteByIds() {
+    BulkDeleteResponseDTO result = service.bulkDeleteByIds(List.of(first.getId(), -1L));
+
+    assertThat(result.customersDeleted()).isEqualTo(1);
+    assertThat(result.addressesDeleted()).isEqualTo(1);
+    assertThat(result.batches()).isEqualTo(1);
+    assertThat(repository.count()).isEqualTo(39);
+    assertThat(addressRepository.count()).isEqualTo(39);
+  }
+
+  private JsonNode json(String document) throws Exception {
+    return objectMapper.readTree(document);
+  }
+
+  private long statementsFor(int size) {
+    statistics.clear();
+    Page<CustomerResponseDTO> page = service.getAllPaged(PageRequest.of(0, size));
+    assertThat(page.getContent())
+        .hasSize(size)
+        .allSatisfy(c -> assertThat(c.address()).isNotNull());
+    return statistics.getPrepareStatementCount();
+  }
+
+  private static Customer customer(int i) {
+    Address address = new Address();
+    address.setCep("01001000");
+    address.setNumber(String.valueOf(i));
+    address.setStreet("Rua " + i);
+    address.setNeighborhood("Centro");
+    address.setCity("São Paulo");
+    address.setState("SP");
+
+    Customer customer = new Customer();
+    customer.setName("Customer " + i);
+    customer.setEmail("query" + i + "@example.com");
+    customer.setCpf(String.format("%011d", 90000 + i));
+    customer.setPhone("11999999999");
+    customer.setBirthDate(LocalDate.of(1990, 1, 1));
+    customer.setAddress(address);
+    return customer;
+  }
+}
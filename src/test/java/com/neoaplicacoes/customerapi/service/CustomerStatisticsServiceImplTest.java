@@ -0,0 +1,175 @@
+package com.neoaplicacoes.customerapi.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.neoaplicacoes.customerapi.model.dto.response.CustomerStatsResponseDTO;
+import com.neoaplicacoes.customerapi.model.entity.Address;
+import com.neoaplicacoes.customerapi.model.entity.Customer;
+import com.neoaplicacoes.customerapi.repository.CustomerRepository;
+import com.neoaplicacoes.customerapi.repository.projection.GroupCount;
+import com.neoaplicacoes.customerapi.repository.projection.ResidentRow;
+import com.neoaplicacoes.customerapi.service.impl.CustomerStatisticsServiceImpl;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for CustomerStatisticsServiceImpl. The repository is mocked for reconciliation. */
+@ExtendWith(MockitoExtension.class)
+class CustomerStatisticsServiceImplTest {
+
+  @Mock private CustomerRepository repository;
+
+  @InjectMocks private CustomerStatisticsServiceImpl service;
+
+  private Customer paulista;
+
+  @BeforeEach
+  void setUp() {
+    paulista = customer("São Paulo", "SP", LocalDate.now().minusYears(30));
+  }
+
+  @Test
+  @DisplayName("recordCreated: increments state, city and age bracket")
+  void recordCreated() {
+    service.recordCreated(paulista);
+    service.recordCreated(customer("Rio de Janeiro", "RJ", LocalDate.now().minusYears(70)));
+
+    CustomerStatsResponseDTO stats = service.getStats();
+
+    assertThat(stats.total()).isEqualTo(2);
+    assertThat(stats.byState()).containsEntry("SP", 1L).containsEntry("RJ", 1L);
+    assertThat(stats.byCity().get("SP")).containsEntry("sao paulo", 1L);
+    assertThat(stats.byAgeBracket()).containsEntry("25-34", 1L).containsEntry("65+", 1L);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("recordUpdated: moves the customer to its new groups")
+  void recordUpdated() {
+    service.recordCreated(paulista);
+    CustomerStatisticsService.Key before = service.keyOf(paulista);
+
+    paulista.getAddress().setCity("Curitiba");
+    paulista.getAddress().setState("PR");
+    service.recordUpdated(before, paulista);
+
+    CustomerStatsResponseDTO stats = service.getStats();
+    assertThat(stats.total()).isEqualTo(1);
+    assertThat(stats.byState()).containsOnlyKeys("PR");
+    assertThat(stats.byCity()).containsOnlyKeys("PR");
+  }
+
+  @Test
+  @DisplayName("recordDeleted: empty groups disappear from the snapshot")
+  void recordDeleted() {
+    service.recordCreated(paulista);
+    service.recordDeleted(service.keyOf(paulista));
+
+    CustomerStatsResponseDTO stats = service.getStats();
+    assertThat(stats.total()).isZero();
+    assertThat(stats.byState()).isEmpty();
+    assertThat(stats.byCity()).isEmpty();
+    assertThat(stats.byAgeBracket()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("recordAddressMoved: customers of a moved address follow it")
+  void recordAddressMoved() {
+    service.recordCreated(paulista);
+    service.recordCreated(customer("São Paulo", "SP", LocalDate.now().minusYears(70)));
+    when(repository.findResidentsByAddressId(1L))
+        .thenReturn(
+            List.of(
+                resident("sp", "sao paulo", LocalDate.now().minusYears(30)),
+                resident("sp", "sao paulo", LocalDate.now().minusYears(70))));
+
+    List<CustomerStatisticsService.Key> before = service.keysAtAddress(1L);
+    service.recordAddressMoved(before, null, "campinas");
+
+    CustomerStatsResponseDTO stats = service.getStats();
+    assertThat(stats.total()).isEqualTo(2);
+    assertThat(stats.byState()).containsOnly(entry("SP", 2L));
+    assertThat(stats.byCity().get("SP")).containsOnly(entry("campinas", 2L));
+    assertThat(stats.byAgeBracket()).containsEntry("25-34", 1L).containsEntry("65+", 1L);
+  }
+
+  @Test
+  @DisplayName("reconcile: replaces counters with the GROUP BY results")
+  void reconcile() {
+    service.recordCreated(paulista); // drift that reconcile must discard
+
+    when(repository.countGroupedByState()).thenReturn(List.of(row("sp", null, 5)));
+    when(repository.countGroupedByStateAndCity())
+        .thenReturn(List.of(row("sp", "sao paulo", 4), row("sp", "campinas", 1)));
+    when(repository.countByBirthDateBetween(any(), any())).thenReturn(1L);
+    when(repository.countByBirthDateLessThanEqual(any())).thenReturn(0L);
+
+    service.reconcile();
+
+    CustomerStatsResponseDTO stats = service.getStats();
+    assertThat(stats.total()).isEqualTo(5);
+    assertThat(stats.byState()).containsOnly(entry("SP", 5L));
+    assertThat(stats.byCity().get("SP"))
+        .containsOnly(entry("sao paulo", 4L), entry("campinas", 1L));
+    assertThat(stats.byAgeBracket()).hasSize(6).doesNotContainKey("65+");
+    assertThat(stats.reconciledAt()).isNotNull();
+  }
+
+  private static Customer customer(String city, String state, LocalDate birthDate) {
+    Address address = new Address();
+    address.setCity(city);
+    address.setState(state);
+    address.setNeighborhood("Centro");
+
+    Customer customer = new Customer();
+    customer.setBirthDate(birthDate);
+    customer.setAddress(address);
+    return customer;
+  }
+
+  private static ResidentRow resident(String state, String city, LocalDate birthDate) {
+    return new ResidentRow() {
+      @Override
+      public String getState() {
+        return state;
+      }
+
+      @Override
+      public String getCity() {
+        return city;
+      }
+
+      @Override
+      public LocalDate getBirthDate() {
+        return birthDate;
+      }
+    };
+  }
+
+  private static GroupCount row(String state, String city, long total) {
+    return new GroupCount() {
+      @Override
+      public String getState() {
+        return state;
+      }
+
+      @Override
+      public String getCity() {
+        return city;
+      }
+
+      @Override
+      public long getTotal() {
+        return total;
+      }
+    };
+  }
+}
@@ -10,6 +10,7 @@ import com.neoaplicacoes.customerapi.model.dto.request.UserRequestDTO;
 import com.neoaplicacoes.customerapi.model.dto.response.UserResponseDTO;
 import com.neoaplicacoes.customerapi.model.entity.User;
 import com.neoaplicacoes.customerapi.repository.UserRepository;
+import com.neoaplicacoes.customerapi.service.ChangeEventService;
 import jakarta.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.Optional;
@@ -34,7 +35,9 @@ class UserServiceImplTest {
     userRepository = mock(UserRepository.class);
     userMapper = mock(UserMapper.class);
     passwordEncoder = mock(PasswordEncoder.class);
-    userService = new UserServiceImpl(userRepository, userMapper, passwordEncoder);
+    userService =
+        new UserServiceImpl(
+            userRepository, userMapper, passwordEncoder, mock(ChangeEventService.class));
   }
 
   @Test
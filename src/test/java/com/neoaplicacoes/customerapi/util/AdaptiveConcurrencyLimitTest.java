@@ -0,0 +1,81 @@
+package com.neoaplicacoes.customerapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.neoaplicacoes.customerapi.util.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private SimpleMeterRegistry registry;
+  private AdaptiveConcurrencyLimit limit;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    limit =
+        new AdaptiveConcurrencyLimit(
+            10, 2, 100, Map.of(Priority.NORMAL, 0.8, Priority.BULK, 0.5), registry);
+  }
+
+  // Keeps the limit fully used and completes one request with the given latency
+  private void saturatedSample(long latencyNanos) {
+    while (limit.tryAcquire(Priority.CRITICAL)) {}
+    limit.release(latencyNanos);
+    while (limit.inFlight() > 0) {
+      limit.release();
+    }
+  }
+
+  @Test
+  void tryAcquire_shedsBulkBeforeCritical() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(limit.tryAcquire(Priority.BULK)).isTrue();
+    }
+    assertThat(limit.tryAcquire(Priority.BULK)).isFalse();
+    assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+    assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+    assertThat(limit.tryAcquire(Priority.NORMAL)).isTrue();
+    assertThat(limit.tryAcquire(Priority.NORMAL)).isFalse();
+    assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+    assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+    assertThat(limit.tryAcquire(Priority.CRITICAL)).isFalse();
+
+    assertThat(
+            registry
+                .counter("concurrency_limit.requests", "priority", "bulk", "outcome", "rejected")
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void limit_growsWhileLatencyStaysAtBaselineAndShrinksWhenItRises() {
+    for (int i = 0; i < 50; i++) {
+      saturatedSample(FAST);
+    }
+    double grown = limit.limit();
+    assertThat(grown).isGreaterThan(50);
+
+    for (int i = 0; i < 20; i++) {
+      saturatedSample(SLOW);
+    }
+    assertThat(limit.limit()).isLessThan(grown / 2);
+    assertThat(limit.limit()).isGreaterThanOrEqualTo(2);
+  }
+
+  @Test
+  void limit_doesNotGrowWhenMostlyIdle() {
+    for (int i = 0; i < 50; i++) {
+      assertThat(limit.tryAcquire(Priority.CRITICAL)).isTrue();
+      limit.release(FAST);
+    }
+    assertThat(limit.limit()).isEqualTo(10);
+  }
+}
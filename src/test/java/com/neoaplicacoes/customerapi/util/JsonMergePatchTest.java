@@ -0,0 +1,85 @@
+package com.neoaplicacoes.customerapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import com.neoaplicacoes.customerapi.exception.PreconditionFailedException;
+import com.neoaplicacoes.customerapi.model.dto.request.CustomerRequestDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class JsonMergePatchTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private JsonNode json(String document) throws Exception {
+    return mapper.readTree(document.replace('\'', '"'));
+  }
+
+  // Test cases from RFC 7396, appendix A
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "{'a':'b'}|{'a':'c'}|{'a':'c'}",
+        "{'a':'b'}|{'b':'c'}|{'a':'b','b':'c'}",
+        "{'a':'b'}|{'a':null}|{}",
+        "{'a':'b','b':'c'}|{'a':null}|{'b':'c'}",
+        "{'a':['b']}|{'a':'c'}|{'a':'c'}",
+        "{'a':'c'}|{'a':['b']}|{'a':['b']}",
+        "{'a':{'b':'c'}}|{'a':{'b':'d','c':null}}|{'a':{'b':'d'}}",
+        "{'a':[{'b':'c'}]}|{'a':[1]}|{'a':[1]}",
+        "['a','b']|['c','d']|['c','d']",
+        "{'a':'b'}|['c']|['c']",
+        "{'e':null}|{'a':1}|{'e':null,'a':1}",
+        "[1,2]|{'a':'b','c':null}|{'a':'b'}",
+        "{}|{'a':{'bb':{'ccc':null}}}|{'a':{'bb':{}}}"
+      })
+  void rfcExamples(String target, String patch, String expected) throws Exception {
+    assertThat(JsonMergePatch.apply(json(target), json(patch))).isEqualTo(json(expected));
+  }
+
+  @Test
+  @DisplayName("apply does not modify the target")
+  void targetIsNotModified() throws Exception {
+    JsonNode target = json("{'a':{'b':'c'}}");
+    JsonMergePatch.apply(target, json("{'a':{'b':null}}"));
+    assertThat(target).isEqualTo(json("{'a':{'b':'c'}}"));
+  }
+
+  @Test
+  @DisplayName("unknown members are rejected, also inside nested objects")
+  void unknownFieldsAreRejected() throws Exception {
+    JsonMergePatch.requireKnownFields(
+        json("{'name':'x','address':{'city':'y'}}"), CustomerRequestDTO.class);
+
+    assertThatThrownBy(
+            () -> JsonMergePatch.requireKnownFields(json("{'age':3}"), CustomerRequestDTO.class))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessageContaining("age");
+    assertThatThrownBy(
+            () ->
+                JsonMergePatch.requireKnownFields(
+                    json("{'address':{'country':'BR'}}"), CustomerRequestDTO.class))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessageContaining("country");
+  }
+
+  @Test
+  @DisplayName("ETags round-trip strong, weak and wildcard tags")
+  void etags() {
+    assertThat(ETags.of(7L)).isEqualTo("\"7\"");
+    assertThat(ETags.of(null)).isNull();
+    assertThat(ETags.parseVersion("\"7\"")).isEqualTo(7L);
+    assertThat(ETags.parseVersion("W/\"7\"")).isEqualTo(7L);
+    assertThat(ETags.parseVersion("*")).isNull();
+    assertThat(ETags.parseVersion(null)).isNull();
+    assertThatThrownBy(() -> ETags.parseVersion("\"abc\""))
+        .isInstanceOf(PreconditionFailedException.class);
+  }
+}
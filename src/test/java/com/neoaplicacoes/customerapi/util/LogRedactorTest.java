@@ -0,0 +1,29 @@
+package com.neoaplicacoes.customerapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LogRedactorTest {
+
+  @Test
+  void masksCpfsFormattedOrBare() {
+    assertThat(LogRedactor.redact("cpf 123.456.789-09 ok")).isEqualTo("cpf ***.***.***-** ok");
+    assertThat(LogRedactor.redact("12345678909")).isEqualTo("***.***.***-**");
+  }
+
+  @Test
+  void masksEmailsKeepingTheDomain() {
+    assertThat(LogRedactor.redact("maria.silva+x@mail.example.com"))
+        .isEqualTo("***@mail.example.com");
+  }
+
+  @Test
+  void leavesOtherValuesAlone() {
+    assertThat(LogRedactor.redact("Campinas")).isEqualTo("Campinas");
+    // Longer digit runs (ids, phone numbers with DDI) are not CPFs
+    assertThat(LogRedactor.redact("5519912345678")).isEqualTo("5519912345678");
+    assertThat(LogRedactor.redact((Object) 42L)).isEqualTo("42");
+    assertThat(LogRedactor.redact((Object) null)).isEqualTo("null");
+  }
+}
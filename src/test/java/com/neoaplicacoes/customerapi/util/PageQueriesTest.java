@@ -0,0 +1,58 @@
+package com.neoaplicacoes.customerapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+class PageQueriesTest {
+
+  private final Pageable pageable = PageRequest.of(1, 2, Sort.by("name"));
+
+  @Test
+  @DisplayName("a page request without total runs the slice; the page still knows the next one")
+  void withoutTotalSkipsCount() {
+    Pageable uncounted = PageQueries.withoutTotal(pageable);
+
+    Page<String> page =
+        PageQueries.page(
+            uncounted,
+            p -> fail("count query should not run"),
+            p -> new SliceImpl<>(List.of("c", "d"), p, true));
+
+    assertThat(uncounted)
+        .extracting(Pageable::getPageNumber, Pageable::getPageSize, Pageable::getSort)
+        .containsExactly(1, 2, Sort.by("name"));
+    assertThat(page.getContent()).containsExactly("c", "d");
+    assertThat(page.hasNext()).isTrue();
+    assertThat(page.getTotalElements()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("any other page request runs the count")
+  void plainPageRequestCounts() {
+    Page<String> counted = new PageImpl<>(List.of("c"), pageable, 3);
+
+    assertThat(PageQueries.page(pageable, p -> counted, p -> fail("slice"))).isSameAs(counted);
+    assertThat(
+            PageQueries.page(
+                PageQueries.withoutTotal(pageable).next(), p -> counted, p -> fail("slice")))
+        .isSameAs(counted);
+  }
+
+  @Test
+  @DisplayName("only the compact envelope without withTotal hides the total")
+  void totalShown() {
+    assertThat(PageQueries.totalShown(null, false)).isTrue();
+    assertThat(PageQueries.totalShown("compact", true)).isTrue();
+    assertThat(PageQueries.totalShown("COMPACT", false)).isFalse();
+  }
+}
@@ -0,0 +1,141 @@
+package com.neoaplicacoes.customerapi.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for SingleFlight. */
+class SingleFlightTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final SingleFlight<String, String> flight = new SingleFlight<>("test", registry);
+  private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("concurrent calls for the same key run the loader once")
+  void coalescesSameKey() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(
+          pool.submit(
+              () ->
+                  flight.execute(
+                      "k",
+                      () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return "value";
+                      })));
+    }
+    waitFor(() -> coalesced() == 7);
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(registry.counter("singleflight.calls", "name", "test").count()).isEqualTo(8);
+    assertThat(registry.get("singleflight.inflight").gauge().value()).isZero();
+  }
+
+  @Test
+  @DisplayName("followers receive the leader's exception; the next call loads again")
+  void sharesFailureAndDoesNotCache() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> leader =
+        pool.submit(
+            () ->
+                flight.execute(
+                    "k",
+                    () -> {
+                      await(release);
+                      throw new IllegalStateException("boom");
+                    }));
+    waitFor(() -> registry.get("singleflight.inflight").gauge().value() == 1);
+    Future<String> follower = pool.submit(() -> flight.execute("k", () -> "unused"));
+    waitFor(() -> coalesced() == 1);
+    release.countDown();
+
+    assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class);
+
+    assertThat(flight.execute("k", () -> "fresh")).isEqualTo("fresh");
+  }
+
+  @Test
+  @DisplayName("a follower stops waiting after maxWait and loads on its own")
+  void boundedWait() throws Exception {
+    SingleFlight<String, String> bounded =
+        new SingleFlight<>("bounded", registry, Duration.ofMillis(50));
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> leader =
+        pool.submit(
+            () ->
+                bounded.execute(
+                    "k",
+                    () -> {
+                      await(release);
+                      return "slow";
+                    }));
+    waitFor(
+        () -> registry.get("singleflight.inflight").tag("name", "bounded").gauge().value() == 1);
+
+    assertThat(bounded.execute("k", () -> "own")).isEqualTo("own");
+    assertThat(registry.counter("singleflight.wait-timeouts", "name", "bounded").count())
+        .isEqualTo(1);
+
+    release.countDown();
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+  }
+
+  @Test
+  @DisplayName("different keys do not wait for each other")
+  void differentKeys() {
+    assertThat(flight.execute("a", () -> "1")).isEqualTo("1");
+    assertThat(flight.execute("b", () -> "2")).isEqualTo("2");
+    assertThat(coalesced()).isZero();
+  }
+
+  private double coalesced() {
+    return registry.counter("singleflight.coalesced", "name", "test").count();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.neoaplicacoes.customerapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.neoaplicacoes.customerapi.exception.BadRequestException;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SyncCursorTest {
+
+  @Test
+  @DisplayName("a cursor survives a round trip through its text form")
+  void roundTrip() {
+    SyncCursor cursor = new SyncCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000), 42);
+
+    assertThat(cursor.toString()).isEqualTo("2025-03-01T10:15:30.123456,42");
+    assertThat(SyncCursor.parse(cursor.toString())).isEqualTo(cursor);
+  }
+
+  @Test
+  @DisplayName(
+      "a bare date-time starts before every row at that instant; empty starts at the beginning")
+  void dateTimeAndEmpty() {
+    assertThat(SyncCursor.parse("2025-03-01T00:00:00"))
+        .isEqualTo(new SyncCursor(LocalDateTime.of(2025, 3, 1, 0, 0), 0));
+    assertThat(SyncCursor.parse(null)).isEqualTo(SyncCursor.START);
+    assertThat(SyncCursor.parse(" ")).isEqualTo(SyncCursor.START);
+  }
+
+  @Test
+  @DisplayName("anything else is rejected")
+  void invalid() {
+    assertThatThrownBy(() -> SyncCursor.parse("yesterday")).isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> SyncCursor.parse("2025-03-01T00:00:00,abc"))
+        .isInstanceOf(BadRequestException.class);
+  }
+}
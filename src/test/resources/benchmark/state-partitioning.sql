@@ -0,0 +1,116 @@
+-- State-scoped queries on a list-partitioned addresses table (V9) versus the previous
+-- single table. Run against a scratch database (PostgreSQL 15+):
+--
+--   psql -v rows=2000000 -f src/test/resources/benchmark/state-partitioning.sql
+--
+-- Everything lives in the "bench" schema, which is dropped at the start of each run.
+-- Compare the "Execution Time" and "Buffers" lines of each pair of plans, and the index
+-- sizes listed at the end.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+  \set rows 2000000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench;
+
+-- Population skewed like Brazil's: SP, MG and RJ hold almost half of the rows.
+CREATE TABLE ufs AS
+SELECT uf, weight FROM (VALUES
+    ('sp', 22), ('mg', 10), ('rj', 8), ('ba', 7), ('pr', 6), ('rs', 5), ('pe', 5), ('ce', 4),
+    ('pa', 4), ('sc', 4), ('go', 3), ('ma', 3), ('am', 2), ('es', 2), ('pb', 2), ('rn', 2),
+    ('mt', 2), ('al', 2), ('pi', 2), ('df', 1), ('ms', 1), ('se', 1), ('ro', 1), ('to', 1),
+    ('ac', 1), ('ap', 1), ('rr', 1)) AS t(uf, weight);
+
+CREATE TABLE uf_slots AS
+SELECT row_number() OVER () - 1 AS slot, uf FROM ufs, generate_series(1, weight);
+
+CREATE TABLE source AS
+SELECT g AS id,
+       s.uf AS state_normalized,
+       'cidade ' || (g % 40) AS city_normalized,
+       'bairro ' || (g % 300) AS neighborhood_normalized
+FROM generate_series(1, :rows) AS g
+JOIN uf_slots s ON s.slot = g % (SELECT count(*) FROM uf_slots);
+
+-- Before V9: one table, (state, city, neighborhood) index from V4.
+CREATE TABLE addresses_single (
+    id BIGINT PRIMARY KEY,
+    state_normalized VARCHAR(2) NOT NULL,
+    city_normalized VARCHAR(255) NOT NULL,
+    neighborhood_normalized VARCHAR(255) NOT NULL
+);
+INSERT INTO addresses_single SELECT * FROM source;
+CREATE INDEX single_location
+    ON addresses_single(state_normalized, city_normalized, neighborhood_normalized);
+CREATE INDEX single_city_neighborhood
+    ON addresses_single(city_normalized, neighborhood_normalized);
+
+-- After V9: one partition per state, (city, neighborhood) index per partition.
+CREATE TABLE addresses_partitioned (
+    id BIGINT NOT NULL,
+    state_normalized VARCHAR(2) NOT NULL,
+    city_normalized VARCHAR(255) NOT NULL,
+    neighborhood_normalized VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id, state_normalized)
+) PARTITION BY LIST (state_normalized);
+
+SELECT format('CREATE TABLE addresses_partitioned_%s PARTITION OF addresses_partitioned'
+              ' FOR VALUES IN (%L)', uf, uf)
+FROM ufs \gexec
+
+INSERT INTO addresses_partitioned SELECT * FROM source;
+CREATE INDEX partitioned_city_neighborhood
+    ON addresses_partitioned(city_normalized, neighborhood_normalized);
+
+VACUUM ANALYZE addresses_single;
+VACUUM ANALYZE addresses_partitioned;
+
+-- Generic plans, as a pooled prepared statement would eventually use.
+SET plan_cache_mode = force_generic_plan;
+
+PREPARE single_count_state(text) AS
+    SELECT count(*) FROM addresses_single WHERE state_normalized = $1;
+PREPARE partitioned_count_state(text) AS
+    SELECT count(*) FROM addresses_partitioned WHERE state_normalized = $1;
+
+PREPARE single_state_city(text, text) AS
+    SELECT id FROM addresses_single
+    WHERE state_normalized = $1 AND city_normalized = $2 ORDER BY id LIMIT 500;
+PREPARE partitioned_state_city(text, text) AS
+    SELECT id FROM addresses_partitioned
+    WHERE state_normalized = $1 AND city_normalized = $2 ORDER BY id LIMIT 500;
+
+-- The pre-V9 optional-filter form: no pruning with a generic plan.
+PREPARE partitioned_optional(text, text) AS
+    SELECT id FROM addresses_partitioned
+    WHERE ($1::text IS NULL OR state_normalized = $1)
+      AND ($2::text IS NULL OR city_normalized = $2) ORDER BY id LIMIT 500;
+
+-- Run each once to warm the cache, then measure.
+EXECUTE single_count_state('ac');
+EXECUTE partitioned_count_state('ac');
+
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE single_count_state('sp');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE partitioned_count_state('sp');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE single_count_state('ac');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE partitioned_count_state('ac');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE single_state_city('mg', 'cidade 7');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE partitioned_state_city('mg', 'cidade 7');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE partitioned_optional('mg', 'cidade 7');
+
+-- Index sizes: the single table's indexes versus the largest and smallest partition's.
+SELECT 'single' AS layout, indexrelid::regclass AS index,
+       pg_size_pretty(pg_relation_size(indexrelid)) AS size
+FROM pg_index WHERE indrelid = 'addresses_single'::regclass
+UNION ALL
+SELECT 'partitioned', indexrelid::regclass, pg_size_pretty(pg_relation_size(indexrelid))
+FROM pg_index
+WHERE indrelid IN ('addresses_partitioned_sp'::regclass, 'addresses_partitioned_ac'::regclass)
+ORDER BY 1, 2;
+
+DROP SCHEMA bench CASCADE;